@@ -1,32 +1,94 @@
 package com.quantumfpo.stocks.controller;
+import com.quantumfpo.stocks.model.LoadResult;
 import com.quantumfpo.stocks.model.OptimizeRequest;
+import com.quantumfpo.stocks.model.RiskEstimate;
 import com.quantumfpo.stocks.model.StockRequest;
 import com.quantumfpo.stocks.model.StockData;
-import com.quantumfpo.stocks.service.AlphaVantageService;
+import com.quantumfpo.stocks.model.SyntheticUniverse;
+import com.quantumfpo.stocks.model.VarMethod;
+import com.quantumfpo.stocks.service.DynamicQuboBuilder;
+import com.quantumfpo.stocks.service.HistoricalRiskEngine;
+import com.quantumfpo.stocks.service.JvmPortfolioOptimizer;
+import com.quantumfpo.stocks.service.MonteCarloRiskEngine;
+import com.quantumfpo.stocks.service.PriceMatrixService;
 import com.quantumfpo.stocks.service.PythonApiService;
+import com.quantumfpo.stocks.service.StockLoaderService;
+import com.quantumfpo.stocks.service.SyntheticMarketGenerator;
+import com.quantumfpo.stocks.store.PriceMatrix;
+import com.quantumfpo.stocks.store.PriceMatrix.GapPolicy;
+import com.quantumfpo.stocks.store.PriceStore;
+import com.quantumfpo.stocks.store.PriceView;
+import com.quantumfpo.stocks.store.ReturnStats;
+import com.quantumfpo.stocks.store.SymbolDictionary;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 @RestController
 @RequestMapping("/api/stocks")
-@CrossOrigin(origins = "http://localhost:5173")
+@CrossOrigin(origins = "http://localhost:5173", exposedHeaders = StockController.FAILED_SYMBOLS_HEADER)
 public class StockController {
     private static final Logger logger = LoggerFactory.getLogger(StockController.class);
     private static final String ERROR_KEY = "error";
+    private static final String ENGINE_PYTHON = "python";
+    private static final String ENGINE_JVM = "jvm";
+    static final String FAILED_SYMBOLS_HEADER = "X-Failed-Symbols";
+    // One JSON object per line: no separator between root values, and the response stream is left open
+    private static final JsonFactory NDJSON = new JsonFactory()
+        .setRootValueSeparator(null)
+        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
     
-    private final AlphaVantageService alphaVantageService;
     private final PythonApiService pythonApiService;
-    private final Map<String, List<StockData>> database = new HashMap<>();
-    private List<String> lastLoadedSymbols = new ArrayList<>();
+    private final PriceStore priceStore;
+    private final SymbolDictionary symbolDictionary;
+    private final StockLoaderService stockLoaderService;
+    private final SyntheticMarketGenerator syntheticMarketGenerator;
+    private final int maxSimulatedSymbols;
+    private final int maxSimulatedDays;
+    private final JvmPortfolioOptimizer jvmPortfolioOptimizer;
+    private final MonteCarloRiskEngine monteCarloRiskEngine;
+    private final HistoricalRiskEngine historicalRiskEngine;
+    private final PriceMatrixService priceMatrixService;
+    private final String defaultEngine;
+    private final VarMethod defaultVarMethod;
+    // Replaced wholesale, never mutated, so request threads can read it without locking
+    private volatile List<String> lastLoadedSymbols = Collections.emptyList();
 
-    public StockController(AlphaVantageService alphaVantageService, PythonApiService pythonApiService) {
-        this.alphaVantageService = alphaVantageService;
+    public StockController(PythonApiService pythonApiService, PriceStore priceStore,
+                           StockLoaderService stockLoaderService, SyntheticMarketGenerator syntheticMarketGenerator,
+                           SymbolDictionary symbolDictionary,
+                           @Value("${stocks.simulate.max-symbols:${pricestore.cache.max-symbols:10000}}") int maxSimulatedSymbols,
+                           @Value("${stocks.simulate.max-days:2520}") int maxSimulatedDays,
+                           JvmPortfolioOptimizer jvmPortfolioOptimizer,
+                           MonteCarloRiskEngine monteCarloRiskEngine,
+                           HistoricalRiskEngine historicalRiskEngine,
+                           PriceMatrixService priceMatrixService,
+                           @Value("${optimize.default-engine:python}") String defaultEngine,
+                           @Value("${risk.var.default-method:monte_carlo}") String defaultVarMethod) {
         this.pythonApiService = pythonApiService;
+        this.priceStore = priceStore;
+        this.symbolDictionary = symbolDictionary;
+        this.stockLoaderService = stockLoaderService;
+        this.syntheticMarketGenerator = syntheticMarketGenerator;
+        this.maxSimulatedSymbols = maxSimulatedSymbols;
+        this.maxSimulatedDays = maxSimulatedDays;
+        this.jvmPortfolioOptimizer = jvmPortfolioOptimizer;
+        this.monteCarloRiskEngine = monteCarloRiskEngine;
+        this.historicalRiskEngine = historicalRiskEngine;
+        this.priceMatrixService = priceMatrixService;
+        this.defaultEngine = defaultEngine;
+        this.defaultVarMethod = VarMethod.parse(defaultVarMethod);
     }
 
     @PostMapping("/load")
@@ -40,19 +102,26 @@ public class StockController {
             
             int period = request.getPeriod();
             List<StockData> allData = new ArrayList<>();
-            lastLoadedSymbols = new ArrayList<>(request.getStocks());
+            lastLoadedSymbols = Collections.unmodifiableList(new ArrayList<>(request.getStocks()));
             
-            for (String symbol : request.getStocks()) {
-                List<StockData> data = alphaVantageService.fetchStockHistory(symbol, period);
-                logger.info("Fetched data for {}: {} records", symbol, data.size());
-                if (!data.isEmpty()) {
-                    logger.info("Sample record for {}: {}", symbol, data.get(0));
-                }
-                database.put(symbol, data);
-                allData.addAll(data);
+            // Symbols are fetched in parallel; one failing symbol does not fail the batch
+            LoadResult result = stockLoaderService.load(request.getStocks(), period);
+            for (PriceView stored : result.getLoaded().values()) {
+                allData.addAll(stored.toStockData());
+            }
+            
+            if (result.allFailed()) {
+                logger.warn("Error loading stocks, every symbol failed: {}", result.getFailures());
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Collections.emptyList());
             }
             
             logger.info("Returning total {} records to frontend", allData.size());
+            if (result.hasFailures()) {
+                logger.warn("Partial load, failed symbols: {}", result.getFailures());
+                return ResponseEntity.ok()
+                    .header(FAILED_SYMBOLS_HEADER, String.join(",", result.getFailures().keySet()))
+                    .body(allData);
+            }
             return ResponseEntity.ok(allData);
             
         } catch (Exception e) {
@@ -65,6 +134,112 @@ public class StockController {
         }
     }
 
+    /**
+     * Streaming variant of /load that writes NDJSON, one record per line, as each symbol finishes
+     * loading instead of buffering the whole response. Symbols arrive in completion order; one that
+     * fails is reported in-band as {"symbol": ..., "error": ...} since the status is already sent.
+     */
+    @PostMapping(value = "/load/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamStocks(@RequestBody StockRequest request) {
+        if (request.getPeriod() <= 0) {
+            logger.warn("Invalid period parameter: {}", request.getPeriod());
+            return ResponseEntity.badRequest().build();
+        }
+
+        int period = request.getPeriod();
+        List<String> symbols = Collections.unmodifiableList(new ArrayList<>(request.getStocks()));
+        lastLoadedSymbols = symbols;
+
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator json = NDJSON.createGenerator(out)) {
+                stockLoaderService.load(symbols, period, new NdjsonWriter(json));
+            } catch (UncheckedIOException e) {
+                // Usually the client went away mid-stream; loaded symbols are still stored
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Writes each symbol's records, or its failure, and flushes so the client sees it immediately
+     */
+    private static final class NdjsonWriter implements StockLoaderService.LoadListener {
+        private final JsonGenerator json;
+        private long records;
+
+        NdjsonWriter(JsonGenerator json) {
+            this.json = json;
+        }
+
+        @Override
+        public void loaded(String symbol, PriceView view) {
+            try {
+                for (int i = 0; i < view.size(); i++) {
+                    json.writeStartObject();
+                    json.writeStringField("symbol", symbol);
+                    json.writeStringField("date", view.date(i).toString());
+                    json.writeNumberField("close", view.close(i));
+                    json.writeEndObject();
+                    json.writeRaw('\n');
+                }
+                json.flush();
+                records += view.size();
+                logger.info("Streamed {} records for {} ({} so far)", view.size(), symbol, records);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void failed(String symbol, String reason) {
+            try {
+                json.writeStartObject();
+                json.writeStringField("symbol", symbol);
+                json.writeStringField(ERROR_KEY, reason);
+                json.writeEndObject();
+                json.writeRaw('\n');
+                json.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Generate a correlated synthetic universe of stockAmount symbols over period days and store it,
+     * so the optimization endpoints can be load-tested against it by symbol
+     */
+    @PostMapping("/simulate")
+    public ResponseEntity<Map<String, Object>> simulateUniverse(@RequestBody StockRequest request) {
+        int symbols = request.getStockAmount();
+        int period = request.getPeriod();
+        if (symbols <= 0 || symbols > maxSimulatedSymbols || period <= 0 || period > maxSimulatedDays) {
+            logger.warn("Invalid simulation size: {} symbols x {} days", symbols, period);
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put(ERROR_KEY, "stockAmount must be between 1 and " + maxSimulatedSymbols
+                + " and period between 1 and " + maxSimulatedDays);
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+
+        long start = System.nanoTime();
+        SyntheticUniverse universe = syntheticMarketGenerator.generate(symbols, period);
+        long generated = System.nanoTime();
+        for (int i = 0; i < universe.size(); i++) {
+            priceStore.put(universe.symbol(i), universe.series(i));
+        }
+        long stored = System.nanoTime();
+        lastLoadedSymbols = universe.getSymbols();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("symbols", universe.getSymbols());
+        response.put("days", universe.days());
+        response.put("generation_ms", (generated - start) / 1_000_000);
+        response.put("store_ms", (stored - generated) / 1_000_000);
+        logger.info("Simulated {} symbols x {} days", universe.size(), universe.days());
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping("/optimize")
     public ResponseEntity<Map<String, Object>> optimizePortfolio(@RequestBody OptimizeRequest request) {
         try {
@@ -91,6 +266,25 @@ public class StockController {
                 return ResponseEntity.badRequest().body(errorResponse);
             }
             
+            VarMethod varMethod = varMethod(request);
+            if (varMethod == null) {
+                logger.warn("[REST] Unknown VaR method: {}", request.getVarMethod());
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put(ERROR_KEY, "Unknown VaR method '" + request.getVarMethod() + "', expected monte_carlo or historical");
+                return ResponseEntity.badRequest().body(errorResponse);
+            }
+            
+            String engine = engine(request);
+            if (ENGINE_JVM.equals(engine)) {
+                return optimizeInJvm(request, varMethod);
+            }
+            if (!ENGINE_PYTHON.equals(engine)) {
+                logger.warn("[REST] Unknown optimization engine: {}", request.getEngine());
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put(ERROR_KEY, "Unknown engine '" + request.getEngine() + "', expected python or jvm");
+                return ResponseEntity.badRequest().body(errorResponse);
+            }
+            
             // Check Python API health before processing (infrastructure dependency)
             if (!pythonApiService.isHealthy()) {
                 logger.warn("[REST] Python API service is not available");
@@ -100,9 +294,10 @@ public class StockController {
             }
             
             // Prepare and validate stock data (business logic validation)
-            List<Map<String, Object>> stockData = prepareStockDataForApi(request);
+            Map<String, Map<String, Object>> returnStats = new LinkedHashMap<>();
+            PriceMatrix prices = preparePriceMatrixForApi(request, returnStats);
             
-            if (stockData.isEmpty()) {
+            if (prices.isEmpty()) {
                 logger.warn("[REST] No stock data found for optimization");
                 Map<String, Object> errorResponse = new HashMap<>();
                 errorResponse.put(ERROR_KEY, "No stock data available for optimization");
@@ -111,7 +306,9 @@ public class StockController {
             
             // Call Python REST API for classical optimization
             logger.info("[REST] Starting classical portfolio optimization via REST API");
-            Map<String, Object> result = pythonApiService.optimizeClassical(stockData, request.getVarPercent());
+            Map<String, Object> result = attachRisk(
+                pythonApiService.optimizeClassical(prices, request.getVarPercent(), returnStats),
+                "weights", request.getVarPercent(), varMethod);
             
             logger.info("[REST] Classical optimization completed successfully via REST API");
             return ResponseEntity.ok(result);
@@ -124,6 +321,126 @@ public class StockController {
         }
     }
 
+    /**
+     * Classical optimization in-process, so it works whether or not the Python service is up
+     */
+    private ResponseEntity<Map<String, Object>> optimizeInJvm(OptimizeRequest request, VarMethod varMethod) {
+        List<String> available = availableSymbols(request);
+        if (available.isEmpty()) {
+            logger.warn("[REST] No stock data found for optimization");
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put(ERROR_KEY, "No stock data available for optimization");
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+        
+        logger.info("[REST] Starting classical portfolio optimization in the JVM");
+        Map<String, Object> result = jvmPortfolioOptimizer.optimizeClassical(available, request.getVarPercent(), varMethod);
+        logger.info("[REST] Classical optimization completed successfully in the JVM");
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Hybrid optimization in-process, with simulated annealing standing in for the QAOA round trip
+     */
+    private ResponseEntity<Map<String, Object>> hybridOptimizeInJvm(OptimizeRequest request, VarMethod varMethod) {
+        List<String> available = availableSymbols(request);
+        if (available.isEmpty()) {
+            logger.warn("[REST] No stock data found for hybrid optimization");
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put(ERROR_KEY, "No stock data available for optimization");
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+        
+        logger.info("[REST] Starting hybrid portfolio optimization in the JVM");
+        Map<String, Object> result = jvmPortfolioOptimizer.optimizeHybrid(available, request.getVarPercent(), varMethod);
+        logger.info("[REST] Hybrid optimization completed successfully in the JVM");
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Dynamic optimization in-process: the multi-period QUBO built in the JVM and annealed there
+     */
+    private ResponseEntity<Map<String, Object>> dynamicOptimizeInJvm(OptimizeRequest request) {
+        List<String> available = availableSymbols(request);
+        if (available.isEmpty()) {
+            logger.warn("[REST] No stock data found for dynamic optimization");
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put(ERROR_KEY, "No stock data available for optimization");
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+        
+        logger.info("[REST] Starting dynamic portfolio optimization in the JVM");
+        Map<String, Object> result;
+        try {
+            result = jvmPortfolioOptimizer.optimizeDynamic(available, DynamicQuboBuilder.Config.DEFAULT);
+        } catch (IllegalArgumentException e) {
+            logger.warn("[REST] Dynamic optimization rejected: {}", e.getMessage());
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put(ERROR_KEY, e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+        logger.info("[REST] Dynamic optimization completed successfully in the JVM");
+        return ResponseEntity.ok(result);
+    }
+
+    // Requested symbols with at least one return in the price store, fetching any that are missing
+    private List<String> availableSymbols(OptimizeRequest request) {
+        List<String> distinct = distinctSymbols(request);
+        PriceView[] views = loadViews(distinct);
+        List<String> available = new ArrayList<>(views.length);
+        for (int i = 0; i < views.length; i++) {
+            if (views[i].size() > 1) {
+                available.add(distinct.get(i));
+            }
+        }
+        return available;
+    }
+
+    // The requested engine, lower-cased, or the configured default when none is named
+    private String engine(OptimizeRequest request) {
+        return request.getEngine() != null ? request.getEngine().trim().toLowerCase(Locale.ROOT) : defaultEngine;
+    }
+
+    // The requested VaR method, the configured default when none is named, or null when it is unknown
+    private VarMethod varMethod(OptimizeRequest request) {
+        if (request.getVarMethod() == null) {
+            return defaultVarMethod;
+        }
+        try {
+            return VarMethod.parse(request.getVarMethod());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Replace the varPercent the Python service echoes as value_at_risk with a simulated or historical
+     * VaR and CVaR of the weights it returned. Leaves the response as it was if they cannot be estimated.
+     */
+    private Map<String, Object> attachRisk(Map<String, Object> result, String weightsKey, double varPercent,
+                                           VarMethod varMethod) {
+        if (result == null || !(result.get(weightsKey) instanceof Map<?, ?> raw)) {
+            return result;
+        }
+        Map<String, Number> weights = new LinkedHashMap<>();
+        raw.forEach((symbol, weight) -> {
+            if (weight instanceof Number number) {
+                weights.put(String.valueOf(symbol), number);
+            }
+        });
+        try {
+            Map<String, Object> enriched = new LinkedHashMap<>(result);
+            RiskEstimate estimate = varMethod == VarMethod.HISTORICAL
+                ? historicalRiskEngine.estimate(weights, varPercent)
+                : monteCarloRiskEngine.estimate(weights, varPercent);
+            estimate.putInto(enriched);
+            return enriched;
+        } catch (IllegalArgumentException e) {
+            logger.warn("[REST] Cannot estimate {} VaR for {}: {}", varMethod.key(), weights.keySet(), e.getMessage());
+            return result;
+        }
+    }
+
     @PostMapping("/hybrid-optimize")
     public ResponseEntity<Map<String, Object>> hybridOptimizePortfolio(@RequestBody OptimizeRequest request) {
         try {
@@ -150,6 +467,26 @@ public class StockController {
                 return ResponseEntity.badRequest().body(errorResponse);
             }
             
+            VarMethod varMethod = varMethod(request);
+            if (varMethod == null) {
+                logger.warn("[REST] Unknown VaR method for hybrid: {}", request.getVarMethod());
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put(ERROR_KEY, "Unknown VaR method '" + request.getVarMethod() + "', expected monte_carlo or historical");
+                return ResponseEntity.badRequest().body(errorResponse);
+            }
+            
+            // The JVM engine anneals in-process, so it neither needs qcSimulator nor the Python service
+            String engine = engine(request);
+            if (ENGINE_JVM.equals(engine)) {
+                return hybridOptimizeInJvm(request, varMethod);
+            }
+            if (!ENGINE_PYTHON.equals(engine)) {
+                logger.warn("[REST] Unknown optimization engine for hybrid: {}", request.getEngine());
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put(ERROR_KEY, "Unknown engine '" + request.getEngine() + "', expected python or jvm");
+                return ResponseEntity.badRequest().body(errorResponse);
+            }
+            
             // Validate qcSimulator parameter - it's required for hybrid optimization
             if (request.getQcSimulatorRaw() == null) {
                 logger.warn("[REST] Missing required qcSimulator parameter for hybrid");
@@ -167,9 +504,10 @@ public class StockController {
             }
             
             // Prepare and validate stock data (business logic validation)
-            List<Map<String, Object>> stockData = prepareStockDataForApi(request);
+            Map<String, Map<String, Object>> returnStats = new LinkedHashMap<>();
+            PriceMatrix prices = preparePriceMatrixForApi(request, returnStats);
             
-            if (stockData.isEmpty()) {
+            if (prices.isEmpty()) {
                 logger.warn("[REST] No stock data found for hybrid optimization");
                 Map<String, Object> errorResponse = new HashMap<>();
                 errorResponse.put(ERROR_KEY, "No stock data available for optimization");
@@ -178,11 +516,12 @@ public class StockController {
             
             // Call Python REST API for hybrid optimization
             logger.info("[REST] Starting hybrid portfolio optimization via REST API (simulator: {})", request.getQcSimulatorValue());
-            Map<String, Object> result = pythonApiService.optimizeHybrid(
-                stockData, 
+            Map<String, Object> result = attachRisk(pythonApiService.optimizeHybrid(
+                prices, 
                 request.getVarPercent(), 
-                request.getQcSimulatorValue()
-            );
+                request.getQcSimulatorValue(),
+                returnStats
+            ), "classical_weights", request.getVarPercent(), varMethod);
             
             logger.info("[REST] Hybrid optimization completed successfully via REST API");
             return ResponseEntity.ok(result);
@@ -221,6 +560,17 @@ public class StockController {
                 return ResponseEntity.badRequest().body(errorResponse);
             }
             
+            String engine = engine(request);
+            if (ENGINE_JVM.equals(engine)) {
+                return dynamicOptimizeInJvm(request);
+            }
+            if (!ENGINE_PYTHON.equals(engine)) {
+                logger.warn("[REST] Unknown optimization engine for dynamic: {}", request.getEngine());
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put(ERROR_KEY, "Unknown engine '" + request.getEngine() + "', expected python or jvm");
+                return ResponseEntity.badRequest().body(errorResponse);
+            }
+            
             // Check Python API health before processing (infrastructure dependency)
             if (!pythonApiService.isHealthy()) {
                 logger.warn("[REST] Python API service is not available for dynamic optimization");
@@ -275,47 +625,133 @@ public class StockController {
     }
 
     /**
-     * Prepare stock data in the format expected by Python API
+     * Prepare stock data in the long (symbol, date, close) format the Python dynamic endpoint expects
      */
     private List<Map<String, Object>> prepareStockDataForApi(OptimizeRequest request) {
-        List<Map<String, Object>> stockData = new ArrayList<>();
+        List<String> distinct = distinctSymbols(request);
+        if (distinct.isEmpty()) {
+            logger.warn("[REST] No symbols specified for optimization");
+            return new ArrayList<>();
+        }
+        PriceView[] views = loadViews(distinct);
+        int rows = 0;
+        for (PriceView view : views) {
+            rows += view.size();
+        }
+        
+        List<Map<String, Object>> stockData = new ArrayList<>(rows);
+        for (int i = 0; i < views.length; i++) {
+            String symbol = distinct.get(i);
+            PriceView view = views[i];
+            for (int j = 0; j < view.size(); j++) {
+                Map<String, Object> row = new HashMap<>(4);
+                row.put("symbol", symbol);
+                row.put("date", view.date(j).toString());
+                row.put("close", view.close(j));
+                stockData.add(row);
+            }
+        }
+        
+        logger.info("[REST] Prepared {} stock data points for API call", stockData.size());
+        return stockData;
+    }
+    
+    /**
+     * Closes of the requested symbols that have any history, aligned by date in the cached matrix the
+     * JVM engine reads. returnStats receives each symbol's return statistics over the matrix's dates,
+     * answered from the price store's running sums rather than recomputed from the closes.
+     */
+    private PriceMatrix preparePriceMatrixForApi(OptimizeRequest request,
+                                                 Map<String, Map<String, Object>> returnStats) {
+        List<String> distinct = distinctSymbols(request);
+        PriceView[] views = loadViews(distinct);
+        List<String> stored = new ArrayList<>(views.length);
+        for (int i = 0; i < views.length; i++) {
+            if (!views[i].isEmpty()) {
+                stored.add(distinct.get(i));
+            }
+        }
+        if (stored.isEmpty()) {
+            logger.warn("[REST] No symbols with stored closes for optimization");
+            return PriceMatrix.align(Collections.emptyList(), GapPolicy.FORWARD_FILL);
+        }
+        
+        PriceMatrix prices = priceMatrixService.matrix(stored, GapPolicy.FORWARD_FILL);
+        if (prices.rows() > 1) {
+            for (String symbol : stored) {
+                ReturnStats stats = priceStore.returnStats(symbol, prices.date(0), prices.date(prices.rows() - 1));
+                if (stats.count() > 0) {
+                    returnStats.put(symbol, returnStatsForApi(stats));
+                }
+            }
+        }
+        
+        logger.info("[REST] Prepared {} dates x {} symbols for API call", prices.rows(), prices.columns());
+        return prices;
+    }
+    
+    /**
+     * Requested symbols (or the last loaded ones) with repeats dropped, in first-seen order
+     */
+    private List<String> distinctSymbols(OptimizeRequest request) {
         List<String> symbols = (request.getStocks() != null && !request.getStocks().isEmpty()) 
             ? request.getStocks() : lastLoadedSymbols;
-        
         if (symbols == null || symbols.isEmpty()) {
-            logger.warn("[REST] No symbols specified for optimization");
-            return stockData;
+            return Collections.emptyList();
         }
         
+        // Stored symbols dedupe on their dictionary ID; ones never stored are only looked up, not
+        // assigned an ID, and are deduped by name until a fetch stores them
+        BitSet seen = new BitSet();
+        Set<String> unseen = new HashSet<>();
+        List<String> distinct = new ArrayList<>(symbols.size());
         for (String symbol : symbols) {
-            List<StockData> data = database.getOrDefault(symbol, Collections.emptyList());
-            
-            // If no data in database, try to fetch from AlphaVantageService
-            if (data.isEmpty()) {
-                logger.info("[REST] No cached data for {}, fetching from AlphaVantage", symbol);
-                try {
-                    data = alphaVantageService.fetchStockHistory(symbol, 30);
-                    if (!data.isEmpty()) {
-                        database.put(symbol, data); // Cache the data
-                        logger.info("[REST] Fetched and cached {} records for {}", data.size(), symbol);
-                    }
-                } catch (Exception e) {
-                    logger.warn("[REST] Failed to fetch data for symbol {}: {}", symbol, e.getMessage());
-                    continue; // Skip this symbol and try the next one
+            int id = symbolDictionary.find(symbol);
+            if (id >= 0) {
+                if (seen.get(id)) {
+                    continue;
                 }
+                seen.set(id);
+            } else if (!unseen.add(symbol)) {
+                continue;
             }
-            
-            for (StockData sd : data) {
-                Map<String, Object> row = new HashMap<>();
-                row.put("symbol", sd.getSymbol());
-                row.put("date", sd.getDate().toString());
-                row.put("close", sd.getClose());
-                stockData.add(row);
+            distinct.add(symbol);
+        }
+        return distinct;
+    }
+    
+    /**
+     * Stored history of each symbol, fetching every symbol missing from the price store in one parallel batch
+     */
+    private PriceView[] loadViews(List<String> symbols) {
+        PriceView[] views = new PriceView[symbols.size()];
+        List<String> missing = new ArrayList<>();
+        for (int i = 0; i < views.length; i++) {
+            views[i] = priceStore.view(symbols.get(i));
+            if (views[i].isEmpty()) {
+                logger.info("[REST] No cached data for {}, fetching from AlphaVantage", symbols.get(i));
+                missing.add(symbols.get(i));
             }
         }
-        
-        logger.info("[REST] Prepared {} stock data points for API call", stockData.size());
-        return stockData;
+        Map<String, PriceView> fetched = missing.isEmpty()
+            ? Collections.emptyMap() : stockLoaderService.load(missing, 30).getLoaded();
+        for (int i = 0; i < views.length; i++) {
+            if (views[i].isEmpty() && fetched.containsKey(symbols.get(i))) {
+                views[i] = fetched.get(symbols.get(i));
+            }
+        }
+        return views;
+    }
+    
+    private static Map<String, Object> returnStatsForApi(ReturnStats stats) {
+        Map<String, Object> api = new LinkedHashMap<>(8);
+        api.put("count", stats.count());
+        api.put("mean_log_return", stats.meanLogReturn());
+        api.put("log_return_variance", stats.logReturnVariance());
+        api.put("mean_simple_return", stats.meanSimpleReturn());
+        api.put("simple_return_variance", stats.simpleReturnVariance());
+        api.put("mean_historical_return", stats.annualizedReturn(ReturnStats.TRADING_DAYS));
+        return api;
     }
     
     @GetMapping("/dynamic-job/{jobId}/status")
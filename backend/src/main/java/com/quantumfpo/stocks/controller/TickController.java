@@ -0,0 +1,109 @@
+package com.quantumfpo.stocks.controller;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.quantumfpo.stocks.service.TickIngestionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * HTTP batch ingestion of live ticks into {@link TickIngestionService}.
+ */
+@RestController
+@RequestMapping("/api/ticks")
+@CrossOrigin(origins = "http://localhost:5173")
+public class TickController {
+    private static final Logger logger = LoggerFactory.getLogger(TickController.class);
+    private static final String ERROR_KEY = "error";
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final TickIngestionService tickIngestionService;
+
+    public TickController(TickIngestionService tickIngestionService) {
+        this.tickIngestionService = tickIngestionService;
+    }
+
+    /**
+     * Accepts a JSON array of {symbol, price, timestamp, size} ticks, where timestamp is epoch
+     * milliseconds or an ISO instant (default now) and size defaults to 0. The body is streamed
+     * straight into the ring without binding a tick object. Answers 202 when every tick was taken,
+     * 503 with Retry-After when the ring filled up part way, and 400 on a malformed tick or one for a
+     * symbol with no stored history; ticks before it stay accepted.
+     */
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> ingest(InputStream body) {
+        long accepted = 0;
+        long rejected = 0;
+        try (JsonParser parser = JSON.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return badRequest("Expected a JSON array of ticks", accepted);
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+                String symbol = null;
+                long timestamp = System.currentTimeMillis();
+                double price = Double.NaN;
+                long size = 0;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    JsonToken value = parser.nextToken();
+                    switch (field) {
+                        case "symbol" -> symbol = parser.getValueAsString();
+                        case "price" -> price = parser.getValueAsDouble(Double.NaN);
+                        case "size" -> size = parser.getValueAsLong();
+                        case "timestamp" -> timestamp = value == JsonToken.VALUE_STRING
+                            ? Instant.parse(parser.getText()).toEpochMilli() : parser.getLongValue();
+                        default -> parser.skipChildren();
+                    }
+                }
+                if (symbol == null || symbol.isBlank() || !(price > 0) || Double.isInfinite(price) || size < 0) {
+                    return badRequest("Tick " + (accepted + rejected) + " needs a symbol, a positive price and a non-negative size", accepted);
+                }
+                try {
+                    if (tickIngestionService.offer(symbol.trim(), timestamp, price, size)) {
+                        accepted++;
+                    } else {
+                        rejected++;
+                    }
+                } catch (IllegalArgumentException e) {
+                    return badRequest("Tick " + (accepted + rejected) + ": " + e.getMessage(), accepted);
+                }
+            }
+            if (token != JsonToken.END_ARRAY) {
+                return badRequest("Expected a JSON array of tick objects", accepted);
+            }
+        } catch (IOException | DateTimeParseException e) {
+            logger.warn("[REST] Malformed tick batch: {}", e.getMessage());
+            return badRequest("Malformed tick batch: " + e.getMessage(), accepted);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("accepted", accepted);
+        response.put("rejected", rejected);
+        if (rejected > 0) {
+            logger.warn("[REST] Tick ring full, rejected {} of {} ticks", rejected, accepted + rejected);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(response);
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    private static ResponseEntity<Map<String, Object>> badRequest(String message, long accepted) {
+        Map<String, Object> response = new HashMap<>();
+        response.put(ERROR_KEY, message);
+        response.put("accepted", accepted);
+        return ResponseEntity.badRequest().body(response);
+    }
+}
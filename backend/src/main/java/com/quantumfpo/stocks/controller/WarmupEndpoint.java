@@ -0,0 +1,42 @@
+package com.quantumfpo.stocks.controller;
+
+import com.quantumfpo.stocks.service.WarmupService;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+/**
+ * /actuator/warmup: snapshot restore progress on GET, and a snapshot written on demand on POST
+ * (for example just before a deploy). Not exposed over HTTP by default, since the POST is a
+ * write any caller could trigger; include it in management.endpoints.web.exposure.include only
+ * where the management port is secured.
+ */
+@Component
+@Endpoint(id = "warmup")
+public class WarmupEndpoint {
+    private final WarmupService warmupService;
+
+    public WarmupEndpoint(WarmupService warmupService) {
+        this.warmupService = warmupService;
+    }
+
+    @ReadOperation
+    public Map<String, Object> progress() {
+        return warmupService.progress();
+    }
+
+    @WriteOperation
+    public Map<String, Object> snapshot() {
+        try {
+            warmupService.snapshot();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write price snapshot", e);
+        }
+        return warmupService.progress();
+    }
+}
@@ -0,0 +1,27 @@
+package com.quantumfpo.stocks.model;
+
+import com.quantumfpo.stocks.store.PriceView;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Outcome of loading a basket of symbols: the stored history of each symbol that loaded,
+ * and a failure reason for each one that did not. Both maps keep request order.
+ */
+public class LoadResult {
+    private final Map<String, PriceView> loaded = new LinkedHashMap<>();
+    private final Map<String, String> failures = new LinkedHashMap<>();
+
+    public void addLoaded(String symbol, PriceView view) { loaded.put(symbol, view); }
+    public void addFailure(String symbol, String reason) { failures.put(symbol, reason); }
+
+    public Map<String, PriceView> getLoaded() { return Collections.unmodifiableMap(loaded); }
+    public Map<String, String> getFailures() { return Collections.unmodifiableMap(failures); }
+
+    public boolean hasFailures() { return !failures.isEmpty(); }
+
+    // True when at least one symbol was requested and none of them loaded
+    public boolean allFailed() { return loaded.isEmpty() && !failures.isEmpty(); }
+}
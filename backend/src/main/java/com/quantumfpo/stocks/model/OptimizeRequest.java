@@ -6,6 +6,8 @@ public class OptimizeRequest {
     private List<String> stocks;
     private Double varPercent;  // Using wrapper class to allow null detection
     private Boolean qcSimulator;  // Using wrapper class for consistency
+    private String engine;  // "python" or "jvm"; null means the configured default
+    private String varMethod;  // "monte_carlo" or "historical"; null means the configured default
 
     public List<String> getStocks() { return stocks; }
     public void setStocks(List<String> stocks) { this.stocks = stocks; }
@@ -24,6 +26,12 @@ public class OptimizeRequest {
     
     public void setQcSimulator(Boolean qcSimulator) { this.qcSimulator = qcSimulator; }
     
+    public String getEngine() { return engine; }
+    public void setEngine(String engine) { this.engine = engine; }
+    
+    public String getVarMethod() { return varMethod; }
+    public void setVarMethod(String varMethod) { this.varMethod = varMethod; }
+    
     // Helper method to get qcSimulator with default value (same as isQcSimulator now)
     public boolean getQcSimulatorValue() { 
         return isQcSimulator(); 
@@ -0,0 +1,113 @@
+package com.quantumfpo.stocks.model;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Measurement-count histogram over n-bit states, each packed into ceil(n / 64) longs: variable i
+ * is bit (i & 63) of word i / 64. Entries are held in one flat array, entry e's words at
+ * [e * words, (e + 1) * words), so a histogram of 100k shots is a few arrays rather than 100k keys.
+ */
+public final class PackedCounts {
+    private final int variables;
+    private final int words;
+    private long[] states;
+    private long[] counts;
+    private int size;
+    private long shots;
+
+    public PackedCounts(int variables) {
+        if (variables < 1) {
+            throw new IllegalArgumentException("States need at least one variable, got " + variables);
+        }
+        this.variables = variables;
+        this.words = (variables + 63) >>> 6;
+        this.states = new long[16 * words];
+        this.counts = new long[16];
+    }
+
+    /**
+     * Pack a sampler's counts keyed by bitstrings, reading character k as variable k the way
+     * compute_expectation_from_counts does
+     */
+    public static PackedCounts fromBitstrings(Map<String, ? extends Number> bitstrings) {
+        if (bitstrings.isEmpty()) {
+            throw new IllegalArgumentException("No counts to pack");
+        }
+        PackedCounts packed = new PackedCounts(bitstrings.keySet().iterator().next().length());
+        long[] state = new long[packed.words];
+        bitstrings.forEach((bits, count) -> {
+            if (bits.length() != packed.variables) {
+                throw new IllegalArgumentException("Expected " + packed.variables + " bits, got '" + bits + "'");
+            }
+            Arrays.fill(state, 0);
+            for (int i = 0; i < bits.length(); i++) {
+                char c = bits.charAt(i);
+                if (c == '1') {
+                    state[i >>> 6] |= 1L << i;
+                } else if (c != '0') {
+                    throw new IllegalArgumentException("Not a bitstring: '" + bits + "'");
+                }
+            }
+            packed.add(state, count.longValue());
+        });
+        return packed;
+    }
+
+    /**
+     * Append a state seen count times. Each distinct state is expected once, as samplers report them.
+     */
+    public PackedCounts add(long[] state, long count) {
+        if (state.length != words) {
+            throw new IllegalArgumentException("Expected " + words + " words per state, got " + state.length);
+        }
+        if (variables % 64 != 0 && state[words - 1] >>> variables != 0) {
+            throw new IllegalArgumentException("State has bits set beyond its " + variables + " variables");
+        }
+        if (count < 1) {
+            throw new IllegalArgumentException("Counts must be positive, got " + count);
+        }
+        if (size == counts.length) {
+            counts = Arrays.copyOf(counts, 2 * size);
+            states = Arrays.copyOf(states, 2 * size * words);
+        }
+        System.arraycopy(state, 0, states, size * words, words);
+        counts[size++] = count;
+        shots += count;
+        return this;
+    }
+
+    public int size() { return size; }
+    public int variables() { return variables; }
+    public int words() { return words; }
+    public long shots() { return shots; }
+
+    public long count(int entry) {
+        return counts[entry];
+    }
+
+    public boolean bit(int entry, int variable) {
+        return (states[entry * words + (variable >>> 6)] >>> variable & 1) != 0;
+    }
+
+    /**
+     * The packed states themselves, for evaluators. They are shared with this histogram and must not
+     * be modified; entries past {@link #size()} are unused.
+     */
+    public long[] states() {
+        return states;
+    }
+
+    public String bitString(int entry) {
+        char[] bits = new char[variables];
+        for (int i = 0; i < variables; i++) {
+            bits[i] = bit(entry, i) ? '1' : '0';
+        }
+        return new String(bits);
+    }
+
+    @Override
+    public String toString() {
+        return "PackedCounts{" + size + " states of " + variables + " bits, " + shots + " shots}";
+    }
+}
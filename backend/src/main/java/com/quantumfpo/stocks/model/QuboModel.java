@@ -0,0 +1,244 @@
+package com.quantumfpo.stocks.model;
+
+import java.util.Arrays;
+
+/**
+ * Quadratic unconstrained binary optimization problem over n binary variables:
+ * E(x) = c + sum_i h_i x_i + sum_{i < j} J_ij x_i x_j, with c a constant offset.
+ *
+ * The couplings are held as a sparse upper triangle in compressed sparse rows: the couplings of
+ * row i to columns j > i are at [rowStart(i), rowStart(i + 1)) of {@link #columns()} and
+ * {@link #couplings()}, columns ascending. Built with a {@link Builder} and never modified afterwards.
+ */
+public final class QuboModel {
+    private final double offset;
+    private final double[] linear;
+    private final int[] rowStart;
+    private final int[] columns;
+    private final double[] couplings;
+
+    private QuboModel(double offset, double[] linear, int[] rowStart, int[] columns, double[] couplings) {
+        this.offset = offset;
+        this.linear = linear;
+        this.rowStart = rowStart;
+        this.columns = columns;
+        this.couplings = couplings;
+    }
+
+    public static Builder builder(int size) {
+        return new Builder(size);
+    }
+
+    public int size() { return linear.length; }
+
+    /**
+     * Number of stored couplings
+     */
+    public int nonZeros() { return columns.length; }
+
+    /**
+     * Energy of the all-zero assignment, which no variable's terms depend on
+     */
+    public double offset() { return offset; }
+
+    public double linear(int i) { return linear[i]; }
+
+    public int rowStart(int i) { return rowStart[i]; }
+
+    /**
+     * Coupling of variables i and j in either order, 0 when there is none
+     */
+    public double coupling(int i, int j) {
+        if (i == j) {
+            return 0;
+        }
+        int row = Math.min(i, j);
+        int k = Arrays.binarySearch(columns, rowStart[row], rowStart[row + 1], Math.max(i, j));
+        return k >= 0 ? couplings[k] : 0;
+    }
+
+    /**
+     * The linear coefficients, column indices and couplings themselves, for solvers.
+     * They are shared with every other holder of this model and must not be modified.
+     */
+    public double[] linear() { return linear; }
+    public int[] columns() { return columns; }
+    public double[] couplings() { return couplings; }
+
+    public double energy(boolean[] x) {
+        if (x.length != linear.length) {
+            throw new IllegalArgumentException("Expected " + linear.length + " variables, got " + x.length);
+        }
+        double energy = offset;
+        for (int i = 0; i < linear.length; i++) {
+            if (!x[i]) {
+                continue;
+            }
+            energy += linear[i];
+            for (int k = rowStart[i]; k < rowStart[i + 1]; k++) {
+                if (x[columns[k]]) {
+                    energy += couplings[k];
+                }
+            }
+        }
+        return energy;
+    }
+
+    /**
+     * This model's coefficients read as an Ising Hamiltonian, c + sum_i h_i z_i + sum_{i < j} J_ij z_i z_j
+     * over spins z = 1 - 2x, the way build_hamiltonian_from_qubo turns them into Z terms, rewritten
+     * as the QUBO with the same energy for every x
+     */
+    public QuboModel isingAsQubo() {
+        Builder builder = builder(linear.length).addOffset(offset);
+        for (int i = 0; i < linear.length; i++) {
+            // h z = h - 2h x
+            builder.addOffset(linear[i]).addLinear(i, -2 * linear[i]);
+            for (int k = rowStart[i]; k < rowStart[i + 1]; k++) {
+                // J z_i z_j = J - 2J x_i - 2J x_j + 4J x_i x_j
+                double coupling = couplings[k];
+                builder.addOffset(coupling)
+                    .addLinear(i, -2 * coupling)
+                    .addLinear(columns[k], -2 * coupling)
+                    .addQuadratic(i, columns[k], 4 * coupling);
+            }
+        }
+        return builder.build();
+    }
+
+    public long estimatedBytes() {
+        return 64 + 8L * linear.length + 4L * rowStart.length + 12L * columns.length;
+    }
+
+    @Override
+    public String toString() {
+        return "QuboModel{" + linear.length + " variables, " + columns.length + " couplings}";
+    }
+
+    /**
+     * Accumulates terms as a coordinate list; terms on the same pair are summed when the model is built
+     */
+    public static final class Builder {
+        private final int size;
+        private final double[] linear;
+        private double offset;
+        private int[] rows = new int[64];
+        private int[] cols = new int[64];
+        private double[] values = new double[64];
+        private int count;
+
+        private Builder(int size) {
+            if (size < 1) {
+                throw new IllegalArgumentException("A QUBO needs at least one variable, got " + size);
+            }
+            this.size = size;
+            this.linear = new double[size];
+        }
+
+        public int size() { return size; }
+
+        public Builder addOffset(double value) {
+            offset += value;
+            return this;
+        }
+
+        public Builder addLinear(int i, double value) {
+            check(i);
+            linear[i] += value;
+            return this;
+        }
+
+        /**
+         * Add value to the coupling of i and j, in either order. On the diagonal it is a linear
+         * term, since x * x = x for a binary x.
+         */
+        public Builder addQuadratic(int i, int j, double value) {
+            check(i);
+            check(j);
+            if (i == j) {
+                linear[i] += value;
+                return this;
+            }
+            if (value == 0) {
+                return this;
+            }
+            if (count == rows.length) {
+                int capacity = 2 * count;
+                rows = Arrays.copyOf(rows, capacity);
+                cols = Arrays.copyOf(cols, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+            rows[count] = Math.min(i, j);
+            cols[count] = Math.max(i, j);
+            values[count] = value;
+            count++;
+            return this;
+        }
+
+        /**
+         * Bucket the terms by row, sort each row by column and sum repeated pairs. Pairs that sum
+         * to exactly 0 are dropped.
+         */
+        public QuboModel build() {
+            int[] start = new int[size + 1];
+            for (int k = 0; k < count; k++) {
+                start[rows[k] + 1]++;
+            }
+            for (int i = 0; i < size; i++) {
+                start[i + 1] += start[i];
+            }
+            int[] bucketed = new int[count];
+            int[] next = Arrays.copyOf(start, size);
+            for (int k = 0; k < count; k++) {
+                bucketed[next[rows[k]]++] = k;
+            }
+
+            int[] rowStart = new int[size + 1];
+            int[] columns = new int[count];
+            double[] couplings = new double[count];
+            int out = 0;
+            long[] keys = new long[0];
+            for (int i = 0; i < size; i++) {
+                rowStart[i] = out;
+                int length = start[i + 1] - start[i];
+                if (length == 0) {
+                    continue;
+                }
+                if (keys.length < length) {
+                    keys = new long[Math.max(length, 2 * keys.length)];
+                }
+                // Column in the high half, term index in the low half, so one sort orders the row
+                for (int k = 0; k < length; k++) {
+                    int term = bucketed[start[i] + k];
+                    keys[k] = (long) cols[term] << 32 | term;
+                }
+                Arrays.sort(keys, 0, length);
+                int column = -1;
+                for (int k = 0; k < length; k++) {
+                    int term = (int) keys[k];
+                    if (cols[term] != column) {
+                        if (out > rowStart[i] && couplings[out - 1] == 0) {
+                            out--;
+                        }
+                        column = cols[term];
+                        columns[out] = column;
+                        couplings[out] = 0;
+                        out++;
+                    }
+                    couplings[out - 1] += values[term];
+                }
+                if (out > rowStart[i] && couplings[out - 1] == 0) {
+                    out--;
+                }
+            }
+            rowStart[size] = out;
+            return new QuboModel(offset, linear.clone(), rowStart, Arrays.copyOf(columns, out), Arrays.copyOf(couplings, out));
+        }
+
+        private void check(int i) {
+            if (i < 0 || i >= size) {
+                throw new IndexOutOfBoundsException("Variable " + i + " out of bounds for " + size + " variables");
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.quantumfpo.stocks.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Value at Risk and Conditional Value at Risk of a portfolio over a horizon, as fractions of its value.
+ * Losses are positive; a negative figure means even the tail scenarios gain. Scenarios are simulated
+ * draws or, for historical estimates, the horizon-long windows of stored history.
+ */
+public class RiskEstimate {
+    private final VarMethod method;
+    private final double confidence;
+    private final double valueAtRisk;
+    private final double conditionalValueAtRisk;
+    private final int scenarios;
+    private final int horizonDays;
+    private final long elapsedNanos;
+
+    public RiskEstimate(VarMethod method, double confidence, double valueAtRisk, double conditionalValueAtRisk,
+                        int scenarios, int horizonDays, long elapsedNanos) {
+        this.method = method;
+        this.confidence = confidence;
+        this.valueAtRisk = valueAtRisk;
+        this.conditionalValueAtRisk = conditionalValueAtRisk;
+        this.scenarios = scenarios;
+        this.horizonDays = horizonDays;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public VarMethod getMethod() { return method; }
+    public double getConfidence() { return confidence; }
+    public double getValueAtRisk() { return valueAtRisk; }
+    public double getConditionalValueAtRisk() { return conditionalValueAtRisk; }
+    public int getScenarios() { return scenarios; }
+    public int getHorizonDays() { return horizonDays; }
+    public long getElapsedNanos() { return elapsedNanos; }
+
+    public double getScenariosPerSecond() {
+        return elapsedNanos > 0 ? scenarios * 1e9 / elapsedNanos : 0;
+    }
+
+    /**
+     * Put the figures into an optimization response, in the Python service's key style
+     */
+    public void putInto(Map<String, Object> result) {
+        result.put("value_at_risk", valueAtRisk);
+        result.put("conditional_value_at_risk", conditionalValueAtRisk);
+        Map<String, Object> simulation = new LinkedHashMap<>();
+        simulation.put("method", method.key());
+        simulation.put("confidence", confidence);
+        simulation.put("horizon_days", horizonDays);
+        simulation.put("scenarios", scenarios);
+        simulation.put("scenarios_per_second", Math.round(getScenariosPerSecond()));
+        result.put("risk_simulation", simulation);
+    }
+
+    @Override
+    public String toString() {
+        return "RiskEstimate{" + method.key() + " VaR " + valueAtRisk + ", CVaR " + conditionalValueAtRisk + " at " + confidence
+            + " over " + horizonDays + "d from " + scenarios + " scenarios}";
+    }
+}
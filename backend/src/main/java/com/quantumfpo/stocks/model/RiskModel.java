@@ -0,0 +1,60 @@
+package com.quantumfpo.stocks.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Annualized expected returns and covariance of a basket, as estimated by the risk model engine.
+ * The covariance is held as one row-major n x n block.
+ */
+public class RiskModel {
+    private final String[] symbols;
+    private final double[] expectedReturns;
+    private final double[] covariance;
+    private final double shrinkage;
+    private final int observations;
+
+    public RiskModel(String[] symbols, double[] expectedReturns, double[] covariance, double shrinkage, int observations) {
+        if (expectedReturns.length != symbols.length || covariance.length != symbols.length * symbols.length) {
+            throw new IllegalArgumentException("Risk model of " + symbols.length + " symbols needs " + symbols.length
+                + " returns and " + symbols.length * symbols.length + " covariances");
+        }
+        this.symbols = symbols;
+        this.expectedReturns = expectedReturns;
+        this.covariance = covariance;
+        this.shrinkage = shrinkage;
+        this.observations = observations;
+    }
+
+    public int size() { return symbols.length; }
+    public String symbol(int i) { return symbols[i]; }
+    public List<String> getSymbols() { return List.of(symbols); }
+    public double expectedReturn(int i) { return expectedReturns[i]; }
+    public double covariance(int i, int j) { return covariance[i * symbols.length + j]; }
+
+    /**
+     * Weight given to the scaled-identity target, between 0 and 1
+     */
+    public double getShrinkage() { return shrinkage; }
+
+    /**
+     * Number of daily returns the model was estimated from
+     */
+    public int getObservations() { return observations; }
+
+    public double[] getExpectedReturns() {
+        return expectedReturns.clone();
+    }
+
+    /**
+     * The row-major covariance block itself, for numeric kernels. It must not be modified.
+     */
+    public double[] covarianceMatrix() {
+        return covariance;
+    }
+
+    @Override
+    public String toString() {
+        return "RiskModel" + Arrays.toString(symbols) + " from " + observations + " returns, shrinkage " + shrinkage;
+    }
+}
@@ -0,0 +1,35 @@
+package com.quantumfpo.stocks.model;
+
+import com.quantumfpo.stocks.store.PriceSeries;
+
+import java.util.List;
+
+/**
+ * A generated market: closes for every symbol over one shared run of dates, held as one
+ * primitive row per symbol so it can be built in parallel and stored without per-point objects.
+ */
+public class SyntheticUniverse {
+    private final String[] symbols;
+    private final int[] epochDays;
+    private final double[][] closes;
+
+    public SyntheticUniverse(String[] symbols, int[] epochDays, double[][] closes) {
+        this.symbols = symbols;
+        this.epochDays = epochDays;
+        this.closes = closes;
+    }
+
+    public int size() { return symbols.length; }
+    public int days() { return epochDays.length; }
+    public String symbol(int i) { return symbols[i]; }
+    public int epochDay(int t) { return epochDays[t]; }
+    public double close(int i, int t) { return closes[i][t]; }
+    public List<String> getSymbols() { return List.of(symbols); }
+
+    /**
+     * Copy of one symbol's closes as a price series, ready for the price store
+     */
+    public PriceSeries series(int i) {
+        return PriceSeries.fromColumns(symbols[i], epochDays, closes[i], epochDays.length);
+    }
+}
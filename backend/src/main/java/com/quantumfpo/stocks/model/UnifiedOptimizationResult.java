@@ -72,6 +72,7 @@ public class UnifiedOptimizationResult {
         private Double annualVolatility;
         private Double sharpeRatio;
         private Double valueAtRisk;
+        private Double conditionalValueAtRisk;
         
         public PerformanceMetrics() {}
         
@@ -87,11 +88,21 @@ public class UnifiedOptimizationResult {
         
         public Double getValueAtRisk() { return valueAtRisk; }
         public void setValueAtRisk(Double valueAtRisk) { this.valueAtRisk = valueAtRisk; }
+        
+        public Double getConditionalValueAtRisk() { return conditionalValueAtRisk; }
+        public void setConditionalValueAtRisk(Double conditionalValueAtRisk) { this.conditionalValueAtRisk = conditionalValueAtRisk; }
+        
+        // Simulated tail figures replace the requested percentage the Python service echoes
+        public void setRisk(RiskEstimate estimate) {
+            this.valueAtRisk = estimate.getValueAtRisk();
+            this.conditionalValueAtRisk = estimate.getConditionalValueAtRisk();
+        }
     }
     
     public static class QuantumResult {
         private int[] solution;
         private Double objectiveValue;
+        private Map<String, Integer> counts;  // Samples per bitstring
         private Integer jobsExecuted;
         private Boolean simulatorUsed;
         
@@ -104,6 +115,9 @@ public class UnifiedOptimizationResult {
         public Double getObjectiveValue() { return objectiveValue; }
         public void setObjectiveValue(Double objectiveValue) { this.objectiveValue = objectiveValue; }
         
+        public Map<String, Integer> getCounts() { return counts; }
+        public void setCounts(Map<String, Integer> counts) { this.counts = counts; }
+        
         public Integer getJobsExecuted() { return jobsExecuted; }
         public void setJobsExecuted(Integer jobsExecuted) { this.jobsExecuted = jobsExecuted; }
         
@@ -0,0 +1,36 @@
+package com.quantumfpo.stocks.model;
+
+import java.util.Locale;
+
+/**
+ * How an optimization response's VaR and CVaR are estimated
+ */
+public enum VarMethod {
+    // Correlated scenarios drawn from the covariance of the stored history
+    MONTE_CARLO("monte_carlo"),
+    // The portfolio's own outcomes over the stored history, summarized by a quantile sketch
+    HISTORICAL("historical");
+
+    private final String key;
+
+    VarMethod(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    /**
+     * Parse a request or configuration value; hyphens and case are ignored
+     */
+    public static VarMethod parse(String value) {
+        String normalized = value.trim().toLowerCase(Locale.ROOT).replace('-', '_');
+        for (VarMethod method : values()) {
+            if (method.key.equals(normalized)) {
+                return method;
+            }
+        }
+        throw new IllegalArgumentException("Unknown VaR method '" + value + "', expected monte_carlo or historical");
+    }
+}
@@ -11,35 +11,71 @@ import java.time.LocalDate;
 import java.util.*;
 
 @Service
-public class AlphaVantageService {
+public class AlphaVantageService implements MarketDataProvider {
     private static final Logger logger = LoggerFactory.getLogger(AlphaVantageService.class);
     // Alpha Vantage API key and RestTemplate removed - using simulation only
 
-    public List<StockData> fetchStockHistory(String symbol, int days) {
+    // Growth is measured from a fixed date so overlapping requests agree on the close of any given day
+    private static final LocalDate TREND_ANCHOR = LocalDate.of(2025, 1, 1);
+
+    /**
+     * Simulated closes for every day in [from, to], both inclusive, in date order.
+     * Each close depends only on the symbol and its date, so a range fetched later lines up
+     * exactly with history fetched earlier.
+     */
+    @Override
+    public List<StockData> fetchStockHistory(String symbol, LocalDate from, LocalDate to) {
         // Always use simulation for development (remove SIM_ requirement)
-        logger.info("Simulating Alpha Vantage response for symbol: {}", symbol);
+        logger.info("Simulating Alpha Vantage response for symbol: {} ({} to {})", symbol, from, to);
         List<StockData> mockData = new ArrayList<>();
-            LocalDate today = LocalDate.now();
             
             // Generate stock data with guaranteed positive expected returns
             Random random = new Random(symbol.hashCode()); // Use symbol hash as seed for consistency
             double initialPrice = 95 + random.nextDouble() * 20; // Start between $95-115
-            double dailyTrend = 0.005 + random.nextDouble() * 0.003; // 0.5-0.8% daily positive trend (very strong)
+            double dailyTrend = 0.0005 + random.nextDouble() * 0.0003; // 0.05-0.08% daily log growth (20-34% a year)
             double volatility = 0.005 + random.nextDouble() * 0.005; // 0.5-1.0% daily volatility (reduced)
             
-            for (int i = 0; i < days; i++) {
-                // Calculate price with positive trend and realistic volatility
-                // i=0 is today, i=29 is 30 days ago, so trend should be higher for i=0 (today)
-                double trendComponent = initialPrice * dailyTrend * (days - 1 - i);
-                double randomComponent = (random.nextGaussian() * volatility * initialPrice);
-                double close = initialPrice + trendComponent + randomComponent;
-                
-                // Ensure price stays positive and realistic
-                close = Math.max(close, initialPrice * 0.5);
+            // Geometric random walk through the anchor: log closes move by the trend plus one shock a day,
+            // so closes stay positive at any distance from it and daily returns are independent
+            long anchor = TREND_ANCHOR.toEpochDay();
+            double[] walk = walk(symbol, from.toEpochDay(), to.toEpochDay());
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                long day = date.toEpochDay();
+                double close = initialPrice * Math.exp(dailyTrend * (day - anchor) + volatility * walk[(int) (day - from.toEpochDay())]);
                 
-                mockData.add(new StockData(symbol, today.minusDays(i), close));
+                mockData.add(new StockData(symbol, date, close));
             }
-        mockData.sort(Comparator.comparing(StockData::getDate));
         return mockData;
     }
+
+    /*
+     * Sum of the shocks between the anchor and each day in [from, to], 0 on the anchor itself. Days are
+     * summed outwards from the anchor in the same order whatever the range, so overlapping requests
+     * agree on every close to the last bit.
+     */
+    private static double[] walk(String symbol, long from, long to) {
+        long anchor = TREND_ANCHOR.toEpochDay();
+        double[] walk = new double[(int) Math.max(0, to - from + 1)];
+        double sum = 0;
+        for (long day = anchor; day > from; day--) {
+            sum -= shock(symbol, day);
+            if (day - 1 <= to) {
+                walk[(int) (day - 1 - from)] = sum;
+            }
+        }
+        sum = 0;
+        for (long day = anchor + 1; day <= to; day++) {
+            sum += shock(symbol, day);
+            if (day >= from) {
+                walk[(int) (day - from)] = sum;
+            }
+        }
+        return walk;
+    }
+
+    // Standard normal shock of the symbol on a day, seeded from both so re-fetching a day always yields
+    // the same close while neighbouring days stay independent
+    private static double shock(String symbol, long epochDay) {
+        return new SplittableRandom((long) symbol.hashCode() << 32 ^ epochDay).nextGaussian();
+    }
 }
@@ -0,0 +1,126 @@
+package com.quantumfpo.stocks.service;
+
+import com.quantumfpo.stocks.store.TickRingBuffer;
+
+import java.util.Arrays;
+
+/**
+ * Folds ticks into one daily (UTC) bar per symbol, indexed by {@link com.quantumfpo.stocks.store.SymbolDictionary} ID.
+ *
+ * Bar state lives in parallel primitive arrays that only grow when a new symbol ID shows up, so a
+ * tick costs a handful of array writes. A tick on a later day completes the symbol's bar and hands
+ * it to the sink; {@link #flush} hands over bars still in progress that changed since the last flush.
+ * Ticks for a day already completed are counted as late and dropped. Owned by a single consumer thread.
+ */
+public final class BarAggregator implements TickRingBuffer.TickHandler {
+
+    /**
+     * Receives bars; complete is false for a bar that may still change
+     */
+    @FunctionalInterface
+    public interface BarSink {
+        void bar(int symbolId, int epochDay, double open, double high, double low, double close, long volume,
+                 boolean complete);
+    }
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final int NO_BAR = Integer.MIN_VALUE;
+
+    private final BarSink sink;
+    private int[] days = new int[0];
+    private double[] opens = new double[0];
+    private double[] highs = new double[0];
+    private double[] lows = new double[0];
+    private double[] closes = new double[0];
+    private long[] volumes = new long[0];
+    private long[] lastTimestamps = new long[0];
+    // IDs whose bar changed since the last flush, listed once each
+    private boolean[] dirty = new boolean[0];
+    private int[] dirtyIds = new int[0];
+    private int dirtyCount;
+
+    // Single writer, read by metrics
+    private volatile long lateTicks;
+    private volatile long completedBars;
+
+    public BarAggregator(BarSink sink) {
+        this.sink = sink;
+    }
+
+    @Override
+    public void onTick(int symbolId, long timestamp, double price, long size) {
+        if (symbolId >= days.length) {
+            grow(symbolId);
+        }
+        int day = (int) Math.floorDiv(timestamp, MILLIS_PER_DAY);
+        int current = days[symbolId];
+        if (current == NO_BAR || day > current) {
+            if (current != NO_BAR) {
+                emit(symbolId, true);
+                completedBars++;
+            }
+            days[symbolId] = day;
+            opens[symbolId] = price;
+            highs[symbolId] = price;
+            lows[symbolId] = price;
+            closes[symbolId] = price;
+            volumes[symbolId] = size;
+            lastTimestamps[symbolId] = timestamp;
+        } else if (day < current) {
+            lateTicks++;
+            return;
+        } else {
+            highs[symbolId] = Math.max(highs[symbolId], price);
+            lows[symbolId] = Math.min(lows[symbolId], price);
+            volumes[symbolId] += size;
+            // Ticks can arrive out of order within a day; the close is the latest one
+            if (timestamp >= lastTimestamps[symbolId]) {
+                closes[symbolId] = price;
+                lastTimestamps[symbolId] = timestamp;
+            }
+        }
+        if (!dirty[symbolId]) {
+            dirty[symbolId] = true;
+            dirtyIds[dirtyCount++] = symbolId;
+        }
+    }
+
+    /**
+     * Hand every bar that changed since the last flush to the sink as still in progress
+     */
+    public void flush() {
+        for (int i = 0; i < dirtyCount; i++) {
+            int id = dirtyIds[i];
+            dirty[id] = false;
+            emit(id, false);
+        }
+        dirtyCount = 0;
+    }
+
+    public long lateTicks() {
+        return lateTicks;
+    }
+
+    public long completedBars() {
+        return completedBars;
+    }
+
+    private void emit(int id, boolean complete) {
+        sink.bar(id, days[id], opens[id], highs[id], lows[id], closes[id], volumes[id], complete);
+    }
+
+    private void grow(int symbolId) {
+        int from = days.length;
+        int capacity = Math.max(symbolId + 1, Math.max(64, from * 2));
+        days = Arrays.copyOf(days, capacity);
+        Arrays.fill(days, from, capacity, NO_BAR);
+        opens = Arrays.copyOf(opens, capacity);
+        highs = Arrays.copyOf(highs, capacity);
+        lows = Arrays.copyOf(lows, capacity);
+        closes = Arrays.copyOf(closes, capacity);
+        volumes = Arrays.copyOf(volumes, capacity);
+        lastTimestamps = Arrays.copyOf(lastTimestamps, capacity);
+        dirty = Arrays.copyOf(dirty, capacity);
+        dirtyIds = Arrays.copyOf(dirtyIds, capacity);
+    }
+}
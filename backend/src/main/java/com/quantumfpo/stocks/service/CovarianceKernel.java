@@ -0,0 +1,199 @@
+package com.quantumfpo.stocks.service;
+
+import com.quantumfpo.stocks.store.PriceMatrix;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Dense cross products, covariance and correlation over column-major return blocks, for baskets
+ * of thousands of symbols. The inner loops are {@link NumericKernels}.
+ *
+ * The upper triangle of X'X is cut into tiles of TILE_COLUMNS x TILE_COLUMNS entries. Each tile is
+ * accumulated over slabs of TILE_ROWS returns, so the two column strips it combines stay in cache,
+ * and is written by exactly one task. Tiles are spread over a {@link ForkJoinPool} by recursive
+ * halving of the tile list; no two tasks write the same entry, so they need no synchronization and
+ * the result does not depend on the number of threads.
+ */
+public final class CovarianceKernel {
+    // 2 tiles x 32 columns x 256 rows x 8 bytes = 128KB of operands per slab
+    static final int TILE_COLUMNS = 32;
+    static final int TILE_ROWS = 256;
+    // Below this many tiles a fork costs more than it saves
+    private static final int MIN_PARALLEL_TILES = 8;
+    private static final NumericKernels KERNELS = NumericKernels.PREFERRED;
+
+    private CovarianceKernel() {
+    }
+
+    /**
+     * X'X of a column-major t x n block on the calling thread, as a row-major n x n block
+     */
+    public static double[] crossProducts(double[] x, int n, int t) {
+        double[] result = new double[n * n];
+        int[] tiles = upperTiles(n);
+        for (int p = 0; p < tiles.length; p += 2) {
+            tile(x, n, t, tiles[p], tiles[p + 1], result);
+        }
+        mirror(result, n);
+        return result;
+    }
+
+    /**
+     * X'X of a column-major t x n block with its tiles spread over the given pool
+     */
+    public static double[] crossProducts(double[] x, int n, int t, ForkJoinPool pool) {
+        int[] tiles = upperTiles(n);
+        if (pool.getParallelism() < 2 || tiles.length / 2 < MIN_PARALLEL_TILES) {
+            return crossProducts(x, n, t);
+        }
+        double[] result = new double[n * n];
+        pool.invoke(new TileTask(x, n, t, tiles, 0, tiles.length / 2, result));
+        mirror(result, n);
+        return result;
+    }
+
+    /**
+     * Sample covariance (divided by t - 1, as pandas' DataFrame.cov) of the daily simple returns of
+     * aligned closes, not annualized
+     */
+    public static double[] covariance(PriceMatrix prices, ForkJoinPool pool) {
+        int n = prices.columns();
+        int t = prices.rows() - 1;
+        if (n == 0 || t < 2) {
+            throw new IllegalArgumentException("Need at least three aligned closes per symbol, got " + prices);
+        }
+        double[] result = crossProducts(centeredReturns(prices), n, t, pool);
+        double scale = 1.0 / (t - 1);
+        for (int i = 0; i < result.length; i++) {
+            result[i] *= scale;
+        }
+        return result;
+    }
+
+    /**
+     * Pearson correlation of the daily simple returns of aligned closes. Entries involving a symbol
+     * whose returns never change are NaN, as pandas gives them.
+     */
+    public static double[] correlation(PriceMatrix prices, ForkJoinPool pool) {
+        int n = prices.columns();
+        double[] result = covariance(prices, pool);
+        double[] scale = new double[n];
+        for (int i = 0; i < n; i++) {
+            double variance = result[i * n + i];
+            scale[i] = variance > 0 ? 1 / Math.sqrt(variance) : Double.NaN;
+        }
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                result[i * n + j] = i == j && !Double.isNaN(scale[i]) ? 1 : result[i * n + j] * (scale[i] * scale[j]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Daily simple returns of aligned closes as a column-major t x n block, each column centered on its mean
+     */
+    static double[] centeredReturns(PriceMatrix prices) {
+        double[] returns = returns(prices);
+        center(returns, prices.columns(), prices.rows() - 1);
+        return returns;
+    }
+
+    /**
+     * Daily simple returns of aligned closes as a column-major t x n block
+     */
+    static double[] returns(PriceMatrix prices) {
+        int n = prices.columns();
+        int t = prices.rows() - 1;
+        double[] closes = prices.values();
+        double[] returns = new double[n * t];
+        double[] column = new double[t + 1];
+        for (int j = 0; j < n; j++) {
+            for (int k = 0; k <= t; k++) {
+                column[k] = closes[k * n + j];
+            }
+            KERNELS.simpleReturns(column, 0, t, returns, j * t);
+        }
+        return returns;
+    }
+
+    /**
+     * Subtract each column's mean from a column-major t x n block in place
+     */
+    static void center(double[] x, int n, int t) {
+        for (int j = 0; j < n; j++) {
+            int column = j * t;
+            double sum = 0;
+            for (int k = 0; k < t; k++) {
+                sum += x[column + k];
+            }
+            double mean = sum / t;
+            for (int k = 0; k < t; k++) {
+                x[column + k] -= mean;
+            }
+        }
+    }
+
+    // First column of each upper-triangle tile pair, flattened as (ib, jb) with ib <= jb
+    private static int[] upperTiles(int n) {
+        int blocks = (n + TILE_COLUMNS - 1) / TILE_COLUMNS;
+        int[] tiles = new int[blocks * (blocks + 1)];
+        int p = 0;
+        for (int ib = 0; ib < blocks; ib++) {
+            for (int jb = ib; jb < blocks; jb++) {
+                tiles[p++] = ib * TILE_COLUMNS;
+                tiles[p++] = jb * TILE_COLUMNS;
+            }
+        }
+        return tiles;
+    }
+
+    private static void tile(double[] x, int n, int t, int ib, int jb, double[] result) {
+        int iEnd = Math.min(ib + TILE_COLUMNS, n);
+        int jEnd = Math.min(jb + TILE_COLUMNS, n);
+        for (int kb = 0; kb < t; kb += TILE_ROWS) {
+            KERNELS.crossProductTile(x, t, ib, iEnd, jb, jEnd, kb, Math.min(kb + TILE_ROWS, t), result, n);
+        }
+    }
+
+    private static void mirror(double[] result, int n) {
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                result[j * n + i] = result[i * n + j];
+            }
+        }
+    }
+
+    // Tiles [from, to) of the flattened pair list, split in halves down to a single tile
+    private static final class TileTask extends RecursiveAction {
+        private final double[] x;
+        private final int n;
+        private final int t;
+        private final int[] tiles;
+        private final int from;
+        private final int to;
+        private final double[] result;
+
+        TileTask(double[] x, int n, int t, int[] tiles, int from, int to, double[] result) {
+            this.x = x;
+            this.n = n;
+            this.t = t;
+            this.tiles = tiles;
+            this.from = from;
+            this.to = to;
+            this.result = result;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                tile(x, n, t, tiles[2 * from], tiles[2 * from + 1], result);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new TileTask(x, n, t, tiles, from, middle, result),
+                new TileTask(x, n, t, tiles, middle, to, result));
+        }
+    }
+}
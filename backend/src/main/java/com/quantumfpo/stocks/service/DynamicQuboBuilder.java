@@ -0,0 +1,237 @@
+package com.quantumfpo.stocks.service;
+
+import com.quantumfpo.stocks.model.QuboModel;
+import com.quantumfpo.stocks.model.RiskModel;
+import com.quantumfpo.stocks.store.PriceMatrix;
+import com.quantumfpo.stocks.store.PriceMatrix.GapPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Multi-period portfolio QUBO, O = -F + gamma R + C + rho P, assembled in the JVM from the price store.
+ *
+ * A port of the Python service's enhanced_dynamic_portfolio_opt.build_dynamic_qubo: the same period
+ * split, per-period mean historical returns and Ledoit-Wolf covariances, qubit layout and terms.
+ * Python fills a dense matrix symmetrically but build_hamiltonian_from_qubo reads only its strict
+ * upper triangle, so each pair here gets the one half it effectively contributes there. Couplings
+ * only ever join qubits of the same period, which is what keeps the model sparse.
+ */
+@Service
+public class DynamicQuboBuilder {
+    private static final Logger logger = LoggerFactory.getLogger(DynamicQuboBuilder.class);
+
+    /**
+     * The build_dynamic_qubo settings; {@link #DEFAULT} matches what the dynamic endpoint sends to Python
+     */
+    public record Config(int numTimeSteps, int rebalanceFrequencyDays, int bitResolution,
+                         double riskAversion, double transactionFee, double restrictionCoefficient) {
+
+        public static final Config DEFAULT = new Config(4, 30, 2, 1000.0, 0.01, 1.0);
+
+        public Config {
+            if (numTimeSteps < 1 || rebalanceFrequencyDays < 1) {
+                throw new IllegalArgumentException("Need at least one period of at least one day, got "
+                    + numTimeSteps + " of " + rebalanceFrequencyDays);
+            }
+            if (bitResolution < 1 || bitResolution > 30) {
+                throw new IllegalArgumentException("Bit resolution must be between 1 and 30, got " + bitResolution);
+            }
+        }
+
+        /**
+         * Share of an asset's allocation bit b stands for: 2^b / (2^bits - 1)
+         */
+        public double bitWeight(int bit) {
+            return (double) (1 << bit) / ((1 << bitResolution) - 1);
+        }
+    }
+
+    private final PriceMatrixService priceMatrixService;
+
+    public DynamicQuboBuilder(PriceMatrixService priceMatrixService) {
+        this.priceMatrixService = priceMatrixService;
+    }
+
+    /**
+     * QUBO over the stored history of the symbols, in the order given. previousAllocation, one entry
+     * per symbol, prices transaction costs; null leaves them out, as in Python.
+     */
+    public QuboModel build(List<String> symbols, Config config, double[] previousAllocation) {
+        long start = System.nanoTime();
+        List<RiskModel> periods = new ArrayList<>();
+        for (PriceMatrix period : periods(priceMatrixService.matrix(symbols, GapPolicy.FORWARD_FILL), config)) {
+            periods.add(RiskModelEngine.compute(period, RiskModelEngine.TRADING_DAYS));
+        }
+        if (periods.isEmpty()) {
+            throw new IllegalArgumentException("Insufficient data for multi-period optimization of " + symbols);
+        }
+        long estimated = System.nanoTime();
+        QuboModel model = assemble(periods, config, previousAllocation);
+        logger.info("[Qubo] Built {} assets x {} periods x {} bits: {} qubits, {} couplings; risk models {} us, assembly {} us",
+            symbols.size(), periods.size(), config.bitResolution(), model.size(), model.nonZeros(),
+            (estimated - start) / 1_000, (System.nanoTime() - estimated) / 1_000);
+        return model;
+    }
+
+    /**
+     * QUBO from one risk model per period, all over the same assets
+     */
+    public static QuboModel assemble(List<RiskModel> periods, Config config, double[] previousAllocation) {
+        int assets = periods.get(0).size();
+        for (RiskModel period : periods) {
+            if (period.size() != assets) {
+                throw new IllegalArgumentException("Every period needs the same " + assets + " assets, got " + period);
+            }
+        }
+        QuboModel.Builder builder = QuboModel.builder(totalQubits(assets, periods.size(), config));
+        addReturnTerms(builder, periods, config);
+        addRiskTerms(builder, periods, config);
+        addTransactionCostTerms(builder, config, periods.size(), previousAllocation);
+        addBudgetPenalty(builder, config, periods.size(), assets);
+        return builder.build();
+    }
+
+    /**
+     * Rows [t * f, min(t * f + 2f, rows)) for each time step t with f the rebalance frequency,
+     * stopping at the first window shorter than f rows (prepare_multi_period_data)
+     */
+    public static List<PriceMatrix> periods(PriceMatrix prices, Config config) {
+        List<PriceMatrix> periods = new ArrayList<>(config.numTimeSteps());
+        int frequency = config.rebalanceFrequencyDays();
+        for (int t = 0; t < config.numTimeSteps(); t++) {
+            int from = t * frequency;
+            int to = Math.min(from + 2 * frequency, prices.rows());
+            if (to - from < frequency) {
+                break;
+            }
+            periods.add(prices.rows(from, to));
+        }
+        return periods;
+    }
+
+    /**
+     * Qubit of one allocation bit, asset-major then period then bit (_get_qubit_index)
+     */
+    public static int qubitIndex(int asset, int period, int bit, int periods, Config config) {
+        return (asset * periods + period) * config.bitResolution() + bit;
+    }
+
+    /**
+     * Allocation share of each asset in each period from a solved state, [period][asset], as the
+     * sum of the bit weights set (decode_quantum_solution, without the max-investment scaling)
+     */
+    public static double[][] decode(boolean[] state, int assets, int periods, Config config) {
+        if (state.length != totalQubits(assets, periods, config)) {
+            throw new IllegalArgumentException("Expected " + totalQubits(assets, periods, config)
+                + " qubits for " + assets + " assets x " + periods + " periods, got " + state.length);
+        }
+        double[][] allocations = new double[periods][assets];
+        for (int p = 0; p < periods; p++) {
+            for (int a = 0; a < assets; a++) {
+                for (int b = 0; b < config.bitResolution(); b++) {
+                    if (state[qubitIndex(a, p, b, periods, config)]) {
+                        allocations[p][a] += config.bitWeight(b);
+                    }
+                }
+            }
+        }
+        return allocations;
+    }
+
+    public static int totalQubits(int assets, int periods, Config config) {
+        long total = (long) assets * periods * config.bitResolution();
+        if (total > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(assets + " assets x " + periods + " periods x "
+                + config.bitResolution() + " bits is too many qubits");
+        }
+        return (int) total;
+    }
+
+    /**
+     * -F: each bit earns its share of the period's expected return (add_return_objective)
+     */
+    public static void addReturnTerms(QuboModel.Builder builder, List<RiskModel> periods, Config config) {
+        for (int p = 0; p < periods.size(); p++) {
+            RiskModel model = periods.get(p);
+            for (int a = 0; a < model.size(); a++) {
+                for (int b = 0; b < config.bitResolution(); b++) {
+                    builder.addLinear(qubitIndex(a, p, b, periods.size(), config), -model.expectedReturn(a) * config.bitWeight(b));
+                }
+            }
+        }
+    }
+
+    /**
+     * gamma R: the period's covariance between every two bits (add_risk_objective)
+     */
+    public static void addRiskTerms(QuboModel.Builder builder, List<RiskModel> periods, Config config) {
+        int bits = config.bitResolution();
+        for (int p = 0; p < periods.size(); p++) {
+            RiskModel model = periods.get(p);
+            int n = model.size();
+            for (int i = 0; i < n; i++) {
+                for (int bi = 0; bi < bits; bi++) {
+                    int qi = qubitIndex(i, p, bi, periods.size(), config);
+                    double wi = config.bitWeight(bi);
+                    builder.addLinear(qi, config.riskAversion() * model.covariance(i, i) * wi * wi);
+                    // Each unordered pair once, from its lower qubit
+                    for (int j = i; j < n; j++) {
+                        for (int bj = j == i ? bi + 1 : 0; bj < bits; bj++) {
+                            double coefficient = config.riskAversion() * model.covariance(i, j) * wi * config.bitWeight(bj);
+                            builder.addQuadratic(qi, qubitIndex(j, p, bj, periods.size(), config), coefficient / 2);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * C: every bit of periods after the first pays the fee on the asset's previous allocation
+     * (add_transaction_cost_objective). Nothing without a previous allocation or a second period.
+     */
+    public static void addTransactionCostTerms(QuboModel.Builder builder, Config config, int periods,
+                                               double[] previousAllocation) {
+        if (previousAllocation == null || periods <= 1) {
+            return;
+        }
+        int assets = builder.size() / (periods * config.bitResolution());
+        if (previousAllocation.length != assets) {
+            throw new IllegalArgumentException("Expected a previous allocation for " + assets + " assets, got "
+                + previousAllocation.length);
+        }
+        for (int p = 1; p < periods; p++) {
+            for (int a = 0; a < assets; a++) {
+                for (int b = 0; b < config.bitResolution(); b++) {
+                    builder.addLinear(qubitIndex(a, p, b, periods, config), config.transactionFee() * previousAllocation[a]);
+                }
+            }
+        }
+    }
+
+    /**
+     * rho P: (sum of a period's bit weights - 1)^2 without its constant, per period (add_constraint_penalties)
+     */
+    public static void addBudgetPenalty(QuboModel.Builder builder, Config config, int periods, int assets) {
+        int bits = config.bitResolution();
+        double rho = config.restrictionCoefficient();
+        for (int p = 0; p < periods; p++) {
+            for (int i = 0; i < assets; i++) {
+                for (int bi = 0; bi < bits; bi++) {
+                    int qi = qubitIndex(i, p, bi, periods, config);
+                    double wi = config.bitWeight(bi);
+                    builder.addLinear(qi, rho * wi * (wi - 2));
+                    for (int j = i; j < assets; j++) {
+                        for (int bj = j == i ? bi + 1 : 0; bj < bits; bj++) {
+                            builder.addQuadratic(qi, qubitIndex(j, p, bj, periods, config), rho * wi * config.bitWeight(bj) / 2);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.quantumfpo.stocks.service;
+
+import com.quantumfpo.stocks.model.RiskEstimate;
+import com.quantumfpo.stocks.model.VarMethod;
+import com.quantumfpo.stocks.store.PriceMatrix;
+import com.quantumfpo.stocks.store.PriceMatrix.GapPolicy;
+import com.quantumfpo.stocks.store.TDigest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Historical-simulation Value at Risk and Conditional Value at Risk of a weighted portfolio.
+ *
+ * Every horizon-long window of the aligned stored closes is one scenario: the portfolio return
+ * with each asset's closes at the start and end of the window. Outcomes go straight into a
+ * {@link TDigest} instead of being collected and sorted, so one pass over the history in bounded
+ * memory gives both figures. The windows are split over the common {@link ForkJoinPool} and each
+ * part's digest is merged into its parent's.
+ */
+@Service
+public class HistoricalRiskEngine {
+    private static final Logger logger = LoggerFactory.getLogger(HistoricalRiskEngine.class);
+    // Windows one task evaluates before it stops splitting
+    static final int CHUNK_WINDOWS = 4096;
+
+    private final PriceMatrixService priceMatrixService;
+    private final int horizonDays;
+    private final double compression;
+
+    public HistoricalRiskEngine(PriceMatrixService priceMatrixService,
+                                @Value("${risk.var.horizon-days:1}") int horizonDays,
+                                @Value("${risk.var.historical.compression:200}") double compression) {
+        if (horizonDays < 1) {
+            throw new IllegalArgumentException("Need a horizon of at least one day, got " + horizonDays);
+        }
+        if (!(compression >= 10)) {
+            throw new IllegalArgumentException("Digest compression must be at least 10, got " + compression);
+        }
+        this.priceMatrixService = priceMatrixService;
+        this.horizonDays = horizonDays;
+        this.compression = compression;
+    }
+
+    /**
+     * VaR and CVaR of the weighted symbols over their full stored history at a tail probability of
+     * varPercent / 100. Weights are fractions of portfolio value.
+     */
+    public RiskEstimate estimate(Map<String, ? extends Number> weights, double varPercent) {
+        List<String> symbols = new ArrayList<>(weights.size());
+        List<Double> held = new ArrayList<>(weights.size());
+        weights.forEach((symbol, weight) -> {
+            if (weight != null && weight.doubleValue() != 0) {
+                symbols.add(symbol);
+                held.add(weight.doubleValue());
+            }
+        });
+        if (symbols.isEmpty()) {
+            throw new IllegalArgumentException("No non-zero weights to evaluate");
+        }
+        double[] w = new double[held.size()];
+        for (int i = 0; i < w.length; i++) {
+            w[i] = held.get(i);
+        }
+        return estimate(priceMatrixService.matrix(symbols, GapPolicy.FORWARD_FILL), w, varPercent);
+    }
+
+    /**
+     * VaR and CVaR of a portfolio with the given weights, in the matrix's column order, at a tail
+     * probability of varPercent / 100
+     */
+    public RiskEstimate estimate(PriceMatrix prices, double[] weights, double varPercent) {
+        if (weights.length != prices.columns()) {
+            throw new IllegalArgumentException("Expected " + prices.columns() + " weights, got " + weights.length);
+        }
+        if (!(varPercent >= 0 && varPercent <= 100)) {
+            throw new IllegalArgumentException("VaR percent must be between 0 and 100, got " + varPercent);
+        }
+        int windows = prices.rows() - horizonDays;
+        if (windows < 1) {
+            throw new IllegalArgumentException("Need more than " + horizonDays + " aligned closes per symbol, got " + prices);
+        }
+        long start = System.nanoTime();
+
+        int n = 0;
+        int[] held = new int[weights.length];
+        for (int j = 0; j < weights.length; j++) {
+            if (weights[j] != 0) {
+                held[n++] = j;
+            }
+        }
+        if (n == 0) {
+            throw new IllegalArgumentException("No non-zero weights to evaluate");
+        }
+        double[] w = new double[n];
+        for (int a = 0; a < n; a++) {
+            w[a] = weights[held[a]];
+        }
+        TDigest outcomes = ForkJoinPool.commonPool().invoke(new WindowTask(
+            prices.values(), prices.columns(), held, w, n, horizonDays, compression, 0, windows));
+
+        double tailProbability = varPercent / 100;
+        // Same order statistic as the sorted Monte Carlo outcomes: the ceil(alpha * S)-th lowest
+        double tail = Math.max(1, Math.ceil(tailProbability * windows - 1e-9));
+        double tailFraction = tail / windows;
+        double valueAtRisk = -outcomes.quantile(Math.max(0, (tail - 0.5) / windows));
+        double conditionalValueAtRisk = -outcomes.lowerTailMean(tailFraction);
+        RiskEstimate estimate = new RiskEstimate(VarMethod.HISTORICAL, 1 - tailProbability, valueAtRisk,
+            conditionalValueAtRisk, windows, horizonDays, System.nanoTime() - start);
+        logger.info("[Risk] Summarized {} historical {}-day windows of {} assets in {} centroids in {} ms: VaR {} CVaR {} at {}",
+            windows, horizonDays, n, outcomes.centroidCount(), estimate.getElapsedNanos() / 1_000_000,
+            estimate.getValueAtRisk(), estimate.getConditionalValueAtRisk(), estimate.getConfidence());
+        return estimate;
+    }
+
+    // Windows starting at rows [from, to) of the row-major closes, halved until a chunk is left
+    private static final class WindowTask extends RecursiveTask<TDigest> {
+        private final double[] closes;
+        private final int columns;
+        private final int[] held;
+        private final double[] weights;
+        private final int n;
+        private final int horizon;
+        private final double compression;
+        private final int from;
+        private final int to;
+
+        WindowTask(double[] closes, int columns, int[] held, double[] weights, int n, int horizon,
+                   double compression, int from, int to) {
+            this.closes = closes;
+            this.columns = columns;
+            this.held = held;
+            this.weights = weights;
+            this.n = n;
+            this.horizon = horizon;
+            this.compression = compression;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected TDigest compute() {
+            if (to - from <= CHUNK_WINDOWS) {
+                TDigest digest = new TDigest(compression);
+                for (int row = from; row < to; row++) {
+                    int first = row * columns;
+                    int last = (row + horizon) * columns;
+                    double value = 0;
+                    for (int a = 0; a < n; a++) {
+                        value += weights[a] * RiskModelEngine.dailyReturn(closes[first + held[a]], closes[last + held[a]]);
+                    }
+                    digest.add(value);
+                }
+                return digest;
+            }
+            int middle = (from + to) >>> 1;
+            WindowTask right = new WindowTask(closes, columns, held, weights, n, horizon, compression, middle, to);
+            right.fork();
+            TDigest digest = new WindowTask(closes, columns, held, weights, n, horizon, compression, from, middle).compute();
+            digest.merge(right.join());
+            return digest;
+        }
+    }
+}
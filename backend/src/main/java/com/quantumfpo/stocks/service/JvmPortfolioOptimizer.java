@@ -0,0 +1,200 @@
+package com.quantumfpo.stocks.service;
+
+import com.quantumfpo.stocks.model.QuboModel;
+import com.quantumfpo.stocks.model.RiskEstimate;
+import com.quantumfpo.stocks.model.RiskModel;
+import com.quantumfpo.stocks.model.VarMethod;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-process classical optimization: the same max-Sharpe portfolio the Python service returns,
+ * estimated and solved in the JVM from the price store, so /optimize does not need Python.
+ * The hybrid variant pairs it with the asset-selection problem the Python service hands to QAOA,
+ * solved here by simulated annealing instead, and the dynamic variant anneals the multi-period
+ * allocation QUBO {@link DynamicQuboBuilder} builds.
+ */
+@Service
+public class JvmPortfolioOptimizer {
+    private static final Logger logger = LoggerFactory.getLogger(JvmPortfolioOptimizer.class);
+    // hybrid_portfolio_opt.quantum_optimize's default, which the hybrid endpoint uses
+    static final double SELECTION_RISK_AVERSION = 0.5;
+
+    private final RiskModelEngine riskModelEngine;
+    private final RollingRiskModelService rollingRiskModelService;
+    private final MonteCarloRiskEngine monteCarloRiskEngine;
+    private final HistoricalRiskEngine historicalRiskEngine;
+    private final SimulatedAnnealingSolver annealingSolver;
+    private final DynamicQuboBuilder dynamicQuboBuilder;
+    private final double riskFreeRate;
+    // Latest daily returns the risk model is estimated from; 0 uses the full stored history
+    private final int window;
+
+    public JvmPortfolioOptimizer(RiskModelEngine riskModelEngine,
+                                 RollingRiskModelService rollingRiskModelService,
+                                 MonteCarloRiskEngine monteCarloRiskEngine,
+                                 HistoricalRiskEngine historicalRiskEngine,
+                                 SimulatedAnnealingSolver annealingSolver,
+                                 DynamicQuboBuilder dynamicQuboBuilder,
+                                 @Value("${optimize.risk-free-rate:0.02}") double riskFreeRate,
+                                 @Value("${optimize.jvm.window:0}") int window) {
+        this.riskModelEngine = riskModelEngine;
+        this.rollingRiskModelService = rollingRiskModelService;
+        this.monteCarloRiskEngine = monteCarloRiskEngine;
+        this.historicalRiskEngine = historicalRiskEngine;
+        this.annealingSolver = annealingSolver;
+        this.dynamicQuboBuilder = dynamicQuboBuilder;
+        this.riskFreeRate = riskFreeRate;
+        this.window = window;
+    }
+
+    /**
+     * Max-Sharpe weights for symbols already in the price store, in the Python service's response shape
+     */
+    public Map<String, Object> optimizeClassical(List<String> symbols, double varPercent) {
+        return optimizeClassical(symbols, varPercent, VarMethod.MONTE_CARLO);
+    }
+
+    /**
+     * Max-Sharpe weights with VaR and CVaR estimated by the given method
+     */
+    public Map<String, Object> optimizeClassical(List<String> symbols, double varPercent, VarMethod varMethod) {
+        MaxSharpe maxSharpe = maxSharpe(symbols);
+        RiskModel model = maxSharpe.model();
+        MaxSharpeSolver.Solution solution = maxSharpe.solution();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("weights", MaxSharpeSolver.cleanWeights(model, solution.weights(),
+            MaxSharpeSolver.DEFAULT_CUTOFF, MaxSharpeSolver.DEFAULT_ROUNDING));
+        result.put("expected_annual_return", solution.expectedReturn());
+        result.put("annual_volatility", solution.volatility());
+        result.put("sharpe_ratio", solution.sharpeRatio());
+        risk(model, solution.weights(), varPercent, varMethod).putInto(result);
+        return result;
+    }
+
+    /**
+     * Max-Sharpe weights alongside an annealed asset selection, in the Python hybrid response shape.
+     * quantum_qaoa_result carries the selection bits in symbol order, the Hamiltonian's energy for
+     * them, and how many annealing replicas ended on each selection.
+     */
+    public Map<String, Object> optimizeHybrid(List<String> symbols, double varPercent, VarMethod varMethod) {
+        MaxSharpe maxSharpe = maxSharpe(symbols);
+        RiskModel model = maxSharpe.model();
+        MaxSharpeSolver.Solution solution = maxSharpe.solution();
+        SimulatedAnnealingSolver.Solution selection = annealingSolver.solve(selectionQubo(model, SELECTION_RISK_AVERSION));
+
+        Map<String, Object> performance = new LinkedHashMap<>();
+        performance.put("expected_annual_return", solution.expectedReturn());
+        performance.put("annual_volatility", solution.volatility());
+        performance.put("sharpe_ratio", solution.sharpeRatio());
+        Map<String, Object> quantum = new LinkedHashMap<>();
+        quantum.put("solution", selection.bits());
+        quantum.put("objective_value", selection.energy());
+        quantum.put("counts", selection.counts());
+        quantum.put("annealing_replicas", selection.replicas());
+        quantum.put("annealing_sweeps", selection.sweeps());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("classical_weights", MaxSharpeSolver.cleanWeights(model, solution.weights(),
+            MaxSharpeSolver.DEFAULT_CUTOFF, MaxSharpeSolver.DEFAULT_ROUNDING));
+        result.put("classical_performance", performance);
+        result.put("quantum_qaoa_result", quantum);
+        risk(model, solution.weights(), varPercent, varMethod).putInto(result);
+        return result;
+    }
+
+    /**
+     * Multi-period allocations annealed from the dynamic QUBO, in the Python dynamic response shape:
+     * allocations maps time_step_p to each symbol's share in that period, decoded from the lowest
+     * energy state annealing found.
+     */
+    public Map<String, Object> optimizeDynamic(List<String> symbols, DynamicQuboBuilder.Config config) {
+        QuboModel model = dynamicQuboBuilder.build(symbols, config, null);
+        long start = System.nanoTime();
+        SimulatedAnnealingSolver.Solution solution = annealingSolver.solve(model);
+        int periods = model.size() / (symbols.size() * config.bitResolution());
+        double[][] shares = DynamicQuboBuilder.decode(solution.state(), symbols.size(), periods, config);
+        logger.info("[Optimizer] Annealed {} qubits over {} periods in {} us, energy {}",
+            model.size(), periods, (System.nanoTime() - start) / 1_000, solution.energy());
+
+        Map<String, Object> allocations = new LinkedHashMap<>();
+        for (int p = 0; p < periods; p++) {
+            Map<String, Object> period = new LinkedHashMap<>();
+            for (int a = 0; a < symbols.size(); a++) {
+                period.put(symbols.get(a), shares[p][a]);
+            }
+            allocations.put("time_step_" + p, period);
+        }
+        Map<String, Object> configuration = new LinkedHashMap<>();
+        configuration.put("num_time_steps", config.numTimeSteps());
+        configuration.put("rebalance_frequency_days", config.rebalanceFrequencyDays());
+        configuration.put("bit_resolution", config.bitResolution());
+        configuration.put("risk_aversion", config.riskAversion());
+        configuration.put("transaction_fee", config.transactionFee());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("allocations", allocations);
+        result.put("objective_value", solution.energy());
+        result.put("solution_bitstring", SimulatedAnnealingSolver.bitString(solution.state()));
+        result.put("measurement_counts", solution.counts());
+        result.put("total_qubits", model.size());
+        result.put("num_periods", periods);
+        result.put("annealing_replicas", solution.replicas());
+        result.put("annealing_sweeps", solution.sweeps());
+        result.put("optimization_method", "simulated_annealing");
+        result.put("configuration", configuration);
+        return result;
+    }
+
+    /**
+     * The cost Hamiltonian hybrid_portfolio_opt builds for QAOA, H = sum_i h_i Z_i + sum_{i < j} J_ij Z_i Z_j
+     * with h = -mu and J = riskAversion * S, as a QUBO over bits x_i = (1 - Z_i) / 2. Like Python's, it
+     * has no diagonal covariance term, since Z_i Z_i is the identity.
+     */
+    public static QuboModel selectionQubo(RiskModel model, double riskAversion) {
+        int n = model.size();
+        QuboModel.Builder hamiltonian = QuboModel.builder(n);
+        for (int i = 0; i < n; i++) {
+            hamiltonian.addLinear(i, -model.expectedReturn(i));
+            for (int j = i + 1; j < n; j++) {
+                hamiltonian.addQuadratic(i, j, riskAversion * model.covariance(i, j));
+            }
+        }
+        return hamiltonian.build().isingAsQubo();
+    }
+
+    private record MaxSharpe(RiskModel model, MaxSharpeSolver.Solution solution) {}
+
+    private MaxSharpe maxSharpe(List<String> symbols) {
+        long start = System.nanoTime();
+        RiskModel model = window > 0
+            ? rollingRiskModelService.estimate(symbols, window)
+            : riskModelEngine.estimate(symbols);
+        long estimated = System.nanoTime();
+        MaxSharpeSolver.Solution solution = MaxSharpeSolver.solve(model, riskFreeRate);
+        long solved = System.nanoTime();
+        logger.info("[Optimizer] Max-Sharpe over {} symbols x {} returns: risk model {} us, solve {} us ({} iterations)",
+            model.size(), model.getObservations(), (estimated - start) / 1_000, (solved - estimated) / 1_000,
+            solution.iterations());
+        return new MaxSharpe(model, solution);
+    }
+
+    private RiskEstimate risk(RiskModel model, double[] weights, double varPercent, VarMethod varMethod) {
+        if (varMethod == VarMethod.HISTORICAL) {
+            Map<String, Double> bySymbol = new LinkedHashMap<>();
+            for (int i = 0; i < weights.length; i++) {
+                bySymbol.put(model.symbol(i), weights[i]);
+            }
+            return historicalRiskEngine.estimate(bySymbol, varPercent);
+        }
+        // Simulated over the same risk model the weights were solved on
+        return monteCarloRiskEngine.estimate(model, weights, varPercent);
+    }
+}
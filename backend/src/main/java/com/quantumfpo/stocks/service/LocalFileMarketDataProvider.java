@@ -0,0 +1,122 @@
+package com.quantumfpo.stocks.service;
+
+import com.quantumfpo.stocks.model.StockData;
+import com.quantumfpo.stocks.store.CsvPriceReader;
+import com.quantumfpo.stocks.store.MappedPriceFile;
+import com.quantumfpo.stocks.store.PriceSeries;
+import com.quantumfpo.stocks.store.PriceView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Replays price history from local per-symbol dumps instead of a remote API.
+ *
+ * Each symbol is read from {@code <symbol>.px} (the {@link MappedPriceFile} format, so a
+ * pricestore.data-dir snapshot can be replayed directly) or failing that {@code <symbol>.csv}
+ * (see {@link CsvPriceReader}), with the symbol URL-encoded in the file name.
+ * Enabled with marketdata.provider=local, and then used in place of the simulator.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "marketdata.provider", havingValue = "local")
+public class LocalFileMarketDataProvider implements MarketDataProvider {
+    private static final Logger logger = LoggerFactory.getLogger(LocalFileMarketDataProvider.class);
+
+    private final Path directory;
+    private final CsvPriceReader csvReader;
+
+    public LocalFileMarketDataProvider(@Value("${marketdata.local.path}") String directory,
+                                       @Value("${marketdata.local.close-column:1}") int closeColumn) {
+        if (directory == null || directory.isBlank()) {
+            throw new IllegalArgumentException("marketdata.local.path must be set when marketdata.provider=local");
+        }
+        this.directory = Paths.get(directory);
+        this.csvReader = new CsvPriceReader(closeColumn);
+        if (!Files.isDirectory(this.directory)) {
+            throw new IllegalArgumentException("marketdata.local.path is not a directory: " + directory);
+        }
+        logger.info("[LocalData] Replaying price history from {}", this.directory.toAbsolutePath());
+    }
+
+    @Override
+    public List<StockData> fetchStockHistory(String symbol, LocalDate from, LocalDate to) {
+        return read(symbol, from, to).view().toStockData();
+    }
+
+    /**
+     * Reads every symbol's file in parallel on virtual threads, straight into columnar series
+     */
+    @Override
+    public Map<String, PriceView> fetchMany(Collection<String> symbols, LocalDate from, LocalDate to) {
+        Map<String, Future<PriceSeries>> pending = new LinkedHashMap<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String symbol : new LinkedHashSet<>(symbols)) {
+                pending.put(symbol, executor.submit(() -> read(symbol, from, to)));
+            }
+        }
+
+        Map<String, PriceView> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Future<PriceSeries>> entry : pending.entrySet()) {
+            try {
+                result.put(entry.getKey(), entry.getValue().get().view());
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof RuntimeException runtime
+                    ? runtime : new IllegalStateException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while reading " + entry.getKey(), e);
+            }
+        }
+        logger.info("[LocalData] Read {} symbols from {} to {}", result.size(), from, to);
+        return result;
+    }
+
+    @Override
+    public boolean supportsBulk() {
+        return true;
+    }
+
+    private PriceSeries read(String symbol, LocalDate from, LocalDate to) {
+        int fromDay = (int) from.toEpochDay();
+        int toDay = (int) to.toEpochDay();
+        String fileName = URLEncoder.encode(symbol, StandardCharsets.UTF_8);
+        try {
+            Path binary = directory.resolve(fileName + ".px");
+            if (Files.isRegularFile(binary)) {
+                try (MappedPriceFile file = MappedPriceFile.openReadOnly(binary)) {
+                    return file.slice(symbol, fromDay, toDay);
+                }
+            }
+            Path csv = directory.resolve(fileName + ".csv");
+            if (Files.isRegularFile(csv)) {
+                return csvReader.read(symbol, csv, fromDay, toDay);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read local price history for " + symbol, e);
+        }
+        logger.debug("[LocalData] No local file for {}", symbol);
+        return new PriceSeries(symbol, 1);
+    }
+}
@@ -0,0 +1,53 @@
+package com.quantumfpo.stocks.service;
+
+import com.quantumfpo.stocks.model.StockData;
+import com.quantumfpo.stocks.store.PriceSeries;
+import com.quantumfpo.stocks.store.PriceView;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Source of daily close history.
+ * A provider must return the same close for a given symbol and date on every call, so ranges
+ * fetched at different times can be merged into one stored series. Symbols the provider knows
+ * nothing about yield empty history rather than an error.
+ */
+public interface MarketDataProvider {
+
+    /**
+     * History of a symbol dated within [from, to], both inclusive, in date order
+     */
+    List<StockData> fetchStockHistory(String symbol, LocalDate from, LocalDate to);
+
+    /**
+     * History of a symbol over the last days calendar days, today included
+     */
+    default List<StockData> fetchStockHistory(String symbol, int days) {
+        LocalDate today = LocalDate.now();
+        return fetchStockHistory(symbol, today.minusDays(days - 1L), today);
+    }
+
+    /**
+     * History of many symbols over one date range, keyed in the order the symbols were given.
+     * Bulk sources should override this to read every symbol in one pass, and {@link #supportsBulk}.
+     */
+    default Map<String, PriceView> fetchMany(Collection<String> symbols, LocalDate from, LocalDate to) {
+        Map<String, PriceView> result = new LinkedHashMap<>();
+        for (String symbol : symbols) {
+            result.put(symbol, PriceSeries.fromStockData(symbol, fetchStockHistory(symbol, from, to)).view());
+        }
+        return result;
+    }
+
+    /**
+     * Whether {@link #fetchMany} reads a batch faster than one fetch per symbol, so loaders should
+     * group their missing ranges into bulk calls
+     */
+    default boolean supportsBulk() {
+        return false;
+    }
+}
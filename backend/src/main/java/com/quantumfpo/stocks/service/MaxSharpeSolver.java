@@ -0,0 +1,238 @@
+package com.quantumfpo.stocks.service;
+
+import com.quantumfpo.stocks.model.RiskModel;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Long-only, fully invested maximum Sharpe ratio portfolio, as pypfopt's EfficientFrontier.max_sharpe.
+ *
+ * Uses the same change of variables (Cornuejols and Tutuncu): minimize y'Sy subject to
+ * (mu - rf)'y = 1 and y >= 0, then w = y / sum(y). That small convex QP is solved with a primal
+ * active-set method: each step solves the equality-constrained problem on the free assets by
+ * Cholesky, moves towards it until a weight hits zero, and frees the bound with the most negative
+ * multiplier once the free set is optimal.
+ */
+public final class MaxSharpeSolver {
+    public static final double DEFAULT_CUTOFF = 1e-4;
+    public static final int DEFAULT_ROUNDING = 5;
+    private static final double TOLERANCE = 1e-12;
+    private static final NumericKernels KERNELS = NumericKernels.PREFERRED;
+
+    /**
+     * Optimal weights with pypfopt's portfolio_performance figures, computed from the raw weights
+     */
+    public record Solution(double[] weights, double expectedReturn, double volatility, double sharpeRatio, int iterations) {
+    }
+
+    private MaxSharpeSolver() {
+    }
+
+    public static Solution solve(RiskModel model, double riskFreeRate) {
+        int n = model.size();
+        double[] cov = model.covarianceMatrix();
+        double[] excess = new double[n];
+        int best = -1;
+        for (int i = 0; i < n; i++) {
+            excess[i] = model.expectedReturn(i) - riskFreeRate;
+            if (excess[i] > 0 && (best < 0 || excess[i] > excess[best])) {
+                best = i;
+            }
+        }
+        if (best < 0) {
+            throw new IllegalArgumentException("At least one of the assets must have an expected return exceeding the risk-free rate");
+        }
+
+        // Start from the single asset with the highest excess return, which is feasible
+        double[] y = new double[n];
+        y[best] = 1 / excess[best];
+        boolean[] free = new boolean[n];
+        free[best] = true;
+        int iterations = 0;
+        int maxIterations = 10 * n + 10;
+        while (iterations++ < maxIterations) {
+            int[] f = indices(free);
+            double[] target = equalityTarget(cov, excess, f, n);
+            double step = 1;
+            int blocking = -1;
+            for (int a = 0; a < f.length; a++) {
+                int i = f[a];
+                if (target[a] < 0) {
+                    double limit = y[i] / (y[i] - target[a]);
+                    if (limit < step) {
+                        step = limit;
+                        blocking = i;
+                    }
+                }
+            }
+            for (int a = 0; a < f.length; a++) {
+                y[f[a]] += step * (target[a] - y[f[a]]);
+            }
+            if (blocking >= 0) {
+                // The blocking weight lands on zero; rounding can leave others there too
+                for (int i : f) {
+                    if (i == blocking || y[i] <= 0) {
+                        y[i] = 0;
+                        free[i] = false;
+                    }
+                }
+                continue;
+            }
+
+            // Optimal on the free set: gradient 2Sy equals lambda * excess there; bounds need 2(Sy)_i - lambda * excess_i >= 0
+            double lambda = 0;
+            double[] gradient = multiply(cov, y, n);
+            for (int a = 0; a < f.length; a++) {
+                lambda += gradient[f[a]] * y[f[a]];
+            }
+            int entering = -1;
+            double mostNegative = -TOLERANCE * Math.max(1, Math.abs(lambda));
+            for (int i = 0; i < n; i++) {
+                if (!free[i]) {
+                    double multiplier = gradient[i] - lambda * excess[i];
+                    if (multiplier < mostNegative) {
+                        mostNegative = multiplier;
+                        entering = i;
+                    }
+                }
+            }
+            if (entering < 0) {
+                break;
+            }
+            free[entering] = true;
+        }
+
+        double total = 0;
+        for (double v : y) {
+            total += v;
+        }
+        double[] weights = new double[n];
+        for (int i = 0; i < n; i++) {
+            weights[i] = y[i] / total;
+        }
+        double expected = 0;
+        for (int i = 0; i < n; i++) {
+            expected += weights[i] * model.expectedReturn(i);
+        }
+        double variance = KERNELS.quadraticForm(cov, weights, n);
+        double volatility = Math.sqrt(Math.max(variance, 0));
+        return new Solution(weights, expected, volatility, (expected - riskFreeRate) / volatility, iterations);
+    }
+
+    /**
+     * pypfopt's clean_weights: zero anything below cutoff in magnitude, then round half-even to the
+     * given number of places as numpy does, without renormalizing
+     */
+    public static Map<String, Double> cleanWeights(RiskModel model, double[] weights, double cutoff, int rounding) {
+        double scale = Math.pow(10, rounding);
+        Map<String, Double> cleaned = new LinkedHashMap<>();
+        for (int i = 0; i < weights.length; i++) {
+            double w = Math.abs(weights[i]) < cutoff ? 0 : weights[i];
+            cleaned.put(model.symbol(i), Math.rint(w * scale) / scale + 0.0);
+        }
+        return cleaned;
+    }
+
+    // Minimizer of y'S_FF y subject to excess_F'y = 1: S_FF^-1 excess_F / (excess_F' S_FF^-1 excess_F)
+    private static double[] equalityTarget(double[] cov, double[] excess, int[] f, int n) {
+        int m = f.length;
+        double[] sub = new double[m * m];
+        double[] rhs = new double[m];
+        for (int a = 0; a < m; a++) {
+            rhs[a] = excess[f[a]];
+            for (int b = 0; b < m; b++) {
+                sub[a * m + b] = cov[f[a] * n + f[b]];
+            }
+        }
+        double[] z = choleskySolve(sub, rhs, m);
+        double denominator = 0;
+        for (int a = 0; a < m; a++) {
+            denominator += rhs[a] * z[a];
+        }
+        for (int a = 0; a < m; a++) {
+            z[a] /= denominator;
+        }
+        return z;
+    }
+
+    // Solves Ax = b for symmetric positive definite A, adding a small ridge if A is only semidefinite
+    static double[] choleskySolve(double[] a, double[] b, int m) {
+        double[] l = cholesky(a, m);
+        double[] y = new double[m];
+        for (int i = 0; i < m; i++) {
+            y[i] = (b[i] - KERNELS.dot(l, i * m, y, 0, i)) / l[i * m + i];
+        }
+        double[] x = new double[m];
+        for (int i = m - 1; i >= 0; i--) {
+            double s = y[i];
+            for (int k = i + 1; k < m; k++) {
+                s -= l[k * m + i] * x[k];
+            }
+            x[i] = s / l[i * m + i];
+        }
+        return x;
+    }
+
+    /**
+     * Lower Cholesky factor of a symmetric positive semidefinite m x m block, row-major.
+     * A semidefinite block gets the smallest ridge, growing a hundredfold from 1e-12 of its mean
+     * variance, that lets the factorization go through.
+     */
+    static double[] cholesky(double[] a, int m) {
+        double trace = 0;
+        for (int i = 0; i < m; i++) {
+            trace += a[i * m + i];
+        }
+        double ridge = 0;
+        while (true) {
+            double[] l = cholesky(a, m, ridge);
+            if (l != null) {
+                return l;
+            }
+            ridge = ridge == 0 ? 1e-12 * Math.max(trace / m, Double.MIN_NORMAL) : ridge * 100;
+            if (!Double.isFinite(ridge)) {
+                // Only a block with NaN or infinite entries gets here
+                throw new IllegalArgumentException("Cannot factor a " + m + " x " + m + " block with non-finite entries");
+            }
+        }
+    }
+
+    private static double[] cholesky(double[] a, int m, double ridge) {
+        double[] l = new double[m * m];
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j <= i; j++) {
+                double s = a[i * m + j] + (i == j ? ridge : 0) - KERNELS.dot(l, i * m, l, j * m, j);
+                if (i == j) {
+                    if (!(s > 0)) {
+                        return null;
+                    }
+                    l[i * m + i] = Math.sqrt(s);
+                } else {
+                    l[i * m + j] = s / l[j * m + j];
+                }
+            }
+        }
+        return l;
+    }
+
+    private static double[] multiply(double[] cov, double[] x, int n) {
+        double[] result = new double[n];
+        for (int i = 0; i < n; i++) {
+            result[i] = KERNELS.dot(cov, i * n, x, 0, n);
+        }
+        return result;
+    }
+
+    private static int[] indices(boolean[] mask) {
+        int[] result = new int[mask.length];
+        int count = 0;
+        for (int i = 0; i < mask.length; i++) {
+            if (mask[i]) {
+                result[count++] = i;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+}
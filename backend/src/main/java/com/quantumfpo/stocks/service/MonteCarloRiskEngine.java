@@ -0,0 +1,256 @@
+package com.quantumfpo.stocks.service;
+
+import com.quantumfpo.stocks.model.RiskEstimate;
+import com.quantumfpo.stocks.model.RiskModel;
+import com.quantumfpo.stocks.model.VarMethod;
+import com.quantumfpo.stocks.store.BoundedCache;
+import com.quantumfpo.stocks.store.BoundedCacheMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Monte Carlo Value at Risk and Conditional Value at Risk of a weighted portfolio.
+ *
+ * Each scenario draws correlated daily returns for every held asset, r = m + Lz with L the
+ * Cholesky factor of the daily covariance, compounds them per asset over the horizon and values
+ * the portfolio at the end. With risk.var.degrees-of-freedom above 2 the draws are multivariate
+ * Student-t scaled to the same covariance, for fatter tails than the normal default.
+ *
+ * Scenarios are split over the common {@link ForkJoinPool} by recursive halving, and every split
+ * splits the task's {@link SplittableRandom} with it, so a given seed yields the same scenarios
+ * whatever the number of threads. Factors are cached by basket and covariance, so re-evaluating
+ * the same risk model skips the O(n^3) factorization.
+ */
+@Service
+public class MonteCarloRiskEngine implements MeterBinder {
+    private static final Logger logger = LoggerFactory.getLogger(MonteCarloRiskEngine.class);
+    private static final NumericKernels KERNELS = NumericKernels.PREFERRED;
+    // Scenarios one task simulates before it stops splitting
+    static final int CHUNK_SCENARIOS = 2048;
+
+    private final RiskModelEngine riskModelEngine;
+    private final int scenarios;
+    private final int horizonDays;
+    private final int degreesOfFreedom;
+    private final long seed;
+    private final BoundedCache<FactorKey, double[]> factors;
+
+    public MonteCarloRiskEngine(RiskModelEngine riskModelEngine,
+                                @Value("${risk.var.scenarios:50000}") int scenarios,
+                                @Value("${risk.var.horizon-days:1}") int horizonDays,
+                                @Value("${risk.var.degrees-of-freedom:0}") int degreesOfFreedom,
+                                @Value("${risk.var.seed:42}") long seed,
+                                @Value("${risk.var.cache.max-entries:32}") int maxFactors) {
+        if (scenarios < 1 || horizonDays < 1) {
+            throw new IllegalArgumentException("Need at least one scenario and a horizon of at least one day, got "
+                + scenarios + " and " + horizonDays);
+        }
+        if (degreesOfFreedom != 0 && degreesOfFreedom <= 2) {
+            throw new IllegalArgumentException("Student-t draws need more than 2 degrees of freedom for a finite "
+                + "covariance, got " + degreesOfFreedom + " (0 draws normals)");
+        }
+        this.riskModelEngine = riskModelEngine;
+        this.scenarios = scenarios;
+        this.horizonDays = horizonDays;
+        this.degreesOfFreedom = degreesOfFreedom;
+        this.seed = seed;
+        this.factors = new BoundedCache<>(maxFactors, Long.MAX_VALUE, Duration.ZERO, factor -> 8L * factor.length);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new BoundedCacheMetrics(factors, "risk.var.factors", Tags.empty()).bindTo(registry);
+    }
+
+    /**
+     * VaR and CVaR of the weighted symbols at a tail probability of varPercent / 100, with the
+     * risk model estimated over their stored history. Weights are fractions of portfolio value.
+     */
+    public RiskEstimate estimate(Map<String, ? extends Number> weights, double varPercent) {
+        List<String> symbols = new ArrayList<>(weights.size());
+        List<Double> held = new ArrayList<>(weights.size());
+        weights.forEach((symbol, weight) -> {
+            if (weight != null && weight.doubleValue() != 0) {
+                symbols.add(symbol);
+                held.add(weight.doubleValue());
+            }
+        });
+        if (symbols.isEmpty()) {
+            throw new IllegalArgumentException("No non-zero weights to evaluate");
+        }
+        double[] w = new double[held.size()];
+        for (int i = 0; i < w.length; i++) {
+            w[i] = held.get(i);
+        }
+        return estimate(riskModelEngine.estimate(symbols), w, varPercent);
+    }
+
+    /**
+     * VaR and CVaR of a portfolio with the given weights, in the model's symbol order, at a tail
+     * probability of varPercent / 100
+     */
+    public RiskEstimate estimate(RiskModel model, double[] weights, double varPercent) {
+        if (weights.length != model.size()) {
+            throw new IllegalArgumentException("Expected " + model.size() + " weights, got " + weights.length);
+        }
+        if (!(varPercent >= 0 && varPercent <= 100)) {
+            throw new IllegalArgumentException("VaR percent must be between 0 and 100, got " + varPercent);
+        }
+        long start = System.nanoTime();
+
+        // Only held assets are simulated
+        int n = 0;
+        int[] held = new int[weights.length];
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] != 0) {
+                held[n++] = i;
+            }
+        }
+        if (n == 0) {
+            throw new IllegalArgumentException("No non-zero weights to evaluate");
+        }
+        String[] symbols = new String[n];
+        double[] w = new double[n];
+        double[] mean = new double[n];
+        double[] covariance = new double[n * n];
+        int periods = RiskModelEngine.TRADING_DAYS;
+        for (int a = 0; a < n; a++) {
+            symbols[a] = model.symbol(held[a]);
+            w[a] = weights[held[a]];
+            // Daily simple return with the same compound growth as the annualized expected return
+            mean[a] = Math.expm1(Math.log1p(model.expectedReturn(held[a])) / periods);
+            for (int b = 0; b < n; b++) {
+                covariance[a * n + b] = model.covariance(held[a], held[b]) / periods;
+            }
+        }
+        double[] factor = factors.get(new FactorKey(symbols, covariance), k -> MaxSharpeSolver.cholesky(covariance, k.size()));
+
+        double[] outcomes = new double[scenarios];
+        ForkJoinPool.commonPool().invoke(new ScenarioTask(new Simulation(mean, factor, w, horizonDays, degreesOfFreedom),
+            outcomes, 0, scenarios, new SplittableRandom(seed)));
+        Arrays.sort(outcomes);
+
+        double tailProbability = varPercent / 100;
+        int tail = Math.max(1, (int) Math.ceil(tailProbability * scenarios - 1e-9));
+        double tailSum = 0;
+        for (int s = 0; s < tail; s++) {
+            tailSum += outcomes[s];
+        }
+        RiskEstimate estimate = new RiskEstimate(VarMethod.MONTE_CARLO, 1 - tailProbability, -outcomes[tail - 1], -tailSum / tail,
+            scenarios, horizonDays, System.nanoTime() - start);
+        logger.info("[Risk] Simulated {} scenarios of {} assets over {} days in {} ms ({} scenarios/s): VaR {} CVaR {} at {}",
+            scenarios, n, horizonDays, estimate.getElapsedNanos() / 1_000_000, Math.round(estimate.getScenariosPerSecond()),
+            estimate.getValueAtRisk(), estimate.getConditionalValueAtRisk(), estimate.getConfidence());
+        return estimate;
+    }
+
+    /**
+     * Cholesky factor cache, exposed for statistics
+     */
+    public BoundedCache<?, double[]> cache() {
+        return factors;
+    }
+
+    // Everything a scenario needs, shared read-only by all tasks
+    private record Simulation(double[] mean, double[] factor, double[] weights, int horizonDays, int degreesOfFreedom) {
+
+        // Portfolio return of one scenario; z and growth are the calling task's scratch
+        double run(SplittableRandom random, double[] z, double[] growth) {
+            int n = mean.length;
+            Arrays.fill(growth, 1);
+            for (int day = 0; day < horizonDays; day++) {
+                double scale = 1;
+                if (degreesOfFreedom > 0) {
+                    double chiSquared = 0;
+                    for (int k = 0; k < degreesOfFreedom; k++) {
+                        double g = random.nextGaussian();
+                        chiSquared += g * g;
+                    }
+                    // z * sqrt(nu / chi2) is Student-t with variance nu / (nu - 2); rescale it to 1
+                    scale = Math.sqrt((degreesOfFreedom - 2) / chiSquared);
+                }
+                for (int k = 0; k < n; k++) {
+                    z[k] = random.nextGaussian() * scale;
+                }
+                for (int i = 0; i < n; i++) {
+                    growth[i] *= 1 + mean[i] + KERNELS.dot(factor, i * n, z, 0, i + 1);
+                }
+            }
+            double value = 0;
+            for (int i = 0; i < n; i++) {
+                value += weights[i] * (growth[i] - 1);
+            }
+            return value;
+        }
+    }
+
+    // Scenarios [from, to), halved until a chunk is left; the right half takes a split of the generator
+    private static final class ScenarioTask extends RecursiveAction {
+        private final Simulation simulation;
+        private final double[] outcomes;
+        private final int from;
+        private final int to;
+        private final SplittableRandom random;
+
+        ScenarioTask(Simulation simulation, double[] outcomes, int from, int to, SplittableRandom random) {
+            this.simulation = simulation;
+            this.outcomes = outcomes;
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNK_SCENARIOS) {
+                int n = simulation.mean().length;
+                double[] z = new double[n];
+                double[] growth = new double[n];
+                for (int s = from; s < to; s++) {
+                    outcomes[s] = simulation.run(random, z, growth);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            SplittableRandom right = random.split();
+            invokeAll(new ScenarioTask(simulation, outcomes, from, middle, random),
+                new ScenarioTask(simulation, outcomes, middle, to, right));
+        }
+    }
+
+    private record FactorKey(String[] symbols, double[] covariance) {
+        int size() {
+            return symbols.length;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof FactorKey other
+                && Arrays.equals(symbols, other.symbols) && Arrays.equals(covariance, other.covariance);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(symbols) + Arrays.hashCode(covariance);
+        }
+
+        @Override
+        public String toString() {
+            return "FactorKey" + Arrays.toString(symbols);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.quantumfpo.stocks.service;
+
+import org.slf4j.LoggerFactory;
+
+/**
+ * Inner loops of the risk and optimization math: daily returns, dot products, axpy updates,
+ * covariance tiles and portfolio variance. {@link VectorKernels} runs them on SIMD lanes through
+ * the incubating Vector API; {@link ScalarKernels} is the plain-loop fallback.
+ *
+ * {@link #PREFERRED} is picked once: the vector kernels when the JVM was started with
+ * --add-modules jdk.incubator.vector and the numeric.simd system property is not false, the
+ * scalar ones otherwise. Both give the same results up to the order in which sums are rounded.
+ */
+public interface NumericKernels {
+
+    NumericKernels PREFERRED = select();
+
+    String name();
+
+    /**
+     * Sum of a[aOffset + k] * b[bOffset + k] over k in [0, length)
+     */
+    double dot(double[] a, int aOffset, double[] b, int bOffset, int length);
+
+    /**
+     * y[yOffset + k] += alpha * x[xOffset + k] over k in [0, length)
+     */
+    void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset, int length);
+
+    /**
+     * Simple returns of count + 1 consecutive closes into out, returning their sum. A return after a
+     * non-positive close, or one that is not finite, is 0, as {@link RiskModelEngine#dailyReturn} has it.
+     */
+    double simpleReturns(double[] closes, int offset, int count, double[] out, int outOffset);
+
+    /**
+     * Add the cross products of columns [i0, i1) and [j0, j1), entries with j >= i only, over rows
+     * [k0, k1) of a column-major block with t rows into a row-major n x n result
+     */
+    void crossProductTile(double[] x, int t, int i0, int i1, int j0, int j1, int k0, int k1, double[] result, int n);
+
+    /**
+     * w'Mw for a row-major n x n matrix
+     */
+    default double quadraticForm(double[] matrix, double[] w, int n) {
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            total += w[i] * dot(matrix, i * n, w, 0, n);
+        }
+        return total;
+    }
+
+    private static NumericKernels select() {
+        boolean enabled = !"false".equalsIgnoreCase(System.getProperty("numeric.simd"));
+        NumericKernels kernels = new ScalarKernels();
+        if (enabled && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                kernels = new VectorKernels();
+            } catch (LinkageError e) {
+                LoggerFactory.getLogger(NumericKernels.class).warn("[Kernels] Vector API unavailable: {}", e.toString());
+            }
+        }
+        LoggerFactory.getLogger(NumericKernels.class).info("[Kernels] Using {} numeric kernels", kernels.name());
+        return kernels;
+    }
+}
@@ -0,0 +1,125 @@
+package com.quantumfpo.stocks.service;
+
+import com.quantumfpo.stocks.store.BoundedCache;
+import com.quantumfpo.stocks.store.BoundedCacheMetrics;
+import com.quantumfpo.stocks.store.PriceMatrix;
+import com.quantumfpo.stocks.store.PriceMatrix.GapPolicy;
+import com.quantumfpo.stocks.store.PriceStore;
+import com.quantumfpo.stocks.store.PriceView;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Builds {@link PriceMatrix}es over the price store and caches them by basket, date range and
+ * gap policy, so repeated optimizations of the same basket skip the alignment.
+ *
+ * Each cache key carries the store version of every symbol in the basket, read before the
+ * closes are, so any write to one of those symbols makes the next request rebuild the matrix.
+ * Outdated entries are never hit again and age out of the LRU.
+ */
+@Service
+public class PriceMatrixService implements MeterBinder {
+    private static final Logger logger = LoggerFactory.getLogger(PriceMatrixService.class);
+
+    private final PriceStore priceStore;
+    private final BoundedCache<Key, PriceMatrix> matrices;
+
+    public PriceMatrixService(PriceStore priceStore,
+                              @Value("${pricematrix.cache.max-entries:64}") int maxEntries,
+                              @Value("${pricematrix.cache.max-bytes:134217728}") long maxBytes) {
+        this.priceStore = priceStore;
+        this.matrices = new BoundedCache<>(maxEntries, maxBytes, Duration.ZERO, PriceMatrix::estimatedBytes);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new BoundedCacheMetrics(matrices, "pricematrix", Tags.empty()).bindTo(registry);
+    }
+
+    /**
+     * Matrix over the full stored history of the symbols, columns in the order given
+     */
+    public PriceMatrix matrix(List<String> symbols, GapPolicy policy) {
+        return matrix(symbols, Integer.MIN_VALUE, Integer.MAX_VALUE, policy);
+    }
+
+    /**
+     * Matrix over the stored closes of the symbols dated within [from, to], both inclusive
+     */
+    public PriceMatrix matrix(List<String> symbols, LocalDate from, LocalDate to, GapPolicy policy) {
+        return matrix(symbols, (int) from.toEpochDay(), (int) to.toEpochDay(), policy);
+    }
+
+    private PriceMatrix matrix(List<String> symbols, int fromEpochDay, int toEpochDay, GapPolicy policy) {
+        int[] ids = new int[symbols.size()];
+        long[] versions = new long[ids.length];
+        boolean known = true;
+        for (int j = 0; j < ids.length; j++) {
+            ids[j] = priceStore.find(symbols.get(j));
+            versions[j] = priceStore.version(ids[j]);
+            known &= ids[j] >= 0;
+        }
+        if (!known) {
+            // A symbol that was never stored has no ID to key by, and no history to cache
+            return build(symbols, ids, fromEpochDay, toEpochDay, policy);
+        }
+        Key key = new Key(ids, fromEpochDay, toEpochDay, policy, versions);
+        return matrices.get(key, k -> build(symbols, ids, fromEpochDay, toEpochDay, policy));
+    }
+
+    /**
+     * Matrix cache, exposed for statistics
+     */
+    public BoundedCache<?, PriceMatrix> cache() {
+        return matrices;
+    }
+
+    private PriceMatrix build(List<String> symbols, int[] ids, int fromEpochDay, int toEpochDay, GapPolicy policy) {
+        long start = System.nanoTime();
+        List<PriceView> views = new ArrayList<>(ids.length);
+        for (int j = 0; j < ids.length; j++) {
+            PriceView view = ids[j] >= 0 ? priceStore.view(ids[j]) : PriceView.empty(symbols.get(j));
+            views.add(view.slice(fromEpochDay, toEpochDay));
+        }
+        PriceMatrix matrix = PriceMatrix.align(views, policy);
+        logger.debug("[PriceMatrix] Aligned {} symbols into {} rows ({}) in {} us",
+            matrix.columns(), matrix.rows(), policy, (System.nanoTime() - start) / 1_000);
+        return matrix;
+    }
+
+    // Symbols are keyed by dictionary ID, in column order
+    private record Key(int[] ids, int fromEpochDay, int toEpochDay, GapPolicy policy, long[] versions) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other
+                && fromEpochDay == other.fromEpochDay && toEpochDay == other.toEpochDay
+                && policy == other.policy
+                && Arrays.equals(ids, other.ids) && Arrays.equals(versions, other.versions);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = Arrays.hashCode(ids);
+            result = 31 * result + fromEpochDay;
+            result = 31 * result + toEpochDay;
+            result = 31 * result + policy.hashCode();
+            return 31 * result + Arrays.hashCode(versions);
+        }
+
+        @Override
+        public String toString() {
+            return "Key" + Arrays.toString(ids) + "[" + fromEpochDay + ", " + toEpochDay + "] " + policy;
+        }
+    }
+}
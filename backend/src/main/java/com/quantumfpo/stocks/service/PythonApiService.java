@@ -2,6 +2,9 @@ package com.quantumfpo.stocks.service;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.quantumfpo.stocks.store.PriceMatrix;
+import com.quantumfpo.stocks.store.SymbolDictionary;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
@@ -12,6 +15,12 @@ import java.util.Map;
 import java.util.HashMap;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.Collections;
 
 @Service
 public class PythonApiService {
@@ -21,13 +30,43 @@ public class PythonApiService {
     private String pythonApiBaseUrl;
     
     private final RestTemplate restTemplate;
+    private final SymbolDictionary symbolDictionary;
     
     public PythonApiService() {
+        this(new SymbolDictionary());
+    }
+    
+    @Autowired
+    public PythonApiService(SymbolDictionary symbolDictionary) {
         this.restTemplate = new RestTemplate();
+        this.symbolDictionary = symbolDictionary;
     }
     
-    @SuppressWarnings("unchecked")
     public Map<String, Object> optimizeClassical(List<Map<String, Object>> stockData, double varPercent) {
+        return optimizeClassical(stockData, varPercent, Collections.emptyMap());
+    }
+    
+    /**
+     * Classical optimization with per-symbol return statistics precomputed from the price store,
+     * which the Python side uses instead of recomputing expected returns from the closes
+     */
+    public Map<String, Object> optimizeClassical(List<Map<String, Object>> stockData, double varPercent,
+                                                 Map<String, Map<String, Object>> returnStats) {
+        return optimizeClassical("stock_data", stockData, varPercent, returnStats);
+    }
+    
+    /**
+     * Classical optimization over closes already aligned by date, so the Python side builds its
+     * price frame directly instead of pivoting long (symbol, date, close) rows
+     */
+    public Map<String, Object> optimizeClassical(PriceMatrix prices, double varPercent,
+                                                 Map<String, Map<String, Object>> returnStats) {
+        return optimizeClassical("price_matrix", priceMatrixForApi(prices), varPercent, returnStats);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> optimizeClassical(String dataKey, Object data, double varPercent,
+                                                  Map<String, Map<String, Object>> returnStats) {
         try {
             logger.info("[PythonAPI] Starting classical optimization");
             
@@ -36,8 +75,11 @@ public class PythonApiService {
             logger.info("[PythonAPI] Converting VaR from {}% to decimal: {}", varPercent, varPercentDecimal);
             
             Map<String, Object> request = new HashMap<>();
-            request.put("stock_data", stockData);
+            request.put(dataKey, data);
             request.put("var_percent", varPercentDecimal);
+            if (!returnStats.isEmpty()) {
+                request.put("return_stats", returnStats);
+            }
             
             String endpoint = pythonApiBaseUrl + "/api/optimize/classical";
             
@@ -65,8 +107,23 @@ public class PythonApiService {
         }
     }
     
-    @SuppressWarnings("unchecked")
     public Map<String, Object> optimizeHybrid(List<Map<String, Object>> stockData, double varPercent, boolean qcSimulator) {
+        return optimizeHybrid(stockData, varPercent, qcSimulator, Collections.emptyMap());
+    }
+    
+    public Map<String, Object> optimizeHybrid(List<Map<String, Object>> stockData, double varPercent, boolean qcSimulator,
+                                              Map<String, Map<String, Object>> returnStats) {
+        return optimizeHybrid("stock_data", stockData, varPercent, qcSimulator, returnStats);
+    }
+    
+    public Map<String, Object> optimizeHybrid(PriceMatrix prices, double varPercent, boolean qcSimulator,
+                                              Map<String, Map<String, Object>> returnStats) {
+        return optimizeHybrid("price_matrix", priceMatrixForApi(prices), varPercent, qcSimulator, returnStats);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> optimizeHybrid(String dataKey, Object data, double varPercent, boolean qcSimulator,
+                                               Map<String, Map<String, Object>> returnStats) {
         try {
             logger.info("[PythonAPI] Starting hybrid optimization (simulator: {})", qcSimulator);
             
@@ -75,9 +132,12 @@ public class PythonApiService {
             logger.info("[PythonAPI] Converting VaR from {}% to decimal: {}", varPercent, varPercentDecimal);
             
             Map<String, Object> request = new HashMap<>();
-            request.put("stock_data", stockData);
+            request.put(dataKey, data);
             request.put("var_percent", varPercentDecimal);
             request.put("qc_simulator", qcSimulator);
+            if (!returnStats.isEmpty()) {
+                request.put("return_stats", returnStats);
+            }
             
             String endpoint = pythonApiBaseUrl + "/api/optimize/hybrid";
             
@@ -105,6 +165,24 @@ public class PythonApiService {
         }
     }
     
+    /**
+     * The price_matrix payload: ISO dates, symbols in column order, and one row of closes per date
+     */
+    static Map<String, Object> priceMatrixForApi(PriceMatrix prices) {
+        List<String> dates = new ArrayList<>(prices.rows());
+        double[][] values = new double[prices.rows()][];
+        double[] block = prices.values();
+        for (int i = 0; i < prices.rows(); i++) {
+            dates.add(prices.date(i).toString());
+            values[i] = Arrays.copyOfRange(block, i * prices.columns(), (i + 1) * prices.columns());
+        }
+        Map<String, Object> api = new LinkedHashMap<>(4);
+        api.put("dates", dates);
+        api.put("symbols", prices.getSymbols());
+        api.put("values", values);
+        return api;
+    }
+    
     @SuppressWarnings("unchecked")
     public Map<String, Object> optimizeDynamic(List<Map<String, Object>> stockData, double varPercent) {
         try {
@@ -230,20 +308,34 @@ public class PythonApiService {
      * Convert stock data format to assets format expected by dynamic optimization API
      */
     private List<Map<String, Object>> convertStockDataToAssets(List<Map<String, Object>> stockData) {
-        Map<String, String> uniqueSymbols = new HashMap<>();
-        
-        // Get unique symbols from stock data
+        // Rows come grouped by symbol, so only a change of symbol is looked up: stored symbols dedupe
+        // on their dictionary ID and any others by name, without assigning them an ID
+        BitSet seen = new BitSet();
+        Set<String> unseen = new HashSet<>();
+        List<String> uniqueSymbols = new ArrayList<>();
+        String previous = null;
         for (Map<String, Object> row : stockData) {
             String symbol = (String) row.get("symbol");
-            if (symbol != null) {
-                uniqueSymbols.put(symbol, symbol);
+            if (symbol == null || symbol.equals(previous)) {
+                continue;
+            }
+            previous = symbol;
+            int id = symbolDictionary.find(symbol);
+            if (id >= 0) {
+                if (seen.get(id)) {
+                    continue;
+                }
+                seen.set(id);
+            } else if (!unseen.add(symbol)) {
+                continue;
             }
+            uniqueSymbols.add(symbol);
         }
         
-        List<Map<String, Object>> assets = new ArrayList<>();
+        List<Map<String, Object>> assets = new ArrayList<>(uniqueSymbols.size());
         
         // Convert each unique symbol to asset format expected by dynamic optimization
-        for (String symbol : uniqueSymbols.keySet()) {
+        for (String symbol : uniqueSymbols) {
             Map<String, Object> asset = new HashMap<>();
             asset.put("symbol", symbol);
             asset.put("name", symbol + " Stock"); // Optional name
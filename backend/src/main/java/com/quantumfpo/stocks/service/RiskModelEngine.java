@@ -0,0 +1,149 @@
+package com.quantumfpo.stocks.service;
+
+import com.quantumfpo.stocks.model.RiskModel;
+import com.quantumfpo.stocks.store.PriceMatrix;
+import com.quantumfpo.stocks.store.PriceMatrix.GapPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Expected returns and Ledoit-Wolf shrunk covariance computed in the JVM from the price store,
+ * matching what the Python service gets from pypfopt:
+ * expected_returns.mean_historical_return(prices) and CovarianceShrinkage(prices).ledoit_wolf(),
+ * both annualized over 252 trading days.
+ *
+ * Closes are aligned with forward fill, turned into daily simple returns and centered once into a
+ * column-major block, so every covariance entry is a dot product of two contiguous columns.
+ * The cross products come from {@link CovarianceKernel}, tiled and spread over the common pool
+ * once the basket is large enough to pay for it.
+ */
+@Service
+public class RiskModelEngine {
+    private static final Logger logger = LoggerFactory.getLogger(RiskModelEngine.class);
+
+    public static final int TRADING_DAYS = 252;
+
+    private final PriceMatrixService priceMatrixService;
+
+    public RiskModelEngine(PriceMatrixService priceMatrixService) {
+        this.priceMatrixService = priceMatrixService;
+    }
+
+    /**
+     * Risk model over the full stored history of the symbols, in the order given
+     */
+    public RiskModel estimate(List<String> symbols) {
+        return estimate(priceMatrixService.matrix(symbols, GapPolicy.FORWARD_FILL));
+    }
+
+    /**
+     * Risk model over the closes dated within [from, to], both inclusive
+     */
+    public RiskModel estimate(List<String> symbols, LocalDate from, LocalDate to) {
+        return estimate(priceMatrixService.matrix(symbols, from, to, GapPolicy.FORWARD_FILL));
+    }
+
+    public RiskModel estimate(PriceMatrix prices) {
+        long start = System.nanoTime();
+        RiskModel model = compute(prices, TRADING_DAYS);
+        logger.debug("[Risk] Estimated {} symbols from {} returns in {} us (shrinkage {})", model.size(),
+            model.getObservations(), (System.nanoTime() - start) / 1_000, model.getShrinkage());
+        return model;
+    }
+
+    /**
+     * Annualized mean historical returns and Ledoit-Wolf covariance of aligned closes.
+     * Returns involving a non-positive close count as 0, as pypfopt's nan_to_num leaves them.
+     */
+    public static RiskModel compute(PriceMatrix prices, int periodsPerYear) {
+        int n = prices.columns();
+        int t = prices.rows() - 1;
+        if (n == 0 || t < 1) {
+            throw new IllegalArgumentException("Need at least two aligned closes per symbol, got " + prices);
+        }
+        double[] returns = CovarianceKernel.returns(prices);
+        double[] expected = new double[n];
+        for (int j = 0; j < n; j++) {
+            double logGrowth = 0;
+            for (int k = j * t, end = k + t; k < end; k++) {
+                logGrowth += Math.log1p(returns[k]);
+            }
+            // (prod(1 + r)) ^ (periods / t) - 1
+            expected[j] = Math.expm1(logGrowth * periodsPerYear / t);
+        }
+        CovarianceKernel.center(returns, n, t);
+
+        double[] covariance = CovarianceKernel.crossProducts(returns, n, t, ForkJoinPool.commonPool());
+        double scale = 1.0 / t;
+        for (int i = 0; i < n * n; i++) {
+            covariance[i] *= scale;
+        }
+        double shrinkage = n == 1 ? 0 : shrink(covariance, fourthMoment(returns, n, t), n, t);
+        for (int i = 0; i < n * n; i++) {
+            covariance[i] *= periodsPerYear;
+        }
+        String[] symbols = prices.getSymbols().toArray(new String[0]);
+        return new RiskModel(symbols, expected, covariance, shrinkage, t);
+    }
+
+    /**
+     * Simple return from one close to the next, 0 after a non-positive close or when not finite
+     */
+    static double dailyReturn(double previous, double close) {
+        double r = previous > 0 ? close / previous - 1 : 0;
+        return Double.isFinite(r) ? r : 0;
+    }
+
+    /**
+     * Sum over i, j of sum_k x_ki^2 x_kj^2 for a centered column-major t x n block,
+     * which is sum_k (sum_i x_ki^2)^2
+     */
+    private static double fourthMoment(double[] x, int n, int t) {
+        double[] rowSquares = new double[t];
+        for (int j = 0; j < n; j++) {
+            int column = j * t;
+            for (int k = 0; k < t; k++) {
+                double v = x[column + k];
+                rowSquares[k] += v * v;
+            }
+        }
+        double fourth = 0;
+        for (double r : rowSquares) {
+            fourth += r * r;
+        }
+        return fourth;
+    }
+
+    /**
+     * Shrink the biased sample covariance towards mu * I in place and return the intensity,
+     * following sklearn.covariance.ledoit_wolf_shrinkage term by term
+     */
+    static double shrink(double[] covariance, double fourth, int n, int t) {
+        double trace = 0;
+        double squares = 0;
+        for (int i = 0; i < n; i++) {
+            trace += covariance[i * n + i];
+        }
+        for (double c : covariance) {
+            squares += c * c;
+        }
+        double mu = trace / n;
+        double beta = (fourth / t - squares) / ((double) n * t);
+        double delta = (squares - 2 * mu * trace + n * mu * mu) / n;
+        beta = Math.min(beta, delta);
+        double shrinkage = beta == 0 || delta <= 0 ? 0 : beta / delta;
+
+        for (int i = 0; i < n * n; i++) {
+            covariance[i] *= 1 - shrinkage;
+        }
+        for (int i = 0; i < n; i++) {
+            covariance[i * n + i] += shrinkage * mu;
+        }
+        return shrinkage;
+    }
+}
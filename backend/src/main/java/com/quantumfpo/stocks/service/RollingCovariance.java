@@ -0,0 +1,260 @@
+package com.quantumfpo.stocks.service;
+
+import com.quantumfpo.stocks.model.RiskModel;
+
+import java.util.Arrays;
+
+/**
+ * Risk model over the latest daily return vectors of a basket, updated in O(n^2) per vector
+ * instead of being recomputed from the whole window.
+ *
+ * The mean and the centered co-moment matrix sum_k (r_k - m)(r_k - m)' follow Welford's update when
+ * a vector enters and its reverse when the oldest one leaves. The sums Ledoit-Wolf needs and each
+ * column's log growth are kept alongside, so {@link #riskModel} gives what {@link RiskModelEngine#compute}
+ * would on the same window. Every window updates the sums are recomputed from the retained vectors,
+ * so rounding from the removals cannot build up; that costs O(n^2) per update amortized.
+ */
+public final class RollingCovariance {
+    private static final NumericKernels KERNELS = NumericKernels.PREFERRED;
+
+    private final int n;
+    private final int window;
+    // Raw return vectors in the window, row-major, oldest at head
+    private final double[] ring;
+    private int head;
+    private int count;
+    private int updates;
+
+    private final double[] mean;
+    // Upper triangle of the centered co-moment matrix, row-major n x n
+    private final double[] comoment;
+    private final double[] logGrowth;
+    // sum_k |r_k|^2 r_k, sum_k |r_k|^2 and sum_k |r_k|^4, for the Ledoit-Wolf fourth moment
+    private final double[] normWeighted;
+    private double norms;
+    private double squaredNorms;
+    private final double[] before;
+    private final double[] after;
+
+    public RollingCovariance(int symbols, int window) {
+        if (symbols < 1 || window < 1) {
+            throw new IllegalArgumentException("Need at least one symbol and a window of at least one return, got "
+                + symbols + " and " + window);
+        }
+        this.n = symbols;
+        this.window = window;
+        this.ring = new double[window * symbols];
+        this.mean = new double[symbols];
+        this.comoment = new double[symbols * symbols];
+        this.logGrowth = new double[symbols];
+        this.normWeighted = new double[symbols];
+        this.before = new double[symbols];
+        this.after = new double[symbols];
+    }
+
+    public int symbols() { return n; }
+    public int window() { return window; }
+
+    /**
+     * Number of return vectors currently in the window
+     */
+    public int size() { return count; }
+
+    /**
+     * Add the newest daily return vector, dropping the oldest once the window is full
+     */
+    public void add(double[] returns) {
+        if (returns.length != n) {
+            throw new IllegalArgumentException("Expected " + n + " returns, got " + returns.length);
+        }
+        if (count == window) {
+            retract(head * n);
+            head = (head + 1) % window;
+        }
+        int offset = ((head + count) % window) * n;
+        System.arraycopy(returns, 0, ring, offset, n);
+        count++;
+        if (++updates >= window) {
+            rebuild();
+        } else {
+            include(offset);
+        }
+    }
+
+    /**
+     * Replace the newest return vector, as when the last close of a bar in progress is revised
+     */
+    public void replaceNewest(double[] returns) {
+        if (returns.length != n) {
+            throw new IllegalArgumentException("Expected " + n + " returns, got " + returns.length);
+        }
+        if (count == 0) {
+            add(returns);
+            return;
+        }
+        int offset = ((head + count - 1) % window) * n;
+        retract(offset);
+        System.arraycopy(returns, 0, ring, offset, n);
+        count++;
+        if (++updates >= window) {
+            rebuild();
+        } else {
+            include(offset);
+        }
+    }
+
+    public void clear() {
+        head = 0;
+        count = 0;
+        reset();
+    }
+
+    /**
+     * Biased (divided by the number of vectors) sample covariance, as a fresh row-major n x n block
+     */
+    public double[] covariance() {
+        double[] result = new double[n * n];
+        if (count == 0) {
+            return result;
+        }
+        double scale = 1.0 / count;
+        for (int i = 0; i < n; i++) {
+            for (int j = i; j < n; j++) {
+                double c = comoment[i * n + j] * scale;
+                result[i * n + j] = c;
+                result[j * n + i] = c;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Annualized mean historical returns and Ledoit-Wolf covariance over the window
+     */
+    public RiskModel riskModel(String[] symbols, int periodsPerYear) {
+        if (symbols.length != n) {
+            throw new IllegalArgumentException("Expected " + n + " symbols, got " + symbols.length);
+        }
+        if (count == 0) {
+            throw new IllegalArgumentException("Need at least two aligned closes per symbol, got none for "
+                + Arrays.toString(symbols));
+        }
+        int t = count;
+        double[] covariance = covariance();
+        double shrinkage = n == 1 ? 0 : RiskModelEngine.shrink(covariance, fourthMoment(), n, t);
+        for (int i = 0; i < n * n; i++) {
+            covariance[i] *= periodsPerYear;
+        }
+        double[] expected = new double[n];
+        for (int j = 0; j < n; j++) {
+            expected[j] = Math.expm1(logGrowth[j] * periodsPerYear / t);
+        }
+        return new RiskModel(symbols.clone(), expected, covariance, shrinkage, t);
+    }
+
+    public long estimatedBytes() {
+        return 64 + 8L * (ring.length + comoment.length + 5L * n);
+    }
+
+    /*
+     * sum_k (sum_i (r_ki - m_i)^2)^2 expanded around the raw vectors: with a_k = |r_k|^2 and c = |m|^2
+     * it is sum a_k^2 - 4 m.(sum a_k r_k) + 4 m'Cm + 2c sum a_k + t c^2, using sum_k r_k r_k' = C + t m m'
+     */
+    private double fourthMoment() {
+        double c = 0;
+        double weighted = 0;
+        double quadratic = 0;
+        for (int i = 0; i < n; i++) {
+            c += mean[i] * mean[i];
+            weighted += mean[i] * normWeighted[i];
+            double row = comoment[i * n + i] * mean[i] + 2 * KERNELS.dot(comoment, i * n + i + 1, mean, i + 1, n - i - 1);
+            quadratic += mean[i] * row;
+        }
+        return squaredNorms - 4 * weighted + 4 * quadratic + 2 * c * norms + count * c * c;
+    }
+
+    // Welford: with d = r - m before and e = r - m after the mean moves, C += d e'
+    private void include(int offset) {
+        double a = 0;
+        for (int i = 0; i < n; i++) {
+            double r = ring[offset + i];
+            a += r * r;
+            before[i] = r - mean[i];
+            mean[i] += before[i] / count;
+            after[i] = r - mean[i];
+            logGrowth[i] += Math.log1p(r);
+        }
+        for (int i = 0; i < n; i++) {
+            KERNELS.axpy(before[i], after, i, comoment, i * n + i, n - i);
+        }
+        KERNELS.axpy(a, ring, offset, normWeighted, 0, n);
+        norms += a;
+        squaredNorms += a * a;
+    }
+
+    // The reverse step, with d and e taken against the means after and before the removal
+    private void retract(int offset) {
+        if (count == 1) {
+            count = 0;
+            reset();
+            return;
+        }
+        double a = 0;
+        int remaining = count - 1;
+        for (int i = 0; i < n; i++) {
+            double r = ring[offset + i];
+            a += r * r;
+            after[i] = r - mean[i];
+            mean[i] -= after[i] / remaining;
+            before[i] = r - mean[i];
+            logGrowth[i] -= Math.log1p(r);
+        }
+        for (int i = 0; i < n; i++) {
+            KERNELS.axpy(-before[i], after, i, comoment, i * n + i, n - i);
+        }
+        KERNELS.axpy(-a, ring, offset, normWeighted, 0, n);
+        norms -= a;
+        squaredNorms -= a * a;
+        count = remaining;
+    }
+
+    // Two passes over the retained vectors: means first, then the centered sums
+    private void rebuild() {
+        reset();
+        for (int k = 0; k < count; k++) {
+            int offset = ((head + k) % window) * n;
+            double a = 0;
+            for (int i = 0; i < n; i++) {
+                double r = ring[offset + i];
+                mean[i] += r;
+                a += r * r;
+                logGrowth[i] += Math.log1p(r);
+            }
+            KERNELS.axpy(a, ring, offset, normWeighted, 0, n);
+            norms += a;
+            squaredNorms += a * a;
+        }
+        for (int i = 0; i < n; i++) {
+            mean[i] /= count;
+        }
+        for (int k = 0; k < count; k++) {
+            int offset = ((head + k) % window) * n;
+            for (int i = 0; i < n; i++) {
+                before[i] = ring[offset + i] - mean[i];
+            }
+            for (int i = 0; i < n; i++) {
+                KERNELS.axpy(before[i], before, i, comoment, i * n + i, n - i);
+            }
+        }
+    }
+
+    private void reset() {
+        updates = 0;
+        Arrays.fill(mean, 0);
+        Arrays.fill(comoment, 0);
+        Arrays.fill(logGrowth, 0);
+        Arrays.fill(normWeighted, 0);
+        norms = 0;
+        squaredNorms = 0;
+    }
+}
@@ -0,0 +1,229 @@
+package com.quantumfpo.stocks.service;
+
+import com.quantumfpo.stocks.model.RiskModel;
+import com.quantumfpo.stocks.store.BoundedCache;
+import com.quantumfpo.stocks.store.BoundedCacheMetrics;
+import com.quantumfpo.stocks.store.PriceMatrix;
+import com.quantumfpo.stocks.store.PriceMatrix.GapPolicy;
+import com.quantumfpo.stocks.store.PriceStore;
+import com.quantumfpo.stocks.store.PriceView;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Risk models over a sliding window of the latest daily returns, kept current with the price store
+ * by a {@link RollingCovariance} per basket and window.
+ *
+ * Each tracker remembers the views it last read. When every series has only been appended to since,
+ * just the new closes are aligned (forward filling as {@link PriceMatrix} does) and pushed through the
+ * window, at O(n^2) per new bar, and a last close revised in place replaces the newest return.
+ * Anything else, such as a merge that rewrote history or a series that was evicted and reloaded,
+ * rebuilds the tracker from the last window + 1 aligned closes.
+ */
+@Service
+public class RollingRiskModelService implements MeterBinder {
+    private static final Logger logger = LoggerFactory.getLogger(RollingRiskModelService.class);
+
+    private final PriceStore priceStore;
+    private final BoundedCache<Key, Tracker> trackers;
+
+    public RollingRiskModelService(PriceStore priceStore,
+                                   @Value("${risk.rolling.max-trackers:16}") int maxTrackers,
+                                   @Value("${risk.rolling.max-bytes:268435456}") long maxBytes) {
+        this.priceStore = priceStore;
+        this.trackers = new BoundedCache<>(maxTrackers, maxBytes, Duration.ZERO, Tracker::estimatedBytes);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new BoundedCacheMetrics(trackers, "riskmodel.rolling", Tags.empty()).bindTo(registry);
+    }
+
+    /**
+     * Risk model over the latest window daily returns of the symbols, in the order given
+     */
+    public RiskModel estimate(List<String> symbols, int window) {
+        if (window < 1) {
+            throw new IllegalArgumentException("Rolling window must hold at least one return, got " + window);
+        }
+        int[] ids = new int[symbols.size()];
+        boolean known = true;
+        for (int j = 0; j < ids.length; j++) {
+            ids[j] = priceStore.find(symbols.get(j));
+            known &= ids[j] >= 0;
+        }
+        if (!known) {
+            // A symbol that was never stored has no ID to key by, so nothing is worth tracking
+            return new Tracker(symbols, ids, window).refresh(priceStore);
+        }
+        Tracker tracker = trackers.get(new Key(ids, window), k -> new Tracker(symbols, ids, window));
+        return tracker.refresh(priceStore);
+    }
+
+    /**
+     * Tracker cache, exposed for statistics
+     */
+    public BoundedCache<?, ?> cache() {
+        return trackers;
+    }
+
+    private static final class Tracker {
+        private final int[] ids;
+        private final String[] names;
+        private final RollingCovariance covariance;
+        private PriceView[] synced;
+        // Last aligned closes and their date; null before any row could be aligned
+        private double[] last;
+        // Aligned closes of the row before last; null until there are two rows
+        private double[] previous;
+        private int lastEpochDay;
+
+        Tracker(List<String> symbols, int[] ids, int window) {
+            this.ids = ids;
+            this.names = symbols.toArray(new String[0]);
+            this.covariance = new RollingCovariance(names.length, window);
+        }
+
+        synchronized RiskModel refresh(PriceStore store) {
+            long start = System.nanoTime();
+            PriceView[] current = new PriceView[names.length];
+            for (int j = 0; j < current.length; j++) {
+                current[j] = ids[j] >= 0 ? store.view(ids[j]) : PriceView.empty(names[j]);
+            }
+            boolean appended = synced != null && last != null;
+            for (int j = 0; appended && j < current.length; j++) {
+                appended = current[j].continues(synced[j])
+                    && (current[j].size() == synced[j].size() || current[j].epochDay(synced[j].size()) > lastEpochDay);
+            }
+            appended = appended && revise(current);
+            int bars = appended ? advance(current) : rebuild(current);
+            synced = current;
+            if (bars > 0) {
+                logger.debug("[Risk] {} {} bars into the {}-return window of {} symbols in {} us",
+                    appended ? "Slid" : "Rebuilt from", bars, covariance.window(), names.length,
+                    (System.nanoTime() - start) / 1_000);
+            }
+            return covariance.riskModel(names, RiskModelEngine.TRADING_DAYS);
+        }
+
+        private int rebuild(PriceView[] current) {
+            covariance.clear();
+            last = null;
+            previous = null;
+            PriceMatrix matrix = PriceMatrix.align(Arrays.asList(current), GapPolicy.FORWARD_FILL);
+            int rows = matrix.rows();
+            if (rows == 0) {
+                return 0;
+            }
+            int n = names.length;
+            double[] values = matrix.values();
+            double[] returns = new double[n];
+            for (int row = Math.max(1, rows - covariance.window()); row < rows; row++) {
+                for (int j = 0; j < n; j++) {
+                    returns[j] = RiskModelEngine.dailyReturn(values[(row - 1) * n + j], values[row * n + j]);
+                }
+                covariance.add(returns);
+            }
+            last = Arrays.copyOfRange(values, (rows - 1) * n, rows * n);
+            previous = rows > 1 ? Arrays.copyOfRange(values, (rows - 2) * n, (rows - 1) * n) : null;
+            lastEpochDay = matrix.epochDay(rows - 1);
+            return rows - 1;
+        }
+
+        // K-way merge over the closes appended since the last refresh, carrying each symbol's last close forward
+        private int advance(PriceView[] current) {
+            int n = names.length;
+            int[] positions = new int[n];
+            for (int j = 0; j < n; j++) {
+                positions[j] = synced[j].size();
+            }
+            double[] returns = new double[n];
+            int bars = 0;
+            while (true) {
+                int day = Integer.MAX_VALUE;
+                for (int j = 0; j < n; j++) {
+                    if (positions[j] < current[j].size()) {
+                        day = Math.min(day, current[j].epochDay(positions[j]));
+                    }
+                }
+                if (day == Integer.MAX_VALUE) {
+                    return bars;
+                }
+                if (previous == null) {
+                    previous = new double[n];
+                }
+                System.arraycopy(last, 0, previous, 0, n);
+                for (int j = 0; j < n; j++) {
+                    double close = last[j];
+                    if (positions[j] < current[j].size() && current[j].epochDay(positions[j]) == day) {
+                        close = current[j].close(positions[j]++);
+                    }
+                    returns[j] = RiskModelEngine.dailyReturn(last[j], close);
+                    last[j] = close;
+                }
+                covariance.add(returns);
+                lastEpochDay = day;
+                bars++;
+            }
+        }
+
+        /*
+         * Follow closes revised in place since the last refresh (see PriceStore#updateLast) by
+         * replacing the newest return vector. False when a revised close is not on the last aligned
+         * row, which only a rebuild can absorb.
+         */
+        private boolean revise(PriceView[] current) {
+            boolean revised = false;
+            for (int j = 0; j < current.length; j++) {
+                int n = synced[j].size();
+                if (n == 0 || current[j].size() < n || current[j].close(n - 1) == last[j]) {
+                    continue;
+                }
+                if (current[j].epochDay(n - 1) != lastEpochDay) {
+                    return false;
+                }
+                last[j] = current[j].close(n - 1);
+                revised = true;
+            }
+            if (revised && previous != null) {
+                double[] returns = new double[names.length];
+                for (int j = 0; j < returns.length; j++) {
+                    returns[j] = RiskModelEngine.dailyReturn(previous[j], last[j]);
+                }
+                covariance.replaceNewest(returns);
+            }
+            return true;
+        }
+
+        long estimatedBytes() {
+            return covariance.estimatedBytes() + 24L * names.length;
+        }
+    }
+
+    // Symbols are keyed by dictionary ID, in column order
+    private record Key(int[] ids, int window) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && window == other.window && Arrays.equals(ids, other.ids);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(ids) + window;
+        }
+
+        @Override
+        public String toString() {
+            return "Key" + Arrays.toString(ids) + " window " + window;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.quantumfpo.stocks.service;
+
+/**
+ * Plain-loop {@link NumericKernels}, used when the Vector API is not available
+ */
+public final class ScalarKernels implements NumericKernels {
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+
+    @Override
+    public double dot(double[] a, int aOffset, double[] b, int bOffset, int length) {
+        double sum = 0;
+        for (int k = 0; k < length; k++) {
+            sum += a[aOffset + k] * b[bOffset + k];
+        }
+        return sum;
+    }
+
+    @Override
+    public void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset, int length) {
+        for (int k = 0; k < length; k++) {
+            y[yOffset + k] += alpha * x[xOffset + k];
+        }
+    }
+
+    @Override
+    public double simpleReturns(double[] closes, int offset, int count, double[] out, int outOffset) {
+        double sum = 0;
+        for (int k = 0; k < count; k++) {
+            double r = RiskModelEngine.dailyReturn(closes[offset + k], closes[offset + k + 1]);
+            out[outOffset + k] = r;
+            sum += r;
+        }
+        return sum;
+    }
+
+    @Override
+    public void crossProductTile(double[] x, int t, int i0, int i1, int j0, int j1, int k0, int k1, double[] result, int n) {
+        for (int i = i0; i < i1; i++) {
+            int a = i * t;
+            for (int j = Math.max(i, j0); j < j1; j++) {
+                result[i * n + j] += dot(x, a + k0, x, j * t + k0, k1 - k0);
+            }
+        }
+    }
+}
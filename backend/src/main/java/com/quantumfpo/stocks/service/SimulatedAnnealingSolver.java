@@ -0,0 +1,254 @@
+package com.quantumfpo.stocks.service;
+
+import com.quantumfpo.stocks.model.QuboModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Classical heuristic for QUBO models: independent simulated-annealing replicas, by default one
+ * per core, each starting from a random assignment and sweeping every variable with Metropolis
+ * flips while the inverse temperature rises geometrically.
+ *
+ * Every variable keeps its local field h_i + sum_j J_ij x_j over the symmetric neighbour lists,
+ * so a flip's energy change is read in O(1) and an accepted flip updates only its neighbours.
+ * Replicas are split over the common {@link ForkJoinPool} by recursive halving, splitting the
+ * {@link SplittableRandom} with them, so a seed and replica count give the same answer on any
+ * number of threads.
+ */
+@Service
+public class SimulatedAnnealingSolver {
+    private static final Logger logger = LoggerFactory.getLogger(SimulatedAnnealingSolver.class);
+
+    /**
+     * Best assignment over all replicas, its energy, and how many replicas ended on each
+     * assignment, keyed by its bits in variable order
+     */
+    public record Solution(boolean[] state, double energy, Map<String, Integer> counts, int replicas, int sweeps) {
+
+        public int[] bits() {
+            int[] bits = new int[state.length];
+            for (int i = 0; i < state.length; i++) {
+                bits[i] = state[i] ? 1 : 0;
+            }
+            return bits;
+        }
+    }
+
+    private final int sweeps;
+    private final int replicas;
+    private final long seed;
+
+    public SimulatedAnnealingSolver(@Value("${qubo.annealing.sweeps:1000}") int sweeps,
+                                    @Value("${qubo.annealing.replicas:0}") int replicas,
+                                    @Value("${qubo.annealing.seed:42}") long seed) {
+        if (sweeps < 1 || replicas < 0) {
+            throw new IllegalArgumentException("Need at least one sweep and a non-negative replica count, got "
+                + sweeps + " and " + replicas);
+        }
+        this.sweeps = sweeps;
+        this.replicas = replicas;
+        this.seed = seed;
+    }
+
+    /**
+     * Anneal with the configured sweeps and seed, one replica per available core when no replica
+     * count is configured
+     */
+    public Solution solve(QuboModel model) {
+        int count = replicas > 0 ? replicas : Runtime.getRuntime().availableProcessors();
+        long start = System.nanoTime();
+        Solution solution = solve(model, sweeps, count, seed);
+        logger.info("[Qubo] Annealed {} variables, {} couplings: {} replicas x {} sweeps in {} us, best energy {}",
+            model.size(), model.nonZeros(), count, sweeps, (System.nanoTime() - start) / 1_000, solution.energy());
+        return solution;
+    }
+
+    public static Solution solve(QuboModel model, int sweeps, int replicas, long seed) {
+        if (sweeps < 1 || replicas < 1) {
+            throw new IllegalArgumentException("Need at least one sweep and one replica, got " + sweeps + " and " + replicas);
+        }
+        Neighbours neighbours = Neighbours.of(model);
+        double[] betas = schedule(model, neighbours, sweeps);
+        boolean[][] finals = new boolean[replicas][];
+        ForkJoinPool.commonPool().invoke(new ReplicaTask(model, neighbours, betas, new SplittableRandom(seed), 0, replicas, finals));
+
+        boolean[] best = null;
+        double bestEnergy = Double.POSITIVE_INFINITY;
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (boolean[] state : finals) {
+            // Re-evaluated from scratch, free of the drift the incremental updates accumulate
+            double energy = model.energy(state);
+            if (energy < bestEnergy) {
+                bestEnergy = energy;
+                best = state;
+            }
+            counts.merge(bitString(state), 1, Integer::sum);
+        }
+        return new Solution(best, bestEnergy, counts, replicas, sweeps);
+    }
+
+    /**
+     * Inverse temperatures from one at which the largest possible flip is accepted half the time to
+     * one at which the smallest coefficient's flip is accepted 1% of the time, geometrically spaced
+     */
+    static double[] schedule(QuboModel model, Neighbours neighbours, int sweeps) {
+        double largest = 0;
+        double smallest = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < model.size(); i++) {
+            double bound = Math.abs(model.linear(i));
+            if (bound > 0) {
+                smallest = Math.min(smallest, bound);
+            }
+            for (int k = neighbours.start[i]; k < neighbours.start[i + 1]; k++) {
+                double coupling = Math.abs(neighbours.couplings[k]);
+                bound += coupling;
+                smallest = Math.min(smallest, coupling);
+            }
+            largest = Math.max(largest, bound);
+        }
+        double[] betas = new double[sweeps];
+        if (largest == 0) {
+            // Every assignment has the same energy
+            return betas;
+        }
+        double hot = Math.log(2) / largest;
+        double cold = Math.max(hot, Math.log(100) / smallest);
+        double ratio = sweeps > 1 ? Math.pow(cold / hot, 1.0 / (sweeps - 1)) : 1;
+        double beta = sweeps > 1 ? hot : cold;
+        for (int s = 0; s < sweeps; s++) {
+            betas[s] = beta;
+            beta *= ratio;
+        }
+        return betas;
+    }
+
+    static boolean[] anneal(QuboModel model, Neighbours neighbours, double[] betas, SplittableRandom random) {
+        int n = model.size();
+        boolean[] state = new boolean[n];
+        double[] field = model.linear().clone();
+        for (int i = 0; i < n; i++) {
+            if (random.nextBoolean()) {
+                state[i] = true;
+                neighbours.addTo(field, i, 1);
+            }
+        }
+        boolean[] best = state.clone();
+        double energy = model.energy(state);
+        double bestEnergy = energy;
+        for (double beta : betas) {
+            for (int i = 0; i < n; i++) {
+                double delta = state[i] ? -field[i] : field[i];
+                if (delta <= 0 || random.nextDouble() < Math.exp(-beta * delta)) {
+                    state[i] = !state[i];
+                    neighbours.addTo(field, i, state[i] ? 1 : -1);
+                    energy += delta;
+                }
+            }
+            if (energy < bestEnergy) {
+                bestEnergy = energy;
+                System.arraycopy(state, 0, best, 0, n);
+            }
+        }
+        return best;
+    }
+
+    static String bitString(boolean[] state) {
+        char[] bits = new char[state.length];
+        for (int i = 0; i < state.length; i++) {
+            bits[i] = state[i] ? '1' : '0';
+        }
+        return new String(bits);
+    }
+
+    /**
+     * The model's upper-triangle couplings mirrored into full rows, so each variable lists every neighbour
+     */
+    static final class Neighbours {
+        final int[] start;
+        final int[] columns;
+        final double[] couplings;
+
+        private Neighbours(int[] start, int[] columns, double[] couplings) {
+            this.start = start;
+            this.columns = columns;
+            this.couplings = couplings;
+        }
+
+        static Neighbours of(QuboModel model) {
+            int n = model.size();
+            int[] upper = model.columns();
+            double[] values = model.couplings();
+            int[] start = new int[n + 1];
+            for (int i = 0; i < n; i++) {
+                for (int k = model.rowStart(i); k < model.rowStart(i + 1); k++) {
+                    start[i + 1]++;
+                    start[upper[k] + 1]++;
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                start[i + 1] += start[i];
+            }
+            int[] next = new int[n];
+            System.arraycopy(start, 0, next, 0, n);
+            int[] columns = new int[2 * upper.length];
+            double[] couplings = new double[2 * upper.length];
+            for (int i = 0; i < n; i++) {
+                for (int k = model.rowStart(i); k < model.rowStart(i + 1); k++) {
+                    int j = upper[k];
+                    columns[next[i]] = j;
+                    couplings[next[i]++] = values[k];
+                    columns[next[j]] = i;
+                    couplings[next[j]++] = values[k];
+                }
+            }
+            return new Neighbours(start, columns, couplings);
+        }
+
+        // Shift the local fields of i's neighbours by sign * J_ij, after x_i went from 0 to 1 or back
+        void addTo(double[] field, int i, int sign) {
+            for (int k = start[i]; k < start[i + 1]; k++) {
+                field[columns[k]] += sign * couplings[k];
+            }
+        }
+    }
+
+    private static final class ReplicaTask extends RecursiveAction {
+        private final QuboModel model;
+        private final Neighbours neighbours;
+        private final double[] betas;
+        private final SplittableRandom random;
+        private final int from;
+        private final int to;
+        private final boolean[][] finals;
+
+        ReplicaTask(QuboModel model, Neighbours neighbours, double[] betas, SplittableRandom random,
+                    int from, int to, boolean[][] finals) {
+            this.model = model;
+            this.neighbours = neighbours;
+            this.betas = betas;
+            this.random = random;
+            this.from = from;
+            this.to = to;
+            this.finals = finals;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                finals[from] = anneal(model, neighbours, betas, random);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ReplicaTask(model, neighbours, betas, random.split(), from, middle, finals),
+                new ReplicaTask(model, neighbours, betas, random, middle, to, finals));
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.quantumfpo.stocks.service;
+
+import com.quantumfpo.stocks.model.StockData;
+import com.quantumfpo.stocks.store.PriceView;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent fetches of the same (symbol, date range) into one provider call.
+ * The first caller runs the fetch; callers arriving while it is in flight wait on the same
+ * {@link CompletableFuture} and receive its result or its failure. Nothing is cached once
+ * the fetch completes; that is the {@link com.quantumfpo.stocks.store.PriceStore}'s job.
+ */
+@Service
+public class SingleFlightFetcher implements MeterBinder {
+    private static final Logger logger = LoggerFactory.getLogger(SingleFlightFetcher.class);
+
+    private final MarketDataProvider provider;
+    private final ConcurrentHashMap<FetchKey, CompletableFuture<List<StockData>>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public SingleFlightFetcher(MarketDataProvider provider) {
+        this.provider = provider;
+    }
+
+    /**
+     * Identity of a fetch: the symbol and the inclusive date range it covers
+     */
+    record FetchKey(String symbol, LocalDate from, LocalDate to) {}
+
+    /**
+     * Fetch the last days of a symbol, sharing a fetch already in flight for the same range
+     */
+    public List<StockData> fetchStockHistory(String symbol, int days) {
+        LocalDate today = LocalDate.now();
+        FetchKey key = new FetchKey(symbol, today.minusDays(days - 1L), today);
+        return await(key, fetch(key, () -> provider.fetchStockHistory(symbol, days)));
+    }
+
+    /**
+     * Fetch the history of a symbol dated within [from, to], sharing a fetch already in flight for the same range
+     */
+    public List<StockData> fetchStockHistory(String symbol, LocalDate from, LocalDate to) {
+        FetchKey key = new FetchKey(symbol, from, to);
+        return await(key, fetch(key, () -> provider.fetchStockHistory(symbol, from, to)));
+    }
+
+    /**
+     * Whether the provider reads many symbols in one bulk call
+     */
+    public boolean supportsBulk() {
+        return provider.supportsBulk();
+    }
+
+    /**
+     * History of many symbols over one date range in one provider call. Bulk reads are counted
+     * but not coalesced; callers are expected to batch them already.
+     */
+    public Map<String, PriceView> fetchMany(Collection<String> symbols, LocalDate from, LocalDate to) {
+        requests.increment();
+        executions.increment();
+        return provider.fetchMany(symbols, from, to);
+    }
+
+    public long requestCount() { return requests.sum(); }
+    public long executionCount() { return executions.sum(); }
+    public long coalescedCount() { return coalesced.sum(); }
+    public int inFlightCount() { return inFlight.size(); }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("marketdata.fetch.requests", this, SingleFlightFetcher::requestCount)
+            .description("History fetches requested by callers")
+            .register(registry);
+        FunctionCounter.builder("marketdata.fetch.executions", this, SingleFlightFetcher::executionCount)
+            .description("History fetches actually sent to the provider")
+            .register(registry);
+        FunctionCounter.builder("marketdata.fetch.coalesced", this, SingleFlightFetcher::coalescedCount)
+            .description("History fetches served by joining one already in flight")
+            .register(registry);
+        Gauge.builder("marketdata.fetch.in.flight", this, SingleFlightFetcher::inFlightCount)
+            .description("Distinct history fetches currently in flight")
+            .register(registry);
+    }
+
+    private CompletableFuture<List<StockData>> fetch(FetchKey key, Supplier<List<StockData>> call) {
+        requests.increment();
+        CompletableFuture<List<StockData>> leader = new CompletableFuture<>();
+        CompletableFuture<List<StockData>> existing = inFlight.putIfAbsent(key, leader);
+        if (existing != null) {
+            coalesced.increment();
+            logger.debug("[SingleFlight] Joining in-flight fetch for {}", key);
+            return existing;
+        }
+
+        executions.increment();
+        try {
+            leader.complete(Collections.unmodifiableList(call.get()));
+        } catch (Throwable t) {
+            leader.completeExceptionally(t);
+        } finally {
+            inFlight.remove(key, leader);
+        }
+        return leader;
+    }
+
+    private static List<StockData> await(FetchKey key, CompletableFuture<List<StockData>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + key.symbol(), e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Fetch failed for " + key.symbol(), cause);
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.quantumfpo.stocks.service;
+
+import com.quantumfpo.stocks.model.LoadResult;
+import com.quantumfpo.stocks.model.StockData;
+import com.quantumfpo.stocks.store.PriceSeries;
+import com.quantumfpo.stocks.store.PriceStore;
+import com.quantumfpo.stocks.store.PriceView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Fans symbol fetches out on virtual threads and writes the results into the {@link PriceStore}.
+ * Fetches go through the {@link SingleFlightFetcher}, so overlapping requests share provider calls,
+ * and a symbol whose history is already held only fetches the dates it is missing. With a bulk
+ * provider the missing ranges of a whole request are grouped by date range instead, one
+ * {@link MarketDataProvider#fetchMany} call per distinct range.
+ * A shared semaphore caps in-flight provider calls across all requests, each fetch has its own
+ * timeout, and a failing symbol is reported in the {@link LoadResult} without failing the others.
+ */
+@Service
+public class StockLoaderService {
+    private static final Logger logger = LoggerFactory.getLogger(StockLoaderService.class);
+
+    private final SingleFlightFetcher fetcher;
+    private final PriceStore priceStore;
+    private final Semaphore permits;
+    private final Duration symbolTimeout;
+
+    public StockLoaderService(SingleFlightFetcher fetcher, PriceStore priceStore,
+                              @Value("${stocks.load.max-concurrency:16}") int maxConcurrency,
+                              @Value("${stocks.load.symbol-timeout:PT30S}") Duration symbolTimeout) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("stocks.load.max-concurrency must be positive");
+        }
+        this.fetcher = fetcher;
+        this.priceStore = priceStore;
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.symbolTimeout = symbolTimeout;
+    }
+
+    /**
+     * Inclusive date range still to be fetched for a symbol
+     */
+    record DateRange(LocalDate from, LocalDate to) {}
+
+    /**
+     * Ranges a symbol is missing, and whether they extend history it already holds
+     */
+    private record Plan(boolean extendsHeld, List<DateRange> gaps) {}
+
+    /**
+     * Receives each symbol's outcome as soon as it is known
+     */
+    public interface LoadListener {
+        void loaded(String symbol, PriceView view);
+        void failed(String symbol, String reason);
+    }
+
+    /**
+     * Fetch and store the last period days of every symbol, in parallel.
+     * Each loaded view covers the requested window when the symbol already had overlapping history,
+     * otherwise it is exactly what the provider returned.
+     */
+    public LoadResult load(List<String> symbols, int period) {
+        return load(symbols, period, null);
+    }
+
+    /**
+     * Like {@link #load(List, int)}, but also reports every symbol to the listener as soon as it
+     * finishes, in completion order and on the calling thread, so results can be streamed out
+     */
+    public LoadResult load(List<String> symbols, int period, LoadListener listener) {
+        Map<String, Future<PriceView>> pending = new LinkedHashMap<>();
+        Map<Future<PriceView>, String> symbolOf = new HashMap<>();
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(period - 1L);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletionService<PriceView> completion = new ExecutorCompletionService<>(executor);
+            Map<String, Plan> plans = new LinkedHashMap<>();
+            for (String symbol : new LinkedHashSet<>(symbols)) {
+                plans.put(symbol, plan(priceStore.view(symbol), from, to));
+            }
+            Map<DateRange, Future<Map<String, PriceView>>> batches = new HashMap<>();
+            if (plans.values().stream().anyMatch(plan -> !plan.gaps().isEmpty()) && fetcher.supportsBulk()) {
+                fetchBatches(plans, executor, batches);
+            } else {
+                plans.clear();
+            }
+            for (String symbol : new LinkedHashSet<>(symbols)) {
+                Plan plan = plans.get(symbol);
+                Future<PriceView> future = completion.submit(plan != null
+                    ? () -> loadBatched(symbol, plan, batches, from, to)
+                    : () -> loadSymbol(symbol, period));
+                pending.put(symbol, future);
+                symbolOf.put(future, symbol);
+            }
+            if (listener != null) {
+                for (int i = 0; i < pending.size(); i++) {
+                    Future<PriceView> done = completion.take();
+                    report(listener, symbolOf.get(done), done);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // The executor has been closed, so every future is already complete
+        LoadResult result = new LoadResult();
+        for (Map.Entry<String, Future<PriceView>> entry : pending.entrySet()) {
+            String symbol = entry.getKey();
+            try {
+                result.addLoaded(symbol, entry.getValue().get());
+            } catch (ExecutionException e) {
+                String reason = describe(e.getCause());
+                logger.warn("[Loader] Failed to load {}: {}", symbol, reason);
+                result.addFailure(symbol, reason);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                result.addFailure(symbol, "Interrupted");
+            }
+        }
+        logger.info("[Loader] Loaded {} of {} symbols", result.getLoaded().size(), pending.size());
+        return result;
+    }
+
+    private static void report(LoadListener listener, String symbol, Future<PriceView> done) throws InterruptedException {
+        try {
+            listener.loaded(symbol, done.get());
+        } catch (ExecutionException e) {
+            listener.failed(symbol, describe(e.getCause()));
+        }
+    }
+
+    private PriceView loadSymbol(String symbol, int period) throws Exception {
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(period - 1L);
+        PriceView held = priceStore.view(symbol);
+
+        if (!overlaps(held, from, to)) {
+            List<StockData> data = fetch(symbol, () -> fetcher.fetchStockHistory(symbol, period));
+            logger.info("Fetched data for {}: {} records", symbol, data.size());
+            if (!data.isEmpty()) {
+                logger.info("Sample record for {}: {}", symbol, data.get(0));
+            }
+            // Merged rather than put, so older history outside the window is kept
+            PriceView fetched = PriceSeries.fromStockData(symbol, data).view();
+            priceStore.merge(symbol, data);
+            return fetched.isEmpty() ? fetched
+                : priceStore.slice(symbol, LocalDate.ofEpochDay(fetched.firstEpochDay()), LocalDate.ofEpochDay(fetched.lastEpochDay()));
+        }
+
+        List<DateRange> gaps = missingRanges(held, from, to);
+        if (gaps.isEmpty()) {
+            logger.debug("[Loader] {} already covers {} to {}", symbol, from, to);
+        } else {
+            List<StockData> delta = fetch(symbol, () -> {
+                List<StockData> fetched = new ArrayList<>();
+                for (DateRange gap : gaps) {
+                    fetched.addAll(fetcher.fetchStockHistory(symbol, gap.from(), gap.to()));
+                }
+                return fetched;
+            });
+            logger.info("[Loader] Fetched {} new records for {} across {} missing range(s)",
+                delta.size(), symbol, gaps.size());
+            priceStore.merge(symbol, delta);
+        }
+        return priceStore.slice(symbol, from, to);
+    }
+
+    private static Plan plan(PriceView held, LocalDate from, LocalDate to) {
+        return overlaps(held, from, to)
+            ? new Plan(true, missingRanges(held, from, to))
+            : new Plan(false, List.of(new DateRange(from, to)));
+    }
+
+    // One bulk fetch per distinct missing range, shared by every symbol missing it
+    private void fetchBatches(Map<String, Plan> plans, ExecutorService executor,
+                              Map<DateRange, Future<Map<String, PriceView>>> batches) {
+        Map<DateRange, List<String>> groups = new LinkedHashMap<>();
+        plans.forEach((symbol, plan) -> {
+            for (DateRange gap : plan.gaps()) {
+                groups.computeIfAbsent(gap, g -> new ArrayList<>()).add(symbol);
+            }
+        });
+        groups.forEach((range, group) -> batches.put(range, executor.submit(() -> {
+            Map<String, PriceView> views = fetch(group.size() + " symbols", () -> fetcher.fetchMany(group, range.from(), range.to()));
+            logger.info("[Loader] Fetched {} symbols from {} to {} in one bulk call", group.size(), range.from(), range.to());
+            return views;
+        })));
+    }
+
+    private PriceView loadBatched(String symbol, Plan plan, Map<DateRange, Future<Map<String, PriceView>>> batches,
+                                  LocalDate from, LocalDate to) throws Exception {
+        List<StockData> delta = new ArrayList<>();
+        for (DateRange gap : plan.gaps()) {
+            try {
+                delta.addAll(batches.get(gap).get().get(symbol).toStockData());
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+        }
+        if (!delta.isEmpty()) {
+            // Merged rather than put, so older history outside the window is kept
+            priceStore.merge(symbol, delta);
+        }
+        if (plan.extendsHeld()) {
+            return priceStore.slice(symbol, from, to);
+        }
+        return delta.isEmpty() ? PriceView.empty(symbol)
+            : priceStore.slice(symbol, delta.get(0).getDate(), delta.get(delta.size() - 1).getDate());
+    }
+
+    // Runs a provider call under the concurrency cap, on its own virtual thread so the timeout
+    // only counts time spent on the provider
+    private <T> T fetch(String symbol, Callable<T> call) throws Exception {
+        permits.acquire();
+        try {
+            FutureTask<T> fetch = new FutureTask<>(call);
+            Thread.ofVirtual().name("fetch-" + symbol).start(fetch);
+            try {
+                return fetch.get(symbolTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                fetch.cancel(true);
+                throw new TimeoutException("Timed out after " + symbolTimeout.toMillis() + " ms");
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    // True when the held history overlaps or directly adjoins [from, to], so a delta can extend it
+    private static boolean overlaps(PriceView held, LocalDate from, LocalDate to) {
+        return !held.isEmpty()
+            && held.lastEpochDay() >= from.toEpochDay() - 1
+            && held.firstEpochDay() <= to.toEpochDay() + 1;
+    }
+
+    /**
+     * Date ranges of [from, to] lying before or after the held history. Gaps inside the held
+     * span are treated as non-trading days and never re-fetched.
+     */
+    static List<DateRange> missingRanges(PriceView held, LocalDate from, LocalDate to) {
+        List<DateRange> gaps = new ArrayList<>();
+        LocalDate first = LocalDate.ofEpochDay(held.firstEpochDay());
+        LocalDate last = LocalDate.ofEpochDay(held.lastEpochDay());
+        if (from.isBefore(first)) {
+            gaps.add(new DateRange(from, first.minusDays(1)));
+        }
+        if (to.isAfter(last)) {
+            gaps.add(new DateRange(last.plusDays(1), to));
+        }
+        return gaps;
+    }
+
+    private static String describe(Throwable error) {
+        String message = error.getMessage();
+        return message != null ? message : error.getClass().getSimpleName();
+    }
+}
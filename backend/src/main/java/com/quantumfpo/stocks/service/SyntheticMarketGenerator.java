@@ -0,0 +1,134 @@
+package com.quantumfpo.stocks.service;
+
+import com.quantumfpo.stocks.model.SyntheticUniverse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Bulk generator of correlated synthetic price histories, for load-testing the optimization path.
+ *
+ * Daily log returns follow a factor model: each symbol's standardised shock is
+ * sqrt(share) * (b_i . f_t) + sqrt(1 - share) * e_it, with unit-length positive loadings b_i on
+ * factor returns f_t shared by every symbol and an idiosyncratic e_it of its own. Two symbols
+ * therefore correlate at share * (b_i . b_j); with one factor every pair correlates at share.
+ * Each symbol draws from its own SplittableRandom split off the seed, so symbols are generated in
+ * parallel straight into primitive arrays and the result depends only on the spec.
+ */
+@Service
+public class SyntheticMarketGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticMarketGenerator.class);
+    private static final String SYMBOL_PREFIX = "SYN_";
+
+    /**
+     * Shape of a universe: symbols x days closes ending on end, where the common factors
+     * explain factorShare of each symbol's return variance
+     */
+    public record Spec(int symbols, int days, int factors, double factorShare, long seed, LocalDate end) {
+        public Spec {
+            if (symbols <= 0 || days <= 0) {
+                throw new IllegalArgumentException("Universe needs at least one symbol and one day");
+            }
+            if (factors <= 0) {
+                throw new IllegalArgumentException("Factor model needs at least one factor");
+            }
+            if (factorShare < 0 || factorShare > 1) {
+                throw new IllegalArgumentException("Factor share must be between 0 and 1");
+            }
+        }
+    }
+
+    private final int factors;
+    private final double factorShare;
+    private final long seed;
+
+    public SyntheticMarketGenerator(@Value("${stocks.simulate.factors:3}") int factors,
+                                    @Value("${stocks.simulate.factor-share:0.4}") double factorShare,
+                                    @Value("${stocks.simulate.seed:42}") long seed) {
+        this.factors = factors;
+        this.factorShare = factorShare;
+        this.seed = seed;
+    }
+
+    /**
+     * Universe of the given size ending today, using the configured factor model and seed
+     */
+    public SyntheticUniverse generate(int symbols, int days) {
+        return generate(new Spec(symbols, days, factors, factorShare, seed, LocalDate.now()));
+    }
+
+    public SyntheticUniverse generate(Spec spec) {
+        long start = System.nanoTime();
+        int n = spec.symbols();
+        int t = spec.days();
+        int k = spec.factors();
+        SplittableRandom root = new SplittableRandom(spec.seed());
+
+        // Factor returns are common to every symbol, so they are drawn once, day-major
+        double[] factorReturns = new double[t * k];
+        for (int i = 0; i < factorReturns.length; i++) {
+            factorReturns[i] = root.nextGaussian();
+        }
+        // Split sequentially so each symbol's stream is fixed regardless of thread scheduling
+        SplittableRandom[] streams = new SplittableRandom[n];
+        String[] symbols = new String[n];
+        for (int i = 0; i < n; i++) {
+            streams[i] = root.split();
+            symbols[i] = SYMBOL_PREFIX + i;
+        }
+        int[] epochDays = new int[t];
+        int firstDay = (int) spec.end().toEpochDay() - (t - 1);
+        for (int d = 0; d < t; d++) {
+            epochDays[d] = firstDay + d;
+        }
+
+        double[][] closes = new double[n][];
+        double common = Math.sqrt(spec.factorShare());
+        double own = Math.sqrt(1 - spec.factorShare());
+        IntStream.range(0, n).parallel()
+            .forEach(i -> closes[i] = path(streams[i], factorReturns, t, k, common, own));
+
+        logger.info("[Simulator] Generated {} symbols x {} days in {} ms",
+            n, t, (System.nanoTime() - start) / 1_000_000);
+        return new SyntheticUniverse(symbols, epochDays, closes);
+    }
+
+    private static double[] path(SplittableRandom random, double[] factorReturns, int days, int k,
+                                 double common, double own) {
+        // Positive drift keeps expected returns positive, as the optimizer expects
+        double initialPrice = 20 + random.nextDouble() * 180;
+        double drift = 0.0002 + random.nextDouble() * 0.0006;
+        double volatility = 0.01 + random.nextDouble() * 0.015;
+
+        double[] loadings = new double[k];
+        double norm = 0;
+        for (int j = 0; j < k; j++) {
+            loadings[j] = 0.1 + random.nextDouble();
+            norm += loadings[j] * loadings[j];
+        }
+        norm = Math.sqrt(norm);
+        for (int j = 0; j < k; j++) {
+            loadings[j] = common * loadings[j] / norm;
+        }
+
+        double[] closes = new double[days];
+        double logPrice = Math.log(initialPrice);
+        double step = drift - 0.5 * volatility * volatility;
+        closes[0] = initialPrice;
+        for (int d = 1; d < days; d++) {
+            double shock = own * random.nextGaussian();
+            int row = d * k;
+            for (int j = 0; j < k; j++) {
+                shock += loadings[j] * factorReturns[row + j];
+            }
+            logPrice += step + volatility * shock;
+            closes[d] = Math.exp(logPrice);
+        }
+        return closes;
+    }
+}
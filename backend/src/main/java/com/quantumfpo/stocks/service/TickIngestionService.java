@@ -0,0 +1,175 @@
+package com.quantumfpo.stocks.service;
+
+import com.quantumfpo.stocks.store.PriceStore;
+import com.quantumfpo.stocks.store.TickRingBuffer;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Live tick ingestion: request threads publish ticks into a {@link TickRingBuffer} and one consumer
+ * thread drains it into a {@link BarAggregator}, writing bars to the price store as daily closes.
+ *
+ * A completed bar is written to the store as soon as the symbol's next day starts; the bar still
+ * in progress is written every ticks.flush-interval, so the store lags live prices by at most that.
+ * Each write sets the day's close with {@link PriceStore#updateLast}, in place once the day is stored.
+ * When the ring is full ticks are rejected rather than queued, and counted. A bar the store fails to
+ * write is logged and counted, and the next write of its symbol tries again with the latest close. Ticks are only taken for
+ * symbols the price store already knows, so a stream of made-up tickers cannot grow its dictionary.
+ */
+@Service
+public class TickIngestionService implements MeterBinder {
+    private static final Logger logger = LoggerFactory.getLogger(TickIngestionService.class);
+    private static final int DRAIN_BATCH = 4096;
+    private static final long IDLE_PARK_NANOS = 200_000;
+    private static final long ERROR_PARK_NANOS = 100_000_000;
+
+    private final PriceStore priceStore;
+    private final TickRingBuffer ring;
+    private final BarAggregator aggregator;
+    private final long flushIntervalNanos;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder barsWritten = new LongAdder();
+    private final LongAdder barsFailed = new LongAdder();
+
+    private volatile boolean running;
+    private Thread consumer;
+    private long nextFlush = System.nanoTime();
+
+    public TickIngestionService(PriceStore priceStore,
+                                @Value("${ticks.buffer-capacity:65536}") int bufferCapacity,
+                                @Value("${ticks.flush-interval:PT1S}") Duration flushInterval) {
+        this.priceStore = priceStore;
+        this.ring = new TickRingBuffer(bufferCapacity);
+        this.aggregator = new BarAggregator(this::writeBar);
+        this.flushIntervalNanos = flushInterval.toNanos();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("ticks.accepted", accepted, LongAdder::sum)
+            .description("Ticks published to the ingestion ring").register(registry);
+        FunctionCounter.builder("ticks.rejected", rejected, LongAdder::sum)
+            .description("Ticks rejected because the ingestion ring was full").register(registry);
+        FunctionCounter.builder("ticks.late", aggregator, BarAggregator::lateTicks)
+            .description("Ticks dropped because their day's bar was already complete").register(registry);
+        FunctionCounter.builder("ticks.bars.written", barsWritten, LongAdder::sum)
+            .description("Bars written to the price store, complete or in progress").register(registry);
+        FunctionCounter.builder("ticks.bars.failed", barsFailed, LongAdder::sum)
+            .description("Bar writes the price store failed").register(registry);
+        Gauge.builder("ticks.buffer.size", ring, TickRingBuffer::size)
+            .description("Ticks waiting in the ingestion ring").register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        consumer = Thread.ofPlatform().daemon().name("tick-consumer").start(this::consume);
+        logger.info("[Ticks] Consumer started with a {}-slot ring", ring.capacity());
+    }
+
+    /**
+     * Stop the consumer, then drain what is left and write every open bar
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+            try {
+                consumer.join(Duration.ofSeconds(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (consumer.isAlive()) {
+                logger.warn("[Ticks] Consumer did not stop, {} ticks left unwritten", ring.size());
+                return;
+            }
+        }
+        while (ring.drain(aggregator, DRAIN_BATCH) > 0) {
+            // Keep draining until empty
+        }
+        aggregator.flush();
+    }
+
+    /**
+     * Publish one tick, returning false when the ring is full. Safe from any thread.
+     * Throws IllegalArgumentException for an invalid tick or a symbol the price store has never held.
+     */
+    public boolean offer(String symbol, long timestamp, double price, long size) {
+        if (!(price > 0) || Double.isInfinite(price) || size < 0) {
+            throw new IllegalArgumentException("Tick for " + symbol + " needs a positive price and a non-negative size");
+        }
+        int id = priceStore.find(symbol);
+        if (id < 0) {
+            throw new IllegalArgumentException("Unknown symbol " + symbol + ", load its history before sending ticks");
+        }
+        boolean published = ring.offer(id, timestamp, price, size);
+        (published ? accepted : rejected).increment();
+        return published;
+    }
+
+    public long acceptedCount() { return accepted.sum(); }
+    public long rejectedCount() { return rejected.sum(); }
+    public long pendingCount() { return ring.size(); }
+    public long failedBarCount() { return barsFailed.sum(); }
+
+    private void consume() {
+        while (running) {
+            try {
+                if (pump() == 0) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            } catch (RuntimeException e) {
+                logger.error("[Ticks] Failed to drain ticks, continuing", e);
+                // Back off rather than spin if the failure repeats
+                LockSupport.parkNanos(ERROR_PARK_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Drain one batch and write open bars when a flush is due. Consumer thread only.
+     */
+    int pump() {
+        int drained = ring.drain(aggregator, DRAIN_BATCH);
+        long now = System.nanoTime();
+        if (now - nextFlush >= 0) {
+            aggregator.flush();
+            nextFlush = now + flushIntervalNanos;
+        }
+        return drained;
+    }
+
+    private void writeBar(int symbolId, int epochDay, double open, double high, double low, double close,
+                          long volume, boolean complete) {
+        String symbol = priceStore.dictionary().symbol(symbolId);
+        try {
+            priceStore.updateLast(symbol, LocalDate.ofEpochDay(epochDay), close);
+        } catch (RuntimeException e) {
+            // Thrown out of the drain, it would stop the aggregator mid-batch
+            barsFailed.increment();
+            logger.warn("[Ticks] Could not write {} bar for {}: {}", LocalDate.ofEpochDay(epochDay), symbol, e.toString());
+            return;
+        }
+        barsWritten.increment();
+        if (complete) {
+            logger.debug("[Ticks] Completed {} bar for {}: close {} volume {}", LocalDate.ofEpochDay(epochDay),
+                symbol, close, volume);
+        }
+    }
+}
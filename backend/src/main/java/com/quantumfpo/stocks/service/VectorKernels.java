@@ -0,0 +1,128 @@
+package com.quantumfpo.stocks.service;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link NumericKernels} on the widest double lanes the CPU offers, through jdk.incubator.vector.
+ * Loops run whole vectors with fused multiply-adds and finish the last partial vector in scalar code.
+ * Only load this class when the module is present; {@link NumericKernels#PREFERRED} checks that.
+ */
+public final class VectorKernels implements NumericKernels {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+
+    @Override
+    public String name() {
+        return "vector (" + LANES + " x double)";
+    }
+
+    @Override
+    public double dot(double[] a, int aOffset, double[] b, int bOffset, int length) {
+        // Two accumulators so consecutive FMAs do not wait on each other
+        DoubleVector even = DoubleVector.zero(SPECIES);
+        DoubleVector odd = DoubleVector.zero(SPECIES);
+        int k = 0;
+        for (int bound = length - 2 * LANES; k <= bound; k += 2 * LANES) {
+            even = DoubleVector.fromArray(SPECIES, a, aOffset + k)
+                .fma(DoubleVector.fromArray(SPECIES, b, bOffset + k), even);
+            odd = DoubleVector.fromArray(SPECIES, a, aOffset + k + LANES)
+                .fma(DoubleVector.fromArray(SPECIES, b, bOffset + k + LANES), odd);
+        }
+        for (int bound = SPECIES.loopBound(length); k < bound; k += LANES) {
+            even = DoubleVector.fromArray(SPECIES, a, aOffset + k)
+                .fma(DoubleVector.fromArray(SPECIES, b, bOffset + k), even);
+        }
+        double sum = even.add(odd).reduceLanes(VectorOperators.ADD);
+        for (; k < length; k++) {
+            sum += a[aOffset + k] * b[bOffset + k];
+        }
+        return sum;
+    }
+
+    @Override
+    public void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset, int length) {
+        DoubleVector scale = DoubleVector.broadcast(SPECIES, alpha);
+        int k = 0;
+        for (int bound = SPECIES.loopBound(length); k < bound; k += LANES) {
+            DoubleVector.fromArray(SPECIES, x, xOffset + k)
+                .fma(scale, DoubleVector.fromArray(SPECIES, y, yOffset + k))
+                .intoArray(y, yOffset + k);
+        }
+        for (; k < length; k++) {
+            y[yOffset + k] += alpha * x[xOffset + k];
+        }
+    }
+
+    @Override
+    public double simpleReturns(double[] closes, int offset, int count, double[] out, int outOffset) {
+        DoubleVector zero = DoubleVector.zero(SPECIES);
+        DoubleVector sums = zero;
+        int k = 0;
+        for (int bound = SPECIES.loopBound(count); k < bound; k += LANES) {
+            DoubleVector previous = DoubleVector.fromArray(SPECIES, closes, offset + k);
+            DoubleVector r = DoubleVector.fromArray(SPECIES, closes, offset + k + 1).div(previous).sub(1.0);
+            VectorMask<Double> valid = previous.compare(VectorOperators.GT, 0.0).and(r.test(VectorOperators.IS_FINITE));
+            r = zero.blend(r, valid);
+            r.intoArray(out, outOffset + k);
+            sums = sums.add(r);
+        }
+        double sum = sums.reduceLanes(VectorOperators.ADD);
+        for (; k < count; k++) {
+            double r = RiskModelEngine.dailyReturn(closes[offset + k], closes[offset + k + 1]);
+            out[outOffset + k] = r;
+            sum += r;
+        }
+        return sum;
+    }
+
+    @Override
+    public void crossProductTile(double[] x, int t, int i0, int i1, int j0, int j1, int k0, int k1, double[] result, int n) {
+        int length = k1 - k0;
+        int bound = SPECIES.loopBound(length);
+        for (int i = i0; i < i1; i++) {
+            int a = i * t + k0;
+            int j = Math.max(i, j0);
+            // Four columns at a time, so each load of column i feeds four FMAs
+            for (; j + 4 <= j1; j += 4) {
+                int b0 = j * t + k0;
+                int b1 = b0 + t;
+                int b2 = b1 + t;
+                int b3 = b2 + t;
+                DoubleVector acc0 = DoubleVector.zero(SPECIES);
+                DoubleVector acc1 = acc0;
+                DoubleVector acc2 = acc0;
+                DoubleVector acc3 = acc0;
+                int k = 0;
+                for (; k < bound; k += LANES) {
+                    DoubleVector column = DoubleVector.fromArray(SPECIES, x, a + k);
+                    acc0 = DoubleVector.fromArray(SPECIES, x, b0 + k).fma(column, acc0);
+                    acc1 = DoubleVector.fromArray(SPECIES, x, b1 + k).fma(column, acc1);
+                    acc2 = DoubleVector.fromArray(SPECIES, x, b2 + k).fma(column, acc2);
+                    acc3 = DoubleVector.fromArray(SPECIES, x, b3 + k).fma(column, acc3);
+                }
+                double s0 = acc0.reduceLanes(VectorOperators.ADD);
+                double s1 = acc1.reduceLanes(VectorOperators.ADD);
+                double s2 = acc2.reduceLanes(VectorOperators.ADD);
+                double s3 = acc3.reduceLanes(VectorOperators.ADD);
+                for (; k < length; k++) {
+                    double v = x[a + k];
+                    s0 += v * x[b0 + k];
+                    s1 += v * x[b1 + k];
+                    s2 += v * x[b2 + k];
+                    s3 += v * x[b3 + k];
+                }
+                int row = i * n + j;
+                result[row] += s0;
+                result[row + 1] += s1;
+                result[row + 2] += s2;
+                result[row + 3] += s3;
+            }
+            for (; j < j1; j++) {
+                result[i * n + j] += dot(x, a, x, j * t + k0, length);
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.quantumfpo.stocks.service;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * OUT_OF_SERVICE while the price snapshot is being restored, UP otherwise.
+ * Part of the readiness group, so a pod only takes traffic once its store is warm.
+ */
+@Component
+public class WarmupHealthIndicator implements HealthIndicator {
+    private final WarmupService warmupService;
+
+    public WarmupHealthIndicator(WarmupService warmupService) {
+        this.warmupService = warmupService;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = warmupService.isWarm() ? Health.up() : Health.outOfService();
+        return builder.withDetails(warmupService.progress()).build();
+    }
+}
@@ -0,0 +1,204 @@
+package com.quantumfpo.stocks.service;
+
+import com.quantumfpo.stocks.store.CompressedPriceSeries;
+import com.quantumfpo.stocks.store.PriceSeries;
+import com.quantumfpo.stocks.store.PriceSnapshot;
+import com.quantumfpo.stocks.store.PriceStore;
+import com.quantumfpo.stocks.store.PriceView;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the price store warm across restarts.
+ *
+ * Every stocks.snapshot.interval the most recently used resident series are written to a
+ * {@link PriceSnapshot} at stocks.snapshot.path, and once more on shutdown. At startup that
+ * snapshot is restored on a background thread; until it finishes the warm-up health indicator
+ * reports OUT_OF_SERVICE, which holds readiness down. A missing or unreadable snapshot never
+ * blocks startup, the store just starts cold.
+ */
+@Service
+public class WarmupService {
+    private static final Logger logger = LoggerFactory.getLogger(WarmupService.class);
+
+    public enum State { DISABLED, RESTORING, READY, FAILED }
+
+    private final PriceStore priceStore;
+    private final Path snapshotPath;
+    private final Duration interval;
+    private final int maxSymbols;
+
+    private volatile State state = State.DISABLED;
+    private final AtomicInteger restoredSymbols = new AtomicInteger();
+    private final AtomicLong restoredPoints = new AtomicLong();
+    private volatile int snapshotSymbols;
+    private volatile Instant restoreStarted;
+    private volatile Instant restoreFinished;
+    private volatile String failure;
+    private volatile Instant lastSnapshotAt;
+    private volatile int lastSnapshotSymbols;
+    private volatile long lastSnapshotBytes;
+
+    private ScheduledExecutorService scheduler;
+
+    public WarmupService(PriceStore priceStore,
+                         @Value("${stocks.snapshot.path:}") String snapshotPath,
+                         @Value("${stocks.snapshot.interval:PT5M}") Duration interval,
+                         @Value("${stocks.snapshot.max-symbols:2000}") int maxSymbols) {
+        this.priceStore = priceStore;
+        this.snapshotPath = (snapshotPath == null || snapshotPath.isBlank()) ? null : Paths.get(snapshotPath);
+        this.interval = interval;
+        this.maxSymbols = maxSymbols;
+    }
+
+    /**
+     * Start restoring the snapshot in the background and schedule periodic snapshots
+     */
+    @PostConstruct
+    public void start() {
+        if (snapshotPath == null) {
+            logger.info("[Warmup] No snapshot path configured, price store starts cold");
+            return;
+        }
+        state = State.RESTORING;
+        Thread.ofPlatform().daemon().name("price-warmup").start(this::restore);
+        if (interval.isPositive()) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().daemon().name("price-snapshot").factory());
+            scheduler.scheduleWithFixedDelay(this::snapshotQuietly,
+                interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (state == State.READY || state == State.FAILED) {
+            snapshotQuietly();
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public boolean isWarm() {
+        return state != State.RESTORING;
+    }
+
+    /**
+     * Write the hot symbol set now, returning how many symbols were written.
+     * Skipped while a restore is running or when nothing is resident, so a good snapshot is never
+     * replaced by a partial or empty one.
+     */
+    public synchronized int snapshot() throws IOException {
+        if (snapshotPath == null || state == State.RESTORING) {
+            return 0;
+        }
+        List<PriceSeries> resident = priceStore.cache().values();
+        // Least recently used first, so the tail is the hot set
+        List<PriceView> hot = new ArrayList<>();
+        for (PriceSeries series : resident.subList(Math.max(0, resident.size() - maxSymbols), resident.size())) {
+            if (!series.isEmpty()) {
+                hot.add(series.view());
+            }
+        }
+        if (hot.isEmpty()) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        long bytes = PriceSnapshot.write(snapshotPath, hot);
+        lastSnapshotAt = Instant.now();
+        lastSnapshotSymbols = hot.size();
+        lastSnapshotBytes = bytes;
+        logger.info("[Warmup] Wrote snapshot of {} symbols ({} bytes) to {} in {} ms",
+            hot.size(), bytes, snapshotPath, (System.nanoTime() - start) / 1_000_000);
+        return hot.size();
+    }
+
+    /**
+     * Warm-up and snapshot progress, for the actuator
+     */
+    public Map<String, Object> progress() {
+        Map<String, Object> progress = new LinkedHashMap<>();
+        progress.put("state", state.name());
+        progress.put("restoredSymbols", restoredSymbols.get());
+        progress.put("snapshotSymbols", snapshotSymbols);
+        progress.put("restoredPoints", restoredPoints.get());
+        Instant started = restoreStarted;
+        if (started != null) {
+            Instant finished = restoreFinished;
+            progress.put("restoreMillis", Duration.between(started, finished != null ? finished : Instant.now()).toMillis());
+        }
+        if (failure != null) {
+            progress.put("failure", failure);
+        }
+        if (lastSnapshotAt != null) {
+            progress.put("lastSnapshotAt", lastSnapshotAt.toString());
+            progress.put("lastSnapshotSymbols", lastSnapshotSymbols);
+            progress.put("lastSnapshotBytes", lastSnapshotBytes);
+        }
+        return progress;
+    }
+
+    void restore() {
+        restoreStarted = Instant.now();
+        try {
+            if (!Files.isRegularFile(snapshotPath)) {
+                logger.info("[Warmup] No snapshot at {} yet, price store starts cold", snapshotPath);
+            } else {
+                PriceSnapshot.read(snapshotPath, this::restoreSeries);
+                logger.info("[Warmup] Restored {} symbols ({} points) from {} in {} ms",
+                    restoredSymbols.get(), restoredPoints.get(), snapshotPath,
+                    Duration.between(restoreStarted, Instant.now()).toMillis());
+            }
+            state = State.READY;
+        } catch (IOException | RuntimeException e) {
+            failure = e.getMessage();
+            state = State.FAILED;
+            logger.warn("[Warmup] Could not restore snapshot {}, continuing cold: {}", snapshotPath, e.getMessage());
+        } finally {
+            restoreFinished = Instant.now();
+        }
+    }
+
+    private void restoreSeries(CompressedPriceSeries series, int index, int total) {
+        snapshotSymbols = total;
+        // Anything stored since startup is fresher than the snapshot
+        if (!series.isEmpty() && !priceStore.contains(series.getSymbol())) {
+            priceStore.put(series.getSymbol(), series.decode());
+            restoredPoints.addAndGet(series.size());
+        }
+        restoredSymbols.incrementAndGet();
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            logger.warn("[Warmup] Could not write snapshot to {}: {}", snapshotPath, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.quantumfpo.stocks.store;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Thread-safe LRU cache bounded by entry count and by total weight, with per-entry time-to-live.
+ * Hit, miss, put, eviction and expiry counts are kept for {@link BoundedCacheMetrics}.
+ */
+public final class BoundedCache<K, V> {
+    private static final long NO_EXPIRY = Long.MAX_VALUE;
+
+    private final long maxEntries;
+    private final long maxWeight;
+    private final long defaultTtlNanos;
+    private final ToLongFunction<V> weigher;
+    private final LongSupplier nanoClock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Access-ordered: iteration starts at the least recently used entry
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalWeight;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private volatile BiConsumer<? super K, ? super V> evictionListener;
+
+    public BoundedCache(long maxEntries, long maxWeight, Duration defaultTtl, ToLongFunction<V> weigher) {
+        this(maxEntries, maxWeight, defaultTtl, weigher, System::nanoTime);
+    }
+
+    BoundedCache(long maxEntries, long maxWeight, Duration defaultTtl, ToLongFunction<V> weigher, LongSupplier nanoClock) {
+        if (maxEntries <= 0 || maxWeight <= 0) {
+            throw new IllegalArgumentException("Cache bounds must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.defaultTtlNanos = ttlNanos(defaultTtl);
+        this.weigher = weigher;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Value for key, or null when absent or expired. Counts as a hit or miss.
+     */
+    public V get(K key) {
+        lock.lock();
+        try {
+            Entry<V> entry = liveEntry(key);
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Value for key, loading and inserting it on a miss. The loader runs outside the lock,
+     * so concurrent misses may both load; the first insert wins and is returned to both.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V cached = get(key);
+        if (cached != null) {
+            return cached;
+        }
+        V loaded = loader.apply(key);
+        lock.lock();
+        try {
+            Entry<V> raced = liveEntry(key);
+            if (raced != null) {
+                return raced.value;
+            }
+            insert(key, loaded, defaultTtlNanos);
+            return loaded;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void put(K key, V value) {
+        put(key, value, null);
+    }
+
+    /**
+     * Be told of every entry dropped to stay within bounds (not of expiries or removals).
+     * The listener runs under the cache lock, so it must be quick and must not call back into this cache.
+     */
+    public void onEviction(BiConsumer<? super K, ? super V> listener) {
+        this.evictionListener = listener;
+    }
+
+    /**
+     * Insert or replace a value with its own time-to-live; null uses the cache default
+     */
+    public void put(K key, V value, Duration ttl) {
+        lock.lock();
+        try {
+            insert(key, value, ttl != null ? ttlNanos(ttl) : defaultTtlNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Recompute the weight of an entry whose value grew in place, evicting if now over budget
+     */
+    public void reweigh(K key) {
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                long weight = weigher.applyAsLong(entry.value);
+                totalWeight += weight - entry.weight;
+                entry.weight = weight;
+                evictIfNeeded();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public V remove(K key) {
+        lock.lock();
+        try {
+            Entry<V> removed = entries.remove(key);
+            if (removed == null) {
+                return null;
+            }
+            totalWeight -= removed.weight;
+            return removed.value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Whether a live entry exists; does not affect recency or statistics
+     */
+    public boolean containsKey(K key) {
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            return entry != null && !isExpired(entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<K> keys() {
+        lock.lock();
+        try {
+            purgeExpired();
+            return new ArrayList<>(entries.keySet());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<V> values() {
+        lock.lock();
+        try {
+            purgeExpired();
+            List<V> values = new ArrayList<>(entries.size());
+            for (Entry<V> entry : entries.values()) {
+                values.add(entry.value);
+            }
+            return values;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drop expired entries now rather than on their next access
+     */
+    public void cleanUp() {
+        lock.lock();
+        try {
+            purgeExpired();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long weight() {
+        lock.lock();
+        try {
+            return totalWeight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long maxEntries() { return maxEntries; }
+    public long maxWeight() { return maxWeight; }
+    public long hitCount() { return hits.sum(); }
+    public long missCount() { return misses.sum(); }
+    public long putCount() { return puts.sum(); }
+    public long evictionCount() { return evictions.sum(); }
+    public long expiredCount() { return expirations.sum(); }
+
+    private Entry<V> liveEntry(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && isExpired(entry)) {
+            entries.remove(key);
+            totalWeight -= entry.weight;
+            expirations.increment();
+            return null;
+        }
+        return entry;
+    }
+
+    private void insert(K key, V value, long ttlNanos) {
+        long weight = weigher.applyAsLong(value);
+        long expiresAt = ttlNanos == NO_EXPIRY ? NO_EXPIRY : nanoClock.getAsLong() + ttlNanos;
+        Entry<V> previous = entries.put(key, new Entry<>(value, weight, expiresAt));
+        if (previous != null) {
+            totalWeight -= previous.weight;
+        }
+        totalWeight += weight;
+        puts.increment();
+        evictIfNeeded();
+    }
+
+    // Evicts least recently used entries until within bounds, always keeping the newest one
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+        BiConsumer<? super K, ? super V> listener = evictionListener;
+        while ((entries.size() > maxEntries || totalWeight > maxWeight) && entries.size() > 1) {
+            Map.Entry<K, Entry<V>> eldest = it.next();
+            it.remove();
+            totalWeight -= eldest.getValue().weight;
+            evictions.increment();
+            if (listener != null) {
+                listener.accept(eldest.getKey(), eldest.getValue().value);
+            }
+        }
+    }
+
+    private void purgeExpired() {
+        Iterator<Entry<V>> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry<V> entry = it.next();
+            if (isExpired(entry)) {
+                it.remove();
+                totalWeight -= entry.weight;
+                expirations.increment();
+            }
+        }
+    }
+
+    private boolean isExpired(Entry<V> entry) {
+        return entry.expiresAt != NO_EXPIRY && nanoClock.getAsLong() - entry.expiresAt >= 0;
+    }
+
+    private static long ttlNanos(Duration ttl) {
+        return ttl == null || ttl.isZero() || ttl.isNegative() ? NO_EXPIRY : ttl.toNanos();
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long expiresAt;
+        long weight;
+
+        Entry(V value, long weight, long expiresAt) {
+            this.value = value;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
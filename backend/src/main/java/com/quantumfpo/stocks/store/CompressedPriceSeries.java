@@ -0,0 +1,498 @@
+package com.quantumfpo.stocks.store;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Immutable, bit-packed copy of a price series in the style of Facebook's Gorilla encoding.
+ *
+ * Points are cut into fixed-size blocks, each starting from a raw first point so any block can be
+ * decoded on its own. Within a block dates are stored as delta-of-delta (one bit per day on a
+ * regular calendar) and closes either as the XOR against the previous close, or, when every close
+ * in the block is an exact decimal of at most four places, as deltas of the scaled integer.
+ * A block index of bit offsets and first dates gives random access by position or date.
+ */
+public final class CompressedPriceSeries {
+    public static final int DEFAULT_BLOCK_SIZE = 512;
+
+    private static final int FORMAT_VERSION = 1;
+    private static final int MODE_XOR = 0;
+    private static final int MAX_DECIMAL_PLACES = 4;
+    private static final double[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000};
+    private static final long MAX_EXACT = 1L << 53;
+
+    private final String symbol;
+    private final int size;
+    private final int blockSize;
+    private final long[] words;
+    private final long[] blockOffsets;
+    private final int[] blockFirstDays;
+    private final int lastEpochDay;
+
+    private CompressedPriceSeries(String symbol, int size, int blockSize, long[] words,
+                                  long[] blockOffsets, int[] blockFirstDays, int lastEpochDay) {
+        this.symbol = symbol;
+        this.size = size;
+        this.blockSize = blockSize;
+        this.words = words;
+        this.blockOffsets = blockOffsets;
+        this.blockFirstDays = blockFirstDays;
+        this.lastEpochDay = lastEpochDay;
+    }
+
+    public static CompressedPriceSeries encode(PriceView view) {
+        return encode(view, DEFAULT_BLOCK_SIZE);
+    }
+
+    public static CompressedPriceSeries encode(PriceView view, int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        int n = view.size();
+        int blocks = (n + blockSize - 1) / blockSize;
+        long[] offsets = new long[blocks];
+        int[] firstDays = new int[blocks];
+        // Roughly two bytes a point is typical, the writer grows past that when needed
+        BitWriter out = new BitWriter(n / 4 + 2);
+        for (int b = 0; b < blocks; b++) {
+            int from = b * blockSize;
+            int to = Math.min(n, from + blockSize);
+            offsets[b] = out.position;
+            firstDays[b] = view.epochDay(from);
+            encodeBlock(view, from, to, out);
+        }
+        int last = n == 0 ? 0 : view.lastEpochDay();
+        return new CompressedPriceSeries(view.getSymbol(), n, blockSize, out.trimmed(), offsets, firstDays, last);
+    }
+
+    private static void encodeBlock(PriceView view, int from, int to, BitWriter out) {
+        int places = decimalPlaces(view, from, to);
+        int day = view.epochDay(from);
+        out.write(day, 32);
+        out.write(places < 0 ? MODE_XOR : places + 1, 3);
+
+        double scale = places < 0 ? 0 : POWERS_OF_TEN[places];
+        long previous = places < 0 ? Double.doubleToRawLongBits(view.close(from)) : Math.round(view.close(from) * scale);
+        out.write(previous, 64);
+        int delta = 1;
+        int leading = -1;
+        int trailing = 0;
+        for (int i = from + 1; i < to; i++) {
+            int nextDay = view.epochDay(i);
+            int nextDelta = nextDay - day;
+            out.writeSigned(nextDelta - delta);
+            day = nextDay;
+            delta = nextDelta;
+
+            if (places >= 0) {
+                long scaled = Math.round(view.close(i) * scale);
+                out.writeSigned(scaled - previous);
+                previous = scaled;
+                continue;
+            }
+            long bits = Double.doubleToRawLongBits(view.close(i));
+            long xor = bits ^ previous;
+            previous = bits;
+            if (xor == 0) {
+                out.write(0, 1);
+                continue;
+            }
+            int lead = Math.min(Long.numberOfLeadingZeros(xor), 31);
+            int trail = Long.numberOfTrailingZeros(xor);
+            if (leading >= 0 && lead >= leading && trail >= trailing) {
+                // Fits in the previous meaningful window
+                out.write(0b10, 2);
+                out.write(xor >>> trailing, 64 - leading - trailing);
+            } else {
+                int length = 64 - lead - trail;
+                out.write(0b11, 2);
+                out.write(lead, 5);
+                out.write(length - 1, 6);
+                out.write(xor >>> trail, length);
+                leading = lead;
+                trailing = trail;
+            }
+        }
+    }
+
+    // Fewest decimal places that represent every close in the range exactly, or -1 when there are none
+    private static int decimalPlaces(PriceView view, int from, int to) {
+        int places = 0;
+        for (int i = from; i < to; i++) {
+            double close = view.close(i);
+            while (places <= MAX_DECIMAL_PLACES && !isExactDecimal(close, places)) {
+                places++;
+            }
+            if (places > MAX_DECIMAL_PLACES) {
+                return -1;
+            }
+        }
+        return places;
+    }
+
+    private static boolean isExactDecimal(double close, int places) {
+        double scaled = close * POWERS_OF_TEN[places];
+        if (!(Math.abs(scaled) < MAX_EXACT)) {
+            return false;
+        }
+        long rounded = Math.round(scaled);
+        // Same bits back, so -0.0 and NaN stay on the XOR path
+        return Double.doubleToRawLongBits(rounded / POWERS_OF_TEN[places]) == Double.doubleToRawLongBits(close);
+    }
+
+    public String getSymbol() { return symbol; }
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+    public int blockCount() { return blockOffsets.length; }
+
+    public int firstEpochDay() {
+        checkNotEmpty();
+        return blockFirstDays[0];
+    }
+
+    public int lastEpochDay() {
+        checkNotEmpty();
+        return lastEpochDay;
+    }
+
+    /**
+     * Streaming decoder positioned at the first point
+     */
+    public Decoder decoder() {
+        return new Decoder(0);
+    }
+
+    /**
+     * Streaming decoder positioned at the given point; only that point's block is skipped through
+     */
+    public Decoder decoder(int fromIndex) {
+        if (fromIndex < 0 || fromIndex > size) {
+            throw new IndexOutOfBoundsException("Index " + fromIndex + " out of bounds for size " + size);
+        }
+        return new Decoder(fromIndex);
+    }
+
+    public int epochDay(int index) {
+        return pointAt(index).epochDay;
+    }
+
+    public double close(int index) {
+        return pointAt(index).close;
+    }
+
+    /**
+     * Decode every point into a new series
+     */
+    public PriceSeries decode() {
+        int[] epochDays = new int[size];
+        double[] closes = new double[size];
+        decoder().read(epochDays, closes, 0, size);
+        return PriceSeries.fromColumns(symbol, epochDays, closes, size);
+    }
+
+    /**
+     * Decode the points dated within [fromEpochDay, toEpochDay], both inclusive, touching only the
+     * blocks that can hold them
+     */
+    public PriceSeries slice(int fromEpochDay, int toEpochDay) {
+        if (size == 0 || fromEpochDay > toEpochDay || fromEpochDay > lastEpochDay || toEpochDay < blockFirstDays[0]) {
+            return new PriceSeries(symbol, 1);
+        }
+        // Last block starting on or before fromEpochDay
+        int block = Arrays.binarySearch(blockFirstDays, fromEpochDay);
+        block = block >= 0 ? block : Math.max(0, -block - 2);
+        Decoder decoder = new Decoder(block * blockSize);
+        while (decoder.hasNext() && decoder.peekDay() < fromEpochDay) {
+            decoder.next();
+        }
+        PriceSeries series = new PriceSeries(symbol);
+        while (decoder.hasNext() && decoder.peekDay() <= toEpochDay) {
+            decoder.next();
+            series.append(decoder.epochDay, decoder.close);
+        }
+        return series;
+    }
+
+    /**
+     * Bytes held by the packed points and the block index
+     */
+    public long compressedBytes() {
+        return 8L * words.length + 12L * blockOffsets.length;
+    }
+
+    /**
+     * Approximate retained heap, comparable to {@link PriceSeries#estimatedBytes()}
+     */
+    public long estimatedBytes() {
+        return 48L + 16L + 8L * words.length + 16L + 8L * blockOffsets.length + 16L + 4L * blockFirstDays.length;
+    }
+
+    /**
+     * Write this series in a self-describing binary form, read back with {@link #readFrom}
+     */
+    public void writeTo(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(FORMAT_VERSION);
+        out.writeUTF(symbol);
+        out.writeInt(size);
+        out.writeInt(blockSize);
+        out.writeInt(lastEpochDay);
+        out.writeInt(blockOffsets.length);
+        for (int b = 0; b < blockOffsets.length; b++) {
+            out.writeLong(blockOffsets[b]);
+            out.writeInt(blockFirstDays[b]);
+        }
+        out.writeInt(words.length);
+        for (long word : words) {
+            out.writeLong(word);
+        }
+        out.flush();
+    }
+
+    public static CompressedPriceSeries readFrom(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        int version = in.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported compressed series format " + version);
+        }
+        String symbol = in.readUTF();
+        int size = in.readInt();
+        int blockSize = in.readInt();
+        int lastEpochDay = in.readInt();
+        int blocks = in.readInt();
+        if (size < 0 || blockSize < 1 || blocks != (size + blockSize - 1) / blockSize) {
+            throw new IOException("Corrupt compressed series header for " + symbol);
+        }
+        long[] offsets = new long[blocks];
+        int[] firstDays = new int[blocks];
+        for (int b = 0; b < blocks; b++) {
+            offsets[b] = in.readLong();
+            firstDays[b] = in.readInt();
+        }
+        long[] words = new long[in.readInt()];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = in.readLong();
+        }
+        return new CompressedPriceSeries(symbol, size, blockSize, words, offsets, firstDays, lastEpochDay);
+    }
+
+    private Decoder pointAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        Decoder decoder = new Decoder(index);
+        decoder.next();
+        return decoder;
+    }
+
+    private void checkNotEmpty() {
+        if (size == 0) {
+            throw new IllegalStateException("No points compressed for " + symbol);
+        }
+    }
+
+    /**
+     * Forward-only decoder over the points of this series. Not thread-safe; take one per reader.
+     */
+    public final class Decoder {
+        private final BitReader in = new BitReader(words);
+        private int index;
+        private int epochDay;
+        private double close;
+        // Block state
+        private int delta;
+        private int places;
+        private long previous;
+        private int leading;
+        private int trailing;
+
+        private Decoder(int fromIndex) {
+            index = fromIndex;
+            if (fromIndex < size) {
+                int start = (fromIndex / blockSize) * blockSize;
+                index = start;
+                while (index < fromIndex) {
+                    next();
+                }
+            }
+        }
+
+        public boolean hasNext() {
+            return index < size;
+        }
+
+        public int remaining() {
+            return size - index;
+        }
+
+        /**
+         * Decode up to length points into the arrays starting at offset, returning how many were
+         * decoded, or -1 when the series is exhausted
+         */
+        public int read(int[] epochDays, double[] closes, int offset, int length) {
+            if (index >= size) {
+                return -1;
+            }
+            int count = Math.min(length, size - index);
+            for (int i = 0; i < count; i++) {
+                next();
+                epochDays[offset + i] = epochDay;
+                closes[offset + i] = close;
+            }
+            return count;
+        }
+
+        // Date of the next point without consuming it
+        private int peekDay() {
+            if (index % blockSize == 0) {
+                return blockFirstDays[index / blockSize];
+            }
+            long mark = in.position;
+            int day = epochDay + delta + (int) in.readSigned();
+            in.position = mark;
+            return day;
+        }
+
+        private void next() {
+            if (index % blockSize == 0) {
+                startBlock(index / blockSize);
+            } else {
+                delta += (int) in.readSigned();
+                epochDay += delta;
+                close = places >= 0 ? nextDecimal() : nextXor();
+            }
+            index++;
+        }
+
+        private void startBlock(int block) {
+            in.position = blockOffsets[block];
+            epochDay = (int) in.read(32);
+            int mode = (int) in.read(3);
+            places = mode - 1;
+            previous = in.read(64);
+            close = places >= 0 ? previous / POWERS_OF_TEN[places] : Double.longBitsToDouble(previous);
+            delta = 1;
+            leading = -1;
+            trailing = 0;
+        }
+
+        private double nextDecimal() {
+            previous += in.readSigned();
+            return previous / POWERS_OF_TEN[places];
+        }
+
+        private double nextXor() {
+            if (in.read(1) == 0) {
+                return Double.longBitsToDouble(previous);
+            }
+            if (in.read(1) == 1) {
+                leading = (int) in.read(5);
+                int length = (int) in.read(6) + 1;
+                trailing = 64 - leading - length;
+            }
+            long xor = in.read(64 - leading - trailing) << trailing;
+            previous ^= xor;
+            return Double.longBitsToDouble(previous);
+        }
+    }
+
+    // Most-significant-bit-first writer into a growable long array
+    private static final class BitWriter {
+        long[] words;
+        long position;
+
+        BitWriter(int initialWords) {
+            words = new long[Math.max(initialWords, 2)];
+        }
+
+        void write(long value, int bits) {
+            if (bits == 0) {
+                return;
+            }
+            int index = (int) (position >>> 6);
+            if (index + 1 >= words.length) {
+                words = Arrays.copyOf(words, words.length * 2);
+            }
+            long v = bits == 64 ? value : value & ((1L << bits) - 1);
+            int free = 64 - (int) (position & 63);
+            if (bits <= free) {
+                words[index] |= v << (free - bits);
+            } else {
+                int spill = bits - free;
+                words[index] |= v >>> spill;
+                words[index + 1] |= v << (64 - spill);
+            }
+            position += bits;
+        }
+
+        // Zigzag value in a prefix-coded bucket: 0 takes one bit, small magnitudes 9 or 15
+        void writeSigned(long value) {
+            long zigzag = (value << 1) ^ (value >> 63);
+            if (zigzag == 0) {
+                write(0, 1);
+            } else if (zigzag < (1L << 7)) {
+                write(0b10, 2);
+                write(zigzag, 7);
+            } else if (zigzag < (1L << 12)) {
+                write(0b110, 3);
+                write(zigzag, 12);
+            } else if (zigzag < (1L << 20)) {
+                write(0b1110, 4);
+                write(zigzag, 20);
+            } else {
+                write(0b1111, 4);
+                write(zigzag, 64);
+            }
+        }
+
+        long[] trimmed() {
+            return Arrays.copyOf(words, (int) ((position + 63) >>> 6));
+        }
+    }
+
+    private static final class BitReader {
+        final long[] words;
+        long position;
+
+        BitReader(long[] words) {
+            this.words = words;
+        }
+
+        long read(int bits) {
+            if (bits == 0) {
+                return 0;
+            }
+            int index = (int) (position >>> 6);
+            int free = 64 - (int) (position & 63);
+            long v;
+            if (bits <= free) {
+                v = words[index] >>> (free - bits);
+            } else {
+                int spill = bits - free;
+                v = (words[index] << spill) | (words[index + 1] >>> (64 - spill));
+            }
+            position += bits;
+            return bits == 64 ? v : v & ((1L << bits) - 1);
+        }
+
+        long readSigned() {
+            long zigzag;
+            if (read(1) == 0) {
+                return 0;
+            } else if (read(1) == 0) {
+                zigzag = read(7);
+            } else if (read(1) == 0) {
+                zigzag = read(12);
+            } else if (read(1) == 0) {
+                zigzag = read(20);
+            } else {
+                zigzag = read(64);
+            }
+            return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.quantumfpo.stocks.store;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Streaming reader for per-symbol daily CSV dumps: an ISO date (yyyy-MM-dd) in the first column
+ * and the close in a configurable column, e.g. "date,close" or "Date,Open,High,Low,Close,Volume".
+ *
+ * Rows are parsed straight out of a reused NIO buffer into primitive columns, so reading a file
+ * allocates no String or boxed value per line. A first line that does not start with a digit is
+ * treated as a header. Rows may be in any date order; the last row wins on duplicate dates.
+ */
+public final class CsvPriceReader {
+    private static final int BUFFER_BYTES = 64 * 1024;
+    // Powers of ten that are exact as doubles, for the fast decimal path
+    private static final double[] POWERS_OF_TEN = new double[23];
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    static {
+        POWERS_OF_TEN[0] = 1.0;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10.0;
+        }
+    }
+
+    private final int closeColumn;
+
+    /**
+     * @param closeColumn zero-based column holding the close; column 0 is always the date
+     */
+    public CsvPriceReader(int closeColumn) {
+        if (closeColumn < 1) {
+            throw new IllegalArgumentException("Close column must come after the date column");
+        }
+        this.closeColumn = closeColumn;
+    }
+
+    /**
+     * Read the rows of a file dated within [fromEpochDay, toEpochDay], both inclusive
+     */
+    public PriceSeries read(String symbol, Path path, int fromEpochDay, int toEpochDay) throws IOException {
+        Rows rows = new Rows();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+            byte[] bytes = buffer.array();
+            int line = 0;
+            boolean eof = false;
+            while (!eof) {
+                eof = channel.read(buffer) < 0;
+                int limit = buffer.position();
+                int start = 0;
+                for (int i = 0; i < limit; i++) {
+                    if (bytes[i] == '\n') {
+                        parseRow(bytes, start, i, ++line, path, rows, fromEpochDay, toEpochDay);
+                        start = i + 1;
+                    }
+                }
+                if (eof && start < limit) {
+                    parseRow(bytes, start, limit, ++line, path, rows, fromEpochDay, toEpochDay);
+                    start = limit;
+                }
+                if (start == 0 && limit == bytes.length) {
+                    throw new IOException("Line " + (line + 1) + " of " + path + " is longer than " + BUFFER_BYTES + " bytes");
+                }
+                // Carry the partial last line over to the front of the buffer
+                System.arraycopy(bytes, start, bytes, 0, limit - start);
+                buffer.position(limit - start);
+            }
+        }
+        return PriceSeries.fromColumns(symbol, rows.epochDays, rows.closes, rows.size);
+    }
+
+    private void parseRow(byte[] b, int start, int end, int line, Path path, Rows rows,
+                          int fromEpochDay, int toEpochDay) throws IOException {
+        if (end > start && b[end - 1] == '\r') {
+            end--;
+        }
+        if (end == start) {
+            return;
+        }
+        if (line == 1 && !isDigit(b[start])) {
+            return;
+        }
+
+        int dateEnd = nextComma(b, start, end);
+        int epochDay = parseEpochDay(b, start, dateEnd);
+        if (epochDay == Integer.MIN_VALUE) {
+            throw malformed(path, line, "date");
+        }
+        if (epochDay < fromEpochDay || epochDay > toEpochDay) {
+            return;
+        }
+
+        int fieldStart = dateEnd;
+        for (int column = 1; column <= closeColumn; column++) {
+            if (fieldStart >= end) {
+                throw malformed(path, line, "column count");
+            }
+            fieldStart++;
+            if (column < closeColumn) {
+                fieldStart = nextComma(b, fieldStart, end);
+            }
+        }
+        double close = parseDouble(b, fieldStart, nextComma(b, fieldStart, end));
+        if (Double.isNaN(close)) {
+            throw malformed(path, line, "close");
+        }
+        rows.add(epochDay, close);
+    }
+
+    private static IOException malformed(Path path, int line, String what) {
+        return new IOException("Malformed " + what + " on line " + line + " of " + path);
+    }
+
+    private static int nextComma(byte[] b, int from, int end) {
+        int i = from;
+        while (i < end && b[i] != ',') {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isDigit(byte c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int digits(byte[] b, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            if (!isDigit(b[i])) {
+                return -1;
+            }
+            value = value * 10 + (b[i] - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Epoch day of an ISO yyyy-MM-dd field, or Integer.MIN_VALUE when it is not a valid date
+     */
+    static int parseEpochDay(byte[] b, int start, int end) {
+        if (end - start != 10 || b[start + 4] != '-' || b[start + 7] != '-') {
+            return Integer.MIN_VALUE;
+        }
+        int year = digits(b, start, 4);
+        int month = digits(b, start + 5, 2);
+        int day = digits(b, start + 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)) {
+            return Integer.MIN_VALUE;
+        }
+        // Days from the civil calendar (proleptic Gregorian), without building a LocalDate
+        int y = month <= 2 ? year - 1 : year;
+        int era = y / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    /**
+     * Decimal value of a field, or NaN when it is not a number. Plain decimals whose digits fit in
+     * 53 bits are converted exactly without allocating; anything else goes through Double.parseDouble.
+     */
+    static double parseDouble(byte[] b, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (b[i] == '-' || b[i] == '+')) {
+            negative = b[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digitCount = 0;
+        int fractionDigits = 0;
+        boolean seenPoint = false;
+        for (; i < end; i++) {
+            byte c = b[i];
+            if (isDigit(c)) {
+                if (digitCount < 18) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (seenPoint) {
+                        fractionDigits++;
+                    }
+                    if (mantissa != 0) {
+                        digitCount++;
+                    }
+                } else {
+                    return slowParse(b, start, end);
+                }
+            } else if (c == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                return slowParse(b, start, end);
+            }
+        }
+        if (i == start || (digitCount == 0 && mantissa == 0 && !hasDigit(b, start, end))) {
+            return Double.NaN;
+        }
+        if (mantissa >= MAX_EXACT_MANTISSA || fractionDigits >= POWERS_OF_TEN.length) {
+            return slowParse(b, start, end);
+        }
+        double value = mantissa / POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    private static boolean hasDigit(byte[] b, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (isDigit(b[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static double slowParse(byte[] b, int start, int end) {
+        try {
+            return Double.parseDouble(new String(b, start, end - start, StandardCharsets.US_ASCII).trim());
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    // Growable primitive columns for the rows read so far
+    private static final class Rows {
+        int[] epochDays = new int[256];
+        double[] closes = new double[256];
+        int size;
+
+        void add(int epochDay, double close) {
+            if (size == epochDays.length) {
+                epochDays = Arrays.copyOf(epochDays, size * 2);
+                closes = Arrays.copyOf(closes, size * 2);
+            }
+            epochDays[size] = epochDay;
+            closes[size] = close;
+            size++;
+        }
+    }
+}
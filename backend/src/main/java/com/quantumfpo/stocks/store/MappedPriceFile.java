@@ -0,0 +1,261 @@
+package com.quantumfpo.stocks.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only, memory-mapped price history file for one symbol.
+ *
+ * Layout: a 32-byte header followed by fixed 12-byte records (int epochDay, double close)
+ * in strictly ascending date order, so the record area doubles as a binary-searchable index.
+ * An append writes and forces the records first and only then publishes the new count in the
+ * header; a crash mid-append leaves the extra bytes past the committed count, where they are ignored.
+ * The close of the last record may also be overwritten in place, for a bar still in progress.
+ */
+public final class MappedPriceFile implements Closeable {
+    static final int MAGIC = 0x51505831; // "QPX1"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    static final int RECORD_BYTES = 12;
+    private static final int COUNT_OFFSET = 16;
+    private static final long MIN_CAPACITY_BYTES = HEADER_BYTES + 256L * RECORD_BYTES;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final boolean readOnly;
+    private volatile MappedByteBuffer buffer;
+    // Published after the records it covers, see class comment
+    private volatile int count;
+
+    private MappedPriceFile(Path path, FileChannel channel, MappedByteBuffer buffer, int count, boolean readOnly) {
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.count = count;
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * Open an existing file or create an empty one
+     */
+    public static MappedPriceFile open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long fileSize = channel.size();
+            if (fileSize == 0) {
+                MappedByteBuffer buffer = map(channel, MIN_CAPACITY_BYTES);
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                buffer.putInt(8, RECORD_BYTES);
+                buffer.putLong(COUNT_OFFSET, 0L);
+                buffer.force(0, HEADER_BYTES);
+                return new MappedPriceFile(path, channel, buffer, 0, false);
+            }
+            MappedByteBuffer buffer = map(channel, fileSize);
+            return new MappedPriceFile(path, channel, buffer, committed(path, buffer, fileSize), false);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Open an existing file for reading only, without creating it or writing a header, so dumps on
+     * read-only mounts can be read. An empty file reads as no records; appends are rejected.
+     */
+    public static MappedPriceFile openReadOnly(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long fileSize = channel.size();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            int committed = fileSize == 0 ? 0 : committed(path, buffer, fileSize);
+            return new MappedPriceFile(path, channel, buffer, committed, true);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Validates the header and returns the committed record count
+    private static int committed(Path path, MappedByteBuffer buffer, long fileSize) throws IOException {
+        if (fileSize < HEADER_BYTES) {
+            throw new IOException("Price file " + path + " is truncated (" + fileSize + " bytes)");
+        }
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getInt(8) != RECORD_BYTES) {
+            throw new IOException("Price file " + path + " has an unrecognised header");
+        }
+        long committed = buffer.getLong(COUNT_OFFSET);
+        long fits = (fileSize - HEADER_BYTES) / RECORD_BYTES;
+        if (committed < 0 || committed > fits) {
+            throw new IOException("Price file " + path + " claims " + committed
+                + " records but only " + fits + " fit");
+        }
+        return (int) committed;
+    }
+
+    /**
+     * Atomically replace the file at path with the contents of a view, then open it
+     */
+    public static MappedPriceFile rewrite(Path path, PriceView view) throws IOException {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.deleteIfExists(tmp);
+        try (MappedPriceFile staging = open(tmp)) {
+            staging.appendAll(view);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return open(path);
+    }
+
+    public Path getPath() { return path; }
+    public int size() { return count; }
+    public boolean isEmpty() { return count == 0; }
+
+    public int firstEpochDay() {
+        int n = count;
+        return epochDayAt(buffer, n > 0 ? 0 : -1);
+    }
+
+    public int lastEpochDay() {
+        int n = count;
+        return epochDayAt(buffer, n - 1);
+    }
+
+    public synchronized void append(int epochDay, double close) throws IOException {
+        PriceSeries one = new PriceSeries(null, 1);
+        one.append(epochDay, close);
+        appendAll(one.view());
+    }
+
+    /**
+     * Append every point of a view, which must start after the last committed date
+     */
+    public synchronized void appendAll(PriceView view) throws IOException {
+        if (readOnly) {
+            throw new IllegalStateException("Price file " + path + " was opened read-only");
+        }
+        int n = view.size();
+        if (n == 0) {
+            return;
+        }
+        int committed = count;
+        if (committed > 0 && view.firstEpochDay() <= lastEpochDay()) {
+            throw new IllegalArgumentException("Append to " + path + " starting at epoch day "
+                + view.firstEpochDay() + " is not after " + lastEpochDay());
+        }
+
+        long start = HEADER_BYTES + (long) committed * RECORD_BYTES;
+        long required = start + (long) n * RECORD_BYTES;
+        MappedByteBuffer target = ensureCapacity(required);
+        for (int i = 0; i < n; i++) {
+            int offset = (int) (start + (long) i * RECORD_BYTES);
+            target.putInt(offset, view.epochDay(i));
+            target.putDouble(offset + 4, view.close(i));
+        }
+        target.force((int) start, n * RECORD_BYTES);
+
+        target.putLong(COUNT_OFFSET, committed + n);
+        target.force(0, HEADER_BYTES);
+        count = committed + n;
+    }
+
+    /**
+     * Overwrite the close of the last record, which must be dated epochDay, and force it
+     */
+    public synchronized void updateLast(int epochDay, double close) throws IOException {
+        if (readOnly) {
+            throw new IllegalStateException("Price file " + path + " was opened read-only");
+        }
+        int n = count;
+        if (n == 0 || epochDayAt(buffer, n - 1) != epochDay) {
+            throw new IllegalArgumentException("Last record of " + path + " is not dated epoch day " + epochDay);
+        }
+        int offset = HEADER_BYTES + (n - 1) * RECORD_BYTES;
+        buffer.putDouble(offset + 4, close);
+        buffer.force(offset, RECORD_BYTES);
+    }
+
+    /**
+     * Copy every committed record into a fresh in-memory series
+     */
+    public PriceSeries readAll(String symbol) {
+        return read(symbol, 0, count);
+    }
+
+    /**
+     * Copy the records dated within [fromEpochDay, toEpochDay] into a series, located by binary search
+     */
+    public PriceSeries slice(String symbol, int fromEpochDay, int toEpochDay) {
+        int n = count;
+        MappedByteBuffer buf = buffer;
+        int start = lowerBound(buf, n, fromEpochDay);
+        int end = toEpochDay == Integer.MAX_VALUE ? n : lowerBound(buf, n, toEpochDay + 1);
+        return read(symbol, start, Math.max(start, end));
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private PriceSeries read(String symbol, int from, int to) {
+        MappedByteBuffer buf = buffer;
+        PriceSeries series = new PriceSeries(symbol, to - from);
+        for (int i = from; i < to; i++) {
+            int offset = HEADER_BYTES + i * RECORD_BYTES;
+            series.append(buf.getInt(offset), buf.getDouble(offset + 4));
+        }
+        return series;
+    }
+
+    private MappedByteBuffer ensureCapacity(long required) throws IOException {
+        MappedByteBuffer current = buffer;
+        if (required <= current.capacity()) {
+            return current;
+        }
+        long capacity = Math.max(required, current.capacity() * 2L);
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IOException("Price file " + path + " would exceed the 2GB mapping limit");
+        }
+        MappedByteBuffer grown = map(channel, capacity);
+        buffer = grown;
+        return grown;
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long bytes) throws IOException {
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        mapped.order(ByteOrder.LITTLE_ENDIAN);
+        return mapped;
+    }
+
+    private static int epochDayAt(ByteBuffer buf, int index) {
+        if (index < 0) {
+            throw new IllegalStateException("Price file is empty");
+        }
+        return buf.getInt(HEADER_BYTES + index * RECORD_BYTES);
+    }
+
+    // Index of the first record dated on or after epochDay
+    private static int lowerBound(ByteBuffer buf, int n, int epochDay) {
+        int lo = 0;
+        int hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (buf.getInt(HEADER_BYTES + mid * RECORD_BYTES) < epochDay) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
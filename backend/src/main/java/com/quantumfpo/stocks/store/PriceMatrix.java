@@ -0,0 +1,173 @@
+package com.quantumfpo.stocks.store;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Closes of several symbols aligned on one date axis, held as a dense row-major block:
+ * the close of column j on row t is at {@code values[t * columns + j]}.
+ * Built once by {@link #align} and never modified afterwards, so a matrix can be cached and shared.
+ */
+public final class PriceMatrix {
+
+    /**
+     * How dates on which only some symbols traded are handled
+     */
+    public enum GapPolicy {
+        /**
+         * Keep every date once all symbols have started trading, carrying each symbol's last close forward
+         */
+        FORWARD_FILL,
+        /**
+         * Keep only dates on which every symbol has a close
+         */
+        DROP
+    }
+
+    private final String[] symbols;
+    private final int[] epochDays;
+    private final double[] values;
+
+    private PriceMatrix(String[] symbols, int[] epochDays, double[] values) {
+        this.symbols = symbols;
+        this.epochDays = epochDays;
+        this.values = values;
+    }
+
+    /**
+     * Align the given views column by column, in the order given. Each view must be sorted by date,
+     * as {@link PriceView}s are. A matrix over a symbol with no closes has no rows.
+     */
+    public static PriceMatrix align(List<PriceView> views, GapPolicy policy) {
+        int n = views.size();
+        String[] symbols = new String[n];
+        int start = Integer.MIN_VALUE;
+        boolean anyEmpty = false;
+        for (int j = 0; j < n; j++) {
+            PriceView view = views.get(j);
+            symbols[j] = view.getSymbol();
+            if (view.isEmpty()) {
+                anyEmpty = true;
+            } else {
+                start = Math.max(start, view.firstEpochDay());
+            }
+        }
+        if (n == 0 || anyEmpty) {
+            return new PriceMatrix(symbols, new int[0], new double[0]);
+        }
+
+        // Count the rows first so the block is allocated once at its final size
+        int rows = walk(views, policy, start, null, null);
+        int[] epochDays = new int[rows];
+        double[] values = new double[rows * n];
+        walk(views, policy, start, epochDays, values);
+        return new PriceMatrix(symbols, epochDays, values);
+    }
+
+    // K-way merge over the views' dates, writing rows when the output arrays are given
+    private static int walk(List<PriceView> views, GapPolicy policy, int start, int[] epochDays, double[] values) {
+        int n = views.size();
+        int[] positions = new int[n];
+        double[] last = new double[n];
+        int rows = 0;
+        while (true) {
+            int day = Integer.MAX_VALUE;
+            for (int j = 0; j < n; j++) {
+                PriceView view = views.get(j);
+                if (positions[j] < view.size()) {
+                    day = Math.min(day, view.epochDay(positions[j]));
+                }
+            }
+            if (day == Integer.MAX_VALUE) {
+                return rows;
+            }
+
+            int present = 0;
+            for (int j = 0; j < n; j++) {
+                PriceView view = views.get(j);
+                if (positions[j] < view.size() && view.epochDay(positions[j]) == day) {
+                    last[j] = view.close(positions[j]++);
+                    present++;
+                }
+            }
+            boolean keep = policy == GapPolicy.DROP ? present == n : day >= start;
+            if (keep) {
+                if (epochDays != null) {
+                    epochDays[rows] = day;
+                    System.arraycopy(last, 0, values, rows * n, n);
+                }
+                rows++;
+            }
+        }
+    }
+
+    public int rows() { return epochDays.length; }
+    public int columns() { return symbols.length; }
+    public boolean isEmpty() { return epochDays.length == 0; }
+
+    public String symbol(int column) {
+        return symbols[column];
+    }
+
+    public List<String> getSymbols() {
+        return List.of(symbols);
+    }
+
+    public int epochDay(int row) {
+        return epochDays[row];
+    }
+
+    public LocalDate date(int row) {
+        return LocalDate.ofEpochDay(epochDays[row]);
+    }
+
+    public double get(int row, int column) {
+        if (column < 0 || column >= symbols.length) {
+            throw new IndexOutOfBoundsException("Column " + column + " out of bounds for " + symbols.length + " columns");
+        }
+        return values[row * symbols.length + column];
+    }
+
+    /**
+     * Copy one symbol's aligned closes into a fresh array
+     */
+    public double[] column(int column) {
+        double[] result = new double[epochDays.length];
+        for (int t = 0; t < result.length; t++) {
+            result[t] = get(t, column);
+        }
+        return result;
+    }
+
+    /**
+     * The rows [from, to) as a matrix of their own, copied
+     */
+    public PriceMatrix rows(int from, int to) {
+        if (from < 0 || to > epochDays.length || from > to) {
+            throw new IndexOutOfBoundsException("Rows [" + from + ", " + to + ") out of bounds for " + epochDays.length + " rows");
+        }
+        int n = symbols.length;
+        return new PriceMatrix(symbols, Arrays.copyOfRange(epochDays, from, to), Arrays.copyOfRange(values, from * n, to * n));
+    }
+
+    /**
+     * The row-major block itself, for numeric kernels. It is shared with every other holder of
+     * this matrix and must not be modified.
+     */
+    public double[] values() {
+        return values;
+    }
+
+    /**
+     * Approximate heap footprint, used to weigh cached matrices
+     */
+    public long estimatedBytes() {
+        return 64L + 8L * values.length + 4L * epochDays.length + 8L * symbols.length;
+    }
+
+    @Override
+    public String toString() {
+        return "PriceMatrix" + Arrays.toString(symbols) + " x " + epochDays.length + " rows";
+    }
+}
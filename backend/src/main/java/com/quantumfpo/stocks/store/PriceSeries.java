@@ -0,0 +1,191 @@
+package com.quantumfpo.stocks.store;
+
+import com.quantumfpo.stocks.model.StockData;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Columnar close-price history for a single symbol.
+ * Dates are held as epoch days and closes as raw doubles in parallel arrays, so one
+ * point costs 12 bytes instead of a StockData plus a LocalDate object.
+ * Appends only write past the current size, which lets views share the arrays without copying;
+ * the one in-place write is {@link #updateLast}, which moves the newest close of a bar in progress.
+ * Daily return statistics ({@link ReturnSeries}) are built on first use and then kept up to date
+ * by every append, so series nobody asks statistics of pay nothing for them.
+ */
+public final class PriceSeries {
+    private static final int DEFAULT_CAPACITY = 32;
+
+    private final String symbol;
+    private int[] epochDays;
+    private double[] closes;
+    // Null until first asked for; extended under the same lock as appends
+    private ReturnSeries returns;
+    // Written after the arrays so readers that see a size also see arrays holding that many points
+    private volatile int size;
+
+    public PriceSeries(String symbol) {
+        this(symbol, DEFAULT_CAPACITY);
+    }
+
+    public PriceSeries(String symbol, int capacity) {
+        this.symbol = symbol;
+        this.epochDays = new int[Math.max(capacity, 1)];
+        this.closes = new double[Math.max(capacity, 1)];
+    }
+
+    /**
+     * Build a series from provider records, sorted by date with the last record winning on duplicate dates
+     */
+    public static PriceSeries fromStockData(String symbol, List<StockData> data) {
+        int[] days = new int[data.size()];
+        double[] values = new double[data.size()];
+        int n = 0;
+        for (StockData sd : data) {
+            if (sd.getDate() != null) {
+                days[n] = (int) sd.getDate().toEpochDay();
+                values[n] = sd.getClose();
+                n++;
+            }
+        }
+        return fromColumns(symbol, days, values, n);
+    }
+
+    /**
+     * Build a series from the first size entries of parallel date and close columns in any order,
+     * sorted by date with the later entry winning on duplicate dates. The columns are copied.
+     */
+    public static PriceSeries fromColumns(String symbol, int[] epochDays, double[] closes, int size) {
+        boolean ordered = true;
+        for (int i = 1; i < size && ordered; i++) {
+            ordered = epochDays[i - 1] < epochDays[i];
+        }
+        PriceSeries series = new PriceSeries(symbol, size);
+        if (ordered) {
+            System.arraycopy(epochDays, 0, series.epochDays, 0, size);
+            System.arraycopy(closes, 0, series.closes, 0, size);
+            series.size = size;
+            return series;
+        }
+
+        // Sort (day, position) keys so equal days keep input order and the later entry lands last
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = ((long) epochDays[i] << 32) | i;
+        }
+        Arrays.sort(keys);
+        int n = 0;
+        for (long key : keys) {
+            int day = (int) (key >> 32);
+            double close = closes[(int) key];
+            if (n > 0 && series.epochDays[n - 1] == day) {
+                series.closes[n - 1] = close;
+            } else {
+                series.epochDays[n] = day;
+                series.closes[n] = close;
+                n++;
+            }
+        }
+        series.size = n;
+        return series;
+    }
+
+    /**
+     * Merge two date-ordered views into a new series, taking the update's close on shared dates
+     */
+    public static PriceSeries merge(String symbol, PriceView base, PriceView updates) {
+        PriceSeries merged = new PriceSeries(symbol, base.size() + updates.size());
+        int i = 0;
+        int j = 0;
+        while (i < base.size() || j < updates.size()) {
+            if (j == updates.size() || (i < base.size() && base.epochDay(i) < updates.epochDay(j))) {
+                merged.append(base.epochDay(i), base.close(i));
+                i++;
+            } else {
+                if (i < base.size() && base.epochDay(i) == updates.epochDay(j)) {
+                    i++;
+                }
+                merged.append(updates.epochDay(j), updates.close(j));
+                j++;
+            }
+        }
+        return merged;
+    }
+
+    public String getSymbol() { return symbol; }
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    public synchronized void append(int epochDay, double close) {
+        int n = size;
+        if (n > 0 && epochDays[n - 1] >= epochDay) {
+            throw new IllegalArgumentException("Out-of-order append for " + symbol + ": epoch day "
+                + epochDay + " is not after " + epochDays[n - 1]);
+        }
+        if (n == epochDays.length) {
+            int capacity = n + (n >> 1) + 1;
+            epochDays = Arrays.copyOf(epochDays, capacity);
+            closes = Arrays.copyOf(closes, capacity);
+        }
+        epochDays[n] = epochDay;
+        closes[n] = close;
+        if (returns != null) {
+            returns.append(close);
+        }
+        size = n + 1;
+    }
+
+    /**
+     * Overwrite the close of the newest point, keeping its date. Views covering that point see the
+     * new close, and built return statistics follow it.
+     */
+    public synchronized void updateLast(double close) {
+        int n = size;
+        if (n == 0) {
+            throw new IllegalStateException("No close to update in empty series " + symbol);
+        }
+        closes[n - 1] = close;
+        if (returns != null) {
+            returns.updateLast(n > 1 ? closes[n - 2] : Double.NaN, close);
+        }
+    }
+
+    /**
+     * Daily returns of this series with their running sums, built on first call
+     */
+    public synchronized ReturnSeries returns() {
+        if (returns == null) {
+            returns = ReturnSeries.of(closes, size);
+        }
+        return returns;
+    }
+
+    public synchronized boolean hasReturns() {
+        return returns != null;
+    }
+
+    /**
+     * Zero-copy view over every point currently in the series
+     */
+    public PriceView view() {
+        int n = size;
+        return new PriceView(symbol, epochDays, closes, 0, n, this);
+    }
+
+    /**
+     * Zero-copy view over the points dated within [fromEpochDay, toEpochDay], both inclusive
+     */
+    public PriceView slice(int fromEpochDay, int toEpochDay) {
+        return view().slice(fromEpochDay, toEpochDay);
+    }
+
+    /**
+     * Approximate retained heap for this series, used for store sizing and benchmarks
+     */
+    public long estimatedBytes() {
+        // Object header + fields, plus the two backing arrays with their headers and any return statistics
+        ReturnSeries r = returns;
+        return 40L + 16L + 4L * epochDays.length + 16L + 8L * closes.length + (r != null ? r.estimatedBytes() : 0);
+    }
+}
@@ -0,0 +1,82 @@
+package com.quantumfpo.stocks.store;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+
+/**
+ * Single-file binary snapshot of many price series, each held as a {@link CompressedPriceSeries}.
+ * Written to a temporary file and moved into place, so a reader never sees a half-written snapshot.
+ *
+ * Layout: magic, format version, series count, then each series in its own writeTo form.
+ */
+public final class PriceSnapshot {
+    private static final int MAGIC = 0x51505350; // "QPSP"
+    private static final int VERSION = 1;
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    /**
+     * Receives the series of a snapshot one at a time, in the order they were written
+     */
+    @FunctionalInterface
+    public interface SeriesVisitor {
+        void visit(CompressedPriceSeries series, int index, int total);
+    }
+
+    private PriceSnapshot() {
+    }
+
+    /**
+     * Write the given views to path, replacing any snapshot already there, and return the bytes written
+     */
+    public static long write(Path path, Collection<PriceView> views) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temporary = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream file = new BufferedOutputStream(Files.newOutputStream(temporary), BUFFER_BYTES)) {
+                DataOutputStream out = new DataOutputStream(file);
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(views.size());
+                for (PriceView view : views) {
+                    CompressedPriceSeries.encode(view).writeTo(out);
+                }
+                out.flush();
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return Files.size(path);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Stream every series of the snapshot at path to the visitor, returning how many there were
+     */
+    public static int read(Path path, SeriesVisitor visitor) throws IOException {
+        try (InputStream file = new BufferedInputStream(Files.newInputStream(path), BUFFER_BYTES)) {
+            DataInputStream in = new DataInputStream(file);
+            if (in.readInt() != MAGIC) {
+                throw new IOException(path + " is not a price snapshot");
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported price snapshot version " + version + " in " + path);
+            }
+            int total = in.readInt();
+            for (int i = 0; i < total; i++) {
+                visitor.visit(CompressedPriceSeries.readFrom(in), i, total);
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,620 @@
+package com.quantumfpo.stocks.store;
+
+import com.quantumfpo.stocks.model.StockData;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Price history keyed by symbol, held as columnar {@link PriceSeries}.
+ *
+ * Symbols are resolved to {@link SymbolDictionary} IDs once per call: the cache tiers are keyed by ID
+ * and the per-symbol file and version sit in an array indexed by it. Only writes assign IDs, so
+ * reads of symbols that were never stored do not grow the dictionary.
+ *
+ * Resident series live in a {@link BoundedCache} capped by symbol count and estimated bytes,
+ * with a time-to-live so stale history is re-fetched. When pricestore.data-dir is set every
+ * series is also written through to a {@link MappedPriceFile} in that directory; the files are
+ * mapped at startup and evicted series are reloaded from them instead of being fetched again.
+ * Without a data directory, evicted series drop into a {@link CompressedPriceSeries} cold tier
+ * (bounded by pricestore.cold.max-bytes) and are decoded back on their next use. Eviction only queues
+ * the series; it is compressed after the store call that evicted it, outside the cache lock.
+ *
+ * Writes to a symbol hold that symbol's lock from reading its series to re-inserting it, so an
+ * eviction in between cannot leave the write on a detached copy.
+ */
+@Service
+public class PriceStore implements MeterBinder {
+    private static final Logger logger = LoggerFactory.getLogger(PriceStore.class);
+    private static final String FILE_SUFFIX = ".px";
+    private static final int DEFAULT_MAX_SYMBOLS = 10_000;
+    private static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+    private static final Duration DEFAULT_TTL = Duration.ofHours(6);
+    private static final int INITIAL_SLOTS = 256;
+
+    private final SymbolDictionary dictionary;
+    private final BoundedCache<Integer, PriceSeries> series;
+    // Null when disabled or when evicted series can be reloaded from disk instead
+    private final BoundedCache<Integer, CompressedPriceSeries> cold;
+    // Series evicted from the resident cache and not yet compressed into the cold tier
+    private final Map<Integer, PriceSeries> evicted = new ConcurrentHashMap<>();
+    // Indexed by dictionary ID; a slot is created on a symbol's first write and never replaced
+    private volatile Slot[] slots = new Slot[INITIAL_SLOTS];
+    private final Object slotsLock = new Object();
+    private final Path dataDir;
+
+    /**
+     * In-memory only store with default cache bounds
+     */
+    public PriceStore() {
+        this("");
+    }
+
+    public PriceStore(String dataDir) {
+        this(dataDir, DEFAULT_MAX_SYMBOLS, DEFAULT_MAX_BYTES, DEFAULT_TTL);
+    }
+
+    /**
+     * Store with explicit cache bounds and no compressed cold tier
+     */
+    public PriceStore(String dataDir, int maxSymbols, long maxBytes, Duration ttl) {
+        this(dataDir, maxSymbols, maxBytes, ttl, 0);
+    }
+
+    /**
+     * Store with explicit bounds and a dictionary of its own
+     */
+    public PriceStore(String dataDir, int maxSymbols, long maxBytes, Duration ttl, long coldMaxBytes) {
+        this(dataDir, maxSymbols, maxBytes, ttl, coldMaxBytes, new SymbolDictionary());
+    }
+
+    @Autowired
+    public PriceStore(@Value("${pricestore.data-dir:}") String dataDir,
+                      @Value("${pricestore.cache.max-symbols:10000}") int maxSymbols,
+                      @Value("${pricestore.cache.max-bytes:268435456}") long maxBytes,
+                      @Value("${pricestore.cache.ttl:PT6H}") Duration ttl,
+                      @Value("${pricestore.cold.max-bytes:67108864}") long coldMaxBytes,
+                      SymbolDictionary dictionary) {
+        this.dictionary = dictionary;
+        this.dataDir = (dataDir == null || dataDir.isBlank()) ? null : Paths.get(dataDir);
+        this.series = new BoundedCache<>(maxSymbols, maxBytes, ttl, PriceSeries::estimatedBytes);
+        if (this.dataDir == null && coldMaxBytes > 0) {
+            BoundedCache<Integer, CompressedPriceSeries> compressed =
+                new BoundedCache<>(Long.MAX_VALUE, coldMaxBytes, ttl, CompressedPriceSeries::estimatedBytes);
+            series.onEviction(evicted::put);
+            this.cold = compressed;
+        } else {
+            this.cold = null;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new BoundedCacheMetrics(series, "pricestore", Tags.empty()).bindTo(registry);
+        if (cold != null) {
+            new BoundedCacheMetrics(cold, "pricestore.cold", Tags.empty()).bindTo(registry);
+        }
+    }
+
+    /**
+     * Map every price file already present in the data directory
+     */
+    @PostConstruct
+    public void open() {
+        if (dataDir == null) {
+            logger.info("[PriceStore] No data directory configured, price history is memory-only");
+            return;
+        }
+        try {
+            Files.createDirectories(dataDir);
+            int mapped = 0;
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(dataDir, "*" + FILE_SUFFIX)) {
+                for (Path path : stream) {
+                    String symbol = symbolFor(path);
+                    try {
+                        slot(dictionary.id(symbol)).file = MappedPriceFile.open(path);
+                        mapped++;
+                    } catch (IOException e) {
+                        logger.warn("[PriceStore] Skipping unreadable price file {}: {}", path, e.getMessage());
+                    }
+                }
+            }
+            logger.info("[PriceStore] Mapped {} price files from {}", mapped, dataDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open price data directory " + dataDir, e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        for (Slot slot : slots) {
+            MappedPriceFile file = slot != null ? slot.file : null;
+            if (file == null) {
+                continue;
+            }
+            slot.file = null;
+            try {
+                file.close();
+            } catch (IOException e) {
+                logger.warn("[PriceStore] Failed to close {}: {}", file.getPath(), e.getMessage());
+            }
+        }
+    }
+
+    public boolean isPersistent() {
+        return dataDir != null;
+    }
+
+    /**
+     * Replace the stored history of a symbol with the given provider records
+     */
+    public PriceSeries put(String symbol, List<StockData> data) {
+        return put(symbol, PriceSeries.fromStockData(symbol, data));
+    }
+
+    /**
+     * Replace the stored history of a symbol with an already built series, which the store takes over.
+     * Holds the symbol's lock, as {@link #merge} does, so a merge never writes back over a concurrent put.
+     */
+    public PriceSeries put(String symbol, PriceSeries history) {
+        int id = dictionary.id(symbol);
+        synchronized (slot(id)) {
+            store(id, history);
+        }
+        compressEvicted();
+        logger.debug("[PriceStore] Stored {} points for {}", history.size(), symbol);
+        return history;
+    }
+
+    /**
+     * Merge provider records into the stored history of a symbol, the new records winning on shared dates.
+     * Records dated after everything already stored are appended in place; anything else rebuilds the series.
+     */
+    public PriceSeries merge(String symbol, List<StockData> updates) {
+        int id = dictionary.id(symbol);
+        PriceSeries delta = PriceSeries.fromStockData(symbol, updates);
+        PriceSeries merged;
+        synchronized (slot(id)) {
+            merged = mergeLocked(id, symbol, delta);
+        }
+        compressEvicted();
+        return merged;
+    }
+
+    /**
+     * Append one close to a symbol, creating its series on first use
+     */
+    public void append(String symbol, LocalDate date, double close) {
+        int id = dictionary.id(symbol);
+        synchronized (slot(id)) {
+            appendLocked(id, series.get(id, this::loadOrCreate), (int) date.toEpochDay(), close);
+        }
+        compressEvicted();
+    }
+
+    /**
+     * Set the close of a symbol on a date no earlier than its last stored one, as a bar in progress
+     * does many times a day. The last close is overwritten in place, in memory and in its file, when
+     * the dates match and appended otherwise, so the series and its return statistics are kept.
+     * An earlier date is merged like any other restatement.
+     */
+    public void updateLast(String symbol, LocalDate date, double close) {
+        int id = dictionary.id(symbol);
+        int epochDay = (int) date.toEpochDay();
+        synchronized (slot(id)) {
+            PriceSeries target = series.get(id, this::loadOrCreate);
+            PriceView view = target.view();
+            if (view.isEmpty() || view.lastEpochDay() < epochDay) {
+                appendLocked(id, target, epochDay, close);
+            } else if (view.lastEpochDay() == epochDay) {
+                target.updateLast(close);
+                written(id, target);
+                if (dataDir != null) {
+                    try {
+                        file(id).updateLast(epochDay, close);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Could not update price file for " + symbol, e);
+                    }
+                }
+            } else {
+                PriceSeries point = new PriceSeries(symbol, 1);
+                point.append(epochDay, close);
+                mergeLocked(id, symbol, point);
+            }
+        }
+        compressEvicted();
+    }
+
+    /**
+     * ID of a symbol in the store's dictionary, or -1 when nothing was ever stored for it
+     */
+    public int find(String symbol) {
+        return dictionary.find(symbol);
+    }
+
+    public SymbolDictionary dictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Write counter of a symbol, which changes whenever its stored history does
+     */
+    public long version(String symbol) {
+        return version(dictionary.find(symbol));
+    }
+
+    public long version(int id) {
+        Slot slot = slotOrNull(id);
+        return slot != null ? slot.version.get() : 0L;
+    }
+
+    public boolean contains(String symbol) {
+        int id = dictionary.find(symbol);
+        return id >= 0 && (series.containsKey(id) || hasFile(id) || isCold(id));
+    }
+
+    /**
+     * Zero-copy view over the full history of a symbol, empty when nothing is stored
+     */
+    public PriceView view(String symbol) {
+        int id = dictionary.find(symbol);
+        return id >= 0 ? view(id) : PriceView.empty(symbol);
+    }
+
+    /**
+     * Zero-copy view over the full history of the symbol with the given dictionary ID
+     */
+    public PriceView view(int id) {
+        PriceSeries s = series.get(id);
+        if (s == null && (hasFile(id) || isCold(id))) {
+            s = series.get(id, this::loadOrCreate);
+            compressEvicted();
+        }
+        return s != null ? s.view() : PriceView.empty(dictionary.symbol(id));
+    }
+
+    /**
+     * View over the history of a symbol dated within [from, to], both inclusive.
+     * Symbols only present on disk or in the cold tier are read without loading their full history.
+     */
+    public PriceView slice(String symbol, LocalDate from, LocalDate to) {
+        int id = dictionary.find(symbol);
+        if (id < 0) {
+            return PriceView.empty(symbol);
+        }
+        PriceSeries s = series.get(id);
+        if (s != null) {
+            return s.view().slice(from, to);
+        }
+        Slot slot = slotOrNull(id);
+        MappedPriceFile file = slot != null ? slot.file : null;
+        if (file != null) {
+            return file.slice(symbol, (int) from.toEpochDay(), (int) to.toEpochDay()).view();
+        }
+        PriceSeries pending = evicted.get(id);
+        if (pending != null) {
+            return pending.view().slice(from, to);
+        }
+        CompressedPriceSeries compressed = cold != null ? cold.get(id) : null;
+        if (compressed != null) {
+            return compressed.slice((int) from.toEpochDay(), (int) to.toEpochDay()).view();
+        }
+        return PriceView.empty(symbol);
+    }
+
+    /**
+     * Return statistics of a symbol over [from, to], both inclusive, loading its history if needed.
+     * The first call for a series builds its running sums, which then count towards the cache weight.
+     */
+    public ReturnStats returnStats(String symbol, LocalDate from, LocalDate to) {
+        int id = dictionary.find(symbol);
+        if (id < 0) {
+            return ReturnStats.EMPTY;
+        }
+        PriceSeries s = series.get(id);
+        if (s == null && (hasFile(id) || isCold(id))) {
+            s = series.get(id, this::loadOrCreate);
+            compressEvicted();
+        }
+        if (s == null) {
+            return ReturnStats.EMPTY;
+        }
+        boolean built = s.hasReturns();
+        ReturnStats stats = s.view().slice(from, to).returnStats();
+        if (!built) {
+            series.reweigh(id);
+        }
+        return stats;
+    }
+
+    public void remove(String symbol) {
+        int id = dictionary.find(symbol);
+        if (id < 0) {
+            return;
+        }
+        Slot slot = slot(id);
+        MappedPriceFile file;
+        synchronized (slot) {
+            series.remove(id);
+            evicted.remove(id);
+            file = slot.file;
+            slot.file = null;
+            touch(id);
+        }
+        if (file != null) {
+            try {
+                file.close();
+                Files.deleteIfExists(file.getPath());
+            } catch (IOException e) {
+                logger.warn("[PriceStore] Failed to delete {}: {}", file.getPath(), e.getMessage());
+            }
+        }
+    }
+
+    public Set<String> symbols() {
+        Set<String> all = new HashSet<>();
+        for (int id : series.keys()) {
+            all.add(dictionary.symbol(id));
+        }
+        for (Slot slot : slots) {
+            if (slot != null && slot.file != null) {
+                all.add(slot.symbol);
+            }
+        }
+        if (cold != null) {
+            for (int id : cold.keys()) {
+                all.add(dictionary.symbol(id));
+            }
+            for (int id : evicted.keySet()) {
+                all.add(dictionary.symbol(id));
+            }
+        }
+        return Set.copyOf(all);
+    }
+
+    /**
+     * Number of points held in memory across resident series
+     */
+    public long pointCount() {
+        return series.values().stream().mapToLong(PriceSeries::size).sum();
+    }
+
+    public long estimatedBytes() {
+        return series.weight();
+    }
+
+    /**
+     * Resident-series cache keyed by dictionary ID, exposed for statistics
+     */
+    public BoundedCache<Integer, PriceSeries> cache() {
+        return series;
+    }
+
+    // Replaces the history of a symbol; caller holds the symbol's lock
+    private void store(int id, PriceSeries history) {
+        series.put(id, history);
+        touch(id);
+        persist(id, history.view());
+    }
+
+    // Caller holds the symbol's lock
+    private PriceSeries mergeLocked(int id, String symbol, PriceSeries updates) {
+        PriceSeries target = series.get(id, this::loadOrCreate);
+        if (target.isEmpty()) {
+            store(id, updates);
+            return updates;
+        }
+        PriceView delta = updates.view();
+        if (delta.isEmpty()) {
+            return target;
+        }
+        if (delta.firstEpochDay() <= target.view().lastEpochDay()) {
+            PriceSeries merged = PriceSeries.merge(symbol, target.view(), delta);
+            store(id, merged);
+            logger.debug("[PriceStore] Merged {} points into {}", delta.size(), symbol);
+            return merged;
+        }
+
+        for (int i = 0; i < delta.size(); i++) {
+            target.append(delta.epochDay(i), delta.close(i));
+        }
+        written(id, target);
+        if (dataDir != null) {
+            try {
+                file(id).appendAll(delta);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not append to price file for " + symbol, e);
+            }
+        }
+        logger.debug("[PriceStore] Appended {} points to {}", delta.size(), symbol);
+        return target;
+    }
+
+    // Caller holds the symbol's lock
+    private void appendLocked(int id, PriceSeries target, int epochDay, double close) {
+        target.append(epochDay, close);
+        written(id, target);
+        if (dataDir != null) {
+            try {
+                file(id).append(epochDay, close);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not append to price file for " + target.getSymbol(), e);
+            }
+        }
+    }
+
+    // After an in-place write, under the symbol's lock. The series is put back rather than reweighed,
+    // since inserting another symbol may have evicted it while it was being written.
+    private void written(int id, PriceSeries target) {
+        series.put(id, target);
+        touch(id);
+    }
+
+    // Called after the write, so a reader that sees the new version also sees the new data.
+    // A compressed copy is only kept while it matches the resident series, so writes drop it. A queued
+    // copy is left alone: the series may have been evicted again since it was put back, and a stale
+    // one is dropped by compressEvicted because its symbol is resident.
+    private void touch(int id) {
+        if (cold != null) {
+            cold.remove(id);
+        }
+        slot(id).version.incrementAndGet();
+    }
+
+    // Compresses series queued by eviction, each under its symbol's lock and only while it is still
+    // not resident, so a write that put it back meanwhile wins. Callers must not hold a symbol's lock.
+    private void compressEvicted() {
+        if (evicted.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<Integer, PriceSeries> entry : evicted.entrySet()) {
+            int id = entry.getKey();
+            synchronized (slot(id)) {
+                if (evicted.remove(id, entry.getValue()) && !series.containsKey(id)) {
+                    cold.put(id, CompressedPriceSeries.encode(entry.getValue().view()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Compressed cold tier keyed by dictionary ID, exposed for statistics; null when evicted series are not kept
+     */
+    public BoundedCache<Integer, CompressedPriceSeries> coldCache() {
+        return cold;
+    }
+
+    private boolean isCold(int id) {
+        return cold != null && (evicted.containsKey(id) || cold.containsKey(id));
+    }
+
+    private boolean hasFile(int id) {
+        Slot slot = slotOrNull(id);
+        return slot != null && slot.file != null;
+    }
+
+    private PriceSeries loadOrCreate(int id) {
+        String symbol = dictionary.symbol(id);
+        Slot slot = slotOrNull(id);
+        MappedPriceFile file = slot != null ? slot.file : null;
+        if (file != null) {
+            return file.readAll(symbol);
+        }
+        // Still queued for compression: the evicted series itself becomes resident again
+        PriceSeries pending = evicted.get(id);
+        if (pending != null) {
+            return pending;
+        }
+        // Left in the cold tier so a concurrent miss decodes the same points rather than an empty series
+        CompressedPriceSeries compressed = cold != null ? cold.get(id) : null;
+        return compressed != null ? compressed.decode() : new PriceSeries(symbol);
+    }
+
+    // Fills an empty file in place, otherwise swaps in a rewritten file
+    private void persist(int id, PriceView view) {
+        if (dataDir == null) {
+            return;
+        }
+        Slot slot = slot(id);
+        try {
+            MappedPriceFile existing = slot.file;
+            if (existing != null && existing.isEmpty()) {
+                existing.appendAll(view);
+                return;
+            }
+            slot.file = MappedPriceFile.rewrite(pathFor(slot.symbol), view);
+            if (existing != null) {
+                existing.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not persist price history for " + slot.symbol, e);
+        }
+    }
+
+    private MappedPriceFile file(int id) throws IOException {
+        Slot slot = slot(id);
+        MappedPriceFile file = slot.file;
+        if (file == null) {
+            synchronized (slot) {
+                file = slot.file;
+                if (file == null) {
+                    file = MappedPriceFile.open(pathFor(slot.symbol));
+                    slot.file = file;
+                }
+            }
+        }
+        return file;
+    }
+
+    private Slot slotOrNull(int id) {
+        Slot[] current = slots;
+        return id >= 0 && id < current.length ? current[id] : null;
+    }
+
+    private Slot slot(int id) {
+        Slot slot = slotOrNull(id);
+        return slot != null ? slot : createSlot(id);
+    }
+
+    private Slot createSlot(int id) {
+        synchronized (slotsLock) {
+            Slot[] current = slots;
+            if (id >= current.length) {
+                current = Arrays.copyOf(current, Math.max(2 * current.length, id + 1));
+            } else if (current[id] != null) {
+                return current[id];
+            }
+            Slot slot = new Slot(dictionary.symbol(id));
+            current[id] = slot;
+            // Republished so a reader that sees the array also sees the new slot
+            slots = current;
+            return slot;
+        }
+    }
+
+    private Path pathFor(String symbol) {
+        return dataDir.resolve(URLEncoder.encode(symbol, StandardCharsets.UTF_8) + FILE_SUFFIX);
+    }
+
+    private static String symbolFor(Path path) {
+        String name = path.getFileName().toString();
+        return URLDecoder.decode(name.substring(0, name.length() - FILE_SUFFIX.length()), StandardCharsets.UTF_8);
+    }
+
+    // Per-symbol state beside the cache tiers: the mapped file, if any, and the write counter
+    private static final class Slot {
+        final String symbol;
+        final AtomicLong version = new AtomicLong();
+        volatile MappedPriceFile file;
+
+        Slot(String symbol) {
+            this.symbol = symbol;
+        }
+    }
+}
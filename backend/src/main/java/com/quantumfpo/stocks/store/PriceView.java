@@ -0,0 +1,132 @@
+package com.quantumfpo.stocks.store;
+
+import com.quantumfpo.stocks.model.StockData;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Read-only window over the arrays of a {@link PriceSeries}.
+ * A view never copies; it stays valid after further appends because appends never touch
+ * indexes below the size the view was taken at. The exception is {@link PriceSeries#updateLast},
+ * which revises the newest close in place, so a view ending at that point sees the new close.
+ */
+public final class PriceView {
+    private static final int[] NO_DAYS = new int[0];
+    private static final double[] NO_CLOSES = new double[0];
+
+    private final String symbol;
+    private final int[] epochDays;
+    private final double[] closes;
+    private final int offset;
+    private final int length;
+    // Series the arrays belong to, for its return statistics; null for the empty view
+    private final PriceSeries source;
+
+    PriceView(String symbol, int[] epochDays, double[] closes, int offset, int length, PriceSeries source) {
+        this.symbol = symbol;
+        this.epochDays = epochDays;
+        this.closes = closes;
+        this.offset = offset;
+        this.length = length;
+        this.source = source;
+    }
+
+    public static PriceView empty(String symbol) {
+        return new PriceView(symbol, NO_DAYS, NO_CLOSES, 0, 0, null);
+    }
+
+    public String getSymbol() { return symbol; }
+    public int size() { return length; }
+    public boolean isEmpty() { return length == 0; }
+
+    public int epochDay(int index) {
+        return epochDays[offset + checkIndex(index)];
+    }
+
+    public LocalDate date(int index) {
+        return LocalDate.ofEpochDay(epochDay(index));
+    }
+
+    public double close(int index) {
+        return closes[offset + checkIndex(index)];
+    }
+
+    public int firstEpochDay() { return epochDay(0); }
+    public int lastEpochDay() { return epochDay(length - 1); }
+
+    /**
+     * Narrow this view to the points dated within [fromEpochDay, toEpochDay], both inclusive
+     */
+    public PriceView slice(int fromEpochDay, int toEpochDay) {
+        if (length == 0 || fromEpochDay > toEpochDay) {
+            return new PriceView(symbol, epochDays, closes, offset, 0, source);
+        }
+        int start = lowerBound(fromEpochDay);
+        int end = toEpochDay == Integer.MAX_VALUE ? length : lowerBound(toEpochDay + 1);
+        return new PriceView(symbol, epochDays, closes, offset + start, end - start, source);
+    }
+
+    public PriceView slice(LocalDate from, LocalDate to) {
+        return slice((int) from.toEpochDay(), (int) to.toEpochDay());
+    }
+
+    /**
+     * Whether this view covers everything an earlier view of the same series did, plus anything appended since.
+     * False once the series was replaced, for example by a merge that rewrote history.
+     */
+    public boolean continues(PriceView earlier) {
+        return source != null && source == earlier.source && offset == earlier.offset && length >= earlier.length;
+    }
+
+    /**
+     * Mean and variance of the daily returns within this view, in constant time once the
+     * series has built its {@link ReturnSeries}
+     */
+    public ReturnStats returnStats() {
+        if (source == null || length < 2) {
+            return ReturnStats.EMPTY;
+        }
+        return source.returns().stats(offset, offset + length);
+    }
+
+    /**
+     * Copy the closes of this view into a fresh array
+     */
+    public double[] copyCloses() {
+        return Arrays.copyOfRange(closes, offset, offset + length);
+    }
+
+    /**
+     * Copy the epoch days of this view into a fresh array
+     */
+    public int[] copyEpochDays() {
+        return Arrays.copyOfRange(epochDays, offset, offset + length);
+    }
+
+    /**
+     * Materialize the view as StockData records for the JSON API
+     */
+    public List<StockData> toStockData() {
+        List<StockData> data = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            data.add(new StockData(symbol, LocalDate.ofEpochDay(epochDays[offset + i]), closes[offset + i]));
+        }
+        return data;
+    }
+
+    // Index of the first point dated on or after epochDay, relative to this view
+    private int lowerBound(int epochDay) {
+        int idx = Arrays.binarySearch(epochDays, offset, offset + length, epochDay);
+        return (idx >= 0 ? idx : -idx - 1) - offset;
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for view of size " + length);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,134 @@
+package com.quantumfpo.stocks.store;
+
+import java.util.Arrays;
+
+/**
+ * Daily log and simple returns of a {@link PriceSeries}, with running sums of each and of their
+ * squares, so the mean and variance of any window come from two lookups instead of a pass over it.
+ *
+ * Index i holds the return from close i - 1 to close i; index 0 holds no return and all sums are 0
+ * there. Like the series it belongs to, it only grows, and only past its current size, except that
+ * the newest return follows a revised last close.
+ * A return involving a non-positive close is recorded as 0.
+ */
+public final class ReturnSeries {
+    private double[] logReturns;
+    private double[] simpleReturns;
+    private double[] logSums;
+    private double[] logSquares;
+    private double[] simpleSums;
+    private double[] simpleSquares;
+    private double lastClose;
+    // Written after the arrays, as in PriceSeries
+    private volatile int size;
+
+    ReturnSeries(int capacity) {
+        int n = Math.max(capacity, 1);
+        logReturns = new double[n];
+        simpleReturns = new double[n];
+        logSums = new double[n];
+        logSquares = new double[n];
+        simpleSums = new double[n];
+        simpleSquares = new double[n];
+    }
+
+    /**
+     * Returns over the first size closes
+     */
+    static ReturnSeries of(double[] closes, int size) {
+        ReturnSeries returns = new ReturnSeries(size);
+        for (int i = 0; i < size; i++) {
+            returns.append(closes[i]);
+        }
+        return returns;
+    }
+
+    /**
+     * Extend by one close; callers serialize appends, as PriceSeries does
+     */
+    void append(double close) {
+        int n = size;
+        if (n == logReturns.length) {
+            int capacity = n + (n >> 1) + 1;
+            logReturns = Arrays.copyOf(logReturns, capacity);
+            simpleReturns = Arrays.copyOf(simpleReturns, capacity);
+            logSums = Arrays.copyOf(logSums, capacity);
+            logSquares = Arrays.copyOf(logSquares, capacity);
+            simpleSums = Arrays.copyOf(simpleSums, capacity);
+            simpleSquares = Arrays.copyOf(simpleSquares, capacity);
+        }
+        if (n > 0) {
+            record(n, lastClose, close);
+        }
+        lastClose = close;
+        size = n + 1;
+    }
+
+    /**
+     * Recompute the newest return after the last close was revised; previous is the close before it
+     */
+    void updateLast(double previous, double close) {
+        int n = size;
+        if (n > 1) {
+            record(n - 1, previous, close);
+        }
+        lastClose = close;
+    }
+
+    private void record(int i, double previous, double close) {
+        boolean valid = previous > 0 && close > 0;
+        double log = valid ? Math.log(close / previous) : 0;
+        double simple = valid ? close / previous - 1 : 0;
+        logReturns[i] = log;
+        simpleReturns[i] = simple;
+        logSums[i] = logSums[i - 1] + log;
+        logSquares[i] = logSquares[i - 1] + log * log;
+        simpleSums[i] = simpleSums[i - 1] + simple;
+        simpleSquares[i] = simpleSquares[i - 1] + simple * simple;
+    }
+
+    /**
+     * Number of closes covered
+     */
+    public int size() {
+        return size;
+    }
+
+    public double logReturn(int index) {
+        checkReturnIndex(index, size);
+        return logReturns[index];
+    }
+
+    public double simpleReturn(int index) {
+        checkReturnIndex(index, size);
+        return simpleReturns[index];
+    }
+
+    /**
+     * Statistics of the returns between the closes at [fromIndex, toIndex), in constant time
+     */
+    public ReturnStats stats(int fromIndex, int toIndex) {
+        int n = size;
+        if (fromIndex < 0 || toIndex > n || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Range [" + fromIndex + ", " + toIndex + ") out of bounds for "
+                + n + " closes");
+        }
+        if (toIndex - fromIndex < 2) {
+            return ReturnStats.EMPTY;
+        }
+        int last = toIndex - 1;
+        return ReturnStats.fromSums(last - fromIndex,
+            logSums[last] - logSums[fromIndex], logSquares[last] - logSquares[fromIndex],
+            simpleSums[last] - simpleSums[fromIndex], simpleSquares[last] - simpleSquares[fromIndex]);
+    }
+
+    public long estimatedBytes() {
+        return 40L + 6 * (16L + 8L * logReturns.length);
+    }
+
+    private static void checkReturnIndex(int index, int size) {
+        if (index < 1 || index >= size) {
+            throw new IndexOutOfBoundsException("No return at index " + index + " for " + size + " closes");
+        }
+    }
+}
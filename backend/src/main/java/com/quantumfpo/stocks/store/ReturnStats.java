@@ -0,0 +1,42 @@
+package com.quantumfpo.stocks.store;
+
+/**
+ * Mean and sample variance of the daily log and simple returns over a window of closes.
+ * A window of n closes holds n - 1 returns; variances are 0 below two returns.
+ */
+public record ReturnStats(int count, double meanLogReturn, double logReturnVariance,
+                          double meanSimpleReturn, double simpleReturnVariance) {
+
+    public static final int TRADING_DAYS = 252;
+    public static final ReturnStats EMPTY = new ReturnStats(0, 0, 0, 0, 0);
+
+    /**
+     * Build from running sums of the returns and of their squares
+     */
+    static ReturnStats fromSums(int count, double logSum, double logSquares, double simpleSum, double simpleSquares) {
+        if (count <= 0) {
+            return EMPTY;
+        }
+        return new ReturnStats(count, logSum / count, variance(count, logSum, logSquares),
+            simpleSum / count, variance(count, simpleSum, simpleSquares));
+    }
+
+    /**
+     * Compounded annual growth rate, the same figure as pypfopt's mean_historical_return
+     */
+    public double annualizedReturn(int periodsPerYear) {
+        return Math.expm1(meanLogReturn * periodsPerYear);
+    }
+
+    public double annualizedVolatility(int periodsPerYear) {
+        return Math.sqrt(simpleReturnVariance * periodsPerYear);
+    }
+
+    // Clamped because the sum-of-squares form can dip just below zero on near-constant returns
+    private static double variance(int count, double sum, double squares) {
+        if (count < 2) {
+            return 0;
+        }
+        return Math.max(0, (squares - sum * sum / count) / (count - 1));
+    }
+}
@@ -0,0 +1,100 @@
+package com.quantumfpo.stocks.store;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide mapping between tickers and dense int IDs.
+ * IDs are handed out 0, 1, 2... in first-seen order and never reused, so per-symbol data can sit in
+ * arrays indexed by ID and a symbol is hashed once at the edge instead of on every lookup.
+ * Lookups are lock-free; only the first sighting of a symbol takes the lock.
+ * Since IDs are never released, at most symbols.dictionary.max-size are handed out; callers holding
+ * untrusted tickers should {@link #find} them rather than assign.
+ */
+@Component
+public class SymbolDictionary {
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int DEFAULT_MAX_SIZE = 1 << 20;
+
+    private final int maxSize;
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] symbols = new String[INITIAL_CAPACITY];
+    // Written after the slot it covers, so readers that see a size also see the symbols below it
+    private volatile int size;
+
+    public SymbolDictionary() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    @Autowired
+    public SymbolDictionary(@Value("${symbols.dictionary.max-size:1048576}") int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Dictionary must hold at least one symbol, got " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * ID of a symbol, assigning the next free one on first sight.
+     * Throws IllegalStateException once the dictionary holds maxSize symbols.
+     */
+    public int id(String symbol) {
+        Integer id = ids.get(symbol);
+        return id != null ? id : assign(symbol);
+    }
+
+    /**
+     * ID of a symbol, or -1 when it has never been assigned one
+     */
+    public int find(String symbol) {
+        Integer id = ids.get(symbol);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * IDs of every symbol, in the order given
+     */
+    public int[] ids(Collection<String> symbols) {
+        int[] result = new int[symbols.size()];
+        int i = 0;
+        for (String symbol : symbols) {
+            result[i++] = id(symbol);
+        }
+        return result;
+    }
+
+    public String symbol(int id) {
+        int n = size;
+        if (id < 0 || id >= n) {
+            throw new IndexOutOfBoundsException("Unknown symbol id " + id + " (" + n + " assigned)");
+        }
+        return symbols[id];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private synchronized int assign(String symbol) {
+        Integer existing = ids.get(symbol);
+        if (existing != null) {
+            return existing;
+        }
+        int id = size;
+        if (id == maxSize) {
+            throw new IllegalStateException("Symbol dictionary is full (" + maxSize + " symbols), cannot add " + symbol);
+        }
+        if (id == symbols.length) {
+            symbols = Arrays.copyOf(symbols, id * 2);
+        }
+        symbols[id] = symbol;
+        size = id + 1;
+        ids.put(symbol, id);
+        return id;
+    }
+}
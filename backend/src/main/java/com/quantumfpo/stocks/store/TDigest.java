@@ -0,0 +1,251 @@
+package com.quantumfpo.stocks.store;
+
+import java.util.Arrays;
+
+/**
+ * Mergeable quantile sketch (Dunning's merging t-digest) over a stream of doubles.
+ *
+ * Values are buffered, then sorted and swept into centroids whose size is capped by the arcsine
+ * scale function, so centroids near either tail stay small and tail quantiles stay accurate while
+ * the whole digest keeps O(compression) centroids however many values it has seen. Digests built
+ * over disjoint parts of a stream can be {@link #merge merged} into one digest of the whole.
+ * Not thread-safe; give each thread its own digest and merge them.
+ */
+public final class TDigest {
+    private final double compression;
+
+    // Centroids sorted by mean
+    private double[] means;
+    private double[] weights;
+    private int centroids;
+    private double mergedWeight;
+
+    // Unit-weight values not yet swept into centroids
+    private final double[] buffer;
+    private int buffered;
+
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public TDigest(double compression) {
+        if (!(compression >= 10)) {
+            throw new IllegalArgumentException("Compression must be at least 10, got " + compression);
+        }
+        this.compression = compression;
+        int capacity = (int) Math.ceil(compression) + 16;
+        this.means = new double[capacity];
+        this.weights = new double[capacity];
+        this.buffer = new double[5 * capacity];
+    }
+
+    public double compression() { return compression; }
+
+    /**
+     * Number of values added, including those merged in from other digests
+     */
+    public double count() {
+        return mergedWeight + buffered;
+    }
+
+    public double min() { return count() > 0 ? min : Double.NaN; }
+    public double max() { return count() > 0 ? max : Double.NaN; }
+
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            throw new IllegalArgumentException("Cannot add NaN to a digest");
+        }
+        if (buffered == buffer.length) {
+            flush();
+        }
+        buffer[buffered++] = value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Fold another digest's values into this one; the other digest is left as it was
+     */
+    public void merge(TDigest other) {
+        if (other == this) {
+            throw new IllegalArgumentException("Cannot merge a digest into itself");
+        }
+        flush();
+        other.flush();
+        if (other.centroids == 0) {
+            return;
+        }
+        double[] joinedMeans = new double[centroids + other.centroids];
+        double[] joinedWeights = new double[joinedMeans.length];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < joinedMeans.length; k++) {
+            if (j == other.centroids || (i < centroids && means[i] <= other.means[j])) {
+                joinedMeans[k] = means[i];
+                joinedWeights[k] = weights[i++];
+            } else {
+                joinedMeans[k] = other.means[j];
+                joinedWeights[k] = other.weights[j++];
+            }
+        }
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        sweep(joinedMeans, joinedWeights, joinedMeans.length, mergedWeight + other.mergedWeight);
+    }
+
+    /**
+     * Estimated value below which a fraction q of the values lie
+     */
+    public double quantile(double q) {
+        if (!(q >= 0 && q <= 1)) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1, got " + q);
+        }
+        flush();
+        if (centroids == 0) {
+            return Double.NaN;
+        }
+        if (q == 0) {
+            return min;
+        }
+        if (q == 1) {
+            return max;
+        }
+        double index = q * mergedWeight;
+        // Below the first centroid's center, interpolate from the minimum
+        double center = weights[0] / 2;
+        if (index < center) {
+            return weights[0] == 1 ? min : min + (index / center) * (means[0] - min);
+        }
+        double cumulative = 0;
+        for (int i = 0; i < centroids - 1; i++) {
+            double nextCenter = cumulative + weights[i] + weights[i + 1] / 2;
+            if (index < nextCenter) {
+                center = cumulative + weights[i] / 2;
+                // A singleton holds exactly its value for the half unit of mass either side of it
+                if (weights[i] == 1 && index - center < 0.5) {
+                    return means[i];
+                }
+                if (weights[i + 1] == 1 && nextCenter - index <= 0.5) {
+                    return means[i + 1];
+                }
+                return means[i] + (index - center) / (nextCenter - center) * (means[i + 1] - means[i]);
+            }
+            cumulative += weights[i];
+        }
+        // Above the last centroid's center, interpolate up to the maximum
+        int last = centroids - 1;
+        center = mergedWeight - weights[last] / 2;
+        if (weights[last] == 1) {
+            return max;
+        }
+        return means[last] + (index - center) / (mergedWeight - center) * (max - means[last]);
+    }
+
+    /**
+     * Estimated mean of the lowest fraction q of the values, treating each centroid as a point
+     * mass at its mean
+     */
+    public double lowerTailMean(double q) {
+        if (!(q > 0 && q <= 1)) {
+            throw new IllegalArgumentException("Tail fraction must be in (0, 1], got " + q);
+        }
+        flush();
+        if (centroids == 0) {
+            return Double.NaN;
+        }
+        double mass = q * mergedWeight;
+        double remaining = mass;
+        double sum = 0;
+        for (int i = 0; i < centroids && remaining > 0; i++) {
+            double taken = Math.min(weights[i], remaining);
+            sum += taken * means[i];
+            remaining -= taken;
+        }
+        return sum / (mass - remaining);
+    }
+
+    public int centroidCount() {
+        flush();
+        return centroids;
+    }
+
+    public long estimatedBytes() {
+        return 64 + 8L * (means.length + weights.length + buffer.length);
+    }
+
+    // Sort the buffered values and sweep them together with the current centroids
+    private void flush() {
+        if (buffered == 0) {
+            return;
+        }
+        Arrays.sort(buffer, 0, buffered);
+        int total = centroids + buffered;
+        double[] joinedMeans = new double[total];
+        double[] joinedWeights = new double[total];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < total; k++) {
+            if (j == buffered || (i < centroids && means[i] <= buffer[j])) {
+                joinedMeans[k] = means[i];
+                joinedWeights[k] = weights[i++];
+            } else {
+                joinedMeans[k] = buffer[j++];
+                joinedWeights[k] = 1;
+            }
+        }
+        double totalWeight = mergedWeight + buffered;
+        buffered = 0;
+        sweep(joinedMeans, joinedWeights, total, totalWeight);
+    }
+
+    // One pass over sorted centroids, merging neighbours while the merged one spans at most one unit of k
+    private void sweep(double[] sortedMeans, double[] sortedWeights, int length, double totalWeight) {
+        int out = 0;
+        double currentMean = sortedMeans[0];
+        double currentWeight = sortedWeights[0];
+        double before = 0;
+        double limit = weightLimit(0, totalWeight);
+        for (int k = 1; k < length; k++) {
+            double proposed = currentWeight + sortedWeights[k];
+            if (before + proposed <= limit) {
+                currentMean += (sortedMeans[k] - currentMean) * sortedWeights[k] / proposed;
+                currentWeight = proposed;
+            } else {
+                out = emit(out, currentMean, currentWeight);
+                before += currentWeight;
+                limit = weightLimit(before, totalWeight);
+                currentMean = sortedMeans[k];
+                currentWeight = sortedWeights[k];
+            }
+        }
+        centroids = emit(out, currentMean, currentWeight);
+        mergedWeight = totalWeight;
+    }
+
+    /*
+     * Cumulative weight a centroid starting after `before` may reach: one unit further along the k1 scale
+     * function k(q) = delta / (2 pi) * asin(2q - 1), inverted, so the sweep needs no asin per value
+     */
+    private double weightLimit(double before, double totalWeight) {
+        double q = Math.min(1, before / totalWeight);
+        double k = compression / (2 * Math.PI) * Math.asin(2 * q - 1) + 1;
+        if (k >= compression / 4) {
+            return totalWeight;
+        }
+        return totalWeight * (Math.sin(k * 2 * Math.PI / compression) + 1) / 2;
+    }
+
+    private int emit(int index, double mean, double weight) {
+        if (index == means.length) {
+            means = Arrays.copyOf(means, 2 * index);
+            weights = Arrays.copyOf(weights, 2 * index);
+        }
+        means[index] = mean;
+        weights[index] = weight;
+        return index + 1;
+    }
+
+    @Override
+    public String toString() {
+        return "TDigest{" + count() + " values in " + centroidCount() + " centroids, compression " + compression + "}";
+    }
+}
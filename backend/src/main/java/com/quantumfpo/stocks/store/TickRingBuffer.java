@@ -0,0 +1,118 @@
+package com.quantumfpo.stocks.store;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded multi-producer, single-consumer ring of ticks held in preallocated primitive columns.
+ *
+ * Producers claim a sequence number with a CAS on the claim cursor, fill that slot's columns and
+ * publish it by release-storing the sequence into the slot's marker; the consumer acquire-reads the
+ * marker before reading the columns. A full ring rejects the tick instead of blocking, so producers
+ * never wait on the consumer. Neither side locks or allocates per tick.
+ */
+public final class TickRingBuffer {
+
+    /**
+     * Receives drained ticks as primitives
+     */
+    @FunctionalInterface
+    public interface TickHandler {
+        void onTick(int symbolId, long timestamp, double price, long size);
+    }
+
+    private static final VarHandle MARKERS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final int capacity;
+    private final int mask;
+    private final int[] symbolIds;
+    private final long[] timestamps;
+    private final double[] prices;
+    private final long[] sizes;
+    // Sequence last published into each slot
+    private final long[] markers;
+
+    // Next sequence a producer will claim
+    private final AtomicLong claimed = new AtomicLong();
+    // Next sequence the consumer will read; only the consumer writes it
+    private volatile long consumed;
+
+    /**
+     * @param capacity slots in the ring, rounded up to a power of two
+     */
+    public TickRingBuffer(int capacity) {
+        if (capacity < 1 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Ring capacity must be between 1 and 2^30");
+        }
+        this.capacity = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.symbolIds = new int[this.capacity];
+        this.timestamps = new long[this.capacity];
+        this.prices = new double[this.capacity];
+        this.sizes = new long[this.capacity];
+        this.markers = new long[this.capacity];
+        Arrays.fill(markers, -1L);
+    }
+
+    /**
+     * Publish one tick, returning false without waiting when the ring is full. Safe from any thread.
+     */
+    public boolean offer(int symbolId, long timestamp, double price, long size) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed >= capacity) {
+                return false;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        int slot = (int) sequence & mask;
+        symbolIds[slot] = symbolId;
+        timestamps[slot] = timestamp;
+        prices[slot] = price;
+        sizes[slot] = size;
+        MARKERS.setRelease(markers, slot, sequence);
+        return true;
+    }
+
+    /**
+     * Hand up to max published ticks to the handler in sequence order, returning how many were handed.
+     * Stops early at a slot that is claimed but not yet published. Only one thread may drain.
+     * A tick whose handler throws counts as consumed along with those before it, so no tick is ever
+     * handed twice; the exception then propagates.
+     */
+    public int drain(TickHandler handler, int max) {
+        long next = consumed;
+        int count = 0;
+        try {
+            while (count < max) {
+                int slot = (int) next & mask;
+                if ((long) MARKERS.getAcquire(markers, slot) != next) {
+                    break;
+                }
+                next++;
+                count++;
+                handler.onTick(symbolIds[slot], timestamps[slot], prices[slot], sizes[slot]);
+            }
+        } finally {
+            if (count > 0) {
+                // Frees the slots for producers only once they have been read
+                consumed = next;
+            }
+        }
+        return count;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Ticks claimed but not yet drained; approximate while producers are active
+     */
+    public long size() {
+        return Math.max(0, claimed.get() - consumed);
+    }
+}
@@ -5,13 +5,22 @@ import pandas as pd
 from pypfopt import EfficientFrontier, expected_returns
 from pypfopt.risk_models import CovarianceShrinkage
 
-def optimize_portfolio(stock_data, var_percent):
+def optimize_portfolio(stock_data, var_percent, mu=None):
     print('[LOG] [Classic] Step 1: Received stock data for optimization')
-    df = pd.DataFrame(stock_data)
-    print(f'[LOG] [Classic] Step 2: Created DataFrame with shape {df.shape}')
-    prices = df.pivot(index='date', columns='symbol', values='close').sort_index()
-    print(f'[LOG] [Classic] Step 3: Pivoted prices DataFrame with shape {prices.shape}')
-    mu = expected_returns.mean_historical_return(prices)
+    if isinstance(stock_data, pd.DataFrame):
+        # Already aligned by the caller: one row per date, one column per symbol
+        prices = stock_data.sort_index()
+        print(f'[LOG] [Classic] Step 2-3: Using aligned prices DataFrame with shape {prices.shape}')
+    else:
+        df = pd.DataFrame(stock_data)
+        print(f'[LOG] [Classic] Step 2: Created DataFrame with shape {df.shape}')
+        prices = df.pivot(index='date', columns='symbol', values='close').sort_index()
+        print(f'[LOG] [Classic] Step 3: Pivoted prices DataFrame with shape {prices.shape}')
+    # Expected returns precomputed by the caller skip the pass over the price history
+    if mu is None:
+        mu = expected_returns.mean_historical_return(prices)
+    else:
+        mu = mu.reindex(prices.columns)
     print(f'[LOG] [Classic] Step 4: Calculated expected returns: {mu}')
     S = CovarianceShrinkage(prices).ledoit_wolf()
     print('[LOG] [Classic] Step 5: Calculated covariance matrix')
@@ -11,9 +11,12 @@ from qiskit.transpiler import generate_preset_pass_manager
 from qiskit_aer import AerSimulator
 from scipy.optimize import minimize
 
-def classical_optimize(prices):
+def classical_optimize(prices, mu=None):
     print("[LOG] [Classic] Step 1: Starting classical optimization")
-    mu = expected_returns.mean_historical_return(prices)
+    if mu is None:
+        mu = expected_returns.mean_historical_return(prices)
+    else:
+        mu = mu.reindex(prices.columns)
     print(f"[LOG] [Classic] Step 2: Calculated expected returns: {mu}")
     S = CovarianceShrinkage(prices).ledoit_wolf()
     print(f"[LOG] [Classic] Step 3: Calculated covariance matrix: {S}")
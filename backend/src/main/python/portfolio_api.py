@@ -134,10 +134,25 @@ class StockDataPoint(BaseModel):
     date: str = Field(..., description="Date in YYYY-MM-DD format")
     close: float = Field(..., ge=0, description="Closing price")
 
+class ReturnStats(BaseModel):
+    count: int = Field(..., ge=0, description="Number of daily returns in the window")
+    mean_log_return: float = Field(..., description="Mean daily log return")
+    log_return_variance: float = Field(..., ge=0, description="Sample variance of daily log returns")
+    mean_simple_return: float = Field(..., description="Mean daily simple return")
+    simple_return_variance: float = Field(..., ge=0, description="Sample variance of daily simple returns")
+    mean_historical_return: float = Field(..., description="Annualized compound return, as pypfopt's mean_historical_return")
+
+class PriceMatrix(BaseModel):
+    dates: List[str] = Field(..., description="Dates in YYYY-MM-DD format, ascending")
+    symbols: List[str] = Field(..., description="Stock symbols, in column order")
+    values: List[List[float]] = Field(..., description="One row of closing prices per date, one column per symbol")
+
 class OptimizeRequest(BaseModel):
-    stock_data: List[StockDataPoint] = Field(..., description="Historical stock price data")
+    stock_data: List[StockDataPoint] = Field(default_factory=list, description="Historical stock price data as long (symbol, date, close) rows")
+    price_matrix: Optional[PriceMatrix] = Field(default=None, description="Closing prices already aligned by date; used instead of stock_data when given")
     var_percent: float = Field(default=0.05, ge=0, le=1, description="Value at Risk percentage")
     qc_simulator: bool = Field(default=True, description="Use quantum simulator (true) or real backend (false)")
+    return_stats: Optional[Dict[str, ReturnStats]] = Field(default=None, description="Per-symbol return statistics precomputed by the price store")
 
 class ClassicalResult(BaseModel):
     weights: Dict[str, float] = Field(..., description="Portfolio weights by symbol")
@@ -258,6 +273,32 @@ async def log_requests(request, call_next):
         raise
 
 # Utility functions
+def expected_returns_from_stats(request: OptimizeRequest, symbols) -> Optional[pd.Series]:
+    """Expected returns from the shipped return statistics, or None unless every symbol has them."""
+    if not request.return_stats:
+        return None
+    symbols = sorted(set(symbols))
+    if any(symbol not in request.return_stats for symbol in symbols):
+        return None
+    return pd.Series({symbol: request.return_stats[symbol].mean_historical_return for symbol in symbols})
+
+def prices_from_request(request: OptimizeRequest) -> pd.DataFrame:
+    """Closes as a dates x symbols frame, built straight from price_matrix when shipped, else pivoted from stock_data."""
+    matrix = request.price_matrix
+    if matrix is not None:
+        if len(matrix.values) != len(matrix.dates) or any(len(row) != len(matrix.symbols) for row in matrix.values):
+            raise HTTPException(
+                status_code=422,
+                detail=f"price_matrix needs {len(matrix.dates)} rows of {len(matrix.symbols)} closes"
+            )
+        return pd.DataFrame(matrix.values,
+                            index=pd.Index(matrix.dates, name='date'),
+                            columns=pd.Index(matrix.symbols, name='symbol'))
+    if not request.stock_data:
+        return pd.DataFrame()
+    df = pd.DataFrame(convert_stock_data_to_dict(request.stock_data))
+    return df.pivot(index='date', columns='symbol', values='close').sort_index()
+
 def convert_stock_data_to_dict(stock_data: List[StockDataPoint]) -> List[Dict[str, Any]]:
     """Convert Pydantic models to dictionary format expected by optimization functions."""
     return [
@@ -402,28 +443,29 @@ async def optimize_classical(request: OptimizeRequest):
     """
     request_id = str(uuid.uuid4())[:8]
     logger.info(f"[{request_id}] Classical optimization request received")
-    logger.info(f"[{request_id}] Request details: {len(request.stock_data)} stocks, VaR: {request.var_percent}")
+    logger.info(f"[{request_id}] Request details: VaR: {request.var_percent}, aligned matrix: {request.price_matrix is not None}")
     
     try:
-        # Log stock symbols
-        symbols = [point.symbol for point in request.stock_data]
+        # Prices as a dates x symbols frame
+        prices = prices_from_request(request)
+        symbols = list(prices.columns)
         logger.info(f"[{request_id}] Stock symbols: {symbols}")
-        
-        # Convert request data
-        stock_data_dict = convert_stock_data_to_dict(request.stock_data)
-        logger.info(f"[{request_id}] Converted {len(stock_data_dict)} stock data points")
+        logger.info(f"[{request_id}] Data shape: {prices.shape} (dates × symbols)")
         
         # Validate we have stock data
-        if not stock_data_dict or len(stock_data_dict) == 0:
+        if prices.empty:
             logger.error(f"[{request_id}] Empty stock data received")
             raise HTTPException(
                 status_code=422,
-                detail="stock_data cannot be empty"
+                detail="price_matrix or stock_data required: stock_data cannot be empty"
             )
         
         # Perform optimization
         logger.info(f"[{request_id}] Starting classical optimization...")
-        result = classic_optimize(stock_data_dict, request.var_percent)
+        mu = expected_returns_from_stats(request, symbols)
+        if mu is not None:
+            logger.info(f"[{request_id}] Using precomputed expected returns for {len(mu)} symbols")
+        result = classic_optimize(prices, request.var_percent, mu)
         logger.info(f"[{request_id}] Classical optimization completed")
         
         # Log result summary
@@ -456,37 +498,26 @@ async def optimize_hybrid(request: OptimizeRequest):
     """
     request_id = str(uuid.uuid4())[:8]
     logger.info(f"[{request_id}] Hybrid optimization request received")
-    logger.info(f"[{request_id}] Request details: {len(request.stock_data)} stocks, VaR: {request.var_percent}, QC Simulator: {request.qc_simulator}")
+    logger.info(f"[{request_id}] Request details: VaR: {request.var_percent}, QC Simulator: {request.qc_simulator}, aligned matrix: {request.price_matrix is not None}")
     
     try:
-        # Log stock symbols
-        symbols = [point.symbol for point in request.stock_data]
-        logger.info(f"[{request_id}] Stock symbols: {symbols}")
-        
-        # Convert request data
-        stock_data_dict = convert_stock_data_to_dict(request.stock_data)
-        logger.info(f"[{request_id}] Converted {len(stock_data_dict)} stock data points")
+        # Prices as a dates x symbols frame
+        logger.info(f"[{request_id}] Preparing data for optimization...")
+        prices = prices_from_request(request)
+        logger.info(f"[{request_id}] Stock symbols: {list(prices.columns)}")
+        logger.info(f"[{request_id}] Data shape: {prices.shape} (dates × symbols)")
         
         # Validate we have stock data
-        if not stock_data_dict or len(stock_data_dict) == 0:
+        if prices.empty:
             logger.error(f"[{request_id}] Empty stock data received")
             raise HTTPException(
                 status_code=422,
-                detail="stock_data cannot be empty"
+                detail="price_matrix or stock_data required: stock_data cannot be empty"
             )
         
-        # Import pandas for data processing
-        import pandas as pd
-        
-        # Prepare data
-        logger.info(f"[{request_id}] Preparing data for optimization...")
-        df = pd.DataFrame(stock_data_dict)
-        prices = df.pivot(index='date', columns='symbol', values='close').sort_index()
-        logger.info(f"[{request_id}] Data shape: {prices.shape} (dates × symbols)")
-        
         # Classical optimization
         logger.info(f"[{request_id}] Running classical optimization...")
-        classical_weights, classical_perf = classical_optimize(prices)
+        classical_weights, classical_perf = classical_optimize(prices, expected_returns_from_stats(request, prices.columns))
         logger.info(f"[{request_id}] Classical optimization completed")
         logger.info(f"[{request_id}] Classical weights: {classical_weights}")
         
@@ -591,8 +622,9 @@ def run_classical_optimization(job_id: str, request: OptimizeRequest):
     try:
         update_job_status(job_id, "running")
         
-        stock_data_dict = convert_stock_data_to_dict(request.stock_data)
-        result = classic_optimize(stock_data_dict, request.var_percent)
+        prices = prices_from_request(request)
+        mu = expected_returns_from_stats(request, prices.columns)
+        result = classic_optimize(prices, request.var_percent, mu)
         
         update_job_status(job_id, "completed", result=result)
         
@@ -605,17 +637,13 @@ def run_hybrid_optimization(job_id: str, request: OptimizeRequest):
     try:
         update_job_status(job_id, "running")
         
-        stock_data_dict = convert_stock_data_to_dict(request.stock_data)
-        
-        import pandas as pd
-        df = pd.DataFrame(stock_data_dict)
-        prices = df.pivot(index='date', columns='symbol', values='close').sort_index()
+        prices = prices_from_request(request)
         
         # Set simulator mode
         import hybrid_portfolio_opt
         hybrid_portfolio_opt.qc_simulator_mode = request.qc_simulator
         
-        classical_weights, classical_perf = classical_optimize(prices)
+        classical_weights, classical_perf = classical_optimize(prices, expected_returns_from_stats(request, prices.columns))
         quantum_result = quantum_optimize(prices)
         
         result = {
@@ -0,0 +1,90 @@
+package com.quantumfpo.stocks.benchmark;
+
+import com.quantumfpo.stocks.store.CompressedPriceSeries;
+import com.quantumfpo.stocks.store.PriceSeries;
+import com.quantumfpo.stocks.store.PriceView;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode throughput of {@link CompressedPriceSeries}, in points per microsecond.
+ * "cents" closes are whole-cent quotes on a weekday calendar, as exchange data is, and take the
+ * scaled-decimal path; "raw" closes are full-precision doubles like the simulator's and take the
+ * XOR path. The compression ratio of each shape is printed once per trial.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark="CompressedPriceSeriesBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompressedPriceSeriesBenchmark {
+    // Ten years of trading days
+    private static final int POINTS = 2520;
+
+    @Param({"cents", "raw"})
+    private String closes;
+
+    private PriceView view;
+    private CompressedPriceSeries compressed;
+    private int[] epochDays;
+    private double[] values;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        PriceSeries series = new PriceSeries("SIM_AAPL", POINTS);
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDate date = LocalDate.of(2015, 1, 1);
+        double close = 150;
+        for (int i = 0; i < POINTS; i++) {
+            while (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                date = date.plusDays(1);
+            }
+            close *= Math.exp(random.nextGaussian() * 0.01);
+            double quoted = "cents".equals(closes) ? Math.round(close * 100) / 100.0 : close;
+            series.append((int) date.toEpochDay(), quoted);
+            date = date.plusDays(1);
+        }
+        view = series.view();
+        compressed = CompressedPriceSeries.encode(view);
+        epochDays = new int[POINTS];
+        values = new double[POINTS];
+        System.out.printf("%n%s closes: %d points, %d bytes raw, %d bytes compressed (%.1fx)%n",
+            closes, POINTS, 12L * POINTS, compressed.compressedBytes(),
+            12.0 * POINTS / compressed.compressedBytes());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public CompressedPriceSeries encode() {
+        return CompressedPriceSeries.encode(view);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public int decodeIntoArrays() {
+        return compressed.decoder().read(epochDays, values, 0, POINTS);
+    }
+
+    @Benchmark
+    public double randomAccess() {
+        return compressed.close(POINTS / 2 + 17);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(CompressedPriceSeriesBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
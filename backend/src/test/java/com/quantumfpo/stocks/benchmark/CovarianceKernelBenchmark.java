@@ -0,0 +1,70 @@
+package com.quantumfpo.stocks.benchmark;
+
+import com.quantumfpo.stocks.service.CovarianceKernel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scaling of the tiled covariance kernel with basket size and pool parallelism: one year of
+ * centered daily returns for N symbols, cross products over the upper triangle on a pool of the
+ * given number of threads. Compare a row's score across thread counts for the speed-up; threads
+ * beyond the machine's cores only add scheduling overhead.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark="CovarianceKernelBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CovarianceKernelBenchmark {
+
+    @Param({"500", "2000", "5000"})
+    private int symbols;
+
+    @Param({"252"})
+    private int days;
+
+    @Param({"1", "2", "4", "8"})
+    private int threads;
+
+    private double[] returns;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        returns = new double[symbols * days];
+        for (int i = 0; i < returns.length; i++) {
+            returns[i] = random.nextGaussian() * 0.015;
+        }
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public double[] crossProducts() {
+        return threads == 1
+            ? CovarianceKernel.crossProducts(returns, symbols, days)
+            : CovarianceKernel.crossProducts(returns, symbols, days, pool);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(CovarianceKernelBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
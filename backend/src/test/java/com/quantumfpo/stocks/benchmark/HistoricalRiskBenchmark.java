@@ -0,0 +1,96 @@
+package com.quantumfpo.stocks.benchmark;
+
+import com.quantumfpo.stocks.model.RiskEstimate;
+import com.quantumfpo.stocks.service.HistoricalRiskEngine;
+import com.quantumfpo.stocks.store.PriceMatrix;
+import com.quantumfpo.stocks.store.PriceMatrix.GapPolicy;
+import com.quantumfpo.stocks.store.PriceSeries;
+import com.quantumfpo.stocks.store.PriceView;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Historical VaR/CVaR of an equally weighted basket: outcomes streamed into the engine's t-digest
+ * against the same outcomes collected into an array and sorted.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark="HistoricalRiskBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HistoricalRiskBenchmark {
+
+    @Param({"20", "100"})
+    private int assets;
+
+    @Param({"2520", "25200"})
+    private int days;
+
+    private HistoricalRiskEngine engine;
+    private PriceMatrix prices;
+    private double[] weights;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        List<PriceView> views = new ArrayList<>(assets);
+        weights = new double[assets];
+        for (int j = 0; j < assets; j++) {
+            PriceSeries series = new PriceSeries("SIM_" + j, days);
+            double close = 100;
+            for (int t = 0; t < days; t++) {
+                close *= 1 + 0.0003 + 0.015 * random.nextGaussian();
+                series.append(10_000 + t, close);
+            }
+            views.add(series.view());
+            weights[j] = 1.0 / assets;
+        }
+        prices = PriceMatrix.align(views, GapPolicy.FORWARD_FILL);
+        engine = new HistoricalRiskEngine(null, 1, 200);
+    }
+
+    @Benchmark
+    public RiskEstimate sketch() {
+        return engine.estimate(prices, weights, 5);
+    }
+
+    @Benchmark
+    public double sort() {
+        int windows = prices.rows() - 1;
+        double[] closes = prices.values();
+        double[] outcomes = new double[windows];
+        for (int t = 0; t < windows; t++) {
+            double value = 0;
+            for (int j = 0; j < assets; j++) {
+                value += weights[j] * (closes[(t + 1) * assets + j] / closes[t * assets + j] - 1);
+            }
+            outcomes[t] = value;
+        }
+        Arrays.sort(outcomes);
+        int tail = (int) Math.ceil(0.05 * windows);
+        double sum = 0;
+        for (int k = 0; k < tail; k++) {
+            sum += outcomes[k];
+        }
+        return -outcomes[tail - 1] - sum / tail;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(HistoricalRiskBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,143 @@
+package com.quantumfpo.stocks.benchmark;
+
+import com.quantumfpo.stocks.model.SyntheticUniverse;
+import com.quantumfpo.stocks.service.DynamicQuboBuilder;
+import com.quantumfpo.stocks.service.HistoricalRiskEngine;
+import com.quantumfpo.stocks.service.JvmPortfolioOptimizer;
+import com.quantumfpo.stocks.service.MonteCarloRiskEngine;
+import com.quantumfpo.stocks.service.PriceMatrixService;
+import com.quantumfpo.stocks.service.PythonApiService;
+import com.quantumfpo.stocks.service.RiskModelEngine;
+import com.quantumfpo.stocks.service.RollingRiskModelService;
+import com.quantumfpo.stocks.service.SimulatedAnnealingSolver;
+import com.quantumfpo.stocks.service.SyntheticMarketGenerator;
+import com.quantumfpo.stocks.store.PriceMatrix.GapPolicy;
+import com.quantumfpo.stocks.store.PriceStore;
+import com.quantumfpo.stocks.store.PriceView;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of one classical /optimize call through each engine.
+ * "jvm" estimates the risk model from the price store and solves max-Sharpe in-process.
+ * "rest" posts the cached aligned price matrix through PythonApiService to a loopback stub that
+ * answers at once, so it is a lower bound on the Python path: JSON both ways and HTTP, but none of
+ * the pypfopt solve the real service adds on top. "restRows" posts the long-format rows instead,
+ * which the real service would also have to pivot.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark="OptimizeEngineBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OptimizeEngineBenchmark {
+    private static final byte[] STUB_RESPONSE = ("{\"weights\":{},\"expected_annual_return\":0.1,"
+        + "\"annual_volatility\":0.2,\"sharpe_ratio\":0.4,\"value_at_risk\":0.05}").getBytes(StandardCharsets.UTF_8);
+
+    @Param({"10", "50"})
+    private int symbols;
+
+    @Param({"252"})
+    private int days;
+
+    private List<String> basket;
+    private List<PriceView> views;
+    private PriceMatrixService matrices;
+    private JvmPortfolioOptimizer jvm;
+    private PythonApiService python;
+    private HttpServer stub;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        SyntheticUniverse universe = new SyntheticMarketGenerator(3, 0.4, 42)
+            .generate(new SyntheticMarketGenerator.Spec(symbols, days, 3, 0.4, 42L, LocalDate.of(2025, 9, 24)));
+        PriceStore store = new PriceStore();
+        basket = new ArrayList<>(symbols);
+        views = new ArrayList<>(symbols);
+        for (int i = 0; i < universe.size(); i++) {
+            store.put(universe.symbol(i), universe.series(i));
+            basket.add(universe.symbol(i));
+            views.add(store.view(universe.symbol(i)));
+        }
+        matrices = new PriceMatrixService(store, 8, Long.MAX_VALUE);
+        RiskModelEngine riskModelEngine = new RiskModelEngine(matrices);
+        jvm = new JvmPortfolioOptimizer(riskModelEngine,
+            new RollingRiskModelService(store, 8, Long.MAX_VALUE),
+            new MonteCarloRiskEngine(riskModelEngine, 50_000, 1, 0, 42, 8),
+            new HistoricalRiskEngine(matrices, 1, 200),
+            new SimulatedAnnealingSolver(1000, 0, 42), new DynamicQuboBuilder(matrices), 0.02, 0);
+
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.createContext("/api/optimize/classical", exchange -> {
+            try (InputStream in = exchange.getRequestBody()) {
+                in.readAllBytes();
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, STUB_RESPONSE.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(STUB_RESPONSE);
+            }
+        });
+        stub.start();
+        python = new PythonApiService(store.dictionary());
+        ReflectionTestUtils.setField(python, "pythonApiBaseUrl", "http://127.0.0.1:" + stub.getAddress().getPort());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        stub.stop(0);
+    }
+
+    @Benchmark
+    public Map<String, Object> jvm() {
+        return jvm.optimizeClassical(basket, 5.0);
+    }
+
+    @Benchmark
+    public Map<String, Object> rest() {
+        return python.optimizeClassical(matrices.matrix(basket, GapPolicy.FORWARD_FILL), 5.0, Collections.emptyMap());
+    }
+
+    @Benchmark
+    public Map<String, Object> restRows() {
+        List<Map<String, Object>> rows = new ArrayList<>(symbols * days);
+        for (PriceView view : views) {
+            for (int j = 0; j < view.size(); j++) {
+                Map<String, Object> row = new HashMap<>(4);
+                row.put("symbol", view.getSymbol());
+                row.put("date", view.date(j).toString());
+                row.put("close", view.close(j));
+                rows.add(row);
+            }
+        }
+        return python.optimizeClassical(rows, 5.0, Collections.emptyMap());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(OptimizeEngineBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,92 @@
+package com.quantumfpo.stocks.benchmark;
+
+import com.quantumfpo.stocks.model.StockData;
+import com.quantumfpo.stocks.store.PriceSeries;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the heap cost of the legacy Map&lt;String, List&lt;StockData&gt;&gt; price cache with the
+ * columnar {@link PriceSeries} layout.
+ * Each invocation builds a whole universe, so with the GC profiler enabled the
+ * gc.alloc.rate.norm figure is the bytes needed to hold it.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark="PriceStoreFootprint -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PriceStoreFootprintBenchmark {
+
+    @Param({"100", "1000"})
+    private int symbols;
+
+    @Param({"252", "1260"})
+    private int days;
+
+    private String[] tickers;
+    private double[] closes;
+    private int firstEpochDay;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tickers = new String[symbols];
+        for (int i = 0; i < symbols; i++) {
+            tickers[i] = "SIM_" + i;
+        }
+        closes = new double[days];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int t = 0; t < days; t++) {
+            closes[t] = 100 + random.nextDouble() * 20;
+        }
+        firstEpochDay = (int) LocalDate.of(2020, 1, 1).toEpochDay();
+    }
+
+    @Benchmark
+    public Map<String, List<StockData>> legacyObjectPerPoint() {
+        Map<String, List<StockData>> database = new HashMap<>();
+        for (String ticker : tickers) {
+            List<StockData> data = new ArrayList<>(days);
+            for (int t = 0; t < days; t++) {
+                data.add(new StockData(ticker, LocalDate.ofEpochDay(firstEpochDay + t), closes[t]));
+            }
+            database.put(ticker, data);
+        }
+        return database;
+    }
+
+    @Benchmark
+    public Map<String, PriceSeries> columnarSeries() {
+        Map<String, PriceSeries> store = new HashMap<>();
+        for (String ticker : tickers) {
+            PriceSeries series = new PriceSeries(ticker, days);
+            for (int t = 0; t < days; t++) {
+                series.append(firstEpochDay + t, closes[t]);
+            }
+            store.put(ticker, series);
+        }
+        return store;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(PriceStoreFootprintBenchmark.class.getSimpleName())
+            .addProfiler("gc")
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,137 @@
+package com.quantumfpo.stocks.benchmark;
+
+import com.quantumfpo.stocks.model.PackedCounts;
+import com.quantumfpo.stocks.model.QuboModel;
+import com.quantumfpo.stocks.model.RiskModel;
+import com.quantumfpo.stocks.service.DynamicQuboBuilder;
+import com.quantumfpo.stocks.service.QuboEnergyEvaluator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expectation over a sampler histogram of distinct states under the 80-qubit dynamic QUBO of 10 assets:
+ * the packed evaluator against compute_expectation_from_counts ported as is, every bitstring against
+ * every Pauli label character by character.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark="QuboEnergyEvaluatorBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuboEnergyEvaluatorBenchmark {
+
+    @Param({"10000", "100000"})
+    private int shots;
+
+    private QuboModel ising;
+    private PackedCounts packed;
+    private Map<String, Integer> bitstrings;
+    private char[][] labels;
+    private double[] coefficients;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        DynamicQuboBuilder.Config config = DynamicQuboBuilder.Config.DEFAULT;
+        int assets = 10;
+        List<RiskModel> periods = new ArrayList<>(config.numTimeSteps());
+        for (int p = 0; p < config.numTimeSteps(); p++) {
+            String[] symbols = new String[assets];
+            double[] mu = new double[assets];
+            double[] cov = new double[assets * assets];
+            for (int i = 0; i < assets; i++) {
+                symbols[i] = "SIM_" + i;
+                mu[i] = 0.1 * random.nextGaussian();
+                cov[i * assets + i] = 0.04;
+            }
+            periods.add(new RiskModel(symbols, mu, cov, 0, 59));
+        }
+        QuboModel model = DynamicQuboBuilder.assemble(periods, config, null);
+        ising = model.isingAsQubo();
+
+        int n = model.size();
+        bitstrings = new LinkedHashMap<>();
+        char[] bits = new char[n];
+        while (bitstrings.size() < shots) {
+            for (int i = 0; i < n; i++) {
+                bits[i] = random.nextBoolean() ? '1' : '0';
+            }
+            bitstrings.put(new String(bits), 1);
+        }
+        packed = PackedCounts.fromBitstrings(bitstrings);
+
+        // build_hamiltonian_from_qubo's labels: one Z per linear term, two per coupling
+        List<char[]> terms = new ArrayList<>();
+        List<Double> values = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            char[] label = new char[n];
+            Arrays.fill(label, 'I');
+            label[i] = 'Z';
+            terms.add(label);
+            values.add(model.linear(i));
+            for (int k = model.rowStart(i); k < model.rowStart(i + 1); k++) {
+                char[] pair = label.clone();
+                pair[model.columns()[k]] = 'Z';
+                terms.add(pair);
+                values.add(model.couplings()[k]);
+            }
+        }
+        labels = terms.toArray(new char[0][]);
+        coefficients = values.stream().mapToDouble(Double::doubleValue).toArray();
+    }
+
+    @Benchmark
+    public double packed() {
+        return QuboEnergyEvaluator.evaluate(ising, packed, ForkJoinPool.commonPool()).expectation();
+    }
+
+    @Benchmark
+    public double perCharacter() {
+        double expectation = 0;
+        long total = 0;
+        for (int count : bitstrings.values()) {
+            total += count;
+        }
+        for (Map.Entry<String, Integer> entry : bitstrings.entrySet()) {
+            String bitstring = entry.getKey();
+            double[] z = new double[bitstring.length()];
+            for (int i = 0; i < z.length; i++) {
+                z[i] = 1 - 2 * (bitstring.charAt(i) - '0');
+            }
+            double energy = 0;
+            for (int t = 0; t < labels.length; t++) {
+                double term = coefficients[t];
+                for (int q = 0; q < labels[t].length; q++) {
+                    if (labels[t][q] == 'Z') {
+                        term *= z[q];
+                    }
+                }
+                energy += term;
+            }
+            expectation += (double) entry.getValue() / total * energy;
+        }
+        return expectation;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(QuboEnergyEvaluatorBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,96 @@
+package com.quantumfpo.stocks.benchmark;
+
+import com.quantumfpo.stocks.model.RiskModel;
+import com.quantumfpo.stocks.service.RiskModelEngine;
+import com.quantumfpo.stocks.service.RollingCovariance;
+import com.quantumfpo.stocks.store.PriceMatrix;
+import com.quantumfpo.stocks.store.PriceMatrix.GapPolicy;
+import com.quantumfpo.stocks.store.PriceSeries;
+import com.quantumfpo.stocks.store.PriceView;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of bringing a windowed risk model up to date after one new daily bar: sliding the
+ * {@link RollingCovariance} by one return vector and reading the model, against recomputing
+ * it from the window's closes with {@link RiskModelEngine#compute}.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark="RollingCovarianceBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RollingCovarianceBenchmark {
+    // Bars cycled through by slide, so each call pushes a different vector
+    private static final int BARS = 64;
+
+    @Param({"100", "500"})
+    private int symbols;
+
+    @Param({"252"})
+    private int window;
+
+    private String[] names;
+    private RollingCovariance rolling;
+    private double[][] bars;
+    private int next;
+    private PriceMatrix closes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        names = new String[symbols];
+        List<PriceView> views = new ArrayList<>(symbols);
+        for (int j = 0; j < symbols; j++) {
+            names[j] = "SIM_" + j;
+            PriceSeries series = new PriceSeries(names[j], window + 1);
+            double close = 50 + random.nextDouble() * 100;
+            for (int t = 0; t <= window; t++) {
+                series.append(20_000 + t, close);
+                close *= Math.exp(random.nextGaussian() * 0.015);
+            }
+            views.add(series.view());
+        }
+        closes = PriceMatrix.align(views, GapPolicy.FORWARD_FILL);
+
+        rolling = new RollingCovariance(symbols, window);
+        bars = new double[BARS][symbols];
+        for (double[] bar : bars) {
+            for (int j = 0; j < symbols; j++) {
+                bar[j] = random.nextGaussian() * 0.015;
+            }
+        }
+        for (int t = 0; t < window; t++) {
+            rolling.add(bars[t % BARS]);
+        }
+    }
+
+    @Benchmark
+    public RiskModel slide() {
+        rolling.add(bars[next++ % BARS]);
+        return rolling.riskModel(names, RiskModelEngine.TRADING_DAYS);
+    }
+
+    @Benchmark
+    public RiskModel recompute() {
+        return RiskModelEngine.compute(closes, RiskModelEngine.TRADING_DAYS);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(RollingCovarianceBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,75 @@
+package com.quantumfpo.stocks.benchmark;
+
+import com.quantumfpo.stocks.model.QuboModel;
+import com.quantumfpo.stocks.model.RiskModel;
+import com.quantumfpo.stocks.service.DynamicQuboBuilder;
+import com.quantumfpo.stocks.service.SimulatedAnnealingSolver;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulated annealing of the multi-period QUBO with the default 4 periods of 2 bits: 1000 sweeps,
+ * one replica per available core.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark="SimulatedAnnealingBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimulatedAnnealingBenchmark {
+
+    @Param({"10", "50"})
+    private int assets;
+
+    private QuboModel model;
+    private int replicas;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        DynamicQuboBuilder.Config config = DynamicQuboBuilder.Config.DEFAULT;
+        List<RiskModel> periods = new ArrayList<>(config.numTimeSteps());
+        for (int p = 0; p < config.numTimeSteps(); p++) {
+            String[] symbols = new String[assets];
+            double[] mu = new double[assets];
+            double[] loadings = new double[assets];
+            for (int i = 0; i < assets; i++) {
+                symbols[i] = "SIM_" + i;
+                mu[i] = 0.1 * random.nextGaussian();
+                loadings[i] = 0.2 * random.nextGaussian();
+            }
+            double[] cov = new double[assets * assets];
+            for (int i = 0; i < assets; i++) {
+                for (int j = 0; j < assets; j++) {
+                    cov[i * assets + j] = loadings[i] * loadings[j] + (i == j ? 0.02 : 0);
+                }
+            }
+            periods.add(new RiskModel(symbols, mu, cov, 0, 59));
+        }
+        model = DynamicQuboBuilder.assemble(periods, config, null);
+        replicas = Runtime.getRuntime().availableProcessors();
+    }
+
+    @Benchmark
+    public double anneal() {
+        return SimulatedAnnealingSolver.solve(model, 1000, replicas, 42).energy();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(SimulatedAnnealingBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,67 @@
+package com.quantumfpo.stocks.benchmark;
+
+import com.quantumfpo.stocks.model.StockData;
+import com.quantumfpo.stocks.model.SyntheticUniverse;
+import com.quantumfpo.stocks.service.AlphaVantageService;
+import com.quantumfpo.stocks.service.SyntheticMarketGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to build a whole synthetic universe: the per-record simulator used by /load against the
+ * bulk factor-model generator behind /simulate.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark="SyntheticUniverse"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SyntheticUniverseBenchmark {
+
+    @Param({"1000", "10000"})
+    private int symbols;
+
+    @Param({"252"})
+    private int days;
+
+    private final AlphaVantageService simulator = new AlphaVantageService();
+    private final SyntheticMarketGenerator generator = new SyntheticMarketGenerator(3, 0.4, 42);
+    private LocalDate end;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        end = LocalDate.of(2025, 9, 24);
+    }
+
+    @Benchmark
+    public List<List<StockData>> perRecordSimulator() {
+        List<List<StockData>> universe = new ArrayList<>(symbols);
+        for (int i = 0; i < symbols; i++) {
+            universe.add(simulator.fetchStockHistory("SYN_" + i, end.minusDays(days - 1L), end));
+        }
+        return universe;
+    }
+
+    @Benchmark
+    public SyntheticUniverse bulkFactorModel() {
+        return generator.generate(new SyntheticMarketGenerator.Spec(symbols, days, 3, 0.4, 42L, end));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(SyntheticUniverseBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -3,6 +3,7 @@ package com.quantumfpo.stocks.controller;
 import com.quantumfpo.stocks.service.AlphaVantageService;
 import com.quantumfpo.stocks.service.PythonApiService;
 import com.quantumfpo.stocks.model.StockData;
+import com.quantumfpo.stocks.store.PriceMatrix;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import org.mockito.Mockito;
@@ -132,7 +133,7 @@ class StockControllerIntegrationTest {
         optimizationResult.put("sharpe_ratio", 0.8);
         optimizationResult.put("value_at_risk", 5.0);
 
-        when(pythonApiService.optimizeClassical(anyList(), eq(5.0)))
+        when(pythonApiService.optimizeClassical(any(PriceMatrix.class), eq(5.0), anyMap()))
             .thenReturn(optimizationResult);
 
         String requestJson = "{\"stocks\":[\"SIM_AAPL\",\"SIM_GOOGL\"],\"varPercent\":5.0}";
@@ -178,7 +179,7 @@ class StockControllerIntegrationTest {
         when(pythonApiService.isHealthy()).thenReturn(true);
 
         // Mock Python API optimization failure
-        when(pythonApiService.optimizeClassical(anyList(), eq(5.0)))
+        when(pythonApiService.optimizeClassical(any(PriceMatrix.class), eq(5.0), anyMap()))
             .thenThrow(new RuntimeException("Python API optimization failed"));
 
         String requestJson = "{\"stocks\":[\"SIM_AAPL\"],\"varPercent\":5.0}";
@@ -236,7 +237,7 @@ class StockControllerIntegrationTest {
         hybridResult.put("quantum_weights", quantumWeights);
         hybridResult.put("hybrid_weights", hybridWeights);
 
-        when(pythonApiService.optimizeHybrid(anyList(), eq(0.05), eq(true)))
+        when(pythonApiService.optimizeHybrid(any(PriceMatrix.class), eq(0.05), eq(true), anyMap()))
             .thenReturn(hybridResult);
 
         String requestJson = "{\"stocks\":[\"SIM_AAPL\",\"SIM_GOOGL\"],\"varPercent\":0.05,\"qcSimulator\":true}";
@@ -271,7 +272,7 @@ class StockControllerIntegrationTest {
         hybridResult.put("quantum_weights", Map.of("SIM_AAPL", 1.0));
         hybridResult.put("hybrid_weights", Map.of("SIM_AAPL", 1.0));
 
-        when(pythonApiService.optimizeHybrid(anyList(), eq(0.05), eq(false)))
+        when(pythonApiService.optimizeHybrid(any(PriceMatrix.class), eq(0.05), eq(false), anyMap()))
             .thenReturn(hybridResult);
 
         String requestJson = "{\"stocks\":[\"SIM_AAPL\"],\"varPercent\":0.05,\"qcSimulator\":false}";
@@ -312,7 +313,7 @@ class StockControllerIntegrationTest {
         when(pythonApiService.isHealthy()).thenReturn(true);
 
         // Mock hybrid optimization failure
-        when(pythonApiService.optimizeHybrid(anyList(), eq(0.05), eq(true)))
+        when(pythonApiService.optimizeHybrid(any(PriceMatrix.class), eq(0.05), eq(true), anyMap()))
             .thenThrow(new RuntimeException("Hybrid optimization failed"));
 
         String requestJson = "{\"stocks\":[\"SIM_AAPL\"],\"varPercent\":0.05,\"qcSimulator\":true}";
@@ -432,7 +433,7 @@ class StockControllerIntegrationTest {
         result.put("sharpe_ratio", 0.5);
         result.put("value_at_risk", 5.0);
 
-        when(pythonApiService.optimizeClassical(anyList(), eq(5.0))).thenReturn(result);
+        when(pythonApiService.optimizeClassical(any(PriceMatrix.class), eq(5.0), anyMap())).thenReturn(result);
 
         String stocksJson = "\"" + String.join("\",\"", stocks) + "\"";
         String requestJson = "{\"stocks\":[" + stocksJson + "],\"varPercent\":5.0}";
@@ -462,7 +463,7 @@ class StockControllerIntegrationTest {
         result.put("sharpe_ratio", 0.8);
         result.put("value_at_risk", 5.0);
 
-        when(pythonApiService.optimizeClassical(anyList(), eq(5.0))).thenReturn(result);
+        when(pythonApiService.optimizeClassical(any(PriceMatrix.class), eq(5.0), anyMap())).thenReturn(result);
 
         String requestJson = "{\"stocks\":[\"SIM_AAPL\"],\"varPercent\":5.0}";
 
@@ -3,25 +3,38 @@ package com.quantumfpo.stocks.controller;
 import com.quantumfpo.stocks.service.AlphaVantageService;
 import com.quantumfpo.stocks.service.PythonApiService;
 import com.quantumfpo.stocks.model.StockData;
+import com.quantumfpo.stocks.store.PriceMatrix;
+import com.quantumfpo.stocks.store.PriceStore;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 import org.springframework.http.MediaType;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.ArgumentMatchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -39,6 +52,9 @@ class StockControllerTest {
     @MockBean
     private PythonApiService pythonApiService;
 
+    @Autowired
+    private PriceStore priceStore;
+
     @BeforeEach
     void setUp() {
         mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
@@ -51,8 +67,8 @@ class StockControllerTest {
         Map<String, Object> defaultResult = new HashMap<>();
         defaultResult.put("success", true);
         defaultResult.put("message", "Mock optimization completed successfully");
-        when(pythonApiService.optimizeClassical(anyList(), anyDouble())).thenReturn(defaultResult);
-        when(pythonApiService.optimizeHybrid(anyList(), anyDouble(), anyBoolean())).thenReturn(defaultResult);
+        when(pythonApiService.optimizeClassical(any(PriceMatrix.class), anyDouble(), anyMap())).thenReturn(defaultResult);
+        when(pythonApiService.optimizeHybrid(any(PriceMatrix.class), anyDouble(), anyBoolean(), anyMap())).thenReturn(defaultResult);
     }
 
     @Test
@@ -158,6 +174,215 @@ class StockControllerTest {
                 .andExpect(status().isOk());
     }
     
+    @Test
+    void testOptimizeSendsRepeatedSymbolOnce() throws Exception {
+        priceStore.put("SIM_DUP", Arrays.asList(
+            new StockData("SIM_DUP", LocalDate.of(2025, 9, 23), 150.0),
+            new StockData("SIM_DUP", LocalDate.of(2025, 9, 24), 152.0)
+        ));
+
+        mockMvc.perform(post("/api/stocks/optimize")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"stocks\":[\"SIM_DUP\",\"SIM_DUP\"],\"varPercent\":5}"))
+                .andExpect(status().isOk());
+
+        ArgumentCaptor<PriceMatrix> prices = ArgumentCaptor.forClass(PriceMatrix.class);
+        verify(pythonApiService).optimizeClassical(prices.capture(), anyDouble(), anyMap());
+        assertEquals(List.of("SIM_DUP"), prices.getValue().getSymbols());
+        assertEquals(2, prices.getValue().rows());
+    }
+
+    @Test
+    void testJvmEngineOptimizesWithoutPython() throws Exception {
+        LocalDate day = LocalDate.of(2025, 1, 1);
+        double[][] closes = {{100, 102, 101, 104, 107, 106, 109}, {50, 50.5, 51.5, 51, 52, 53, 53.2}};
+        for (int s = 0; s < closes.length; s++) {
+            List<StockData> data = new ArrayList<>();
+            for (int t = 0; t < closes[s].length; t++) {
+                data.add(new StockData("SIM_JVM" + s, day.plusDays(t), closes[s][t]));
+            }
+            priceStore.put("SIM_JVM" + s, data);
+        }
+        when(pythonApiService.isHealthy()).thenReturn(false);
+
+        mockMvc.perform(post("/api/stocks/optimize")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"stocks\":[\"SIM_JVM0\",\"SIM_JVM1\"],\"varPercent\":5,\"engine\":\"jvm\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.weights.SIM_JVM0").isNumber())
+                .andExpect(jsonPath("$.weights.SIM_JVM1").isNumber())
+                .andExpect(jsonPath("$.sharpe_ratio").isNumber())
+                .andExpect(jsonPath("$.annual_volatility").isNumber())
+                .andExpect(jsonPath("$.expected_annual_return").isNumber())
+                .andExpect(jsonPath("$.value_at_risk").isNumber())
+                .andExpect(jsonPath("$.conditional_value_at_risk").isNumber())
+                .andExpect(jsonPath("$.risk_simulation.confidence").value(0.95))
+                .andExpect(jsonPath("$.risk_simulation.scenarios").isNumber());
+        verify(pythonApiService, never()).optimizeClassical(any(PriceMatrix.class), anyDouble(), anyMap());
+    }
+
+    @Test
+    void testJvmEngineAnnealsHybridWithoutPython() throws Exception {
+        LocalDate day = LocalDate.of(2025, 1, 1);
+        double[][] closes = {{100, 102, 101, 104, 107, 106, 109}, {50, 50.5, 51.5, 51, 52, 53, 53.2}, {20, 19.5, 19.8, 19.1, 18.7, 18.9, 18.2}};
+        for (int s = 0; s < closes.length; s++) {
+            List<StockData> data = new ArrayList<>();
+            for (int t = 0; t < closes[s].length; t++) {
+                data.add(new StockData("SIM_SA" + s, day.plusDays(t), closes[s][t]));
+            }
+            priceStore.put("SIM_SA" + s, data);
+        }
+        when(pythonApiService.isHealthy()).thenReturn(false);
+
+        // No qcSimulator: the JVM engine does not use a quantum backend
+        mockMvc.perform(post("/api/stocks/hybrid-optimize")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"stocks\":[\"SIM_SA0\",\"SIM_SA1\",\"SIM_SA2\"],\"varPercent\":5,\"engine\":\"jvm\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.classical_weights.SIM_SA0").isNumber())
+                .andExpect(jsonPath("$.classical_performance.sharpe_ratio").isNumber())
+                .andExpect(jsonPath("$.quantum_qaoa_result.solution.length()").value(3))
+                .andExpect(jsonPath("$.quantum_qaoa_result.objective_value").isNumber())
+                .andExpect(jsonPath("$.quantum_qaoa_result.counts").isMap())
+                .andExpect(jsonPath("$.value_at_risk").isNumber())
+                .andExpect(jsonPath("$.conditional_value_at_risk").isNumber());
+        verify(pythonApiService, never()).optimizeHybrid(any(PriceMatrix.class), anyDouble(), anyBoolean(), anyMap());
+        mockMvc.perform(post("/api/stocks/hybrid-optimize")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"stocks\":[\"SIM_SA0\"],\"varPercent\":5,\"engine\":\"fortran\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testJvmEngineAnnealsDynamicWithoutPython() throws Exception {
+        LocalDate day = LocalDate.of(2025, 1, 1);
+        for (int s = 0; s < 2; s++) {
+            List<StockData> data = new ArrayList<>();
+            double close = 100;
+            for (int t = 0; t < 120; t++) {
+                close *= 1 + 0.01 * Math.sin(t * (s + 1));
+                data.add(new StockData("SIM_DYN" + s, day.plusDays(t), close));
+            }
+            priceStore.put("SIM_DYN" + s, data);
+        }
+        List<StockData> shortHistory = new ArrayList<>();
+        for (int t = 0; t < 10; t++) {
+            shortHistory.add(new StockData("SIM_DYN_SHORT", day.plusDays(t), 50 + t));
+        }
+        priceStore.put("SIM_DYN_SHORT", shortHistory);
+        when(pythonApiService.isHealthy()).thenReturn(false);
+
+        mockMvc.perform(post("/api/stocks/dynamic-optimize")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"stocks\":[\"SIM_DYN0\",\"SIM_DYN1\"],\"varPercent\":5,\"engine\":\"jvm\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.allocations.time_step_0.SIM_DYN0").isNumber())
+                .andExpect(jsonPath("$.allocations.time_step_0.SIM_DYN1").isNumber())
+                .andExpect(jsonPath("$.objective_value").isNumber())
+                .andExpect(jsonPath("$.measurement_counts").isMap())
+                .andExpect(jsonPath("$.optimization_method").value("simulated_annealing"));
+        verify(pythonApiService, never()).optimizeDynamic(anyList(), anyDouble());
+        mockMvc.perform(post("/api/stocks/dynamic-optimize")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"stocks\":[\"SIM_DYN_SHORT\"],\"varPercent\":5,\"engine\":\"jvm\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/stocks/dynamic-optimize")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"stocks\":[\"SIM_DYN0\"],\"varPercent\":5,\"engine\":\"fortran\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testPythonResultGetsSimulatedVaR() throws Exception {
+        LocalDate day = LocalDate.of(2025, 1, 1);
+        double[] closes = {100, 98, 101, 97, 103, 99, 104, 100};
+        List<StockData> data = new ArrayList<>();
+        for (int t = 0; t < closes.length; t++) {
+            data.add(new StockData("SIM_VAR", day.plusDays(t), closes[t]));
+        }
+        priceStore.put("SIM_VAR", data);
+        Map<String, Object> result = new HashMap<>();
+        result.put("weights", Map.of("SIM_VAR", 1.0));
+        result.put("value_at_risk", 5.0);
+        when(pythonApiService.optimizeClassical(any(PriceMatrix.class), anyDouble(), anyMap())).thenReturn(result);
+
+        mockMvc.perform(post("/api/stocks/optimize")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"stocks\":[\"SIM_VAR\"],\"varPercent\":5}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.weights.SIM_VAR").value(1.0))
+                .andExpect(jsonPath("$.value_at_risk", lessThan(BigDecimal.ONE)))
+                .andExpect(jsonPath("$.value_at_risk", greaterThan(BigDecimal.ZERO)))
+                .andExpect(jsonPath("$.conditional_value_at_risk").isNumber())
+                .andExpect(jsonPath("$.risk_simulation.horizon_days").value(1));
+    }
+
+    @Test
+    void testJvmEngineReportsHistoricalVaR() throws Exception {
+        LocalDate day = LocalDate.of(2025, 1, 1);
+        double[][] closes = {{100, 102, 101, 104, 107, 106, 109}, {50, 50.5, 51.5, 51, 52, 53, 53.2}};
+        for (int s = 0; s < closes.length; s++) {
+            List<StockData> data = new ArrayList<>();
+            for (int t = 0; t < closes[s].length; t++) {
+                data.add(new StockData("SIM_HIST" + s, day.plusDays(t), closes[s][t]));
+            }
+            priceStore.put("SIM_HIST" + s, data);
+        }
+
+        mockMvc.perform(post("/api/stocks/optimize")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"stocks\":[\"SIM_HIST0\",\"SIM_HIST1\"],\"varPercent\":5,\"engine\":\"jvm\",\"varMethod\":\"historical\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.value_at_risk").isNumber())
+                .andExpect(jsonPath("$.conditional_value_at_risk").isNumber())
+                .andExpect(jsonPath("$.risk_simulation.method").value("historical"))
+                .andExpect(jsonPath("$.risk_simulation.scenarios").value(6));
+    }
+
+    @Test
+    void testUnknownVarMethodRejected() throws Exception {
+        mockMvc.perform(post("/api/stocks/optimize")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"stocks\":[\"SIM_AAPL\"],\"varPercent\":5,\"varMethod\":\"parametric\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists());
+        mockMvc.perform(post("/api/stocks/hybrid-optimize")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"stocks\":[\"SIM_AAPL\"],\"varPercent\":5,\"qcSimulator\":true,\"varMethod\":\"parametric\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testUnknownEngineRejected() throws Exception {
+        mockMvc.perform(post("/api/stocks/optimize")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"stocks\":[\"SIM_AAPL\"],\"varPercent\":5,\"engine\":\"fortran\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testOptimizeShipsReturnStats() throws Exception {
+        priceStore.put("SIM_RET", Arrays.asList(
+            new StockData("SIM_RET", LocalDate.of(2025, 9, 22), 100.0),
+            new StockData("SIM_RET", LocalDate.of(2025, 9, 23), 110.0),
+            new StockData("SIM_RET", LocalDate.of(2025, 9, 24), 99.0)
+        ));
+
+        mockMvc.perform(post("/api/stocks/optimize")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"stocks\":[\"SIM_RET\"],\"varPercent\":5}"))
+                .andExpect(status().isOk());
+
+        ArgumentCaptor<Map<String, Map<String, Object>>> stats = ArgumentCaptor.forClass(Map.class);
+        verify(pythonApiService).optimizeClassical(any(PriceMatrix.class), anyDouble(), stats.capture());
+        Map<String, Object> sent = stats.getValue().get("SIM_RET");
+        assertEquals(2, sent.get("count"));
+        assertEquals(0.0, (double) sent.get("mean_simple_return"), 1e-12);
+        assertEquals(Math.pow(0.99, 126) - 1, (double) sent.get("mean_historical_return"), 1e-12);
+    }
+
     @Test
     void testFetchStockDataEndpointWithErrorScenario() throws Exception {
         // Test error handling in fetchStockData (load endpoint)
@@ -169,4 +394,95 @@ class StockControllerTest {
                 .content("{\"stocks\":[\"INVALID_STOCK\"],\"period\":30,\"stockAmount\":1}"))
                 .andExpect(status().isInternalServerError());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testLoadStocksEndpointReportsPartialFailure() throws Exception {
+        List<StockData> mockData = Arrays.asList(
+            new StockData("SIM_AAPL", LocalDate.of(2025, 9, 23), 150.0),
+            new StockData("SIM_AAPL", LocalDate.of(2025, 9, 24), 152.0)
+        );
+        when(alphaVantageService.fetchStockHistory("SIM_AAPL", 30)).thenReturn(mockData);
+        when(alphaVantageService.fetchStockHistory("SIM_ERROR", 30))
+            .thenThrow(new RuntimeException("Service error"));
+
+        mockMvc.perform(post("/api/stocks/load")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"stocks\":[\"SIM_AAPL\",\"SIM_ERROR\"],\"period\":30}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Failed-Symbols", "SIM_ERROR"))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].symbol").value("SIM_AAPL"));
+    }
+
+    @Test
+    void testStreamStocksEndpointWritesNdjson() throws Exception {
+        List<StockData> mockData = Arrays.asList(
+            new StockData("SIM_AAPL", LocalDate.of(2025, 9, 23), 150.0),
+            new StockData("SIM_AAPL", LocalDate.of(2025, 9, 24), 152.0)
+        );
+        when(alphaVantageService.fetchStockHistory("SIM_AAPL", 30)).thenReturn(mockData);
+        when(alphaVantageService.fetchStockHistory("SIM_ERROR", 30))
+            .thenThrow(new RuntimeException("Service error"));
+
+        MvcResult started = mockMvc.perform(post("/api/stocks/load/stream")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"stocks\":[\"SIM_AAPL\",\"SIM_ERROR\"],\"period\":30}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = body.lines().toList();
+        assertEquals(3, lines.size());
+        assertTrue(lines.contains("{\"symbol\":\"SIM_AAPL\",\"date\":\"2025-09-23\",\"close\":150.0}"));
+        assertTrue(lines.contains("{\"symbol\":\"SIM_AAPL\",\"date\":\"2025-09-24\",\"close\":152.0}"));
+        assertTrue(lines.contains("{\"symbol\":\"SIM_ERROR\",\"error\":\"Service error\"}"));
+        assertTrue(body.endsWith("\n"));
+    }
+
+    @Test
+    void testStreamStocksEndpointRejectsInvalidPeriod() throws Exception {
+        mockMvc.perform(post("/api/stocks/load/stream")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"stocks\":[\"SIM_AAPL\"],\"period\":0}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testSimulateEndpointStoresUniverse() throws Exception {
+        mockMvc.perform(post("/api/stocks/simulate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"stockAmount\":25,\"period\":60}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.symbols.length()").value(25))
+                .andExpect(jsonPath("$.symbols[0]").value("SYN_0"))
+                .andExpect(jsonPath("$.days").value(60));
+
+        assertEquals(60, priceStore.view("SYN_24").size());
+    }
+
+    @Test
+    void testSimulateEndpointRejectsInvalidSize() throws Exception {
+        mockMvc.perform(post("/api/stocks/simulate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"stockAmount\":0,\"period\":60}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists());
+    }
+
+    @Test
+    void testSimulateEndpointRejectsOversizedUniverse() throws Exception {
+        mockMvc.perform(post("/api/stocks/simulate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"stockAmount\":10,\"period\":2521}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists());
+
+        mockMvc.perform(post("/api/stocks/simulate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"stockAmount\":10001,\"period\":10}"))
+                .andExpect(status().isBadRequest());
+    }
+}
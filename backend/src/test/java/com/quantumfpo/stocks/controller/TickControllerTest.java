@@ -0,0 +1,111 @@
+package com.quantumfpo.stocks.controller;
+
+import com.quantumfpo.stocks.model.StockData;
+import com.quantumfpo.stocks.service.AlphaVantageService;
+import com.quantumfpo.stocks.service.PythonApiService;
+import com.quantumfpo.stocks.store.PriceStore;
+import com.quantumfpo.stocks.store.PriceView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+class TickControllerTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    private MockMvc mockMvc;
+
+    @MockBean
+    private AlphaVantageService alphaVantageService;
+
+    @MockBean
+    private PythonApiService pythonApiService;
+
+    @Autowired
+    private PriceStore priceStore;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        // Ticks are only taken for symbols with stored history
+        for (String symbol : List.of("TICK_A", "TICK_B")) {
+            priceStore.put(symbol, List.of(new StockData(symbol, LocalDate.of(2025, 9, 22), 100.0)));
+        }
+    }
+
+    @Test
+    void testTicksReachPriceStore() throws Exception {
+        mockMvc.perform(post("/api/ticks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"symbol\":\"TICK_A\",\"price\":101.5,\"timestamp\":\"2025-09-23T14:30:00Z\",\"size\":100},"
+                    + "{\"symbol\":\"TICK_A\",\"price\":102.25,\"timestamp\":1758641400000}]"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.accepted").value(2))
+                .andExpect(jsonPath("$.rejected").value(0));
+
+        // The consumer writes open bars once per flush interval
+        PriceView view = PriceView.empty("TICK_A");
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            view = priceStore.view("TICK_A");
+            if (view.size() == 2 && view.close(1) == 102.25) {
+                break;
+            }
+            Thread.sleep(20);
+        }
+        assertEquals(2, view.size());
+        assertEquals(LocalDate.of(2025, 9, 23), view.date(1));
+        assertEquals(102.25, view.close(1), 1e-12);
+    }
+
+    @Test
+    void testTickWithoutPriceRejected() throws Exception {
+        mockMvc.perform(post("/api/ticks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"symbol\":\"TICK_B\",\"price\":10.0},{\"symbol\":\"TICK_B\"}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists())
+                .andExpect(jsonPath("$.accepted").value(1));
+    }
+
+    @Test
+    void testTickForUnknownSymbolRejected() throws Exception {
+        mockMvc.perform(post("/api/ticks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"symbol\":\"TICK_B\",\"price\":10.0},{\"symbol\":\"TICK_UNSEEN\",\"price\":10.0}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists())
+                .andExpect(jsonPath("$.accepted").value(1));
+
+        assertEquals(-1, priceStore.find("TICK_UNSEEN"));
+    }
+
+    @Test
+    void testNonArrayBodyRejected() throws Exception {
+        mockMvc.perform(post("/api/ticks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"symbol\":\"TICK_C\",\"price\":10.0}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/api/ticks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"symbol\":\"TICK_C\",\"price\":10.0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists());
+    }
+}
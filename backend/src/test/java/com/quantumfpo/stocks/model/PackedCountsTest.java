@@ -0,0 +1,63 @@
+package com.quantumfpo.stocks.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedCountsTest {
+
+    @Test
+    void testPacksCharacterKAsVariableK() {
+        Map<String, Integer> bitstrings = new LinkedHashMap<>();
+        bitstrings.put("1100", 7);
+        bitstrings.put("0001", 3);
+
+        PackedCounts counts = PackedCounts.fromBitstrings(bitstrings);
+
+        assertEquals(2, counts.size());
+        assertEquals(4, counts.variables());
+        assertEquals(1, counts.words());
+        assertEquals(10, counts.shots());
+        assertEquals(0b0011L, counts.states()[0]);
+        assertEquals(0b1000L, counts.states()[1]);
+        assertTrue(counts.bit(0, 1));
+        assertFalse(counts.bit(0, 2));
+        assertEquals("0001", counts.bitString(1));
+        assertEquals(3, counts.count(1));
+    }
+
+    @Test
+    void testStatesSpanWords() {
+        String bits = "1" + "0".repeat(68) + "1";
+        Map<String, Long> bitstrings = new LinkedHashMap<>();
+        for (int k = 0; k < 40; k++) {
+            bitstrings.put(Integer.toBinaryString(k | 64).substring(1) + bits.substring(6), (long) k + 1);
+        }
+
+        PackedCounts counts = PackedCounts.fromBitstrings(bitstrings);
+
+        assertEquals(40, counts.size());
+        assertEquals(2, counts.words());
+        assertEquals(40 * 41 / 2, counts.shots());
+        for (int e = 0; e < counts.size(); e++) {
+            assertTrue(counts.bit(e, 69));
+            assertFalse(counts.bit(e, 68));
+        }
+        assertEquals(Integer.toBinaryString(39 | 64).substring(1) + bits.substring(6), counts.bitString(39));
+    }
+
+    @Test
+    void testRejectsMalformedStates() {
+        PackedCounts counts = new PackedCounts(3);
+
+        assertThrows(IllegalArgumentException.class, () -> counts.add(new long[]{0b1000}, 1));
+        assertThrows(IllegalArgumentException.class, () -> counts.add(new long[]{0b1, 0}, 1));
+        assertThrows(IllegalArgumentException.class, () -> counts.add(new long[]{0b1}, 0));
+        assertThrows(IllegalArgumentException.class, () -> PackedCounts.fromBitstrings(Map.of("012", 1)));
+        assertThrows(IllegalArgumentException.class, () -> PackedCounts.fromBitstrings(Map.of()));
+        assertDoesNotThrow(() -> new PackedCounts(64).add(new long[]{-1L}, 1));
+    }
+}
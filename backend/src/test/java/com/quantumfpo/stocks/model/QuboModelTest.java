@@ -0,0 +1,84 @@
+package com.quantumfpo.stocks.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuboModelTest {
+
+    @Test
+    void testBuilderMergesPairsInEitherOrder() {
+        QuboModel model = QuboModel.builder(4)
+            .addLinear(0, 1.5)
+            .addQuadratic(2, 0, 0.25)
+            .addQuadratic(0, 2, 0.5)
+            .addQuadratic(1, 3, -1)
+            .addQuadratic(3, 1, 1)
+            .addQuadratic(2, 2, 2)
+            .addQuadratic(0, 1, 3)
+            .build();
+
+        assertEquals(4, model.size());
+        // (1, 3) cancelled out, the diagonal went to linear
+        assertEquals(2, model.nonZeros());
+        assertEquals(0, model.offset(), 0.0);
+        assertEquals(1.5, model.linear(0), 0.0);
+        assertEquals(2, model.linear(2), 0.0);
+        assertEquals(0.75, model.coupling(0, 2), 0.0);
+        assertEquals(0.75, model.coupling(2, 0), 0.0);
+        assertEquals(3, model.coupling(1, 0), 0.0);
+        assertEquals(0, model.coupling(1, 3), 0.0);
+        assertArrayEquals(new int[]{1, 2}, model.columns());
+        assertEquals(0, model.rowStart(0));
+        assertEquals(2, model.rowStart(1));
+        assertEquals(2, model.rowStart(4));
+    }
+
+    @Test
+    void testEnergyMatchesDenseSum() {
+        int n = 40;
+        SplittableRandom random = new SplittableRandom(9);
+        double[][] dense = new double[n][n];
+        QuboModel.Builder builder = QuboModel.builder(n).addOffset(-2.5);
+        for (int i = 0; i < n; i++) {
+            dense[i][i] = random.nextGaussian();
+            builder.addLinear(i, dense[i][i]);
+        }
+        for (int k = 0; k < 300; k++) {
+            int i = random.nextInt(n);
+            int j = random.nextInt(n);
+            double v = random.nextGaussian();
+            builder.addQuadratic(i, j, v);
+            dense[Math.min(i, j)][Math.max(i, j)] += v;
+        }
+        QuboModel model = builder.build();
+
+        for (int trial = 0; trial < 20; trial++) {
+            boolean[] x = new boolean[n];
+            double expected = -2.5;
+            for (int i = 0; i < n; i++) {
+                x[i] = random.nextBoolean();
+            }
+            for (int i = 0; i < n; i++) {
+                for (int j = i; j < n; j++) {
+                    if (x[i] && x[j]) {
+                        expected += dense[i][j];
+                    }
+                }
+            }
+            assertEquals(expected, model.energy(x), 1e-9);
+        }
+    }
+
+    @Test
+    void testRejectsOutOfRangeVariables() {
+        QuboModel.Builder builder = QuboModel.builder(3);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> builder.addLinear(3, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> builder.addQuadratic(0, -1, 1));
+        assertThrows(IllegalArgumentException.class, () -> QuboModel.builder(0));
+        assertThrows(IllegalArgumentException.class, () -> builder.build().energy(new boolean[2]));
+    }
+}
@@ -0,0 +1,83 @@
+package com.quantumfpo.stocks.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BarAggregatorTest {
+
+    private static final long DAY = 86_400_000L;
+    private static final long MONDAY = 20_000 * DAY;
+
+    private record Bar(int id, int day, double open, double high, double low, double close, long volume,
+                       boolean complete) { }
+
+    private final List<Bar> bars = new ArrayList<>();
+    private final BarAggregator aggregator = new BarAggregator(
+        (id, day, open, high, low, close, volume, complete) ->
+            bars.add(new Bar(id, day, open, high, low, close, volume, complete)));
+
+    @Test
+    void testTicksFoldIntoOneBarPerDay() {
+        aggregator.onTick(0, MONDAY + 1_000, 10.0, 100);
+        aggregator.onTick(0, MONDAY + 2_000, 12.0, 50);
+        aggregator.onTick(0, MONDAY + 3_000, 9.0, 25);
+        aggregator.onTick(0, MONDAY + 4_000, 11.0, 25);
+        assertTrue(bars.isEmpty());
+
+        aggregator.flush();
+
+        assertEquals(List.of(new Bar(0, 20_000, 10.0, 12.0, 9.0, 11.0, 200, false)), bars);
+    }
+
+    @Test
+    void testNextDayCompletesBar() {
+        aggregator.onTick(3, MONDAY + 1_000, 10.0, 1);
+        aggregator.onTick(3, MONDAY + DAY + 1_000, 20.0, 1);
+
+        assertEquals(1, bars.size());
+        assertEquals(new Bar(3, 20_000, 10.0, 10.0, 10.0, 10.0, 1, true), bars.get(0));
+        assertEquals(1, aggregator.completedBars());
+
+        aggregator.flush();
+        assertEquals(new Bar(3, 20_001, 20.0, 20.0, 20.0, 20.0, 1, false), bars.get(1));
+    }
+
+    @Test
+    void testOutOfOrderTickKeepsLatestClose() {
+        aggregator.onTick(0, MONDAY + 5_000, 10.0, 1);
+        aggregator.onTick(0, MONDAY + 1_000, 8.0, 1);
+        aggregator.flush();
+
+        Bar bar = bars.get(0);
+        assertEquals(10.0, bar.close(), 1e-12);
+        assertEquals(8.0, bar.low(), 1e-12);
+    }
+
+    @Test
+    void testTickForCompletedDayCountedLate() {
+        aggregator.onTick(0, MONDAY + DAY, 10.0, 1);
+        aggregator.onTick(0, MONDAY, 9.0, 1);
+
+        assertEquals(1, aggregator.lateTicks());
+        aggregator.flush();
+        assertEquals(10.0, bars.get(0).low(), 1e-12);
+    }
+
+    @Test
+    void testFlushOnlyEmitsChangedBars() {
+        aggregator.onTick(0, MONDAY, 10.0, 1);
+        aggregator.onTick(500, MONDAY, 20.0, 1);
+        aggregator.flush();
+        aggregator.onTick(500, MONDAY + 1, 21.0, 1);
+        aggregator.flush();
+        aggregator.flush();
+
+        assertEquals(3, bars.size());
+        assertEquals(500, bars.get(2).id());
+        assertEquals(21.0, bars.get(2).close(), 1e-12);
+    }
+}
@@ -0,0 +1,120 @@
+package com.quantumfpo.stocks.service;
+
+import com.quantumfpo.stocks.store.PriceMatrix;
+import com.quantumfpo.stocks.store.PriceMatrix.GapPolicy;
+import com.quantumfpo.stocks.store.PriceSeries;
+import com.quantumfpo.stocks.store.PriceView;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CovarianceKernelTest {
+
+    private static double[] gaussianBlock(int n, int t, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] x = new double[n * t];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = random.nextGaussian();
+        }
+        return x;
+    }
+
+    private static PriceMatrix matrix(double[][] closes) {
+        List<PriceView> views = new ArrayList<>();
+        for (int j = 0; j < closes.length; j++) {
+            PriceSeries series = new PriceSeries("KERNEL_" + j, closes[j].length);
+            for (int t = 0; t < closes[j].length; t++) {
+                series.append(18_000 + t, closes[j][t]);
+            }
+            views.add(series.view());
+        }
+        return PriceMatrix.align(views, GapPolicy.FORWARD_FILL);
+    }
+
+    @Test
+    void testTiledCrossProductsMatchNaiveLoop() {
+        int n = CovarianceKernel.TILE_COLUMNS * 2 + 5;
+        int t = CovarianceKernel.TILE_ROWS + 44;
+        double[] x = gaussianBlock(n, t, 17);
+
+        double[] tiled = CovarianceKernel.crossProducts(x, n, t);
+
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                double naive = 0;
+                for (int k = 0; k < t; k++) {
+                    naive += x[i * t + k] * x[j * t + k];
+                }
+                assertEquals(naive, tiled[i * n + j], 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void testParallelTilesMatchSequentialExactly() {
+        int n = CovarianceKernel.TILE_COLUMNS * 7 + 13;
+        int t = CovarianceKernel.TILE_ROWS * 2 + 9;
+        double[] x = gaussianBlock(n, t, 23);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            // Every entry is summed by one task in the same order, whatever the thread count
+            assertArrayEquals(CovarianceKernel.crossProducts(x, n, t), CovarianceKernel.crossProducts(x, n, t, pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testCovarianceAndCorrelationOfReturns() {
+        double[][] closes = {
+            {100.0, 101.0, 99.0, 102.0, 103.0},
+            {50.0, 50.5, 49.4, 51.1, 51.6},
+            {20.0, 20.0, 20.0, 20.0, 20.0},
+        };
+        PriceMatrix prices = matrix(closes);
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+
+        double[] covariance = CovarianceKernel.covariance(prices, pool);
+        double[] correlation = CovarianceKernel.correlation(prices, pool);
+
+        double[][] returns = new double[2][4];
+        for (int j = 0; j < 2; j++) {
+            for (int k = 0; k < 4; k++) {
+                returns[j][k] = closes[j][k + 1] / closes[j][k] - 1;
+            }
+        }
+        double[] mean = {0, 0};
+        for (int j = 0; j < 2; j++) {
+            for (double r : returns[j]) {
+                mean[j] += r / 4;
+            }
+        }
+        double[][] expected = new double[2][2];
+        for (int i = 0; i < 2; i++) {
+            for (int j = 0; j < 2; j++) {
+                for (int k = 0; k < 4; k++) {
+                    expected[i][j] += (returns[i][k] - mean[i]) * (returns[j][k] - mean[j]) / 3;
+                }
+                assertEquals(expected[i][j], covariance[i * 3 + j], 1e-15);
+            }
+        }
+        assertEquals(1.0, correlation[0]);
+        assertEquals(1.0, correlation[4]);
+        assertEquals(expected[0][1] / Math.sqrt(expected[0][0] * expected[1][1]), correlation[1], 1e-12);
+        assertEquals(correlation[1], correlation[3]);
+        // A flat price has no variance, so its correlations are undefined
+        assertEquals(0.0, covariance[8]);
+        assertTrue(Double.isNaN(correlation[2]) && Double.isNaN(correlation[8]));
+    }
+
+    @Test
+    void testTooFewClosesRejected() {
+        PriceMatrix prices = matrix(new double[][]{{1.0, 2.0}});
+        assertThrows(IllegalArgumentException.class, () -> CovarianceKernel.covariance(prices, ForkJoinPool.commonPool()));
+    }
+}
@@ -0,0 +1,212 @@
+package com.quantumfpo.stocks.service;
+
+import com.quantumfpo.stocks.model.QuboModel;
+import com.quantumfpo.stocks.model.RiskModel;
+import com.quantumfpo.stocks.store.PriceMatrix;
+import com.quantumfpo.stocks.store.PriceMatrix.GapPolicy;
+import com.quantumfpo.stocks.store.PriceSeries;
+import com.quantumfpo.stocks.store.PriceStore;
+import com.quantumfpo.stocks.store.PriceView;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DynamicQuboBuilderTest {
+
+    private static final DynamicQuboBuilder.Config CONFIG = new DynamicQuboBuilder.Config(3, 30, 2, 1000.0, 0.01, 1.0);
+
+    private static List<RiskModel> randomPeriods(int assets, int periods, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<RiskModel> models = new ArrayList<>();
+        for (int p = 0; p < periods; p++) {
+            String[] symbols = new String[assets];
+            double[] mu = new double[assets];
+            double[] loadings = new double[assets];
+            for (int i = 0; i < assets; i++) {
+                symbols[i] = "SIM_" + i;
+                mu[i] = random.nextGaussian() * 0.2;
+                loadings[i] = random.nextGaussian() * 0.2;
+            }
+            double[] cov = new double[assets * assets];
+            for (int i = 0; i < assets; i++) {
+                for (int j = 0; j < assets; j++) {
+                    cov[i * assets + j] = loadings[i] * loadings[j] + (i == j ? 0.02 : 0);
+                }
+            }
+            models.add(new RiskModel(symbols, mu, cov, 0, 59));
+        }
+        return models;
+    }
+
+    /*
+     * build_dynamic_qubo line by line: a dense matrix filled over ordered pairs, of which
+     * build_hamiltonian_from_qubo then reads only the strict upper triangle
+     */
+    private static double[][] pythonQubo(List<RiskModel> periods, DynamicQuboBuilder.Config config, double[] previous) {
+        int na = periods.get(0).size();
+        int np = periods.size();
+        int nq = config.bitResolution();
+        int total = na * np * nq;
+        double[] linear = new double[total];
+        double[][] quadratic = new double[total][total];
+        double max = (1 << nq) - 1;
+        for (int p = 0; p < np; p++) {
+            for (int a = 0; a < na; a++) {
+                for (int b = 0; b < nq; b++) {
+                    linear[a * np * nq + p * nq + b] -= periods.get(p).expectedReturn(a) * (1 << b) / max;
+                }
+            }
+        }
+        for (int p = 0; p < np; p++) {
+            for (int i = 0; i < na; i++) {
+                for (int j = 0; j < na; j++) {
+                    for (int bi = 0; bi < nq; bi++) {
+                        for (int bj = 0; bj < nq; bj++) {
+                            int qi = i * np * nq + p * nq + bi;
+                            int qj = j * np * nq + p * nq + bj;
+                            double coeff = config.riskAversion() * periods.get(p).covariance(i, j) * ((1 << bi) / max) * ((1 << bj) / max);
+                            if (i == j && bi == bj) {
+                                linear[qi] += coeff;
+                            } else {
+                                quadratic[qi][qj] += coeff / 2;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        if (previous != null && np > 1) {
+            for (int p = 1; p < np; p++) {
+                for (int a = 0; a < previous.length; a++) {
+                    for (int b = 0; b < nq; b++) {
+                        linear[a * np * nq + p * nq + b] += config.transactionFee() * previous[a];
+                    }
+                }
+            }
+        }
+        for (int p = 0; p < np; p++) {
+            for (int i = 0; i < na; i++) {
+                for (int j = 0; j < na; j++) {
+                    for (int bi = 0; bi < nq; bi++) {
+                        for (int bj = 0; bj < nq; bj++) {
+                            int qi = i * np * nq + p * nq + bi;
+                            int qj = j * np * nq + p * nq + bj;
+                            double wi = (1 << bi) / max;
+                            double wj = (1 << bj) / max;
+                            if (i == j && bi == bj) {
+                                linear[qi] += config.restrictionCoefficient() * wi * (wi - 2);
+                            } else {
+                                quadratic[qi][qj] += config.restrictionCoefficient() * wi * wj / 2;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < total; i++) {
+            quadratic[i][i] = linear[i];
+        }
+        return quadratic;
+    }
+
+    @Test
+    void testMatchesPythonCoefficients() {
+        List<RiskModel> periods = randomPeriods(4, 3, 1);
+        double[] previous = {0.1, 0.4, 0.2, 0.3};
+
+        QuboModel model = DynamicQuboBuilder.assemble(periods, CONFIG, previous);
+        double[][] python = pythonQubo(periods, CONFIG, previous);
+
+        assertEquals(24, model.size());
+        int nonZero = 0;
+        for (int i = 0; i < model.size(); i++) {
+            assertEquals(python[i][i], model.linear(i), 1e-9, "linear " + i);
+            for (int j = i + 1; j < model.size(); j++) {
+                assertEquals(python[i][j], model.coupling(i, j), 1e-9, "coupling " + i + ", " + j);
+                if (python[i][j] != 0) {
+                    nonZero++;
+                }
+            }
+        }
+        // Only pairs within a period: 3 periods x C(8, 2)
+        assertEquals(3 * 28, model.nonZeros());
+        assertEquals(nonZero, model.nonZeros());
+    }
+
+    @Test
+    void testQubitLayoutIsAssetMajor() {
+        assertEquals(0, DynamicQuboBuilder.qubitIndex(0, 0, 0, 3, CONFIG));
+        assertEquals(1, DynamicQuboBuilder.qubitIndex(0, 0, 1, 3, CONFIG));
+        assertEquals(2, DynamicQuboBuilder.qubitIndex(0, 1, 0, 3, CONFIG));
+        assertEquals(6, DynamicQuboBuilder.qubitIndex(1, 0, 0, 3, CONFIG));
+        assertEquals(17, DynamicQuboBuilder.qubitIndex(2, 2, 1, 3, CONFIG));
+        assertEquals(18, DynamicQuboBuilder.totalQubits(3, 3, CONFIG));
+        assertEquals(1.0 / 3, CONFIG.bitWeight(0), 1e-15);
+        assertEquals(2.0 / 3, CONFIG.bitWeight(1), 1e-15);
+    }
+
+    @Test
+    void testPeriodsOverlapAndStopAtShortWindow() {
+        PriceSeries series = new PriceSeries("SIM_P", 100);
+        for (int t = 0; t < 100; t++) {
+            series.append(18_000 + t, 100 + t);
+        }
+        PriceMatrix prices = PriceMatrix.align(List.<PriceView>of(series.view()), GapPolicy.FORWARD_FILL);
+
+        List<PriceMatrix> periods = DynamicQuboBuilder.periods(prices, new DynamicQuboBuilder.Config(4, 30, 2, 1000, 0.01, 1));
+
+        assertEquals(3, periods.size());
+        assertEquals(60, periods.get(0).rows());
+        assertEquals(18_030, periods.get(1).epochDay(0));
+        assertEquals(40, periods.get(2).rows());
+        assertEquals(199, periods.get(2).get(39, 0), 0.0);
+    }
+
+    @Test
+    void testDecodesAllocationsPerPeriod() {
+        int periods = 2;
+        boolean[] state = new boolean[DynamicQuboBuilder.totalQubits(2, periods, CONFIG)];
+        state[DynamicQuboBuilder.qubitIndex(0, 0, 0, periods, CONFIG)] = true;
+        state[DynamicQuboBuilder.qubitIndex(1, 0, 1, periods, CONFIG)] = true;
+        state[DynamicQuboBuilder.qubitIndex(1, 1, 0, periods, CONFIG)] = true;
+        state[DynamicQuboBuilder.qubitIndex(1, 1, 1, periods, CONFIG)] = true;
+
+        double[][] allocations = DynamicQuboBuilder.decode(state, 2, periods, CONFIG);
+
+        assertEquals(1.0 / 3, allocations[0][0], 1e-12);
+        assertEquals(2.0 / 3, allocations[0][1], 1e-12);
+        assertEquals(0.0, allocations[1][0], 0.0);
+        assertEquals(1.0, allocations[1][1], 1e-12);
+        assertThrows(IllegalArgumentException.class, () -> DynamicQuboBuilder.decode(state, 3, periods, CONFIG));
+    }
+
+    @Test
+    void testBuildsFromStoredHistory() {
+        PriceStore store = new PriceStore();
+        SplittableRandom random = new SplittableRandom(2);
+        List<String> symbols = List.of("SIM_Q0", "SIM_Q1", "SIM_Q2");
+        for (String symbol : symbols) {
+            PriceSeries series = new PriceSeries(symbol, 150);
+            double close = 50;
+            for (int t = 0; t < 150; t++) {
+                close *= 1 + 0.01 * random.nextGaussian();
+                series.append(18_000 + t, close);
+            }
+            store.put(symbol, series);
+        }
+        DynamicQuboBuilder builder = new DynamicQuboBuilder(new PriceMatrixService(store, 8, Long.MAX_VALUE));
+
+        QuboModel model = builder.build(symbols, DynamicQuboBuilder.Config.DEFAULT, null);
+
+        // 150 rows give windows at 0, 30, 60 and 90, all at least 30 rows long
+        assertEquals(3 * 4 * 2, model.size());
+        assertEquals(4 * 15, model.nonZeros());
+        assertThrows(IllegalArgumentException.class,
+            () -> builder.build(symbols, new DynamicQuboBuilder.Config(4, 200, 2, 1000, 0.01, 1), null));
+        assertThrows(IllegalArgumentException.class, () -> new DynamicQuboBuilder.Config(4, 30, 0, 1000, 0.01, 1));
+    }
+}
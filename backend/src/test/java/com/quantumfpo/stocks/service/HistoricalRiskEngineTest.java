@@ -0,0 +1,138 @@
+package com.quantumfpo.stocks.service;
+
+import com.quantumfpo.stocks.model.RiskEstimate;
+import com.quantumfpo.stocks.model.VarMethod;
+import com.quantumfpo.stocks.store.PriceMatrix;
+import com.quantumfpo.stocks.store.PriceMatrix.GapPolicy;
+import com.quantumfpo.stocks.store.PriceSeries;
+import com.quantumfpo.stocks.store.PriceStore;
+import com.quantumfpo.stocks.store.PriceView;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistoricalRiskEngineTest {
+
+    private static final String[] SYMBOLS = {"SIM_A", "SIM_B", "SIM_C"};
+
+    // Random walks with a shared market factor, long enough to span several window chunks
+    private static List<PriceSeries> walks(int days, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<PriceSeries> series = new ArrayList<>();
+        double[] closes = {100, 50, 20};
+        for (String symbol : SYMBOLS) {
+            series.add(new PriceSeries(symbol, days));
+        }
+        for (int t = 0; t < days; t++) {
+            double market = 0.008 * random.nextGaussian();
+            for (int j = 0; j < SYMBOLS.length; j++) {
+                closes[j] *= 1 + 0.0003 + market + 0.01 * (j + 1) * random.nextGaussian();
+                series.get(j).append(18_000 + t, closes[j]);
+            }
+        }
+        return series;
+    }
+
+    private static PriceMatrix matrix(List<PriceSeries> series) {
+        List<PriceView> views = new ArrayList<>();
+        for (PriceSeries s : series) {
+            views.add(s.view());
+        }
+        return PriceMatrix.align(views, GapPolicy.FORWARD_FILL);
+    }
+
+    // The sort-everything answer the sketch stands in for
+    private static double[] exact(PriceMatrix prices, double[] weights, int horizon, double alpha) {
+        int windows = prices.rows() - horizon;
+        double[] outcomes = new double[windows];
+        for (int t = 0; t < windows; t++) {
+            for (int j = 0; j < weights.length; j++) {
+                outcomes[t] += weights[j] * (prices.get(t + horizon, j) / prices.get(t, j) - 1);
+            }
+        }
+        Arrays.sort(outcomes);
+        int tail = (int) Math.ceil(alpha * windows);
+        double sum = 0;
+        for (int k = 0; k < tail; k++) {
+            sum += outcomes[k];
+        }
+        return new double[]{-outcomes[tail - 1], -sum / tail};
+    }
+
+    @Test
+    void testMatchesSortedHistoryAcrossMergedChunks() {
+        PriceMatrix prices = matrix(walks(20_000, 3));
+        double[] weights = {0.5, 0.3, 0.2};
+        HistoricalRiskEngine engine = new HistoricalRiskEngine(null, 1, 200);
+
+        RiskEstimate estimate = engine.estimate(prices, weights, 5);
+        double[] expected = exact(prices, weights, 1, 0.05);
+
+        assertEquals(VarMethod.HISTORICAL, estimate.getMethod());
+        assertEquals(19_999, estimate.getScenarios());
+        assertEquals(0.95, estimate.getConfidence(), 1e-12);
+        assertEquals(expected[0], estimate.getValueAtRisk(), 0.01 * expected[0]);
+        assertEquals(expected[1], estimate.getConditionalValueAtRisk(), 0.01 * expected[1]);
+    }
+
+    @Test
+    void testMultiDayHorizonUsesOverlappingWindows() {
+        PriceMatrix prices = matrix(walks(3_000, 4));
+        double[] weights = {0.2, 0, 0.8};
+        HistoricalRiskEngine engine = new HistoricalRiskEngine(null, 10, 200);
+
+        RiskEstimate estimate = engine.estimate(prices, weights, 1);
+        double[] expected = exact(prices, weights, 10, 0.01);
+
+        assertEquals(2_990, estimate.getScenarios());
+        assertEquals(10, estimate.getHorizonDays());
+        // The 30th lowest of 2990 sits in centroids of a few windows each, so the sketch's VaR is looser here
+        assertEquals(expected[0], estimate.getValueAtRisk(), 0.025 * expected[0]);
+        assertEquals(expected[1], estimate.getConditionalValueAtRisk(), 0.01 * expected[1]);
+    }
+
+    @Test
+    void testEstimatesStoredSymbolsByWeight() {
+        PriceStore store = new PriceStore();
+        List<PriceSeries> series = walks(500, 5);
+        for (int j = 0; j < SYMBOLS.length; j++) {
+            store.put(SYMBOLS[j], series.get(j));
+        }
+        HistoricalRiskEngine engine = new HistoricalRiskEngine(
+            new PriceMatrixService(store, 8, Long.MAX_VALUE), 1, 200);
+        Map<String, Number> weights = new LinkedHashMap<>();
+        weights.put("SIM_C", 0.4);
+        weights.put("SIM_A", 0.6);
+        weights.put("SIM_B", 0);
+
+        RiskEstimate estimate = engine.estimate(weights, 5);
+        PriceMatrix held = matrix(List.of(series.get(2), series.get(0)));
+        double[] expected = exact(held, new double[]{0.4, 0.6}, 1, 0.05);
+
+        assertEquals(expected[0], estimate.getValueAtRisk(), 0.01 * expected[0]);
+        assertEquals(expected[1], estimate.getConditionalValueAtRisk(), 0.01 * expected[1]);
+        Map<String, Object> result = new LinkedHashMap<>();
+        estimate.putInto(result);
+        assertEquals("historical", ((Map<?, ?>) result.get("risk_simulation")).get("method"));
+    }
+
+    @Test
+    void testRejectsInvalidInput() {
+        PriceMatrix prices = matrix(walks(5, 6));
+        HistoricalRiskEngine engine = new HistoricalRiskEngine(null, 1, 200);
+
+        assertThrows(IllegalArgumentException.class, () -> engine.estimate(prices, new double[]{1, 0, 0}, -1));
+        assertThrows(IllegalArgumentException.class, () -> engine.estimate(prices, new double[]{1}, 5));
+        assertThrows(IllegalArgumentException.class, () -> engine.estimate(prices, new double[3], 5));
+        assertThrows(IllegalArgumentException.class,
+            () -> new HistoricalRiskEngine(null, 5, 200).estimate(prices, new double[]{1, 0, 0}, 5));
+        assertThrows(IllegalArgumentException.class, () -> new HistoricalRiskEngine(null, 0, 200));
+    }
+}
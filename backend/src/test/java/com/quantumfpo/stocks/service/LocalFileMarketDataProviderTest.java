@@ -0,0 +1,78 @@
+package com.quantumfpo.stocks.service;
+
+import com.quantumfpo.stocks.model.StockData;
+import com.quantumfpo.stocks.store.MappedPriceFile;
+import com.quantumfpo.stocks.store.PriceSeries;
+import com.quantumfpo.stocks.store.PriceView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalFileMarketDataProviderTest {
+
+    @TempDir
+    Path dir;
+
+    private LocalFileMarketDataProvider provider;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.writeString(dir.resolve("SIM_AAPL.csv"), "date,close\n2025-01-01,1\n2025-01-02,2\n2025-01-03,3\n");
+        PriceSeries msft = new PriceSeries("SIM_MSFT");
+        for (int i = 0; i < 3; i++) {
+            msft.append((int) LocalDate.of(2025, 1, 1).plusDays(i).toEpochDay(), 10.0 + i);
+        }
+        MappedPriceFile.rewrite(dir.resolve("SIM_MSFT.px"), msft.view()).close();
+        provider = new LocalFileMarketDataProvider(dir.toString(), 1);
+    }
+
+    @Test
+    void testFetchFromCsv() {
+        List<StockData> data = provider.fetchStockHistory("SIM_AAPL", LocalDate.of(2025, 1, 2), LocalDate.of(2025, 1, 3));
+
+        assertEquals(2, data.size());
+        assertEquals(LocalDate.of(2025, 1, 2), data.get(0).getDate());
+        assertEquals(3.0, data.get(1).getClose(), 1e-12);
+        assertEquals("SIM_AAPL", data.get(1).getSymbol());
+    }
+
+    @Test
+    void testFetchFromBinaryDump() {
+        List<StockData> data = provider.fetchStockHistory("SIM_MSFT", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 2));
+
+        assertEquals(2, data.size());
+        assertEquals(11.0, data.get(1).getClose(), 1e-12);
+    }
+
+    @Test
+    void testUnknownSymbolIsEmpty() {
+        assertTrue(provider.fetchStockHistory("NOPE", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 3)).isEmpty());
+    }
+
+    @Test
+    void testFetchManyKeepsRequestOrder() {
+        Map<String, PriceView> many = provider.fetchMany(
+            List.of("SIM_MSFT", "NOPE", "SIM_AAPL"), LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 3));
+
+        assertEquals(List.of("SIM_MSFT", "NOPE", "SIM_AAPL"), new ArrayList<>(many.keySet()));
+        assertEquals(3, many.get("SIM_AAPL").size());
+        assertTrue(many.get("NOPE").isEmpty());
+    }
+
+    @Test
+    void testMissingDirectoryRejected() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new LocalFileMarketDataProvider(dir.resolve("missing").toString(), 1));
+        assertThrows(IllegalArgumentException.class, () -> new LocalFileMarketDataProvider("", 1));
+    }
+}
@@ -0,0 +1,135 @@
+package com.quantumfpo.stocks.service;
+
+import com.quantumfpo.stocks.model.RiskModel;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MaxSharpeSolverTest {
+
+    private static final double RF = 0.02;
+
+    // Random factor-style covariance plus a diagonal, so it is positive definite
+    private static RiskModel randomModel(int n, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        String[] symbols = new String[n];
+        double[] mu = new double[n];
+        double[] loadings = new double[n * 2];
+        for (int i = 0; i < n; i++) {
+            symbols[i] = "SIM_" + i;
+            mu[i] = -0.05 + random.nextDouble() * 0.3;
+            loadings[2 * i] = random.nextGaussian() * 0.2;
+            loadings[2 * i + 1] = random.nextGaussian() * 0.1;
+        }
+        double[] cov = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                cov[i * n + j] = loadings[2 * i] * loadings[2 * j] + loadings[2 * i + 1] * loadings[2 * j + 1]
+                    + (i == j ? 0.01 + random.nextDouble() * 0.05 : 0);
+            }
+        }
+        return new RiskModel(symbols, mu, cov, 0, 252);
+    }
+
+    private static double sharpe(RiskModel model, double[] w) {
+        double ret = 0;
+        double var = 0;
+        for (int i = 0; i < w.length; i++) {
+            ret += w[i] * model.expectedReturn(i);
+            for (int j = 0; j < w.length; j++) {
+                var += w[i] * w[j] * model.covariance(i, j);
+            }
+        }
+        return (ret - RF) / Math.sqrt(var);
+    }
+
+    @Test
+    void testMatchesGridSearchOnThreeAssets() {
+        RiskModel model = randomModel(3, 11);
+        MaxSharpeSolver.Solution solution = MaxSharpeSolver.solve(model, RF);
+
+        double best = Double.NEGATIVE_INFINITY;
+        double[] bestWeights = null;
+        int steps = 500;
+        for (int a = 0; a <= steps; a++) {
+            for (int b = 0; a + b <= steps; b++) {
+                double[] w = {a / (double) steps, b / (double) steps, (steps - a - b) / (double) steps};
+                double s = sharpe(model, w);
+                if (s > best) {
+                    best = s;
+                    bestWeights = w;
+                }
+            }
+        }
+        assertTrue(solution.sharpeRatio() >= best - 1e-9);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(bestWeights[i], solution.weights()[i], 0.01);
+        }
+        assertEquals(sharpe(model, solution.weights()), solution.sharpeRatio(), 1e-12);
+    }
+
+    @Test
+    void testNoFeasibleShiftImprovesSharpe() {
+        RiskModel model = randomModel(40, 3);
+        double[] w = MaxSharpeSolver.solve(model, RF).weights();
+
+        double total = 0;
+        for (double v : w) {
+            assertTrue(v >= 0);
+            total += v;
+        }
+        assertEquals(1.0, total, 1e-12);
+        double base = sharpe(model, w);
+        double eps = 1e-6;
+        for (int i = 0; i < w.length; i++) {
+            if (w[i] < eps) {
+                continue;
+            }
+            for (int j = 0; j < w.length; j++) {
+                double[] shifted = w.clone();
+                shifted[i] -= eps;
+                shifted[j] += eps;
+                assertTrue(sharpe(model, shifted) <= base + 1e-12, "shift " + i + " -> " + j);
+            }
+        }
+    }
+
+    @Test
+    void testRejectsBasketWithoutExcessReturn() {
+        RiskModel model = new RiskModel(new String[] {"SIM_A", "SIM_B"}, new double[] {0.01, RF},
+            new double[] {0.04, 0, 0, 0.09}, 0, 252);
+
+        assertThrows(IllegalArgumentException.class, () -> MaxSharpeSolver.solve(model, RF));
+    }
+
+    @Test
+    void testSingleProfitableAssetTakesEverything() {
+        RiskModel model = new RiskModel(new String[] {"SIM_A", "SIM_B"}, new double[] {0.10, -0.05},
+            new double[] {0.04, 0.01, 0.01, 0.09}, 0, 252);
+
+        MaxSharpeSolver.Solution solution = MaxSharpeSolver.solve(model, RF);
+        assertEquals(1.0, solution.weights()[0], 1e-12);
+        assertEquals(0.0, solution.weights()[1], 1e-12);
+        assertEquals((0.10 - RF) / 0.2, solution.sharpeRatio(), 1e-12);
+    }
+
+    @Test
+    void testCleanWeightsCutsAndRoundsLikeNumpy() {
+        RiskModel model = new RiskModel(new String[] {"SIM_A", "SIM_B", "SIM_C"}, new double[3], new double[9], 0, 1);
+
+        Map<String, Double> cleaned = MaxSharpeSolver.cleanWeights(model, new double[] {0.00009, 0.25, 0.74991}, 1e-4, 5);
+        assertEquals(List.of("SIM_A", "SIM_B", "SIM_C"), List.copyOf(cleaned.keySet()));
+        assertEquals(0.0, cleaned.get("SIM_A"));
+        assertEquals(0.25, cleaned.get("SIM_B"));
+        assertEquals(0.74991, cleaned.get("SIM_C"));
+
+        // np.round rounds half to even, so 0.25 -> 0.2 and 0.75 -> 0.8 at one place
+        Map<String, Double> coarse = MaxSharpeSolver.cleanWeights(model, new double[] {0, 0.25, 0.75}, 1e-4, 1);
+        assertEquals(0.2, coarse.get("SIM_B"));
+        assertEquals(0.8, coarse.get("SIM_C"));
+    }
+}
@@ -0,0 +1,139 @@
+package com.quantumfpo.stocks.service;
+
+import com.quantumfpo.stocks.model.RiskEstimate;
+import com.quantumfpo.stocks.model.RiskModel;
+import com.quantumfpo.stocks.store.PriceSeries;
+import com.quantumfpo.stocks.store.PriceStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MonteCarloRiskEngineTest {
+
+    // Standard normal 95% quantile, and E[Z | Z > z] = phi(z) / 0.05 for the expected shortfall
+    private static final double Z_95 = 1.6448536269514722;
+    private static final double SHORTFALL_95 = 2.0627128075074257;
+    private static final int SCENARIOS = 200_000;
+
+    private static MonteCarloRiskEngine engine(int degreesOfFreedom, long seed) {
+        return new MonteCarloRiskEngine(null, SCENARIOS, 1, degreesOfFreedom, seed, 4);
+    }
+
+    // Zero expected returns and the given daily volatilities and correlation, annualized
+    private static RiskModel dailyModel(double[] volatility, double correlation) {
+        int n = volatility.length;
+        String[] symbols = new String[n];
+        double[] cov = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            symbols[i] = "SIM_" + i;
+            for (int j = 0; j < n; j++) {
+                cov[i * n + j] = volatility[i] * volatility[j] * (i == j ? 1 : correlation) * RiskModelEngine.TRADING_DAYS;
+            }
+        }
+        return new RiskModel(symbols, new double[n], cov, 0, 252);
+    }
+
+    @Test
+    void testSingleAssetMatchesNormalQuantiles() {
+        RiskEstimate estimate = engine(0, 7).estimate(dailyModel(new double[]{0.01}, 0), new double[]{1}, 5);
+
+        assertEquals(0.95, estimate.getConfidence(), 1e-12);
+        assertEquals(Z_95 * 0.01, estimate.getValueAtRisk(), 0.02 * Z_95 * 0.01);
+        assertEquals(SHORTFALL_95 * 0.01, estimate.getConditionalValueAtRisk(), 0.02 * SHORTFALL_95 * 0.01);
+        assertEquals(SCENARIOS, estimate.getScenarios());
+        assertTrue(estimate.getScenariosPerSecond() > 0);
+    }
+
+    @Test
+    void testCorrelatedPortfolioMatchesNormalQuantilesAndDropsUnheldAssets() {
+        RiskModel model = dailyModel(new double[]{0.01, 0.02, 0.05}, 0.5);
+        double[] weights = {0.6, 0.4, 0};
+        double sigma = Math.sqrt(0.36e-4 + 0.16 * 4e-4 + 2 * 0.6 * 0.4 * 0.5 * 0.01 * 0.02);
+
+        MonteCarloRiskEngine engine = engine(0, 7);
+        RiskEstimate estimate = engine.estimate(model, weights, 5);
+
+        assertEquals(Z_95 * sigma, estimate.getValueAtRisk(), 0.02 * Z_95 * sigma);
+        assertEquals(SHORTFALL_95 * sigma, estimate.getConditionalValueAtRisk(), 0.02 * SHORTFALL_95 * sigma);
+        // Only the 2 x 2 factor of the held assets was computed, and the second call reuses it
+        assertEquals(32, engine.cache().weight());
+        engine.estimate(model, weights, 1);
+        assertEquals(1, engine.cache().hitCount());
+        assertEquals(1, engine.cache().size());
+    }
+
+    @Test
+    void testSameSeedGivesSameFigures() {
+        RiskModel model = dailyModel(new double[]{0.01, 0.015, 0.02}, 0.3);
+        double[] weights = {0.2, 0.3, 0.5};
+
+        RiskEstimate first = engine(0, 99).estimate(model, weights, 1);
+        RiskEstimate second = engine(0, 99).estimate(model, weights, 1);
+        RiskEstimate other = engine(0, 100).estimate(model, weights, 1);
+
+        assertEquals(first.getValueAtRisk(), second.getValueAtRisk(), 0.0);
+        assertEquals(first.getConditionalValueAtRisk(), second.getConditionalValueAtRisk(), 0.0);
+        assertNotEquals(first.getValueAtRisk(), other.getValueAtRisk());
+    }
+
+    @Test
+    void testStudentTailsAreFatterThanNormal() {
+        RiskModel model = dailyModel(new double[]{0.01}, 0);
+
+        RiskEstimate normal = engine(0, 3).estimate(model, new double[]{1}, 1);
+        RiskEstimate student = engine(4, 3).estimate(model, new double[]{1}, 1);
+
+        assertTrue(student.getConditionalValueAtRisk() / student.getValueAtRisk()
+            > normal.getConditionalValueAtRisk() / normal.getValueAtRisk() + 0.05);
+        assertThrows(IllegalArgumentException.class, () -> engine(2, 3));
+    }
+
+    @Test
+    void testRejectsInvalidInput() {
+        MonteCarloRiskEngine engine = engine(0, 1);
+        RiskModel model = dailyModel(new double[]{0.01, 0.02}, 0);
+
+        assertThrows(IllegalArgumentException.class, () -> engine.estimate(model, new double[]{0.5, 0.5}, 101));
+        assertThrows(IllegalArgumentException.class, () -> engine.estimate(model, new double[]{0.5, 0.5}, Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> engine.estimate(model, new double[]{1}, 5));
+        assertThrows(IllegalArgumentException.class, () -> engine.estimate(model, new double[]{0, 0}, 5));
+    }
+
+    @Test
+    void testEstimatesStoredSymbolsByWeight() {
+        PriceStore store = new PriceStore();
+        SplittableRandom random = new SplittableRandom(5);
+        for (String symbol : new String[]{"SIM_X", "SIM_Y"}) {
+            PriceSeries series = new PriceSeries(symbol, 300);
+            double close = 100;
+            for (int t = 0; t < 300; t++) {
+                close *= 1 + 0.01 * random.nextGaussian();
+                series.append(18_000 + t, close);
+            }
+            store.put(symbol, series);
+        }
+        RiskModelEngine riskModelEngine = new RiskModelEngine(
+            new PriceMatrixService(store, 8, Long.MAX_VALUE));
+        MonteCarloRiskEngine engine = new MonteCarloRiskEngine(riskModelEngine, 20_000, 10, 0, 1, 4);
+        Map<String, Number> weights = new LinkedHashMap<>();
+        weights.put("SIM_X", 0.5);
+        weights.put("SIM_Y", 0.5);
+        weights.put("SIM_Z", 0);
+
+        RiskEstimate estimate = engine.estimate(weights, 5);
+
+        // Two independent 1% daily walks, half each, over 10 days: about 1.645 * 0.01 * sqrt(10 / 2)
+        assertEquals(10, estimate.getHorizonDays());
+        assertTrue(estimate.getValueAtRisk() > 0.02 && estimate.getValueAtRisk() < 0.06, estimate.toString());
+        assertTrue(estimate.getConditionalValueAtRisk() > estimate.getValueAtRisk());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        estimate.putInto(result);
+        assertEquals(estimate.getValueAtRisk(), result.get("value_at_risk"));
+        assertEquals(20_000, ((Map<?, ?>) result.get("risk_simulation")).get("scenarios"));
+    }
+}
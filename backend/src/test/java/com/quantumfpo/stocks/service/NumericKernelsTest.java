@@ -0,0 +1,90 @@
+package com.quantumfpo.stocks.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NumericKernelsTest {
+
+    private final NumericKernels scalar = new ScalarKernels();
+    private final NumericKernels vector = new VectorKernels();
+
+    private static double[] gaussian(int length, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] values = new double[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = random.nextGaussian();
+        }
+        return values;
+    }
+
+    @Test
+    void testVectorKernelsPreferredWhenModulePresent() {
+        // Surefire starts the test JVM with --add-modules jdk.incubator.vector
+        assertInstanceOf(VectorKernels.class, NumericKernels.PREFERRED);
+    }
+
+    @Test
+    void testDotAndAxpyAgreeIncludingTails() {
+        double[] a = gaussian(203, 1);
+        double[] b = gaussian(203, 2);
+        // Lengths around multiples of every lane count, at unaligned offsets
+        for (int length = 0; length <= 70; length++) {
+            assertEquals(scalar.dot(a, 3, b, 5, length), vector.dot(a, 3, b, 5, length), 1e-12, "length " + length);
+
+            double[] expected = b.clone();
+            double[] actual = b.clone();
+            scalar.axpy(-0.75, a, 7, expected, 11, length);
+            vector.axpy(-0.75, a, 7, actual, 11, length);
+            assertArrayEquals(expected, actual, 1e-15, "length " + length);
+        }
+    }
+
+    @Test
+    void testSimpleReturnsZeroAfterNonPositiveCloses() {
+        double[] closes = {100, 101, 0, 50, 55, -1, 10, 11, 12.1, 12.1, Double.MAX_VALUE, 1e-300, 13, 14, 15, 16, 17, 18, 19};
+        double[] expected = new double[closes.length - 1];
+        double[] actual = new double[closes.length - 1];
+
+        double expectedSum = scalar.simpleReturns(closes, 0, expected.length, expected, 0);
+        double actualSum = vector.simpleReturns(closes, 0, actual.length, actual, 0);
+
+        assertArrayEquals(expected, actual);
+        assertEquals(expectedSum, actualSum, 1e-12);
+        assertEquals(0.01, expected[0], 1e-15);
+        assertEquals(-1.0, expected[1]);
+        assertEquals(0.0, expected[2]);
+        assertEquals(0.0, expected[5]);
+        for (int k = 0; k < expected.length; k++) {
+            assertEquals(RiskModelEngine.dailyReturn(closes[k], closes[k + 1]), expected[k]);
+        }
+    }
+
+    @Test
+    void testCrossProductTileAndQuadraticFormAgree() {
+        int n = 13;
+        int t = 37;
+        double[] x = gaussian(n * t, 3);
+        double[] expected = new double[n * n];
+        double[] actual = new double[n * n];
+        scalar.crossProductTile(x, t, 0, n, 0, n, 0, t, expected, n);
+        vector.crossProductTile(x, t, 0, n, 0, n, 0, t, actual, n);
+        // Partial ranges, as the tiler hands out: an off-diagonal tile over a slab of rows
+        scalar.crossProductTile(x, t, 2, 6, 5, 12, 4, 33, expected, n);
+        vector.crossProductTile(x, t, 2, 6, 5, 12, 4, 33, actual, n);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                assertEquals(expected[i * n + j], actual[i * n + j], 1e-12);
+                if (j < i) {
+                    assertEquals(0.0, actual[i * n + j]);
+                }
+            }
+        }
+
+        double[] w = gaussian(n, 4);
+        double[] symmetric = gaussian(n * n, 5);
+        assertEquals(scalar.quadraticForm(symmetric, w, n), vector.quadraticForm(symmetric, w, n), 1e-12);
+    }
+}
@@ -0,0 +1,68 @@
+package com.quantumfpo.stocks.service;
+
+import com.quantumfpo.stocks.model.StockData;
+import com.quantumfpo.stocks.store.PriceMatrix;
+import com.quantumfpo.stocks.store.PriceMatrix.GapPolicy;
+import com.quantumfpo.stocks.store.PriceStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceMatrixServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 9, 22);
+
+    private PriceStore store;
+    private PriceMatrixService service;
+
+    @BeforeEach
+    void setUp() {
+        store = new PriceStore();
+        service = new PriceMatrixService(store, 8, Long.MAX_VALUE);
+        store.put("SIM_AAPL", List.of(
+            new StockData("SIM_AAPL", DAY, 150.0),
+            new StockData("SIM_AAPL", DAY.plusDays(1), 151.0),
+            new StockData("SIM_AAPL", DAY.plusDays(2), 152.0)));
+        store.put("SIM_MSFT", List.of(
+            new StockData("SIM_MSFT", DAY, 300.0),
+            new StockData("SIM_MSFT", DAY.plusDays(2), 302.0)));
+    }
+
+    @Test
+    void testRepeatedBasketHitsCache() {
+        PriceMatrix first = service.matrix(List.of("SIM_AAPL", "SIM_MSFT"), GapPolicy.FORWARD_FILL);
+        PriceMatrix second = service.matrix(List.of("SIM_AAPL", "SIM_MSFT"), GapPolicy.FORWARD_FILL);
+
+        assertSame(first, second);
+        assertEquals(3, first.rows());
+        assertEquals(300.0, first.get(1, 1), 1e-12);
+        assertEquals(1, service.cache().hitCount());
+    }
+
+    @Test
+    void testPolicyRangeAndOrderAreSeparateEntries() {
+        PriceMatrix dropped = service.matrix(List.of("SIM_AAPL", "SIM_MSFT"), GapPolicy.DROP);
+        PriceMatrix reordered = service.matrix(List.of("SIM_MSFT", "SIM_AAPL"), GapPolicy.DROP);
+        PriceMatrix narrowed = service.matrix(List.of("SIM_AAPL", "SIM_MSFT"), DAY, DAY.plusDays(1), GapPolicy.DROP);
+
+        assertEquals(2, dropped.rows());
+        assertEquals("SIM_MSFT", reordered.symbol(0));
+        assertEquals(1, narrowed.rows());
+        assertEquals(3, service.cache().size());
+    }
+
+    @Test
+    void testWriteToSymbolRebuildsMatrix() {
+        PriceMatrix before = service.matrix(List.of("SIM_AAPL", "SIM_MSFT"), GapPolicy.DROP);
+        store.merge("SIM_MSFT", List.of(new StockData("SIM_MSFT", DAY.plusDays(1), 301.0)));
+        PriceMatrix after = service.matrix(List.of("SIM_AAPL", "SIM_MSFT"), GapPolicy.DROP);
+
+        assertNotSame(before, after);
+        assertEquals(2, before.rows());
+        assertEquals(3, after.rows());
+    }
+}
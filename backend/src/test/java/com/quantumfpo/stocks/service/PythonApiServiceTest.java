@@ -1,5 +1,8 @@
 package com.quantumfpo.stocks.service;
 
+import com.quantumfpo.stocks.model.StockData;
+import com.quantumfpo.stocks.store.PriceMatrix;
+import com.quantumfpo.stocks.store.PriceStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,6 +13,7 @@ import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 import java.lang.reflect.Field;
+import java.time.LocalDate;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -86,6 +90,40 @@ class PythonApiServiceTest {
         );
     }
 
+    @Test
+    void testOptimizeClassicalSendsPriceMatrix() {
+        PriceStore store = new PriceStore();
+        store.put("SIM_A", Arrays.asList(
+            new StockData("SIM_A", LocalDate.of(2025, 9, 22), 100.0),
+            new StockData("SIM_A", LocalDate.of(2025, 9, 23), 101.0),
+            new StockData("SIM_A", LocalDate.of(2025, 9, 24), 102.0)));
+        store.put("SIM_B", Arrays.asList(
+            new StockData("SIM_B", LocalDate.of(2025, 9, 23), 50.0),
+            new StockData("SIM_B", LocalDate.of(2025, 9, 24), 49.0)));
+        PriceMatrix prices = PriceMatrix.align(
+            Arrays.asList(store.view("SIM_A"), store.view("SIM_B")), PriceMatrix.GapPolicy.FORWARD_FILL);
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), eq(Map.class)))
+            .thenReturn(new ResponseEntity<>(createExpectedOptimizationResponse(), HttpStatus.OK));
+
+        pythonApiService.optimizeClassical(prices, 5.0, Collections.emptyMap());
+
+        verify(restTemplate).exchange(
+            eq("http://localhost:8002/api/optimize/classical"),
+            eq(HttpMethod.POST),
+            argThat(entity -> {
+                Map<String, Object> body = (Map<String, Object>) entity.getBody();
+                Map<String, Object> matrix = (Map<String, Object>) body.get("price_matrix");
+                double[][] values = (double[][]) matrix.get("values");
+                return !body.containsKey("stock_data")
+                    && matrix.get("dates").equals(List.of("2025-09-23", "2025-09-24"))
+                    && matrix.get("symbols").equals(List.of("SIM_A", "SIM_B"))
+                    && Arrays.equals(values[0], new double[] {101.0, 50.0})
+                    && Arrays.equals(values[1], new double[] {102.0, 49.0});
+            }),
+            eq(Map.class)
+        );
+    }
+
     @Test
     void testOptimizeClassicalRestClientException() {
         // Prepare test data
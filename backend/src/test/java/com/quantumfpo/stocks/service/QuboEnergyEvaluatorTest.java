@@ -0,0 +1,102 @@
+package com.quantumfpo.stocks.service;
+
+import com.quantumfpo.stocks.model.PackedCounts;
+import com.quantumfpo.stocks.model.QuboModel;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuboEnergyEvaluatorTest {
+
+    private static QuboModel randomModel(int n, int couplings, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        QuboModel.Builder builder = QuboModel.builder(n).addOffset(0.75);
+        for (int i = 0; i < n; i++) {
+            builder.addLinear(i, random.nextGaussian());
+        }
+        for (int k = 0; k < couplings; k++) {
+            builder.addQuadratic(random.nextInt(n), random.nextInt(n), random.nextGaussian());
+        }
+        return builder.build();
+    }
+
+    @Test
+    void testEnergiesMatchUnpackedEvaluation() {
+        int n = 130;
+        QuboModel model = randomModel(n, 900, 4);
+        SplittableRandom random = new SplittableRandom(8);
+        PackedCounts counts = new PackedCounts(n);
+        boolean[][] states = new boolean[3 * QuboEnergyEvaluator.CHUNK_ENTRIES + 17][n];
+        for (boolean[] state : states) {
+            long[] packed = new long[counts.words()];
+            for (int i = 0; i < n; i++) {
+                state[i] = random.nextInt(3) == 0;
+                if (state[i]) {
+                    packed[i >>> 6] |= 1L << i;
+                }
+            }
+            counts.add(packed, 1 + random.nextInt(50));
+        }
+
+        QuboEnergyEvaluator.Evaluation evaluation = QuboEnergyEvaluator.evaluate(model, counts, ForkJoinPool.commonPool());
+
+        double weighted = 0;
+        for (int e = 0; e < states.length; e++) {
+            double expected = model.energy(states[e]);
+            assertEquals(expected, evaluation.energies()[e], 1e-9);
+            weighted += counts.count(e) * expected;
+        }
+        assertEquals(weighted / counts.shots(), evaluation.expectation(), 1e-9);
+        int[] lowest = evaluation.lowest(5);
+        assertEquals(5, lowest.length);
+        for (int k = 1; k < lowest.length; k++) {
+            assertTrue(evaluation.energies()[lowest[k - 1]] <= evaluation.energies()[lowest[k]]);
+        }
+    }
+
+    @Test
+    void testIsingFormMatchesPythonExpectation() {
+        int n = 6;
+        QuboModel model = randomModel(n, 12, 6);
+        Map<String, Integer> bitstrings = new LinkedHashMap<>();
+        bitstrings.put("101100", 40);
+        bitstrings.put("000000", 10);
+        bitstrings.put("111111", 5);
+        bitstrings.put("010011", 25);
+
+        double expectation = QuboEnergyEvaluator.evaluate(model.isingAsQubo(), PackedCounts.fromBitstrings(bitstrings),
+            ForkJoinPool.commonPool()).expectation();
+
+        // compute_expectation_from_counts over the Z terms of build_hamiltonian_from_qubo
+        double python = 0;
+        for (Map.Entry<String, Integer> entry : bitstrings.entrySet()) {
+            String bits = entry.getKey();
+            double energy = model.offset();
+            for (int i = 0; i < n; i++) {
+                double zi = 1 - 2 * (bits.charAt(i) - '0');
+                energy += model.linear(i) * zi;
+                for (int j = i + 1; j < n; j++) {
+                    energy += model.coupling(i, j) * zi * (1 - 2 * (bits.charAt(j) - '0'));
+                }
+            }
+            python += entry.getValue() / 80.0 * energy;
+        }
+        assertEquals(python, expectation, 1e-12);
+    }
+
+    @Test
+    void testRejectsMismatchedWidth() {
+        QuboModel model = randomModel(5, 4, 1);
+        PackedCounts counts = new PackedCounts(6).add(new long[]{1}, 1);
+
+        assertThrows(IllegalArgumentException.class,
+            () -> QuboEnergyEvaluator.evaluate(model, counts, ForkJoinPool.commonPool()));
+        assertThrows(IllegalArgumentException.class,
+            () -> QuboEnergyEvaluator.evaluate(model, new PackedCounts(5), ForkJoinPool.commonPool()));
+    }
+}
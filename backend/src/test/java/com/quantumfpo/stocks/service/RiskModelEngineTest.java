@@ -0,0 +1,127 @@
+package com.quantumfpo.stocks.service;
+
+import com.quantumfpo.stocks.model.RiskModel;
+import com.quantumfpo.stocks.store.PriceMatrix;
+import com.quantumfpo.stocks.store.PriceMatrix.GapPolicy;
+import com.quantumfpo.stocks.store.PriceSeries;
+import com.quantumfpo.stocks.store.PriceStore;
+import com.quantumfpo.stocks.store.PriceView;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RiskModelEngineTest {
+
+    private static final String[] SYMBOLS = {"SIM_A", "SIM_B", "SIM_C", "SIM_D"};
+    private static final double[][] CLOSES = {
+        {100.0, 101.5, 99.8, 102.3, 103.1, 102.0, 104.6, 105.2},
+        {50.0, 50.4, 51.2, 50.1, 49.7, 50.9, 51.5, 52.3},
+        {20.0, 19.6, 19.9, 20.8, 21.1, 20.7, 20.2, 20.9},
+        {75.0, 75.9, 74.2, 76.8, 77.5, 76.1, 78.9, 79.4},
+    };
+
+    // expected_returns.mean_historical_return(prices) and CovarianceShrinkage(prices).ledoit_wolf()
+    // on the closes above, evaluated with pypfopt's and sklearn's formulas in float64
+    private static final double PYTHON_SHRINKAGE = 0.5577433971946869;
+    private static final double[] PYTHON_MU = {5.202498007601233, 4.048247549385867, 3.877378461475672, 6.7863264007559785};
+    private static final double[][] PYTHON_COV = {
+        {0.08092713116337036, -0.015175421147689744, 0.002092263221534977, 0.03561376925568342},
+        {-0.015175421147689744, 0.07925168202692308, -0.02408401198081893, -0.021885243047439967},
+        {0.002092263221534977, -0.02408401198081893, 0.13049626635199926, 0.006622785155834687},
+        {0.03561376925568342, -0.021885243047439967, 0.006622785155834687, 0.10597722558234493},
+    };
+
+    private static PriceMatrix matrix(String[] symbols, double[][] closes) {
+        List<PriceView> views = new ArrayList<>();
+        for (int j = 0; j < symbols.length; j++) {
+            PriceSeries series = new PriceSeries(symbols[j], closes[j].length);
+            for (int t = 0; t < closes[j].length; t++) {
+                series.append(18_000 + t, closes[j][t]);
+            }
+            views.add(series.view());
+        }
+        return PriceMatrix.align(views, GapPolicy.FORWARD_FILL);
+    }
+
+    private static double[][] randomWalks(int symbols, int days, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[][] closes = new double[symbols][days];
+        for (int j = 0; j < symbols; j++) {
+            double close = 50 + random.nextDouble() * 100;
+            for (int t = 0; t < days; t++) {
+                closes[j][t] = close;
+                close *= Math.exp(random.nextGaussian() * 0.015);
+            }
+        }
+        return closes;
+    }
+
+    @Test
+    void testMatchesPythonRiskModel() {
+        RiskModel model = RiskModelEngine.compute(matrix(SYMBOLS, CLOSES), RiskModelEngine.TRADING_DAYS);
+
+        assertEquals(7, model.getObservations());
+        assertEquals(PYTHON_SHRINKAGE, model.getShrinkage(), 1e-12);
+        for (int i = 0; i < SYMBOLS.length; i++) {
+            assertEquals(PYTHON_MU[i], model.expectedReturn(i), 1e-12);
+            for (int j = 0; j < SYMBOLS.length; j++) {
+                assertEquals(PYTHON_COV[i][j], model.covariance(i, j), 1e-14);
+            }
+        }
+    }
+
+    @Test
+    void testShrunkCovarianceIsSymmetricWithPositiveDiagonal() {
+        String[] symbols = new String[40];
+        for (int j = 0; j < symbols.length; j++) {
+            symbols[j] = "SIM_" + j;
+        }
+        RiskModel model = RiskModelEngine.compute(matrix(symbols, randomWalks(40, 120, 5)), RiskModelEngine.TRADING_DAYS);
+
+        // Independent walks: the estimator shrinks hard, but never outside [0, 1]
+        assertTrue(model.getShrinkage() > 0 && model.getShrinkage() <= 1);
+        for (int i = 0; i < model.size(); i++) {
+            assertTrue(model.covariance(i, i) > 0);
+            for (int j = 0; j < model.size(); j++) {
+                assertEquals(model.covariance(i, j), model.covariance(j, i), 0.0);
+            }
+        }
+    }
+
+    @Test
+    void testSingleSymbolIsUnshrunkVariance() {
+        RiskModel model = RiskModelEngine.compute(matrix(new String[] {"SIM_A"}, new double[][] {CLOSES[0]}), 252);
+
+        assertEquals(0.0, model.getShrinkage());
+        assertEquals(PYTHON_MU[0], model.expectedReturn(0), 1e-12);
+        // sklearn returns the plain (biased) sample variance for one feature
+        assertEquals(0.05792922018468694, model.covariance(0, 0), 1e-14);
+    }
+
+    @Test
+    void testEstimateFromPriceStore() {
+        PriceStore store = new PriceStore();
+        for (int j = 0; j < SYMBOLS.length; j++) {
+            PriceSeries series = new PriceSeries(SYMBOLS[j]);
+            for (int t = 0; t < CLOSES[j].length; t++) {
+                series.append((int) LocalDate.of(2025, 9, 1).plusDays(t).toEpochDay(), CLOSES[j][t]);
+            }
+            store.put(SYMBOLS[j], series);
+        }
+        RiskModelEngine engine = new RiskModelEngine(new PriceMatrixService(store, 8, Long.MAX_VALUE));
+
+        RiskModel model = engine.estimate(List.of("SIM_C", "SIM_A"));
+        assertEquals(List.of("SIM_C", "SIM_A"), model.getSymbols());
+        assertEquals(PYTHON_MU[2], model.expectedReturn(0), 1e-12);
+
+        RiskModel window = engine.estimate(List.of("SIM_A", "SIM_B"), LocalDate.of(2025, 9, 3), LocalDate.of(2025, 9, 5));
+        assertEquals(2, window.getObservations());
+        assertThrows(IllegalArgumentException.class,
+            () -> engine.estimate(List.of("SIM_A"), LocalDate.of(2025, 9, 3), LocalDate.of(2025, 9, 3)));
+    }
+}
@@ -0,0 +1,173 @@
+package com.quantumfpo.stocks.service;
+
+import com.quantumfpo.stocks.model.RiskModel;
+import com.quantumfpo.stocks.store.PriceMatrix;
+import com.quantumfpo.stocks.store.PriceMatrix.GapPolicy;
+import com.quantumfpo.stocks.store.PriceSeries;
+import com.quantumfpo.stocks.store.PriceView;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RollingCovarianceTest {
+
+    private static double[][] randomReturns(int days, int symbols, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[][] returns = new double[days][symbols];
+        for (int t = 0; t < days; t++) {
+            double market = random.nextGaussian() * 0.01;
+            for (int j = 0; j < symbols; j++) {
+                returns[t][j] = 0.0004 * j + market + random.nextGaussian() * 0.015;
+            }
+        }
+        return returns;
+    }
+
+    private static double[] batchCovariance(double[][] returns, int from, int to) {
+        int n = returns[0].length;
+        int t = to - from;
+        double[] mean = new double[n];
+        for (int k = from; k < to; k++) {
+            for (int j = 0; j < n; j++) {
+                mean[j] += returns[k][j] / t;
+            }
+        }
+        double[] cov = new double[n * n];
+        for (int k = from; k < to; k++) {
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    cov[i * n + j] += (returns[k][i] - mean[i]) * (returns[k][j] - mean[j]) / t;
+                }
+            }
+        }
+        return cov;
+    }
+
+    @Test
+    void testSlidingWindowMatchesBatchCovariance() {
+        double[][] returns = randomReturns(300, 6, 7);
+        RollingCovariance rolling = new RollingCovariance(6, 50);
+
+        for (int k = 0; k < returns.length; k++) {
+            rolling.add(returns[k]);
+            // Check while filling, right around the periodic rebuilds, and in between
+            if (k < 3 || k % 37 == 0 || k % 50 == 48 || k % 50 == 49) {
+                int from = Math.max(0, k + 1 - 50);
+                double[] expected = batchCovariance(returns, from, k + 1);
+                double[] actual = rolling.covariance();
+                for (int i = 0; i < expected.length; i++) {
+                    assertEquals(expected[i], actual[i], 1e-15, "entry " + i + " after " + (k + 1) + " returns");
+                }
+            }
+        }
+        assertEquals(50, rolling.size());
+    }
+
+    @Test
+    void testReplaceNewestMatchesBatchCovariance() {
+        double[][] returns = randomReturns(120, 4, 9);
+        double[][] revisions = randomReturns(120, 4, 10);
+        RollingCovariance rolling = new RollingCovariance(4, 30);
+        rolling.replaceNewest(revisions[0]);
+        returns[0] = revisions[0];
+
+        for (int k = 1; k < returns.length; k++) {
+            rolling.add(returns[k]);
+            if (k % 3 == 0) {
+                rolling.replaceNewest(revisions[k]);
+                returns[k] = revisions[k];
+            }
+            int from = Math.max(0, k + 1 - 30);
+            double[] expected = batchCovariance(returns, from, k + 1);
+            double[] actual = rolling.covariance();
+            for (int i = 0; i < expected.length; i++) {
+                assertEquals(expected[i], actual[i], 1e-15, "entry " + i + " after " + (k + 1) + " returns");
+            }
+        }
+        assertEquals(30, rolling.size());
+        assertThrows(IllegalArgumentException.class, () -> rolling.replaceNewest(new double[3]));
+    }
+
+    @Test
+    void testRiskModelMatchesEngineOnSameWindow() {
+        int symbols = 5;
+        int days = 160;
+        int window = 60;
+        SplittableRandom random = new SplittableRandom(11);
+        double[][] closes = new double[symbols][days];
+        for (int j = 0; j < symbols; j++) {
+            closes[j][0] = 40 + random.nextDouble() * 60;
+        }
+        // A shared market move keeps the shrinkage intensity strictly between 0 and 1
+        for (int t = 1; t < days; t++) {
+            double market = random.nextGaussian() * 0.015;
+            for (int j = 0; j < symbols; j++) {
+                closes[j][t] = closes[j][t - 1] * Math.exp(0.0005 + market * (1 + 0.3 * j) + random.nextGaussian() * 0.01);
+            }
+        }
+        String[] names = {"ROLL_A", "ROLL_B", "ROLL_C", "ROLL_D", "ROLL_E"};
+        RollingCovariance rolling = new RollingCovariance(symbols, window);
+        double[] returns = new double[symbols];
+        for (int t = 1; t < days; t++) {
+            for (int j = 0; j < symbols; j++) {
+                returns[j] = closes[j][t] / closes[j][t - 1] - 1;
+            }
+            rolling.add(returns);
+        }
+
+        List<PriceView> views = new ArrayList<>();
+        for (int j = 0; j < symbols; j++) {
+            PriceSeries series = new PriceSeries(names[j], window + 1);
+            for (int t = days - window - 1; t < days; t++) {
+                series.append(19_000 + t, closes[j][t]);
+            }
+            views.add(series.view());
+        }
+        RiskModel expected = RiskModelEngine.compute(PriceMatrix.align(views, GapPolicy.FORWARD_FILL), 252);
+        RiskModel actual = rolling.riskModel(names, 252);
+
+        assertEquals(window, actual.getObservations());
+        assertTrue(expected.getShrinkage() > 0 && expected.getShrinkage() < 1, "shrinkage " + expected.getShrinkage());
+        assertEquals(expected.getShrinkage(), actual.getShrinkage(), 1e-10);
+        for (int i = 0; i < symbols; i++) {
+            assertEquals(expected.expectedReturn(i), actual.expectedReturn(i), 1e-12);
+            for (int j = 0; j < symbols; j++) {
+                assertEquals(expected.covariance(i, j), actual.covariance(i, j), 1e-13);
+            }
+        }
+    }
+
+    @Test
+    void testClearAndSingleSymbol() {
+        RollingCovariance rolling = new RollingCovariance(1, 3);
+        assertThrows(IllegalArgumentException.class, () -> rolling.riskModel(new String[]{"ONE"}, 252));
+
+        for (double r : new double[]{0.5, 0.01, -0.02, 0.03}) {
+            rolling.add(new double[]{r});
+        }
+        // Window holds 0.01, -0.02, 0.03: mean 0.00667, biased variance 0.00042222
+        assertEquals(3, rolling.size());
+        assertEquals(0.0012666666666666667 / 3, rolling.covariance()[0], 1e-15);
+        RiskModel model = rolling.riskModel(new String[]{"ONE"}, 252);
+        assertEquals(0, model.getShrinkage());
+        assertEquals(Math.expm1((Math.log1p(0.01) + Math.log1p(-0.02) + Math.log1p(0.03)) * 252 / 3),
+            model.expectedReturn(0), 1e-9);
+
+        rolling.clear();
+        assertEquals(0, rolling.size());
+        rolling.add(new double[]{0.02});
+        assertEquals(0, rolling.covariance()[0]);
+    }
+
+    @Test
+    void testRejectsMismatchedVectors() {
+        RollingCovariance rolling = new RollingCovariance(3, 10);
+        assertThrows(IllegalArgumentException.class, () -> rolling.add(new double[2]));
+        assertThrows(IllegalArgumentException.class, () -> new RollingCovariance(0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new RollingCovariance(2, 0));
+    }
+}
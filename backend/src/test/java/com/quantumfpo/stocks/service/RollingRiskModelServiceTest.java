@@ -0,0 +1,157 @@
+package com.quantumfpo.stocks.service;
+
+import com.quantumfpo.stocks.model.RiskModel;
+import com.quantumfpo.stocks.model.StockData;
+import com.quantumfpo.stocks.store.PriceMatrix;
+import com.quantumfpo.stocks.store.PriceMatrix.GapPolicy;
+import com.quantumfpo.stocks.store.PriceStore;
+import com.quantumfpo.stocks.store.PriceView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RollingRiskModelServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 1, 2);
+    private static final List<String> BASKET = List.of("ROLL_AAPL", "ROLL_MSFT", "ROLL_NVDA");
+
+    private PriceStore store;
+    private RollingRiskModelService service;
+    private SplittableRandom random;
+
+    @BeforeEach
+    void setUp() {
+        store = new PriceStore();
+        service = new RollingRiskModelService(store, 8, Long.MAX_VALUE);
+        random = new SplittableRandom(5);
+        for (String symbol : BASKET) {
+            List<StockData> history = new ArrayList<>();
+            double close = 100;
+            for (int t = 0; t < 80; t++) {
+                history.add(new StockData(symbol, DAY.plusDays(t), close));
+                close = nextClose(close);
+            }
+            store.put(symbol, history);
+        }
+    }
+
+    private double nextClose(double close) {
+        return close * Math.exp(0.001 + random.nextGaussian() * 0.02);
+    }
+
+    private void appendBar(LocalDate date, List<String> symbols) {
+        for (String symbol : symbols) {
+            PriceView view = store.view(symbol);
+            store.append(symbol, date, nextClose(view.close(view.size() - 1)));
+        }
+    }
+
+    // The batch engine over the last window + 1 forward-filled rows
+    private RiskModel batch(int window) {
+        List<PriceView> views = new ArrayList<>();
+        for (String symbol : BASKET) {
+            views.add(store.view(symbol));
+        }
+        PriceMatrix full = PriceMatrix.align(views, GapPolicy.FORWARD_FILL);
+        int from = full.epochDay(full.rows() - 1 - window);
+        views.replaceAll(view -> view.slice(from, Integer.MAX_VALUE));
+        return RiskModelEngine.compute(PriceMatrix.align(views, GapPolicy.FORWARD_FILL), RiskModelEngine.TRADING_DAYS);
+    }
+
+    private static void assertSameModel(RiskModel expected, RiskModel actual) {
+        assertEquals(expected.getSymbols(), actual.getSymbols());
+        assertEquals(expected.getObservations(), actual.getObservations());
+        assertEquals(expected.getShrinkage(), actual.getShrinkage(), 1e-10);
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.expectedReturn(i), actual.expectedReturn(i), 1e-12);
+            for (int j = 0; j < expected.size(); j++) {
+                assertEquals(expected.covariance(i, j), actual.covariance(i, j), 1e-13);
+            }
+        }
+    }
+
+    @Test
+    void testAppendedBarsSlideTheWindow() {
+        assertSameModel(batch(30), service.estimate(BASKET, 30));
+
+        for (int t = 80; t < 95; t++) {
+            appendBar(DAY.plusDays(t), BASKET);
+            assertSameModel(batch(30), service.estimate(BASKET, 30));
+        }
+        assertEquals(1, service.cache().size());
+        assertEquals(15, service.cache().hitCount());
+    }
+
+    @Test
+    void testMissingClosesAreCarriedForward() {
+        service.estimate(BASKET, 20);
+
+        appendBar(DAY.plusDays(80), List.of("ROLL_AAPL", "ROLL_NVDA"));
+        appendBar(DAY.plusDays(81), BASKET);
+        appendBar(DAY.plusDays(82), List.of("ROLL_MSFT"));
+        RiskModel model = service.estimate(BASKET, 20);
+
+        assertSameModel(batch(20), model);
+        assertEquals(20, model.getObservations());
+    }
+
+    @Test
+    void testRewrittenHistoryRebuildsTracker() {
+        service.estimate(BASKET, 25);
+
+        // Restating an old close replaces the series, so the window cannot just slide
+        store.merge("ROLL_MSFT", List.of(new StockData("ROLL_MSFT", DAY.plusDays(70), 250.0)));
+        assertSameModel(batch(25), service.estimate(BASKET, 25));
+
+        // A late close dated before the aligned axis also forces a rebuild
+        appendBar(DAY.plusDays(80), List.of("ROLL_AAPL", "ROLL_MSFT"));
+        service.estimate(BASKET, 25);
+        appendBar(DAY.plusDays(80), List.of("ROLL_NVDA"));
+        assertSameModel(batch(25), service.estimate(BASKET, 25));
+    }
+
+    @Test
+    void testRevisedLastCloseReplacesNewestReturn() {
+        service.estimate(BASKET, 30);
+
+        for (int t = 80; t < 85; t++) {
+            appendBar(DAY.plusDays(t), BASKET);
+            service.estimate(BASKET, 30);
+            // The bar in progress moves a few times before the next one starts
+            for (int tick = 0; tick < 3; tick++) {
+                for (String symbol : BASKET) {
+                    PriceView view = store.view(symbol);
+                    store.updateLast(symbol, DAY.plusDays(t), nextClose(view.close(view.size() - 2)));
+                }
+                assertSameModel(batch(30), service.estimate(BASKET, 30));
+            }
+        }
+        assertEquals(1, service.cache().size());
+    }
+
+    @Test
+    void testRevisedCarriedCloseRebuildsTracker() {
+        appendBar(DAY.plusDays(80), List.of("ROLL_AAPL", "ROLL_NVDA"));
+        service.estimate(BASKET, 20);
+
+        // ROLL_MSFT's last close was carried onto day 80, so revising it changes two rows
+        store.updateLast("ROLL_MSFT", DAY.plusDays(79), 500.0);
+        assertSameModel(batch(20), service.estimate(BASKET, 20));
+    }
+
+    @Test
+    void testShortHistoryAndBadWindow() {
+        RiskModel model = service.estimate(BASKET, 500);
+        assertEquals(79, model.getObservations());
+
+        store.put("ROLL_NEW", List.of(new StockData("ROLL_NEW", DAY.plusDays(79), 10.0)));
+        assertThrows(IllegalArgumentException.class, () -> service.estimate(List.of("ROLL_AAPL", "ROLL_NEW"), 10));
+        assertThrows(IllegalArgumentException.class, () -> service.estimate(BASKET, 0));
+    }
+}
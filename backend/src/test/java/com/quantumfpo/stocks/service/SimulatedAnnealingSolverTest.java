@@ -0,0 +1,109 @@
+package com.quantumfpo.stocks.service;
+
+import com.quantumfpo.stocks.model.QuboModel;
+import com.quantumfpo.stocks.model.RiskModel;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulatedAnnealingSolverTest {
+
+    private static QuboModel randomModel(int n, int couplings, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        QuboModel.Builder builder = QuboModel.builder(n).addOffset(1.25);
+        for (int i = 0; i < n; i++) {
+            builder.addLinear(i, random.nextGaussian());
+        }
+        for (int k = 0; k < couplings; k++) {
+            builder.addQuadratic(random.nextInt(n), random.nextInt(n), random.nextGaussian());
+        }
+        return builder.build();
+    }
+
+    private static double bruteForceMinimum(QuboModel model) {
+        int n = model.size();
+        double best = Double.POSITIVE_INFINITY;
+        boolean[] x = new boolean[n];
+        for (int mask = 0; mask < 1 << n; mask++) {
+            for (int i = 0; i < n; i++) {
+                x[i] = (mask >>> i & 1) == 1;
+            }
+            best = Math.min(best, model.energy(x));
+        }
+        return best;
+    }
+
+    @Test
+    void testFindsGroundStateOfSmallModel() {
+        QuboModel model = randomModel(14, 40, 3);
+
+        SimulatedAnnealingSolver.Solution solution = SimulatedAnnealingSolver.solve(model, 500, 4, 7);
+
+        assertEquals(bruteForceMinimum(model), solution.energy(), 1e-9);
+        assertEquals(model.energy(solution.state()), solution.energy(), 0.0);
+        assertEquals(4, solution.replicas());
+        assertEquals(4, solution.counts().values().stream().mapToInt(Integer::intValue).sum());
+        assertTrue(solution.counts().containsKey(SimulatedAnnealingSolver.bitString(solution.state())));
+    }
+
+    @Test
+    void testSameSeedGivesSameSolution() {
+        QuboModel model = randomModel(200, 1500, 5);
+
+        SimulatedAnnealingSolver.Solution first = SimulatedAnnealingSolver.solve(model, 100, 3, 11);
+        SimulatedAnnealingSolver.Solution second = SimulatedAnnealingSolver.solve(model, 100, 3, 11);
+
+        assertArrayEquals(first.state(), second.state());
+        assertEquals(first.counts(), second.counts());
+    }
+
+    @Test
+    void testSelectionQuboIsPythonIsingHamiltonian() {
+        String[] symbols = {"SIM_A", "SIM_B", "SIM_C", "SIM_D"};
+        double[] mu = {0.12, -0.03, 0.25, 0.08};
+        double[] cov = {
+            0.04, 0.01, 0.02, 0.00,
+            0.01, 0.09, -0.01, 0.03,
+            0.02, -0.01, 0.16, 0.05,
+            0.00, 0.03, 0.05, 0.06};
+        RiskModel risk = new RiskModel(symbols, mu, cov, 0, 250);
+
+        QuboModel model = JvmPortfolioOptimizer.selectionQubo(risk, 0.5);
+
+        // build_hamiltonian: -mu_i Z_i + sum_{i < j} 0.5 S_ij Z_i Z_j with Z = +1 for bit 0, -1 for bit 1
+        double lowest = Double.POSITIVE_INFINITY;
+        boolean[] x = new boolean[4];
+        for (int mask = 0; mask < 16; mask++) {
+            double ising = 0;
+            for (int i = 0; i < 4; i++) {
+                x[i] = (mask >>> i & 1) == 1;
+            }
+            for (int i = 0; i < 4; i++) {
+                double zi = x[i] ? -1 : 1;
+                ising -= mu[i] * zi;
+                for (int j = i + 1; j < 4; j++) {
+                    ising += 0.5 * cov[i * 4 + j] * zi * (x[j] ? -1 : 1);
+                }
+            }
+            assertEquals(ising, model.energy(x), 1e-12);
+            lowest = Math.min(lowest, ising);
+        }
+        SimulatedAnnealingSolver.Solution solution = SimulatedAnnealingSolver.solve(model, 200, 2, 1);
+        assertEquals(lowest, solution.energy(), 1e-12);
+        assertEquals(4, solution.bits().length);
+    }
+
+    @Test
+    void testConstantModelAndInvalidSettings() {
+        QuboModel constant = QuboModel.builder(3).addOffset(2).build();
+
+        SimulatedAnnealingSolver.Solution solution = SimulatedAnnealingSolver.solve(constant, 10, 2, 1);
+
+        assertEquals(2, solution.energy(), 0.0);
+        assertThrows(IllegalArgumentException.class, () -> SimulatedAnnealingSolver.solve(constant, 0, 2, 1));
+        assertThrows(IllegalArgumentException.class, () -> SimulatedAnnealingSolver.solve(constant, 10, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new SimulatedAnnealingSolver(100, -1, 1));
+    }
+}
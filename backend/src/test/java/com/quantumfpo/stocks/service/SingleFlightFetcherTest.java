@@ -0,0 +1,172 @@
+package com.quantumfpo.stocks.service;
+
+import com.quantumfpo.stocks.model.StockData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class SingleFlightFetcherTest {
+
+    private AlphaVantageService alphaVantageService;
+    private SingleFlightFetcher fetcher;
+
+    @BeforeEach
+    void setUp() {
+        alphaVantageService = mock(AlphaVantageService.class);
+        fetcher = new SingleFlightFetcher(alphaVantageService);
+    }
+
+    private static List<StockData> history(String symbol) {
+        return List.of(
+            new StockData(symbol, LocalDate.of(2025, 9, 23), 150.0),
+            new StockData(symbol, LocalDate.of(2025, 9, 24), 152.0)
+        );
+    }
+
+    /**
+     * Start callers fetches of symbol while the first provider call is blocked on release
+     */
+    private List<Future<List<StockData>>> fetchConcurrently(ExecutorService pool, String symbol, int callers,
+                                                            CountDownLatch release) throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        when(alphaVantageService.fetchStockHistory(anyString(), anyInt())).thenAnswer(inv -> {
+            entered.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return history(inv.getArgument(0));
+        });
+
+        List<Future<List<StockData>>> futures = new ArrayList<>();
+        futures.add(pool.submit(() -> fetcher.fetchStockHistory(symbol, 30)));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i < callers; i++) {
+            futures.add(pool.submit(() -> fetcher.fetchStockHistory(symbol, 30)));
+        }
+        // Wait until every follower has joined the in-flight fetch
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (fetcher.coalescedCount() < callers - 1 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        return futures;
+    }
+
+    @Test
+    void testConcurrentCallersShareOneFetch() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<List<StockData>>> futures = fetchConcurrently(pool, "AAPL", 8, release);
+            release.countDown();
+
+            List<StockData> first = futures.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<List<StockData>> f : futures) {
+                assertSame(first, f.get(5, TimeUnit.SECONDS));
+            }
+        }
+
+        verify(alphaVantageService, times(1)).fetchStockHistory("AAPL", 30);
+        assertEquals(8, fetcher.requestCount());
+        assertEquals(1, fetcher.executionCount());
+        assertEquals(7, fetcher.coalescedCount());
+        assertEquals(0, fetcher.inFlightCount());
+    }
+
+    @Test
+    void testFailureReachesEveryWaiter() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(alphaVantageService.fetchStockHistory(anyString(), anyInt())).thenAnswer(inv -> {
+            entered.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            throw new RuntimeException("Service error");
+        });
+
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<List<StockData>> leader = pool.submit(() -> fetcher.fetchStockHistory("AAPL", 30));
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+            Future<List<StockData>> follower = pool.submit(() -> fetcher.fetchStockHistory("AAPL", 30));
+            while (fetcher.coalescedCount() < 1) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            for (Future<List<StockData>> f : List.of(leader, follower)) {
+                ExecutionException e = assertThrows(ExecutionException.class, () -> f.get(5, TimeUnit.SECONDS));
+                assertEquals("Service error", e.getCause().getMessage());
+            }
+        }
+        assertEquals(0, fetcher.inFlightCount());
+    }
+
+    @Test
+    void testCompletedFetchIsNotReused() {
+        when(alphaVantageService.fetchStockHistory(anyString(), anyInt()))
+            .thenAnswer(inv -> history(inv.getArgument(0)));
+
+        fetcher.fetchStockHistory("AAPL", 30);
+        fetcher.fetchStockHistory("AAPL", 30);
+
+        verify(alphaVantageService, times(2)).fetchStockHistory("AAPL", 30);
+        assertEquals(0, fetcher.coalescedCount());
+    }
+
+    @Test
+    void testKeyReleasedAfterFailure() {
+        when(alphaVantageService.fetchStockHistory("AAPL", 30))
+            .thenThrow(new RuntimeException("Service error"))
+            .thenReturn(history("AAPL"));
+
+        assertThrows(RuntimeException.class, () -> fetcher.fetchStockHistory("AAPL", 30));
+        assertEquals(2, fetcher.fetchStockHistory("AAPL", 30).size());
+    }
+
+    @Test
+    void testDifferentRangesNotCoalesced() throws Exception {
+        CountDownLatch bothEntered = new CountDownLatch(2);
+        when(alphaVantageService.fetchStockHistory(anyString(), anyInt())).thenAnswer(inv -> {
+            bothEntered.countDown();
+            // Only completes if both fetches reach the provider together
+            assertTrue(bothEntered.await(5, TimeUnit.SECONDS));
+            return history(inv.getArgument(0));
+        });
+
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<List<StockData>> month = pool.submit(() -> fetcher.fetchStockHistory("AAPL", 30));
+            Future<List<StockData>> year = pool.submit(() -> fetcher.fetchStockHistory("AAPL", 365));
+            month.get(10, TimeUnit.SECONDS);
+            year.get(10, TimeUnit.SECONDS);
+        }
+
+        assertEquals(2, fetcher.executionCount());
+        assertEquals(0, fetcher.coalescedCount());
+    }
+
+    @Test
+    void testMetricsBinding() {
+        when(alphaVantageService.fetchStockHistory(anyString(), anyInt()))
+            .thenAnswer(inv -> history(inv.getArgument(0)));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        fetcher.bindTo(registry);
+
+        fetcher.fetchStockHistory("AAPL", 30);
+        fetcher.fetchStockHistory("MSFT", 30);
+
+        assertEquals(2.0, registry.get("marketdata.fetch.requests").functionCounter().count());
+        assertEquals(2.0, registry.get("marketdata.fetch.executions").functionCounter().count());
+        assertEquals(0.0, registry.get("marketdata.fetch.coalesced").functionCounter().count());
+        assertEquals(0.0, registry.get("marketdata.fetch.in.flight").gauge().value());
+    }
+}
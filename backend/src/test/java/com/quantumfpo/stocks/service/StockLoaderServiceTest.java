@@ -0,0 +1,351 @@
+package com.quantumfpo.stocks.service;
+
+import com.quantumfpo.stocks.model.LoadResult;
+import com.quantumfpo.stocks.model.StockData;
+import com.quantumfpo.stocks.store.PriceSeries;
+import com.quantumfpo.stocks.store.PriceStore;
+import com.quantumfpo.stocks.store.PriceView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class StockLoaderServiceTest {
+
+    private AlphaVantageService alphaVantageService;
+    private PriceStore priceStore;
+
+    @BeforeEach
+    void setUp() {
+        alphaVantageService = mock(AlphaVantageService.class);
+        priceStore = new PriceStore();
+    }
+
+    private static List<StockData> history(String symbol) {
+        return Arrays.asList(
+            new StockData(symbol, LocalDate.of(2025, 9, 23), 150.0),
+            new StockData(symbol, LocalDate.of(2025, 9, 24), 152.0)
+        );
+    }
+
+    private static List<StockData> range(String symbol, LocalDate from, LocalDate to) {
+        List<StockData> data = new ArrayList<>();
+        for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+            data.add(new StockData(symbol, d, d.getDayOfMonth()));
+        }
+        return data;
+    }
+
+    private void stubRangeFetches() {
+        when(alphaVantageService.fetchStockHistory(anyString(), any(LocalDate.class), any(LocalDate.class)))
+            .thenAnswer(inv -> range(inv.getArgument(0), inv.getArgument(1), inv.getArgument(2)));
+    }
+
+    @Test
+    void testLoadsAndStoresEverySymbolInRequestOrder() {
+        when(alphaVantageService.fetchStockHistory(anyString(), eq(30)))
+            .thenAnswer(inv -> history(inv.getArgument(0)));
+        StockLoaderService loader = new StockLoaderService(new SingleFlightFetcher(alphaVantageService), priceStore, 4, Duration.ofSeconds(5));
+
+        LoadResult result = loader.load(Arrays.asList("C", "A", "B", "A"), 30);
+
+        assertEquals(List.of("C", "A", "B"), new ArrayList<>(result.getLoaded().keySet()));
+        assertFalse(result.hasFailures());
+        assertEquals(2, priceStore.view("B").size());
+        verify(alphaVantageService, times(1)).fetchStockHistory("A", 30);
+    }
+
+    @Test
+    void testFetchesRunConcurrently() {
+        CountDownLatch allStarted = new CountDownLatch(3);
+        when(alphaVantageService.fetchStockHistory(anyString(), anyInt())).thenAnswer(inv -> {
+            allStarted.countDown();
+            // Only completes if all three fetches are in flight together
+            assertTrue(allStarted.await(5, TimeUnit.SECONDS));
+            return history(inv.getArgument(0));
+        });
+        StockLoaderService loader = new StockLoaderService(new SingleFlightFetcher(alphaVantageService), priceStore, 3, Duration.ofSeconds(10));
+
+        LoadResult result = loader.load(Arrays.asList("A", "B", "C"), 30);
+
+        assertEquals(3, result.getLoaded().size());
+        assertFalse(result.hasFailures());
+    }
+
+    @Test
+    void testConcurrencyCapRespected() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(alphaVantageService.fetchStockHistory(anyString(), anyInt())).thenAnswer(inv -> {
+            int now = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(now, Math::max);
+            Thread.sleep(20);
+            inFlight.decrementAndGet();
+            return history(inv.getArgument(0));
+        });
+        StockLoaderService loader = new StockLoaderService(new SingleFlightFetcher(alphaVantageService), priceStore, 2, Duration.ofSeconds(10));
+
+        List<String> symbols = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            symbols.add("SIM_" + i);
+        }
+        LoadResult result = loader.load(symbols, 30);
+
+        assertEquals(12, result.getLoaded().size());
+        assertTrue(maxInFlight.get() <= 2, "max in flight was " + maxInFlight.get());
+    }
+
+    @Test
+    void testPartialFailuresReportedPerSymbol() {
+        when(alphaVantageService.fetchStockHistory(anyString(), anyInt()))
+            .thenAnswer(inv -> history(inv.getArgument(0)));
+        when(alphaVantageService.fetchStockHistory("BAD", 30)).thenThrow(new RuntimeException("Service error"));
+        StockLoaderService loader = new StockLoaderService(new SingleFlightFetcher(alphaVantageService), priceStore, 4, Duration.ofSeconds(5));
+
+        LoadResult result = loader.load(Arrays.asList("GOOD", "BAD"), 30);
+
+        assertEquals(List.of("GOOD"), new ArrayList<>(result.getLoaded().keySet()));
+        assertEquals("Service error", result.getFailures().get("BAD"));
+        assertTrue(result.hasFailures());
+        assertFalse(result.allFailed());
+    }
+
+    @Test
+    void testSlowSymbolTimesOut() {
+        when(alphaVantageService.fetchStockHistory(anyString(), anyInt()))
+            .thenAnswer(inv -> history(inv.getArgument(0)));
+        when(alphaVantageService.fetchStockHistory("SLOW", 30)).thenAnswer(inv -> {
+            Thread.sleep(10_000);
+            return history("SLOW");
+        });
+        StockLoaderService loader = new StockLoaderService(new SingleFlightFetcher(alphaVantageService), priceStore, 4, Duration.ofMillis(100));
+
+        long start = System.nanoTime();
+        LoadResult result = loader.load(Arrays.asList("FAST", "SLOW"), 30);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMs < 5_000, "load took " + elapsedMs + " ms");
+        assertTrue(result.getLoaded().containsKey("FAST"));
+        assertTrue(result.getFailures().get("SLOW").startsWith("Timed out"));
+        assertFalse(priceStore.contains("SLOW"));
+    }
+
+    @Test
+    void testAllFailed() {
+        when(alphaVantageService.fetchStockHistory(anyString(), anyInt())).thenThrow(new IllegalStateException());
+        StockLoaderService loader = new StockLoaderService(new SingleFlightFetcher(alphaVantageService), priceStore, 4, Duration.ofSeconds(5));
+
+        LoadResult result = loader.load(Arrays.asList("A", "B"), 30);
+
+        assertTrue(result.allFailed());
+        assertEquals("IllegalStateException", result.getFailures().get("A"));
+    }
+
+    @Test
+    void testInvalidConcurrencyRejected() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new StockLoaderService(new SingleFlightFetcher(alphaVantageService), priceStore, 0, Duration.ofSeconds(1)));
+    }
+
+    @Test
+    void testHeldSymbolFetchesOnlyMissingTail() {
+        LocalDate today = LocalDate.now();
+        priceStore.put("AAPL", range("AAPL", today.minusDays(29), today.minusDays(5)));
+        stubRangeFetches();
+        StockLoaderService loader = new StockLoaderService(new SingleFlightFetcher(alphaVantageService), priceStore, 4, Duration.ofSeconds(5));
+
+        LoadResult result = loader.load(List.of("AAPL"), 30);
+
+        verify(alphaVantageService).fetchStockHistory("AAPL", today.minusDays(4), today);
+        verify(alphaVantageService, never()).fetchStockHistory(anyString(), anyInt());
+        assertEquals(30, result.getLoaded().get("AAPL").size());
+        assertEquals(today, result.getLoaded().get("AAPL").date(29));
+    }
+
+    @Test
+    void testLongerPeriodFetchesHeadAndTail() {
+        LocalDate today = LocalDate.now();
+        priceStore.put("AAPL", range("AAPL", today.minusDays(29), today.minusDays(1)));
+        stubRangeFetches();
+        StockLoaderService loader = new StockLoaderService(new SingleFlightFetcher(alphaVantageService), priceStore, 4, Duration.ofSeconds(5));
+
+        LoadResult result = loader.load(List.of("AAPL"), 60);
+
+        verify(alphaVantageService).fetchStockHistory("AAPL", today.minusDays(59), today.minusDays(30));
+        verify(alphaVantageService).fetchStockHistory("AAPL", today, today);
+        assertEquals(60, result.getLoaded().get("AAPL").size());
+        assertEquals(60, priceStore.view("AAPL").size());
+    }
+
+    @Test
+    void testCoveredSymbolNotFetched() {
+        LocalDate today = LocalDate.now();
+        priceStore.put("AAPL", range("AAPL", today.minusDays(89), today));
+        StockLoaderService loader = new StockLoaderService(new SingleFlightFetcher(alphaVantageService), priceStore, 4, Duration.ofSeconds(5));
+
+        LoadResult result = loader.load(List.of("AAPL"), 30);
+
+        verifyNoInteractions(alphaVantageService);
+        assertEquals(30, result.getLoaded().get("AAPL").size());
+        assertEquals(90, priceStore.view("AAPL").size());
+    }
+
+    @Test
+    void testDisjointHistoryMerged() {
+        priceStore.put("AAPL", range("AAPL", LocalDate.of(2020, 1, 1), LocalDate.of(2020, 3, 1)));
+        when(alphaVantageService.fetchStockHistory("AAPL", 30)).thenReturn(history("AAPL"));
+        StockLoaderService loader = new StockLoaderService(new SingleFlightFetcher(alphaVantageService), priceStore, 4, Duration.ofSeconds(5));
+
+        LoadResult result = loader.load(List.of("AAPL"), 30);
+
+        assertEquals(2, result.getLoaded().get("AAPL").size());
+        // The 61 older days are kept alongside the fetched window
+        assertEquals(63, priceStore.view("AAPL").size());
+        assertEquals(LocalDate.of(2020, 1, 1), priceStore.view("AAPL").date(0));
+    }
+
+    // Serves range() rows and records every bulk call as "symbols from..to"
+    private static final class BulkProvider implements MarketDataProvider {
+        final List<String> calls = new ArrayList<>();
+
+        @Override
+        public List<StockData> fetchStockHistory(String symbol, LocalDate from, LocalDate to) {
+            throw new AssertionError("Single-symbol fetch of " + symbol);
+        }
+
+        @Override
+        public synchronized Map<String, PriceView> fetchMany(Collection<String> symbols, LocalDate from, LocalDate to) {
+            calls.add(symbols + " " + from + ".." + to);
+            if (symbols.contains("BAD")) {
+                throw new IllegalStateException("Dump unreadable");
+            }
+            Map<String, PriceView> views = new LinkedHashMap<>();
+            for (String symbol : symbols) {
+                views.put(symbol, PriceSeries.fromStockData(symbol, range(symbol, from, to)).view());
+            }
+            return views;
+        }
+
+        @Override
+        public boolean supportsBulk() {
+            return true;
+        }
+    }
+
+    @Test
+    void testBulkProviderFetchesEachMissingRangeOnce() {
+        LocalDate today = LocalDate.now();
+        priceStore.put("HELD", range("HELD", today.minusDays(29), today.minusDays(3)));
+        BulkProvider provider = new BulkProvider();
+        StockLoaderService loader = new StockLoaderService(new SingleFlightFetcher(provider), priceStore, 4, Duration.ofSeconds(5));
+
+        LoadResult result = loader.load(List.of("NEW_A", "HELD", "NEW_B"), 30);
+
+        assertEquals(2, provider.calls.size());
+        assertTrue(provider.calls.contains("[NEW_A, NEW_B] " + today.minusDays(29) + ".." + today));
+        assertTrue(provider.calls.contains("[HELD] " + today.minusDays(2) + ".." + today));
+        assertEquals(30, result.getLoaded().get("NEW_A").size());
+        assertEquals(30, result.getLoaded().get("HELD").size());
+        assertEquals(30, priceStore.view("NEW_B").size());
+        assertTrue(result.getFailures().isEmpty());
+    }
+
+    @Test
+    void testFailedBulkCallFailsOnlyItsSymbols() {
+        LocalDate today = LocalDate.now();
+        priceStore.put("HELD", range("HELD", today.minusDays(29), today.minusDays(1)));
+        StockLoaderService loader = new StockLoaderService(new SingleFlightFetcher(new BulkProvider()), priceStore, 4, Duration.ofSeconds(5));
+
+        LoadResult result = loader.load(List.of("BAD", "NEW", "HELD"), 30);
+
+        assertEquals(Set.of("BAD", "NEW"), result.getFailures().keySet());
+        assertEquals("Dump unreadable", result.getFailures().get("NEW"));
+        assertEquals(30, result.getLoaded().get("HELD").size());
+    }
+
+    @Test
+    void testDeltaLinesUpWithFullSimulatedFetch() {
+        AlphaVantageService simulator = new AlphaVantageService();
+        List<StockData> full = simulator.fetchStockHistory("SIM_AAPL", 30);
+        priceStore.put("SIM_AAPL", full.subList(0, 20));
+        StockLoaderService loader = new StockLoaderService(new SingleFlightFetcher(simulator), priceStore, 4, Duration.ofSeconds(5));
+
+        LoadResult result = loader.load(List.of("SIM_AAPL"), 30);
+
+        List<StockData> merged = result.getLoaded().get("SIM_AAPL").toStockData();
+        assertEquals(full.size(), merged.size());
+        for (int i = 0; i < full.size(); i++) {
+            assertEquals(full.get(i).getDate(), merged.get(i).getDate());
+            assertEquals(full.get(i).getClose(), merged.get(i).getClose());
+        }
+    }
+
+    @Test
+    void testSimulatedReturnsVaryFarFromTheAnchor() {
+        AlphaVantageService simulator = new AlphaVantageService();
+
+        for (String symbol : List.of("SIM_AAPL", "SIM_MSFT")) {
+            List<StockData> history = simulator.fetchStockHistory(symbol, LocalDate.of(2022, 1, 1), LocalDate.of(2022, 12, 31));
+            int up = 0;
+            for (int i = 1; i < history.size(); i++) {
+                assertTrue(history.get(i).getClose() > 0);
+                assertNotEquals(history.get(i - 1).getClose(), history.get(i).getClose());
+                up += history.get(i).getClose() > history.get(i - 1).getClose() ? 1 : 0;
+            }
+            // Independent daily shocks move the close both ways
+            assertTrue(up > 120 && up < 245, symbol + " rose on " + up + " of 364 days");
+        }
+    }
+
+    @Test
+    void testListenerReportsEachSymbolAsItCompletes() {
+        CountDownLatch fastReported = new CountDownLatch(1);
+        when(alphaVantageService.fetchStockHistory(anyString(), anyInt()))
+            .thenAnswer(inv -> history(inv.getArgument(0)));
+        when(alphaVantageService.fetchStockHistory("SLOW", 30)).thenAnswer(inv -> {
+            // Held back until the fast symbol has already been reported
+            assertTrue(fastReported.await(5, TimeUnit.SECONDS));
+            return history("SLOW");
+        });
+        when(alphaVantageService.fetchStockHistory("BAD", 30)).thenThrow(new RuntimeException("Service error"));
+        StockLoaderService loader = new StockLoaderService(new SingleFlightFetcher(alphaVantageService), priceStore, 4, Duration.ofSeconds(10));
+
+        List<String> events = new ArrayList<>();
+        LoadResult result = loader.load(Arrays.asList("SLOW", "FAST", "BAD"), 30, new StockLoaderService.LoadListener() {
+            @Override
+            public void loaded(String symbol, PriceView view) {
+                events.add(symbol + ":" + view.size());
+                if (symbol.equals("FAST")) {
+                    fastReported.countDown();
+                }
+            }
+
+            @Override
+            public void failed(String symbol, String reason) {
+                events.add(symbol + ":" + reason);
+            }
+        });
+
+        assertEquals(3, events.size());
+        assertTrue(events.indexOf("FAST:2") < events.indexOf("SLOW:2"));
+        assertTrue(events.contains("BAD:Service error"));
+        assertEquals(List.of("SLOW", "FAST"), new ArrayList<>(result.getLoaded().keySet()));
+    }
+}
@@ -0,0 +1,126 @@
+package com.quantumfpo.stocks.service;
+
+import com.quantumfpo.stocks.model.SyntheticUniverse;
+import com.quantumfpo.stocks.store.PriceView;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticMarketGeneratorTest {
+
+    private static final LocalDate END = LocalDate.of(2025, 9, 24);
+
+    private final SyntheticMarketGenerator generator = new SyntheticMarketGenerator(3, 0.4, 42);
+
+    private static SyntheticMarketGenerator.Spec spec(int symbols, int days, int factors, double share) {
+        return new SyntheticMarketGenerator.Spec(symbols, days, factors, share, 7L, END);
+    }
+
+    private static double[] logReturns(SyntheticUniverse u, int i) {
+        double[] r = new double[u.days() - 1];
+        for (int t = 1; t < u.days(); t++) {
+            r[t - 1] = Math.log(u.close(i, t) / u.close(i, t - 1));
+        }
+        return r;
+    }
+
+    private static double correlation(double[] a, double[] b) {
+        double ma = 0, mb = 0;
+        for (int i = 0; i < a.length; i++) {
+            ma += a[i];
+            mb += b[i];
+        }
+        ma /= a.length;
+        mb /= b.length;
+        double cov = 0, va = 0, vb = 0;
+        for (int i = 0; i < a.length; i++) {
+            cov += (a[i] - ma) * (b[i] - mb);
+            va += (a[i] - ma) * (a[i] - ma);
+            vb += (b[i] - mb) * (b[i] - mb);
+        }
+        return cov / Math.sqrt(va * vb);
+    }
+
+    private static double meanPairwiseCorrelation(SyntheticUniverse u) {
+        double sum = 0;
+        int pairs = 0;
+        for (int i = 0; i < u.size(); i++) {
+            for (int j = i + 1; j < u.size(); j++) {
+                sum += correlation(logReturns(u, i), logReturns(u, j));
+                pairs++;
+            }
+        }
+        return sum / pairs;
+    }
+
+    @Test
+    void testShapeDatesAndPositivePrices() {
+        SyntheticUniverse u = generator.generate(spec(50, 30, 3, 0.4));
+
+        assertEquals(50, u.size());
+        assertEquals(30, u.days());
+        assertEquals("SYN_0", u.symbol(0));
+        assertEquals(END.toEpochDay(), u.epochDay(29));
+        assertEquals(END.minusDays(29).toEpochDay(), u.epochDay(0));
+        for (int i = 0; i < u.size(); i++) {
+            for (int t = 0; t < u.days(); t++) {
+                assertTrue(u.close(i, t) > 0);
+            }
+        }
+    }
+
+    @Test
+    void testSameSpecGivesSameUniverse() {
+        SyntheticUniverse a = generator.generate(spec(200, 60, 3, 0.4));
+        SyntheticUniverse b = generator.generate(spec(200, 60, 3, 0.4));
+
+        for (int i = 0; i < a.size(); i++) {
+            for (int t = 0; t < a.days(); t++) {
+                assertEquals(a.close(i, t), b.close(i, t), 0.0);
+            }
+        }
+    }
+
+    @Test
+    void testSingleFactorCorrelationMatchesShare() {
+        SyntheticUniverse u = generator.generate(spec(20, 2000, 1, 0.5));
+
+        assertEquals(0.5, meanPairwiseCorrelation(u), 0.05);
+    }
+
+    @Test
+    void testZeroShareIsUncorrelated() {
+        SyntheticUniverse u = generator.generate(spec(20, 2000, 3, 0.0));
+
+        assertEquals(0.0, meanPairwiseCorrelation(u), 0.05);
+    }
+
+    @Test
+    void testSeriesCopiesOneSymbol() {
+        SyntheticUniverse u = generator.generate(spec(5, 10, 2, 0.3));
+
+        PriceView view = u.series(3).view();
+        assertEquals("SYN_3", view.getSymbol());
+        assertEquals(10, view.size());
+        assertEquals(u.close(3, 9), view.close(9), 0.0);
+        assertEquals(END, view.date(9));
+    }
+
+    @Test
+    void testLargeUniverse() {
+        SyntheticUniverse u = generator.generate(10_000, 252);
+
+        assertEquals(10_000, u.size());
+        assertEquals(LocalDate.now().toEpochDay(), u.epochDay(251));
+    }
+
+    @Test
+    void testInvalidSpecRejected() {
+        assertThrows(IllegalArgumentException.class, () -> spec(0, 10, 1, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> spec(10, 0, 1, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> spec(10, 10, 0, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> spec(10, 10, 1, 1.5));
+    }
+}
@@ -0,0 +1,130 @@
+package com.quantumfpo.stocks.service;
+
+import com.quantumfpo.stocks.store.PriceStore;
+import com.quantumfpo.stocks.store.PriceView;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TickIngestionServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 9, 23);
+
+    private final PriceStore store = new PriceStore();
+
+    private static long at(LocalDate date, int hour) {
+        return date.atTime(hour, 0).toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    // Ticks are only taken for symbols with stored history, so each starts with one earlier close
+    private void seed(String... symbols) {
+        for (String symbol : symbols) {
+            store.append(symbol, DAY.minusDays(7), 1.0);
+        }
+    }
+
+    @Test
+    void testPumpWritesBarsToStore() {
+        seed("SIM_AAPL");
+        TickIngestionService service = new TickIngestionService(store, 16, Duration.ZERO);
+        service.offer("SIM_AAPL", at(DAY, 14), 150.0, 10);
+        service.offer("SIM_AAPL", at(DAY, 15), 151.0, 10);
+        service.offer("SIM_AAPL", at(DAY.plusDays(1), 14), 153.0, 10);
+
+        assertEquals(3, service.pump());
+
+        PriceView view = store.view("SIM_AAPL");
+        assertEquals(3, view.size());
+        assertEquals(DAY, view.date(1));
+        assertEquals(151.0, view.close(1), 1e-12);
+        assertEquals(153.0, view.close(2), 1e-12);
+    }
+
+    @Test
+    void testOpenBarUpdatedInPlaceOfEarlierClose() {
+        seed("SIM_AAPL");
+        TickIngestionService service = new TickIngestionService(store, 16, Duration.ZERO);
+        service.offer("SIM_AAPL", at(DAY, 14), 150.0, 1);
+        service.pump();
+        service.offer("SIM_AAPL", at(DAY, 16), 152.5, 1);
+        service.pump();
+
+        PriceView view = store.view("SIM_AAPL");
+        assertEquals(2, view.size());
+        assertEquals(152.5, view.close(1), 1e-12);
+    }
+
+    @Test
+    void testFailedBarWriteDoesNotStallTheRing() {
+        PriceStore failing = new PriceStore() {
+            @Override
+            public void updateLast(String symbol, LocalDate date, double close) {
+                if (symbol.equals("BAD")) {
+                    throw new UncheckedIOException(new IOException("disk full"));
+                }
+                super.updateLast(symbol, date, close);
+            }
+        };
+        failing.append("BAD", DAY.minusDays(7), 1.0);
+        failing.append("SIM_AAPL", DAY.minusDays(7), 1.0);
+        TickIngestionService service = new TickIngestionService(failing, 4, Duration.ZERO);
+        service.offer("BAD", at(DAY, 14), 10.0, 1);
+        service.offer("SIM_AAPL", at(DAY, 14), 150.0, 1);
+
+        assertEquals(2, service.pump());
+
+        assertEquals(0, service.pendingCount());
+        assertEquals(1, service.failedBarCount());
+        assertEquals(150.0, failing.view("SIM_AAPL").close(1), 1e-12);
+        assertTrue(service.offer("BAD", at(DAY, 15), 11.0, 1));
+    }
+
+    @Test
+    void testFullRingRejects() {
+        seed("A");
+        TickIngestionService service = new TickIngestionService(store, 2, Duration.ZERO);
+
+        assertTrue(service.offer("A", at(DAY, 14), 1.0, 0));
+        assertTrue(service.offer("A", at(DAY, 14), 1.0, 0));
+        assertFalse(service.offer("A", at(DAY, 14), 1.0, 0));
+        assertEquals(2, service.acceptedCount());
+        assertEquals(1, service.rejectedCount());
+        assertEquals(2, service.pendingCount());
+    }
+
+    @Test
+    void testInvalidTickRejected() {
+        seed("A");
+        TickIngestionService service = new TickIngestionService(store, 2, Duration.ZERO);
+
+        assertThrows(IllegalArgumentException.class, () -> service.offer("A", 0L, -1.0, 0));
+        assertThrows(IllegalArgumentException.class, () -> service.offer("A", 0L, Double.NaN, 0));
+        assertThrows(IllegalArgumentException.class, () -> service.offer("NEVER_STORED", 0L, 1.0, 0));
+        assertEquals(-1, store.find("NEVER_STORED"));
+        assertEquals(0, service.pendingCount());
+    }
+
+    @Test
+    void testStopDrainsAndFlushes() {
+        seed("SIM_0", "SIM_1", "SIM_2", "SIM_3", "SIM_4");
+        TickIngestionService service = new TickIngestionService(store, 1024, Duration.ofHours(1));
+        service.start();
+        for (int i = 0; i < 500; i++) {
+            assertTrue(service.offer("SIM_" + (i % 5), at(DAY, 10) + i, 100.0 + i, 1));
+        }
+        service.stop();
+
+        assertEquals(0, service.pendingCount());
+        for (int s = 0; s < 5; s++) {
+            PriceView view = store.view("SIM_" + s);
+            assertEquals(2, view.size());
+            assertEquals(100.0 + 495 + s, view.close(1), 1e-12);
+        }
+    }
+}
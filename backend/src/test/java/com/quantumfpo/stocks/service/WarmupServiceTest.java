@@ -0,0 +1,103 @@
+package com.quantumfpo.stocks.service;
+
+import com.quantumfpo.stocks.store.PriceSeries;
+import com.quantumfpo.stocks.store.PriceSnapshot;
+import com.quantumfpo.stocks.store.PriceStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WarmupServiceTest {
+
+    private static PriceSeries series(String symbol, double close) {
+        PriceSeries series = new PriceSeries(symbol, 3);
+        for (int i = 0; i < 3; i++) {
+            series.append(18_000 + i, close + i);
+        }
+        return series;
+    }
+
+    private static void awaitWarm(WarmupService service) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!service.isWarm() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(service.isWarm());
+    }
+
+    @Test
+    void testRestoreSkipsSymbolsAlreadyStored(@TempDir Path dir) throws Exception {
+        Path path = dir.resolve("prices.snap");
+        PriceStore before = new PriceStore();
+        before.put("SIM_AAPL", series("SIM_AAPL", 100));
+        before.put("SIM_MSFT", series("SIM_MSFT", 300));
+        assertEquals(2, new WarmupService(before, path.toString(), Duration.ZERO, 100).snapshot());
+
+        PriceStore after = new PriceStore();
+        after.put("SIM_MSFT", series("SIM_MSFT", 310));
+        WarmupService warmup = new WarmupService(after, path.toString(), Duration.ZERO, 100);
+        warmup.start();
+        awaitWarm(warmup);
+
+        assertEquals(WarmupService.State.READY, warmup.getState());
+        assertEquals(100.0, after.view("SIM_AAPL").close(0), 0.0);
+        assertEquals(310.0, after.view("SIM_MSFT").close(0), 0.0);
+        assertEquals(2, warmup.progress().get("restoredSymbols"));
+        assertEquals(3L, warmup.progress().get("restoredPoints"));
+        assertFalse(warmup.progress().containsKey("snapshotPath"));
+        warmup.stop();
+    }
+
+    @Test
+    void testSnapshotKeepsMostRecentlyUsedSymbols(@TempDir Path dir) throws IOException {
+        Path path = dir.resolve("prices.snap");
+        PriceStore store = new PriceStore();
+        store.put("SIM_A", series("SIM_A", 1));
+        store.put("SIM_B", series("SIM_B", 2));
+        store.put("SIM_C", series("SIM_C", 3));
+        store.view("SIM_A");
+
+        assertEquals(2, new WarmupService(store, path.toString(), Duration.ZERO, 2).snapshot());
+
+        List<String> written = new ArrayList<>();
+        PriceSnapshot.read(path, (series, index, total) -> written.add(series.getSymbol()));
+        assertEquals(List.of("SIM_C", "SIM_A"), written);
+    }
+
+    @Test
+    void testMissingOrCorruptSnapshotDoesNotHoldReadiness(@TempDir Path dir) throws Exception {
+        WarmupService missing = new WarmupService(new PriceStore(), dir.resolve("none.snap").toString(), Duration.ZERO, 100);
+        missing.start();
+        awaitWarm(missing);
+        assertEquals(WarmupService.State.READY, missing.getState());
+
+        Path corrupt = dir.resolve("corrupt.snap");
+        Files.writeString(corrupt, "not a snapshot");
+        WarmupService failed = new WarmupService(new PriceStore(), corrupt.toString(), Duration.ZERO, 100);
+        failed.start();
+        awaitWarm(failed);
+        assertEquals(WarmupService.State.FAILED, failed.getState());
+        assertNotNull(failed.progress().get("failure"));
+    }
+
+    @Test
+    void testDisabledWithoutPath() throws IOException {
+        PriceStore store = new PriceStore();
+        store.put("SIM_AAPL", series("SIM_AAPL", 100));
+        WarmupService warmup = new WarmupService(store, "", Duration.ofMinutes(5), 100);
+        warmup.start();
+
+        assertEquals(WarmupService.State.DISABLED, warmup.getState());
+        assertTrue(warmup.isWarm());
+        assertEquals(0, warmup.snapshot());
+        warmup.stop();
+    }
+}
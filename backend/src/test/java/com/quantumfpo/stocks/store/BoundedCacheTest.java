@@ -0,0 +1,196 @@
+package com.quantumfpo.stocks.store;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private BoundedCache<String, String> cache(long maxEntries, long maxWeight, Duration ttl) {
+        return new BoundedCache<>(maxEntries, maxWeight, ttl, String::length, clock::get);
+    }
+
+    @Test
+    void testLeastRecentlyUsedEvictedFirst() {
+        BoundedCache<String, String> cache = cache(2, Long.MAX_VALUE, Duration.ZERO);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a"); // "b" is now least recently used
+        cache.put("c", "3");
+
+        assertEquals(List.of("a", "c"), cache.keys());
+        assertNull(cache.get("b"));
+        assertEquals(1, cache.evictionCount());
+    }
+
+    @Test
+    void testWeightBoundEvicts() {
+        BoundedCache<String, String> cache = cache(100, 10, Duration.ZERO);
+        cache.put("a", "aaaa");
+        cache.put("b", "bbbb");
+        cache.put("c", "cccc");
+
+        assertEquals(2, cache.size());
+        assertEquals(8, cache.weight());
+        assertFalse(cache.containsKey("a"));
+    }
+
+    @Test
+    void testOversizedEntryStillCached() {
+        BoundedCache<String, String> cache = cache(100, 3, Duration.ZERO);
+        cache.put("a", "a");
+        cache.put("big", "0123456789");
+
+        assertEquals(List.of("big"), cache.keys());
+    }
+
+    @Test
+    void testReweighAfterInPlaceGrowth() {
+        BoundedCache<String, StringBuilder> cache =
+            new BoundedCache<>(100, 10, Duration.ZERO, StringBuilder::length, clock::get);
+        StringBuilder a = new StringBuilder("aaaa");
+        cache.put("a", a);
+        cache.put("b", new StringBuilder("bbbb"));
+
+        a.append("aaaa");
+        cache.reweigh("a");
+
+        // "a" grew past the budget; the least recently used entry goes first
+        assertEquals(8, cache.weight());
+        assertEquals(List.of("a"), cache.keys());
+    }
+
+    @Test
+    void testDefaultTtlExpires() {
+        BoundedCache<String, String> cache = cache(10, 100, Duration.ofSeconds(5));
+        cache.put("a", "1");
+
+        clock.set(TimeUnit.SECONDS.toNanos(4));
+        assertEquals("1", cache.get("a"));
+
+        clock.set(TimeUnit.SECONDS.toNanos(5));
+        assertNull(cache.get("a"));
+        assertEquals(1, cache.expiredCount());
+        assertEquals(0, cache.weight());
+    }
+
+    @Test
+    void testPerEntryTtlOverridesDefault() {
+        BoundedCache<String, String> cache = cache(10, 100, Duration.ofSeconds(5));
+        cache.put("short", "1", Duration.ofSeconds(1));
+        cache.put("long", "2", Duration.ofHours(1));
+
+        clock.set(TimeUnit.SECONDS.toNanos(10));
+        cache.cleanUp();
+
+        assertEquals(List.of("long"), cache.keys());
+        assertEquals(1, cache.expiredCount());
+    }
+
+    @Test
+    void testLoaderOnlyRunsOnMiss() {
+        BoundedCache<String, String> cache = cache(10, 100, Duration.ZERO);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("v", cache.get("k", k -> { loads.incrementAndGet(); return "v"; }));
+        assertEquals("v", cache.get("k", k -> { loads.incrementAndGet(); return "other"; }));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    void testRemove() {
+        BoundedCache<String, String> cache = cache(10, 100, Duration.ZERO);
+        cache.put("a", "abc");
+
+        assertEquals("abc", cache.remove("a"));
+        assertNull(cache.remove("a"));
+        assertEquals(0, cache.weight());
+    }
+
+    @Test
+    void testInvalidBoundsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> cache(0, 10, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> cache(10, 0, Duration.ZERO));
+    }
+
+    @Test
+    void testConcurrentAccessStaysWithinBounds() throws Exception {
+        BoundedCache<String, String> cache = new BoundedCache<>(50, 1_000, Duration.ZERO, String::length);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new java.util.ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int seed = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 5_000; i++) {
+                        String key = "k" + ((i * 31 + seed) % 200);
+                        if (cache.get(key) == null) {
+                            cache.put(key, "value" + i);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertTrue(cache.size() <= 50);
+        assertTrue(cache.weight() <= 1_000);
+        long sum = cache.values().stream().mapToLong(String::length).sum();
+        assertEquals(sum, cache.weight());
+    }
+
+    @Test
+    void testEvictionListenerSeesOnlyEvictions() {
+        BoundedCache<String, String> cache = cache(2, Long.MAX_VALUE, Duration.ofSeconds(10));
+        List<String> evicted = new ArrayList<>();
+        cache.onEviction((key, value) -> evicted.add(key + "=" + value));
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.remove("b");
+        cache.put("b", "2");
+        cache.put("c", "3");
+        clock.addAndGet(Duration.ofSeconds(11).toNanos());
+        cache.cleanUp();
+
+        assertEquals(List.of("a=1"), evicted);
+    }
+
+    @Test
+    void testMetricsBinding() {
+        BoundedCache<String, String> cache = cache(1, 100, Duration.ZERO);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new BoundedCacheMetrics(cache, "prices", Tags.empty()).bindTo(registry);
+
+        cache.put("a", "abc");
+        cache.get("a");
+        cache.get("missing");
+        cache.put("b", "de");
+
+        assertEquals(1.0, registry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tag("result", "miss").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.evictions").functionCounter().count());
+        assertEquals(2.0, registry.get("cache.weight").gauge().value());
+        assertEquals(1.0, registry.get("cache.size").tag("cache", "prices").gauge().value());
+    }
+}
@@ -0,0 +1,148 @@
+package com.quantumfpo.stocks.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedPriceSeriesTest {
+
+    // Weekday calendar with a random walk in whole cents, as real daily closes look
+    private static PriceView centQuotes(int points) {
+        PriceSeries series = new PriceSeries("SIM_AAPL", points);
+        SplittableRandom random = new SplittableRandom(7);
+        LocalDate date = LocalDate.of(2020, 1, 1);
+        long cents = 15_000;
+        for (int i = 0; i < points; i++) {
+            while (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                date = date.plusDays(1);
+            }
+            series.append((int) date.toEpochDay(), cents / 100.0);
+            cents = Math.max(100, cents + (long) (random.nextGaussian() * 150));
+            date = date.plusDays(1);
+        }
+        return series.view();
+    }
+
+    // Full-precision closes, which only the XOR path can hold
+    private static PriceView simulated(int points) {
+        PriceSeries series = new PriceSeries("SIM_MSFT", points);
+        SplittableRandom random = new SplittableRandom(11);
+        double close = 300;
+        for (int i = 0; i < points; i++) {
+            series.append(18_000 + i, close);
+            if (random.nextInt(10) > 0) {
+                close *= Math.exp(random.nextGaussian() * 0.01);
+            }
+        }
+        return series.view();
+    }
+
+    private static void assertSamePoints(PriceView expected, PriceView actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.epochDay(i), actual.epochDay(i));
+            assertEquals(Double.doubleToRawLongBits(expected.close(i)), Double.doubleToRawLongBits(actual.close(i)));
+        }
+    }
+
+    @Test
+    void testDecimalClosesRoundTripAndCompress() {
+        PriceView view = centQuotes(2_000);
+        CompressedPriceSeries compressed = CompressedPriceSeries.encode(view, 256);
+
+        assertSamePoints(view, compressed.decode().view());
+        assertEquals(8, compressed.blockCount());
+        // 12 bytes a point uncompressed
+        assertTrue(compressed.compressedBytes() * 5 < 12L * view.size(),
+            "compressed to " + compressed.compressedBytes() + " bytes");
+    }
+
+    @Test
+    void testFullPrecisionClosesRoundTripExactly() {
+        PriceView view = simulated(1_500);
+        CompressedPriceSeries compressed = CompressedPriceSeries.encode(view, 128);
+
+        assertSamePoints(view, compressed.decode().view());
+        assertTrue(compressed.compressedBytes() < 12L * view.size());
+    }
+
+    @Test
+    void testSpecialValuesRoundTrip() {
+        int[] days = {1, 2, 40, 41, 1_000_000};
+        double[] closes = {-0.0, Double.NaN, Double.MAX_VALUE, Double.MIN_VALUE, 0.1};
+        PriceView view = PriceSeries.fromColumns("X", days, closes, days.length).view();
+
+        assertSamePoints(view, CompressedPriceSeries.encode(view, 2).decode().view());
+    }
+
+    @Test
+    void testRandomAccessByIndex() {
+        PriceView view = centQuotes(1_000);
+        CompressedPriceSeries compressed = CompressedPriceSeries.encode(view, 100);
+
+        for (int i : new int[]{0, 99, 100, 555, 999}) {
+            assertEquals(view.epochDay(i), compressed.epochDay(i));
+            assertEquals(view.close(i), compressed.close(i), 0.0);
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> compressed.close(1_000));
+    }
+
+    @Test
+    void testSliceMatchesUncompressedSlice() {
+        PriceView view = centQuotes(1_000);
+        CompressedPriceSeries compressed = CompressedPriceSeries.encode(view, 64);
+        int from = view.epochDay(130) + 1;
+        int to = view.epochDay(700);
+
+        assertSamePoints(view.slice(from, to), compressed.slice(from, to).view());
+        assertTrue(compressed.slice(view.lastEpochDay() + 1, Integer.MAX_VALUE).isEmpty());
+        assertSamePoints(view, compressed.slice(Integer.MIN_VALUE, Integer.MAX_VALUE).view());
+    }
+
+    @Test
+    void testDecoderFillsArraysInChunks() {
+        PriceView view = simulated(1_000);
+        CompressedPriceSeries.Decoder decoder = CompressedPriceSeries.encode(view, 64).decoder(10);
+        int[] days = new int[1_000];
+        double[] closes = new double[1_000];
+        int total = 0;
+        int read;
+        while ((read = decoder.read(days, closes, total, 37)) > 0) {
+            total += read;
+        }
+
+        assertEquals(990, total);
+        assertEquals(0, decoder.remaining());
+        assertSamePoints(view.slice(view.epochDay(10), Integer.MAX_VALUE),
+            PriceSeries.fromColumns("SIM_MSFT", days, closes, total).view());
+    }
+
+    @Test
+    void testStreamRoundTrip() throws IOException {
+        CompressedPriceSeries compressed = CompressedPriceSeries.encode(centQuotes(700), 128);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        compressed.writeTo(out);
+        CompressedPriceSeries read = CompressedPriceSeries.readFrom(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals("SIM_AAPL", read.getSymbol());
+        assertEquals(compressed.lastEpochDay(), read.lastEpochDay());
+        assertSamePoints(compressed.decode().view(), read.decode().view());
+    }
+
+    @Test
+    void testEmptySeries() {
+        CompressedPriceSeries compressed = CompressedPriceSeries.encode(PriceView.empty("X"));
+
+        assertTrue(compressed.isEmpty());
+        assertEquals(0, compressed.decode().size());
+        assertFalse(compressed.decoder().hasNext());
+        assertThrows(IllegalStateException.class, compressed::firstEpochDay);
+    }
+}
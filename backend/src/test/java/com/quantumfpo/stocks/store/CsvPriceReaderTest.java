@@ -0,0 +1,112 @@
+package com.quantumfpo.stocks.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvPriceReaderTest {
+
+    @TempDir
+    Path dir;
+
+    private Path write(String content) throws IOException {
+        return Files.writeString(dir.resolve("SIM_AAPL.csv"), content);
+    }
+
+    private static int day(String iso) {
+        return (int) LocalDate.parse(iso).toEpochDay();
+    }
+
+    @Test
+    void testReadsDateCloseRowsAfterHeader() throws IOException {
+        Path csv = write("date,close\n2025-01-02,101.5\n2025-01-03,102.25\r\n2025-01-06,99\n");
+
+        PriceView view = new CsvPriceReader(1).read("SIM_AAPL", csv, Integer.MIN_VALUE, Integer.MAX_VALUE).view();
+
+        assertArrayEquals(new int[] {day("2025-01-02"), day("2025-01-03"), day("2025-01-06")}, view.copyEpochDays());
+        assertArrayEquals(new double[] {101.5, 102.25, 99.0}, view.copyCloses(), 0.0);
+    }
+
+    @Test
+    void testCloseColumnAndDateRange() throws IOException {
+        Path csv = write("Date,Open,High,Low,Close,Volume\n"
+            + "2025-01-02,1,2,0.5,1.5,100\n"
+            + "2025-01-03,1,2,0.5,1.75,100\n"
+            + "2025-01-06,1,2,0.5,1.25,100");
+
+        PriceView view = new CsvPriceReader(4).read("SIM_AAPL", csv, day("2025-01-03"), day("2025-01-06")).view();
+
+        assertArrayEquals(new double[] {1.75, 1.25}, view.copyCloses(), 0.0);
+    }
+
+    @Test
+    void testUnorderedRowsSortedLastDuplicateWins() throws IOException {
+        Path csv = write("2025-01-03,3\n2025-01-01,1\n2025-01-03,30\n2025-01-02,2\n");
+
+        PriceView view = new CsvPriceReader(1).read("SIM_AAPL", csv, Integer.MIN_VALUE, Integer.MAX_VALUE).view();
+
+        assertArrayEquals(new double[] {1.0, 2.0, 30.0}, view.copyCloses(), 0.0);
+    }
+
+    @Test
+    void testRowsSpanningBufferBoundariesMatchJdkParsing() throws IOException {
+        // Enough rows to cross several 64 KiB buffer refills at arbitrary offsets
+        StringBuilder sb = new StringBuilder("date,close\n");
+        Random random = new Random(42);
+        LocalDate date = LocalDate.of(1990, 1, 1);
+        int rows = 20_000;
+        double[] expected = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            expected[i] = random.nextDouble() * 1000;
+            sb.append(date.plusDays(i)).append(',').append(expected[i]).append('\n');
+        }
+        Path csv = write(sb.toString());
+
+        PriceView view = new CsvPriceReader(1).read("SIM_AAPL", csv, Integer.MIN_VALUE, Integer.MAX_VALUE).view();
+
+        assertEquals(rows, view.size());
+        assertEquals(LocalDate.of(1990, 1, 1).plusDays(rows - 1), view.date(rows - 1));
+        assertArrayEquals(expected, view.copyCloses(), 0.0);
+    }
+
+    @Test
+    void testParseEpochDayMatchesLocalDate() {
+        for (String iso : new String[] {"1970-01-01", "1969-12-31", "2000-02-29", "2024-12-31", "0001-01-01", "2100-03-01"}) {
+            byte[] b = iso.getBytes(StandardCharsets.US_ASCII);
+            assertEquals(LocalDate.parse(iso).toEpochDay(), CsvPriceReader.parseEpochDay(b, 0, b.length), iso);
+        }
+        for (String bad : new String[] {"2025-02-29", "2025-13-01", "2025-1-01", "Date"}) {
+            byte[] b = bad.getBytes(StandardCharsets.US_ASCII);
+            assertEquals(Integer.MIN_VALUE, CsvPriceReader.parseEpochDay(b, 0, b.length), bad);
+        }
+    }
+
+    @Test
+    void testParseDoubleMatchesJdk() {
+        for (String s : new String[] {"0", "-0.5", "+12.75", "0.000123", "123456789.123456789", "1e3", "1.5E-4", "99999999999999999999"}) {
+            byte[] b = s.getBytes(StandardCharsets.US_ASCII);
+            assertEquals(Double.parseDouble(s), CsvPriceReader.parseDouble(b, 0, b.length), 0.0, s);
+        }
+        for (String bad : new String[] {"", "-", ".", "null", "1.2.3"}) {
+            byte[] b = bad.getBytes(StandardCharsets.US_ASCII);
+            assertTrue(Double.isNaN(CsvPriceReader.parseDouble(b, 0, b.length)), bad);
+        }
+    }
+
+    @Test
+    void testMalformedRowReported() throws IOException {
+        Path csv = write("date,close\n2025-01-02,101.5\n2025-01-03\n");
+
+        IOException e = assertThrows(IOException.class,
+            () -> new CsvPriceReader(1).read("SIM_AAPL", csv, Integer.MIN_VALUE, Integer.MAX_VALUE));
+        assertTrue(e.getMessage().contains("line 3"), e.getMessage());
+    }
+}
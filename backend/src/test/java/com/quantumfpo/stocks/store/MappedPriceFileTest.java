@@ -0,0 +1,172 @@
+package com.quantumfpo.stocks.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedPriceFileTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testAppendAndReopen() throws IOException {
+        Path path = tempDir.resolve("SIM_AAPL.px");
+        try (MappedPriceFile file = MappedPriceFile.open(path)) {
+            assertTrue(file.isEmpty());
+            for (int day = 0; day < 1000; day++) {
+                file.append(20000 + day, 100.0 + day);
+            }
+        }
+
+        try (MappedPriceFile reopened = MappedPriceFile.open(path)) {
+            assertEquals(1000, reopened.size());
+            assertEquals(20000, reopened.firstEpochDay());
+            assertEquals(20999, reopened.lastEpochDay());
+
+            PriceView all = reopened.readAll("SIM_AAPL").view();
+            assertEquals(1000, all.size());
+            assertEquals(1099.0, all.close(999), 1e-12);
+        }
+    }
+
+    @Test
+    void testOpenReadOnlyLeavesFileUntouched() throws IOException {
+        Path path = tempDir.resolve("RO.px");
+        PriceSeries source = new PriceSeries("RO");
+        for (int day = 0; day < 10; day++) {
+            source.append(day, 50.0 + day);
+        }
+        MappedPriceFile.rewrite(path, source.view()).close();
+        byte[] before = Files.readAllBytes(path);
+
+        try (MappedPriceFile file = MappedPriceFile.openReadOnly(path)) {
+            assertEquals(10, file.size());
+            assertEquals(55.0, file.slice("RO", 5, 5).view().close(0), 1e-12);
+            assertThrows(IllegalStateException.class, () -> file.append(10, 60.0));
+        }
+        assertArrayEquals(before, Files.readAllBytes(path));
+
+        Path empty = Files.createFile(tempDir.resolve("EMPTY.px"));
+        try (MappedPriceFile file = MappedPriceFile.openReadOnly(empty)) {
+            assertTrue(file.isEmpty());
+            assertTrue(file.slice("EMPTY", Integer.MIN_VALUE, Integer.MAX_VALUE).isEmpty());
+        }
+        assertEquals(0, Files.size(empty));
+        assertThrows(IOException.class, () -> MappedPriceFile.openReadOnly(tempDir.resolve("MISSING.px")));
+    }
+
+    @Test
+    void testUpdateLastOverwritesNewestRecord() throws IOException {
+        Path path = tempDir.resolve("UPD.px");
+        try (MappedPriceFile file = MappedPriceFile.open(path)) {
+            file.append(20000, 10.0);
+            file.append(20001, 11.0);
+            file.updateLast(20001, 11.5);
+            assertThrows(IllegalArgumentException.class, () -> file.updateLast(20000, 9.0));
+            assertThrows(IllegalArgumentException.class, () -> file.updateLast(20002, 9.0));
+        }
+
+        try (MappedPriceFile reopened = MappedPriceFile.openReadOnly(path)) {
+            PriceView all = reopened.readAll("UPD").view();
+            assertEquals(2, all.size());
+            assertEquals(10.0, all.close(0), 1e-12);
+            assertEquals(11.5, all.close(1), 1e-12);
+            assertThrows(IllegalStateException.class, () -> reopened.updateLast(20001, 12.0));
+        }
+    }
+
+    @Test
+    void testSliceUsesDateBounds() throws IOException {
+        try (MappedPriceFile file = MappedPriceFile.open(tempDir.resolve("S.px"))) {
+            PriceSeries source = new PriceSeries("S");
+            for (int day = 0; day < 100; day += 2) {
+                source.append(day, day);
+            }
+            file.appendAll(source.view());
+
+            PriceView slice = file.slice("S", 11, 20).view();
+            assertEquals(5, slice.size());
+            assertEquals(12, slice.firstEpochDay());
+            assertEquals(20, slice.lastEpochDay());
+
+            assertTrue(file.slice("S", 200, 300).isEmpty());
+            assertEquals(50, file.slice("S", Integer.MIN_VALUE, Integer.MAX_VALUE).size());
+        }
+    }
+
+    @Test
+    void testOutOfOrderAppendRejected() throws IOException {
+        try (MappedPriceFile file = MappedPriceFile.open(tempDir.resolve("S.px"))) {
+            file.append(10, 1.0);
+            assertThrows(IllegalArgumentException.class, () -> file.append(10, 2.0));
+            assertEquals(1, file.size());
+        }
+    }
+
+    @Test
+    void testUncommittedTailIgnoredAfterCrash() throws IOException {
+        Path path = tempDir.resolve("S.px");
+        try (MappedPriceFile file = MappedPriceFile.open(path)) {
+            file.append(1, 1.0);
+            file.append(2, 2.0);
+        }
+
+        // Simulate a torn append: a record written past the committed count without the header update
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            ByteBuffer record = ByteBuffer.allocate(MappedPriceFile.RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            record.putInt(3).putDouble(3.0).flip();
+            channel.write(record, MappedPriceFile.HEADER_BYTES + 2L * MappedPriceFile.RECORD_BYTES);
+        }
+
+        try (MappedPriceFile reopened = MappedPriceFile.open(path)) {
+            assertEquals(2, reopened.size());
+            assertEquals(2, reopened.lastEpochDay());
+            // The next append overwrites the torn record
+            reopened.append(3, 30.0);
+            assertEquals(30.0, reopened.readAll("S").view().close(2), 1e-12);
+        }
+    }
+
+    @Test
+    void testRewriteReplacesContents() throws IOException {
+        Path path = tempDir.resolve("S.px");
+        try (MappedPriceFile file = MappedPriceFile.open(path)) {
+            file.append(1, 1.0);
+            file.append(2, 2.0);
+        }
+
+        PriceSeries replacement = new PriceSeries("S");
+        replacement.append(5, 50.0);
+        try (MappedPriceFile rewritten = MappedPriceFile.rewrite(path, replacement.view())) {
+            assertEquals(1, rewritten.size());
+            assertEquals(5, rewritten.firstEpochDay());
+        }
+        assertFalse(Files.exists(tempDir.resolve("S.px.tmp")));
+    }
+
+    @Test
+    void testGarbageFileRejected() throws IOException {
+        Path path = tempDir.resolve("bad.px");
+        Files.write(path, new byte[64]);
+
+        assertThrows(IOException.class, () -> MappedPriceFile.open(path));
+    }
+
+    @Test
+    void testEmptyFileHasNoDates() throws IOException {
+        try (MappedPriceFile file = MappedPriceFile.open(tempDir.resolve("S.px"))) {
+            assertThrows(IllegalStateException.class, file::firstEpochDay);
+            assertThrows(IllegalStateException.class, file::lastEpochDay);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.quantumfpo.stocks.store;
+
+import com.quantumfpo.stocks.store.PriceMatrix.GapPolicy;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceMatrixTest {
+
+    private static PriceView view(String symbol, int[] days, double[] closes) {
+        return PriceSeries.fromColumns(symbol, days, closes, days.length).view();
+    }
+
+    // A trades on days 1-4, B skips day 3 and starts a day late
+    private static final PriceView A = view("A", new int[]{1, 2, 3, 4}, new double[]{10, 11, 12, 13});
+    private static final PriceView B = view("B", new int[]{2, 4, 5}, new double[]{20, 22, 23});
+
+    @Test
+    void testDropKeepsOnlySharedDates() {
+        PriceMatrix matrix = PriceMatrix.align(List.of(A, B), GapPolicy.DROP);
+
+        assertEquals(2, matrix.rows());
+        assertEquals(2, matrix.columns());
+        assertEquals(2, matrix.epochDay(0));
+        assertEquals(4, matrix.epochDay(1));
+        assertArrayEquals(new double[]{11, 20, 13, 22}, matrix.values(), 1e-12);
+    }
+
+    @Test
+    void testForwardFillStartsOnceEverySymbolHasTraded() {
+        PriceMatrix matrix = PriceMatrix.align(List.of(A, B), GapPolicy.FORWARD_FILL);
+
+        assertEquals(4, matrix.rows());
+        assertEquals(2, matrix.epochDay(0));
+        assertEquals(5, matrix.epochDay(3));
+        assertArrayEquals(new double[]{11, 12, 13, 13}, matrix.column(0), 1e-12);
+        assertArrayEquals(new double[]{20, 20, 22, 23}, matrix.column(1), 1e-12);
+    }
+
+    @Test
+    void testColumnsFollowGivenOrder() {
+        PriceMatrix matrix = PriceMatrix.align(List.of(B, A), GapPolicy.DROP);
+
+        assertEquals(List.of("B", "A"), matrix.getSymbols());
+        assertEquals(20, matrix.get(0, 0), 1e-12);
+        assertEquals(11, matrix.get(0, 1), 1e-12);
+    }
+
+    @Test
+    void testEmptySymbolGivesNoRows() {
+        PriceMatrix matrix = PriceMatrix.align(List.of(A, PriceView.empty("C")), GapPolicy.FORWARD_FILL);
+
+        assertTrue(matrix.isEmpty());
+        assertEquals(2, matrix.columns());
+        assertEquals(0, matrix.values().length);
+    }
+
+    @Test
+    void testColumnOutOfRangeRejected() {
+        PriceMatrix matrix = PriceMatrix.align(List.of(A, B), GapPolicy.DROP);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> matrix.get(0, 2));
+    }
+}
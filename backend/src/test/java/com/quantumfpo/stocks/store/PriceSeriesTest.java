@@ -0,0 +1,196 @@
+package com.quantumfpo.stocks.store;
+
+import com.quantumfpo.stocks.model.StockData;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceSeriesTest {
+
+    @Test
+    void testAppendAndView() {
+        PriceSeries series = new PriceSeries("SIM_AAPL", 2);
+        for (int day = 100; day < 110; day++) {
+            series.append(day, day * 1.5);
+        }
+
+        PriceView view = series.view();
+        assertEquals(10, view.size());
+        assertEquals(100, view.firstEpochDay());
+        assertEquals(109, view.lastEpochDay());
+        assertEquals(109 * 1.5, view.close(9), 1e-12);
+        assertEquals("SIM_AAPL", view.getSymbol());
+    }
+
+    @Test
+    void testOutOfOrderAppendRejected() {
+        PriceSeries series = new PriceSeries("SIM_AAPL");
+        series.append(10, 1.0);
+        assertThrows(IllegalArgumentException.class, () -> series.append(10, 2.0));
+        assertThrows(IllegalArgumentException.class, () -> series.append(5, 2.0));
+        assertEquals(1, series.size());
+    }
+
+    @Test
+    void testViewIsStableAcrossAppends() {
+        PriceSeries series = new PriceSeries("SIM_AAPL", 1);
+        series.append(1, 10.0);
+        PriceView before = series.view();
+
+        // Forces several array growths
+        for (int day = 2; day < 100; day++) {
+            series.append(day, day);
+        }
+
+        assertEquals(1, before.size());
+        assertEquals(10.0, before.close(0), 1e-12);
+        assertEquals(99, series.view().size());
+    }
+
+    @Test
+    void testViewContinuesEarlierViewOfSameSeries() {
+        PriceSeries series = new PriceSeries("SIM_AAPL", 1);
+        series.append(1, 10.0);
+        PriceView before = series.view();
+        series.append(2, 11.0);
+
+        assertTrue(series.view().continues(before));
+        assertFalse(before.continues(series.view()));
+        assertFalse(series.view().slice(2, 2).continues(before));
+        PriceSeries replacement = new PriceSeries("SIM_AAPL");
+        replacement.append(1, 10.0);
+        assertFalse(replacement.view().continues(before));
+        assertFalse(PriceView.empty("SIM_AAPL").continues(PriceView.empty("SIM_AAPL")));
+    }
+
+    @Test
+    void testUpdateLastOverwritesNewestClose() {
+        PriceSeries series = new PriceSeries("SIM_AAPL", 1);
+        assertThrows(IllegalStateException.class, () -> series.updateLast(1.0));
+        series.append(1, 10.0);
+        series.append(2, 11.0);
+        PriceView before = series.view();
+
+        series.updateLast(12.5);
+
+        assertEquals(2, series.size());
+        assertEquals(12.5, before.close(1), 1e-12);
+        assertEquals(2, series.view().lastEpochDay());
+        assertTrue(series.view().continues(before));
+    }
+
+    @Test
+    void testSliceInclusiveBounds() {
+        PriceSeries series = new PriceSeries("SIM_AAPL");
+        for (int day = 0; day < 20; day += 2) {
+            series.append(day, day);
+        }
+
+        PriceView slice = series.slice(4, 10);
+        assertEquals(4, slice.size());
+        assertEquals(4, slice.firstEpochDay());
+        assertEquals(10, slice.lastEpochDay());
+
+        // Bounds between stored days
+        PriceView between = series.slice(5, 11);
+        assertEquals(3, between.size());
+        assertEquals(6, between.firstEpochDay());
+
+        // Slicing a slice stays within the outer window
+        assertEquals(2, slice.slice(0, 6).size());
+        assertTrue(series.slice(50, 60).isEmpty());
+        assertTrue(series.slice(10, 4).isEmpty());
+        assertEquals(10, series.slice(Integer.MIN_VALUE, Integer.MAX_VALUE).size());
+    }
+
+    @Test
+    void testFromStockDataSortsAndCollapsesDuplicates() {
+        List<StockData> data = Arrays.asList(
+            new StockData("SIM_AAPL", LocalDate.of(2025, 9, 24), 152.0),
+            new StockData("SIM_AAPL", LocalDate.of(2025, 9, 23), 150.0),
+            new StockData("SIM_AAPL", LocalDate.of(2025, 9, 24), 153.0),
+            new StockData("SIM_AAPL", null, 99.0)
+        );
+
+        PriceSeries series = PriceSeries.fromStockData("SIM_AAPL", data);
+
+        assertEquals(2, series.size());
+        PriceView view = series.view();
+        assertEquals(LocalDate.of(2025, 9, 23), view.date(0));
+        assertEquals(150.0, view.close(0), 1e-12);
+        assertEquals(153.0, view.close(1), 1e-12);
+    }
+
+    @Test
+    void testToStockDataRoundTrip() {
+        List<StockData> data = Arrays.asList(
+            new StockData("SIM_AAPL", LocalDate.of(2025, 9, 23), 150.0),
+            new StockData("SIM_AAPL", LocalDate.of(2025, 9, 24), 152.0)
+        );
+
+        List<StockData> roundTrip = PriceSeries.fromStockData("SIM_AAPL", data).view().toStockData();
+
+        assertEquals(2, roundTrip.size());
+        assertEquals("SIM_AAPL", roundTrip.get(1).getSymbol());
+        assertEquals(LocalDate.of(2025, 9, 24), roundTrip.get(1).getDate());
+        assertEquals(152.0, roundTrip.get(1).getClose(), 1e-12);
+    }
+
+    @Test
+    void testViewIndexBoundsChecked() {
+        PriceSeries series = new PriceSeries("SIM_AAPL");
+        series.append(1, 1.0);
+        series.append(2, 2.0);
+        PriceView slice = series.slice(2, 2);
+
+        assertEquals(2.0, slice.close(0), 1e-12);
+        assertThrows(IndexOutOfBoundsException.class, () -> slice.close(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> PriceView.empty("X").epochDay(0));
+    }
+
+    @Test
+    void testCopiesAreDetached() {
+        PriceSeries series = new PriceSeries("SIM_AAPL");
+        series.append(1, 1.0);
+        series.append(2, 2.0);
+
+        double[] closes = series.view().copyCloses();
+        closes[0] = 42.0;
+
+        assertEquals(1.0, series.view().close(0), 1e-12);
+        assertArrayEquals(new int[] {1, 2}, series.view().copyEpochDays());
+    }
+
+    @Test
+    void testMergeInterleavesAndUpdatesWin() {
+        PriceSeries base = new PriceSeries("SIM_AAPL");
+        base.append(100, 1.0);
+        base.append(102, 2.0);
+        base.append(104, 3.0);
+        PriceSeries updates = new PriceSeries("SIM_AAPL");
+        updates.append(101, 10.0);
+        updates.append(102, 20.0);
+        updates.append(105, 30.0);
+
+        PriceView merged = PriceSeries.merge("SIM_AAPL", base.view(), updates.view()).view();
+
+        assertArrayEquals(new int[] {100, 101, 102, 104, 105}, merged.copyEpochDays());
+        assertArrayEquals(new double[] {1.0, 10.0, 20.0, 3.0, 30.0}, merged.copyCloses(), 1e-12);
+    }
+
+    @Test
+    void testFromColumnsCopiesAndOrders() {
+        int[] days = {5, 3, 4, 3};
+        double[] closes = {50.0, 30.0, 40.0, 33.0};
+
+        PriceView view = PriceSeries.fromColumns("SIM_AAPL", days, closes, 4).view();
+        days[0] = 99;
+
+        assertArrayEquals(new int[] {3, 4, 5}, view.copyEpochDays());
+        assertArrayEquals(new double[] {33.0, 40.0, 50.0}, view.copyCloses(), 1e-12);
+    }
+}
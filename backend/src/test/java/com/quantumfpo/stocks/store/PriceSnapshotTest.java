@@ -0,0 +1,72 @@
+package com.quantumfpo.stocks.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceSnapshotTest {
+
+    private static PriceView series(String symbol, int firstDay, int points) {
+        PriceSeries series = new PriceSeries(symbol, points);
+        for (int i = 0; i < points; i++) {
+            series.append(firstDay + i, 100 + i * 0.25);
+        }
+        return series.view();
+    }
+
+    @Test
+    void testRoundTripKeepsOrderAndPoints(@TempDir Path dir) throws IOException {
+        Path path = dir.resolve("prices.snap");
+        List<PriceView> views = List.of(series("SIM_AAPL", 18_000, 300), series("SIM_MSFT", 18_100, 5), series("SIM_EMPTY", 0, 0));
+
+        long bytes = PriceSnapshot.write(path, views);
+        assertEquals(Files.size(path), bytes);
+
+        List<CompressedPriceSeries> restored = new ArrayList<>();
+        int total = PriceSnapshot.read(path, (series, index, count) -> {
+            assertEquals(restored.size(), index);
+            assertEquals(3, count);
+            restored.add(series);
+        });
+
+        assertEquals(3, total);
+        for (int s = 0; s < views.size(); s++) {
+            PriceView expected = views.get(s);
+            PriceView actual = restored.get(s).decode().view();
+            assertEquals(expected.getSymbol(), restored.get(s).getSymbol());
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.epochDay(i), actual.epochDay(i));
+                assertEquals(expected.close(i), actual.close(i), 0.0);
+            }
+        }
+    }
+
+    @Test
+    void testWriteReplacesWithoutLeavingTemporaryFiles(@TempDir Path dir) throws IOException {
+        Path path = dir.resolve("prices.snap");
+        PriceSnapshot.write(path, List.of(series("SIM_AAPL", 18_000, 10), series("SIM_MSFT", 18_000, 10)));
+        PriceSnapshot.write(path, List.of(series("SIM_GOOGL", 18_000, 10)));
+
+        assertEquals(1, PriceSnapshot.read(path, (series, index, total) -> assertEquals("SIM_GOOGL", series.getSymbol())));
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(List.of(path), files.toList());
+        }
+    }
+
+    @Test
+    void testForeignFileRejected(@TempDir Path dir) throws IOException {
+        Path path = dir.resolve("prices.snap");
+        Files.writeString(path, "date,close\n2025-01-02,100\n");
+
+        assertThrows(IOException.class, () -> PriceSnapshot.read(path, (series, index, total) -> fail()));
+    }
+}
@@ -0,0 +1,392 @@
+package com.quantumfpo.stocks.store;
+
+import com.quantumfpo.stocks.model.StockData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceStoreTest {
+
+    private PriceStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new PriceStore();
+    }
+
+    @Test
+    void testPutReplacesHistory() {
+        store.put("SIM_AAPL", Arrays.asList(
+            new StockData("SIM_AAPL", LocalDate.of(2025, 9, 23), 150.0),
+            new StockData("SIM_AAPL", LocalDate.of(2025, 9, 24), 152.0)
+        ));
+        store.put("SIM_AAPL", Arrays.asList(
+            new StockData("SIM_AAPL", LocalDate.of(2025, 9, 25), 155.0)
+        ));
+
+        PriceView view = store.view("SIM_AAPL");
+        assertEquals(1, view.size());
+        assertEquals(155.0, view.close(0), 1e-12);
+    }
+
+    @Test
+    void testVersionChangesOnEveryWrite() {
+        assertEquals(0, store.version("SIM_AAPL"));
+        store.put("SIM_AAPL", Arrays.asList(
+            new StockData("SIM_AAPL", LocalDate.of(2025, 9, 23), 150.0)
+        ));
+        long afterPut = store.version("SIM_AAPL");
+        store.append("SIM_AAPL", LocalDate.of(2025, 9, 24), 152.0);
+        long afterAppend = store.version("SIM_AAPL");
+        store.remove("SIM_AAPL");
+
+        assertTrue(afterPut > 0);
+        assertTrue(afterAppend > afterPut);
+        assertTrue(store.version("SIM_AAPL") > afterAppend);
+        assertEquals(0, store.version("SIM_MSFT"));
+    }
+
+    @Test
+    void testMissingSymbolGivesEmptyView() {
+        PriceView view = store.view("UNKNOWN");
+
+        assertNotNull(view);
+        assertTrue(view.isEmpty());
+        assertFalse(store.contains("UNKNOWN"));
+    }
+
+    @Test
+    void testAppendCreatesSeries() {
+        store.append("SIM_MSFT", LocalDate.of(2025, 1, 1), 10.0);
+        store.append("SIM_MSFT", LocalDate.of(2025, 1, 2), 11.0);
+
+        assertTrue(store.contains("SIM_MSFT"));
+        assertEquals(2, store.view("SIM_MSFT").size());
+        assertEquals(Set.of("SIM_MSFT"), store.symbols());
+    }
+
+    @Test
+    void testSliceByDate() {
+        for (int d = 1; d <= 10; d++) {
+            store.append("SIM_MSFT", LocalDate.of(2025, 1, d), d);
+        }
+
+        PriceView slice = store.slice("SIM_MSFT", LocalDate.of(2025, 1, 3), LocalDate.of(2025, 1, 5));
+
+        assertEquals(3, slice.size());
+        assertEquals(LocalDate.of(2025, 1, 3), slice.date(0));
+        assertEquals(5.0, slice.close(2), 1e-12);
+    }
+
+    @Test
+    void testCountsAndRemove() {
+        store.append("A", LocalDate.of(2025, 1, 1), 1.0);
+        store.append("B", LocalDate.of(2025, 1, 1), 1.0);
+        store.append("B", LocalDate.of(2025, 1, 2), 1.0);
+
+        assertEquals(3, store.pointCount());
+        assertTrue(store.estimatedBytes() > 0);
+
+        store.remove("B");
+        assertEquals(1, store.pointCount());
+        assertFalse(store.contains("B"));
+    }
+
+    @Test
+    void testPersistentStoreSurvivesRestart(@TempDir Path dataDir) {
+        PriceStore first = new PriceStore(dataDir.toString());
+        first.open();
+        first.put("SIM_AAPL", Arrays.asList(
+            new StockData("SIM_AAPL", LocalDate.of(2025, 9, 23), 150.0),
+            new StockData("SIM_AAPL", LocalDate.of(2025, 9, 24), 152.0)
+        ));
+        first.append("SIM_AAPL", LocalDate.of(2025, 9, 25), 154.0);
+        first.append("BRK/B", LocalDate.of(2025, 9, 25), 400.0);
+        first.close();
+
+        PriceStore restarted = new PriceStore(dataDir.toString());
+        restarted.open();
+        try {
+            assertTrue(restarted.isPersistent());
+            assertEquals(Set.of("SIM_AAPL", "BRK/B"), restarted.symbols());
+
+            // Range reads are answered straight from the mapped file
+            PriceView slice = restarted.slice("SIM_AAPL", LocalDate.of(2025, 9, 24), LocalDate.of(2025, 9, 30));
+            assertEquals(2, slice.size());
+            assertEquals(154.0, slice.close(1), 1e-12);
+
+            PriceView all = restarted.view("SIM_AAPL");
+            assertEquals(3, all.size());
+            assertEquals(400.0, restarted.view("BRK/B").close(0), 1e-12);
+        } finally {
+            restarted.close();
+        }
+    }
+
+    @Test
+    void testReadsOfUnknownSymbolsAssignNoIds() {
+        assertTrue(store.view("NEVER").isEmpty());
+        assertTrue(store.slice("NEVER", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31)).isEmpty());
+        assertFalse(store.contains("NEVER"));
+        assertEquals(0, store.version("NEVER"));
+        store.remove("NEVER");
+
+        assertEquals(-1, store.find("NEVER"));
+        assertEquals(0, store.dictionary().size());
+
+        store.append("SIM_AAPL", LocalDate.of(2025, 1, 1), 1.0);
+        int id = store.find("SIM_AAPL");
+        assertEquals("SIM_AAPL", store.dictionary().symbol(id));
+        assertEquals(1.0, store.view(id).close(0), 1e-12);
+        assertEquals(store.version("SIM_AAPL"), store.version(id));
+    }
+
+    @Test
+    void testUpdateLastRevisesInPlaceOrAppends() {
+        store.append("SIM_AAPL", LocalDate.of(2025, 1, 1), 100.0);
+        store.append("SIM_AAPL", LocalDate.of(2025, 1, 2), 101.0);
+        ReturnStats built = store.returnStats("SIM_AAPL", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31));
+        PriceView before = store.view("SIM_AAPL");
+        long version = store.version("SIM_AAPL");
+
+        store.updateLast("SIM_AAPL", LocalDate.of(2025, 1, 2), 110.0);
+
+        PriceView revised = store.view("SIM_AAPL");
+        assertTrue(revised.continues(before));
+        assertEquals(2, revised.size());
+        assertEquals(110.0, revised.close(1), 1e-12);
+        assertTrue(store.version("SIM_AAPL") > version);
+        assertEquals(0.01, built.meanSimpleReturn(), 1e-12);
+        assertEquals(0.1, revised.returnStats().meanSimpleReturn(), 1e-12);
+
+        store.updateLast("SIM_AAPL", LocalDate.of(2025, 1, 3), 121.0);
+        store.updateLast("SIM_MSFT", LocalDate.of(2025, 1, 3), 50.0);
+        assertTrue(store.view("SIM_AAPL").continues(before));
+        assertEquals(3, store.view("SIM_AAPL").size());
+        assertEquals(50.0, store.view("SIM_MSFT").close(0), 1e-12);
+
+        // An earlier date restates history like a merge
+        store.updateLast("SIM_AAPL", LocalDate.of(2025, 1, 1), 90.0);
+        assertFalse(store.view("SIM_AAPL").continues(before));
+        assertEquals(90.0, store.view("SIM_AAPL").close(0), 1e-12);
+        assertEquals(3, store.view("SIM_AAPL").size());
+    }
+
+    @Test
+    void testPersistentUpdateLastSurvivesRestart(@TempDir Path dataDir) {
+        PriceStore first = new PriceStore(dataDir.toString());
+        first.open();
+        first.append("SIM_AAPL", LocalDate.of(2025, 9, 24), 150.0);
+        first.updateLast("SIM_AAPL", LocalDate.of(2025, 9, 25), 151.0);
+        first.updateLast("SIM_AAPL", LocalDate.of(2025, 9, 25), 153.0);
+        first.close();
+
+        PriceStore restarted = new PriceStore(dataDir.toString());
+        restarted.open();
+        try {
+            PriceView all = restarted.view("SIM_AAPL");
+            assertEquals(2, all.size());
+            assertEquals(150.0, all.close(0), 1e-12);
+            assertEquals(153.0, all.close(1), 1e-12);
+        } finally {
+            restarted.close();
+        }
+    }
+
+    @Test
+    void testMergeAppendsNewerRecordsInPlace() {
+        store.append("SIM_AAPL", LocalDate.of(2025, 1, 1), 1.0);
+        PriceSeries held = store.merge("SIM_AAPL", Arrays.asList(
+            new StockData("SIM_AAPL", LocalDate.of(2025, 1, 3), 3.0),
+            new StockData("SIM_AAPL", LocalDate.of(2025, 1, 2), 2.0)
+        ));
+
+        assertEquals(3, held.size());
+        assertSame(held, store.cache().get(store.find("SIM_AAPL")));
+        assertEquals(2.0, store.view("SIM_AAPL").close(1), 1e-12);
+    }
+
+    @Test
+    void testMergeOverlappingRecordsRebuildsSeries() {
+        store.put("SIM_AAPL", Arrays.asList(
+            new StockData("SIM_AAPL", LocalDate.of(2025, 1, 2), 2.0),
+            new StockData("SIM_AAPL", LocalDate.of(2025, 1, 3), 3.0)
+        ));
+        store.merge("SIM_AAPL", Arrays.asList(
+            new StockData("SIM_AAPL", LocalDate.of(2025, 1, 1), 1.0),
+            new StockData("SIM_AAPL", LocalDate.of(2025, 1, 3), 30.0)
+        ));
+
+        PriceView view = store.view("SIM_AAPL");
+        assertArrayEquals(new double[] {1.0, 2.0, 30.0}, view.copyCloses(), 1e-12);
+    }
+
+    @Test
+    void testPersistentMergeSurvivesRestart(@TempDir Path dataDir) {
+        PriceStore persistent = new PriceStore(dataDir.toString());
+        persistent.open();
+        persistent.put("SIM_AAPL", Arrays.asList(new StockData("SIM_AAPL", LocalDate.of(2025, 1, 2), 2.0)));
+        persistent.merge("SIM_AAPL", Arrays.asList(new StockData("SIM_AAPL", LocalDate.of(2025, 1, 3), 3.0)));
+        persistent.merge("SIM_AAPL", Arrays.asList(new StockData("SIM_AAPL", LocalDate.of(2025, 1, 1), 1.0)));
+        persistent.close();
+
+        PriceStore restarted = new PriceStore(dataDir.toString());
+        restarted.open();
+        try {
+            assertArrayEquals(new double[] {1.0, 2.0, 3.0}, restarted.view("SIM_AAPL").copyCloses(), 1e-12);
+        } finally {
+            restarted.close();
+        }
+    }
+
+    @Test
+    void testPersistentPutRewritesFile(@TempDir Path dataDir) {
+        PriceStore persistent = new PriceStore(dataDir.toString());
+        persistent.open();
+        persistent.append("SIM_AAPL", LocalDate.of(2025, 1, 1), 1.0);
+        persistent.put("SIM_AAPL", Arrays.asList(new StockData("SIM_AAPL", LocalDate.of(2024, 1, 1), 9.0)));
+        persistent.close();
+
+        PriceStore restarted = new PriceStore(dataDir.toString());
+        restarted.open();
+        try {
+            PriceView view = restarted.view("SIM_AAPL");
+            assertEquals(1, view.size());
+            assertEquals(9.0, view.close(0), 1e-12);
+
+            restarted.remove("SIM_AAPL");
+            assertFalse(Files.exists(dataDir.resolve("SIM_AAPL.px")));
+        } finally {
+            restarted.close();
+        }
+    }
+
+    @Test
+    void testBlankDataDirIsMemoryOnly() {
+        PriceStore memoryOnly = new PriceStore(" ");
+        memoryOnly.open();
+
+        assertFalse(memoryOnly.isPersistent());
+        assertFalse(store.isPersistent());
+    }
+
+    @Test
+    void testLeastRecentlyUsedSymbolEvicted() {
+        PriceStore bounded = new PriceStore("", 2, Long.MAX_VALUE, Duration.ZERO);
+        bounded.append("A", LocalDate.of(2025, 1, 1), 1.0);
+        bounded.append("B", LocalDate.of(2025, 1, 1), 1.0);
+        bounded.view("A");
+        bounded.append("C", LocalDate.of(2025, 1, 1), 1.0);
+
+        assertEquals(Set.of("A", "C"), bounded.symbols());
+        assertTrue(bounded.view("B").isEmpty());
+        assertEquals(1, bounded.cache().evictionCount());
+    }
+
+    @Test
+    void testEvictedSeriesKeptCompressedWithoutDataDir() {
+        PriceStore bounded = new PriceStore("", 1, Long.MAX_VALUE, Duration.ZERO, 1024 * 1024);
+        bounded.append("A", LocalDate.of(2025, 1, 1), 1.25);
+        bounded.append("A", LocalDate.of(2025, 1, 2), 1.5);
+        bounded.append("B", LocalDate.of(2025, 1, 1), 2.0);
+
+        assertFalse(bounded.cache().containsKey(bounded.find("A")));
+        assertTrue(bounded.coldCache().containsKey(bounded.find("A")));
+        assertEquals(Set.of("A", "B"), bounded.symbols());
+        assertEquals(1.5, bounded.slice("A", LocalDate.of(2025, 1, 2), LocalDate.of(2025, 1, 2)).close(0), 1e-12);
+
+        PriceView promoted = bounded.view("A");
+        assertEquals(2, promoted.size());
+        assertEquals(1.25, promoted.close(0), 1e-12);
+        assertTrue(bounded.cache().containsKey(bounded.find("A")));
+
+        bounded.append("A", LocalDate.of(2025, 1, 3), 1.75);
+        assertFalse(bounded.coldCache().containsKey(bounded.find("A")));
+    }
+
+    @Test
+    void testConcurrentAppendsSurviveEviction() throws Exception {
+        // Two resident symbols for eight writers, so nearly every append evicts another writer's series
+        PriceStore bounded = new PriceStore("", 2, Long.MAX_VALUE, Duration.ZERO, Long.MAX_VALUE);
+        int writers = 8;
+        int days = 300;
+        List<Future<?>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(writers)) {
+            for (int w = 0; w < writers; w++) {
+                String symbol = "W" + w;
+                results.add(executor.submit(() -> {
+                    for (int d = 0; d < days; d++) {
+                        bounded.append(symbol, LocalDate.of(2025, 1, 1).plusDays(d), d);
+                    }
+                }));
+            }
+        }
+        for (Future<?> result : results) {
+            result.get();
+        }
+
+        assertEquals(writers, bounded.symbols().size());
+        for (int w = 0; w < writers; w++) {
+            PriceView view = bounded.view("W" + w);
+            assertEquals(days, view.size());
+            assertEquals(days - 1, view.close(days - 1), 1e-12);
+        }
+    }
+
+    @Test
+    void testEvictedSeriesReloadedFromDisk(@TempDir Path dataDir) {
+        PriceStore bounded = new PriceStore(dataDir.toString(), 1, Long.MAX_VALUE, Duration.ZERO);
+        bounded.open();
+        try {
+            bounded.append("A", LocalDate.of(2025, 1, 1), 1.0);
+            bounded.append("B", LocalDate.of(2025, 1, 1), 2.0);
+
+            assertFalse(bounded.cache().containsKey(bounded.find("A")));
+            assertEquals(1.0, bounded.view("A").close(0), 1e-12);
+        } finally {
+            bounded.close();
+        }
+    }
+
+    @Test
+    void testAppendUpdatesCacheWeight() {
+        store.append("A", LocalDate.of(2025, 1, 1), 1.0);
+        long before = store.estimatedBytes();
+        for (int d = 1; d < 100; d++) {
+            store.append("A", LocalDate.of(2025, 1, 1).plusDays(d), d);
+        }
+        assertTrue(store.estimatedBytes() > before);
+    }
+
+    @Test
+    void testReturnStatsBuiltOnceAndWeighed() {
+        store.put("SIM_RETS", Arrays.asList(
+            new StockData("SIM_RETS", LocalDate.of(2025, 9, 22), 100.0),
+            new StockData("SIM_RETS", LocalDate.of(2025, 9, 23), 105.0),
+            new StockData("SIM_RETS", LocalDate.of(2025, 9, 24), 110.25)));
+        long before = store.estimatedBytes();
+
+        ReturnStats all = store.returnStats("SIM_RETS", LocalDate.of(2025, 9, 1), LocalDate.of(2025, 9, 30));
+        ReturnStats last = store.returnStats("SIM_RETS", LocalDate.of(2025, 9, 23), LocalDate.of(2025, 9, 24));
+
+        assertEquals(2, all.count());
+        assertEquals(0.05, all.meanSimpleReturn(), 1e-12);
+        assertEquals(1, last.count());
+        assertTrue(store.estimatedBytes() > before);
+        assertEquals(ReturnStats.EMPTY, store.returnStats("SIM_NONE", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31)));
+    }
+}
@@ -0,0 +1,121 @@
+package com.quantumfpo.stocks.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReturnSeriesTest {
+
+    private static PriceSeries walk(int points, long seed) {
+        PriceSeries series = new PriceSeries("SIM_AAPL", 4);
+        SplittableRandom random = new SplittableRandom(seed);
+        double close = 100;
+        for (int i = 0; i < points; i++) {
+            series.append(18_000 + i, close);
+            close *= Math.exp(random.nextGaussian() * 0.02);
+        }
+        return series;
+    }
+
+    // Two-pass reference over the closes of the view
+    private static void assertMatchesDirect(PriceView view, ReturnStats stats) {
+        int n = view.size() - 1;
+        assertEquals(Math.max(n, 0), stats.count());
+        if (n < 1) {
+            return;
+        }
+        double logMean = 0;
+        double simpleMean = 0;
+        for (int i = 1; i <= n; i++) {
+            logMean += Math.log(view.close(i) / view.close(i - 1));
+            simpleMean += view.close(i) / view.close(i - 1) - 1;
+        }
+        logMean /= n;
+        simpleMean /= n;
+        double logVar = 0;
+        double simpleVar = 0;
+        for (int i = 1; i <= n; i++) {
+            logVar += Math.pow(Math.log(view.close(i) / view.close(i - 1)) - logMean, 2);
+            simpleVar += Math.pow(view.close(i) / view.close(i - 1) - 1 - simpleMean, 2);
+        }
+        assertEquals(logMean, stats.meanLogReturn(), 1e-12);
+        assertEquals(simpleMean, stats.meanSimpleReturn(), 1e-12);
+        if (n > 1) {
+            assertEquals(logVar / (n - 1), stats.logReturnVariance(), 1e-10);
+            assertEquals(simpleVar / (n - 1), stats.simpleReturnVariance(), 1e-10);
+        }
+    }
+
+    @Test
+    void testWindowStatsMatchDirectComputation() {
+        PriceSeries series = walk(500, 3);
+        PriceView view = series.view();
+
+        assertMatchesDirect(view, view.returnStats());
+        assertMatchesDirect(view.slice(18_100, 18_199), view.slice(18_100, 18_199).returnStats());
+        assertMatchesDirect(view.slice(18_250, 18_251), view.slice(18_250, 18_251).returnStats());
+        assertEquals(ReturnStats.EMPTY, view.slice(18_300, 18_300).returnStats());
+    }
+
+    @Test
+    void testAppendsExtendBuiltReturns() {
+        PriceSeries series = walk(10, 5);
+        assertFalse(series.hasReturns());
+        ReturnSeries returns = series.returns();
+        long before = series.estimatedBytes();
+
+        series.append(18_010, 110.0);
+        series.append(18_011, 121.0);
+
+        assertSame(returns, series.returns());
+        assertEquals(12, returns.size());
+        assertEquals(0.1, returns.simpleReturn(11), 1e-12);
+        assertEquals(Math.log(1.1), returns.logReturn(11), 1e-12);
+        assertMatchesDirect(series.view(), series.view().returnStats());
+        assertTrue(series.estimatedBytes() >= before);
+    }
+
+    @Test
+    void testUpdateLastRevisesNewestReturn() {
+        PriceSeries series = walk(10, 7);
+        ReturnSeries returns = series.returns();
+
+        series.updateLast(series.view().close(8) * 1.2);
+        series.append(18_010, series.view().close(9) * 1.1);
+
+        assertSame(returns, series.returns());
+        assertEquals(0.2, returns.simpleReturn(9), 1e-12);
+        assertEquals(0.1, returns.simpleReturn(10), 1e-12);
+        assertMatchesDirect(series.view(), series.view().returnStats());
+    }
+
+    @Test
+    void testAnnualizedReturnIsCompoundGrowth() {
+        PriceSeries series = new PriceSeries("SIM_MSFT");
+        series.append(0, 100.0);
+        series.append(1, 110.0);
+        series.append(2, 121.0);
+
+        ReturnStats stats = series.view().returnStats();
+        assertEquals(0.21, stats.annualizedReturn(2), 1e-12);
+        assertEquals(Math.pow(1.1, ReturnStats.TRADING_DAYS) - 1, stats.annualizedReturn(ReturnStats.TRADING_DAYS),
+            1e-12 * Math.pow(1.1, ReturnStats.TRADING_DAYS));
+        assertEquals(0.0, stats.logReturnVariance(), 1e-15);
+    }
+
+    @Test
+    void testNonPositiveCloseRecordsZeroReturn() {
+        PriceSeries series = new PriceSeries("SIM_BAD");
+        series.append(0, 10.0);
+        series.append(1, 0.0);
+        series.append(2, 12.0);
+
+        ReturnSeries returns = series.returns();
+        assertEquals(0.0, returns.logReturn(1));
+        assertEquals(0.0, returns.simpleReturn(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> returns.logReturn(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> returns.stats(0, 4));
+    }
+}
@@ -0,0 +1,107 @@
+package com.quantumfpo.stocks.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SymbolDictionaryTest {
+
+    private final SymbolDictionary dictionary = new SymbolDictionary();
+
+    @Test
+    void testIdsAreDenseInFirstSeenOrder() {
+        assertEquals(0, dictionary.id("AAPL"));
+        assertEquals(1, dictionary.id("MSFT"));
+        assertEquals(0, dictionary.id("AAPL"));
+        assertEquals(2, dictionary.id("GOOG"));
+
+        assertEquals(3, dictionary.size());
+        assertEquals("MSFT", dictionary.symbol(1));
+    }
+
+    @Test
+    void testFindDoesNotAssign() {
+        assertEquals(-1, dictionary.find("AAPL"));
+        assertEquals(0, dictionary.size());
+
+        dictionary.id("AAPL");
+        assertEquals(0, dictionary.find("AAPL"));
+    }
+
+    @Test
+    void testIdsOfCollectionKeepOrderAndRepeats() {
+        int[] ids = dictionary.ids(List.of("B", "A", "B"));
+
+        assertArrayEquals(new int[]{0, 1, 0}, ids);
+    }
+
+    @Test
+    void testUnknownIdRejected() {
+        dictionary.id("AAPL");
+
+        assertThrows(IndexOutOfBoundsException.class, () -> dictionary.symbol(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> dictionary.symbol(-1));
+    }
+
+    @Test
+    void testFullDictionaryRejectsNewSymbols() {
+        SymbolDictionary small = new SymbolDictionary(2);
+        small.id("A");
+        small.id("B");
+
+        assertThrows(IllegalStateException.class, () -> small.id("C"));
+        assertEquals(1, small.id("B"));
+        assertEquals(-1, small.find("C"));
+        assertEquals(2, small.size());
+    }
+
+    @Test
+    void testGrowsPastInitialCapacity() {
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, dictionary.id("S" + i));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("S" + i, dictionary.symbol(i));
+        }
+    }
+
+    @Test
+    void testConcurrentInterningAssignsEachSymbolOnce() throws Exception {
+        int threads = 8;
+        int symbols = 2000;
+        List<Future<int[]>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                int offset = t;
+                results.add(executor.submit(() -> {
+                    int[] ids = new int[symbols];
+                    // Each thread walks the symbols from a different starting point
+                    for (int i = 0; i < symbols; i++) {
+                        int s = (i + offset * 97) % symbols;
+                        ids[s] = dictionary.id("S" + s);
+                    }
+                    return ids;
+                }));
+            }
+        }
+
+        int[] first = results.get(0).get();
+        for (Future<int[]> result : results) {
+            assertArrayEquals(first, result.get());
+        }
+        Set<Integer> distinct = new HashSet<>();
+        for (int s = 0; s < symbols; s++) {
+            assertTrue(distinct.add(first[s]));
+            assertEquals("S" + s, dictionary.symbol(first[s]));
+        }
+        assertEquals(symbols, dictionary.size());
+    }
+}
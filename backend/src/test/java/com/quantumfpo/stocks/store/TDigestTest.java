@@ -0,0 +1,98 @@
+package com.quantumfpo.stocks.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TDigestTest {
+
+    private static double[] gaussians(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = random.nextGaussian();
+        }
+        return values;
+    }
+
+    @Test
+    void testTailQuantilesAndMeansTrackExactOnes() {
+        double[] values = gaussians(200_000, 1);
+        TDigest digest = new TDigest(200);
+        for (double v : values) {
+            digest.add(v);
+        }
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+
+        assertEquals(200_000, digest.count(), 0.0);
+        assertTrue(digest.centroidCount() <= 200, digest.toString());
+        assertEquals(sorted[0], digest.min(), 0.0);
+        assertEquals(sorted[sorted.length - 1], digest.max(), 0.0);
+        for (double q : new double[]{0.001, 0.01, 0.05, 0.5, 0.95, 0.99}) {
+            // Judged by rank: far in the tails neighbouring values are too sparse for a fixed value tolerance
+            int rank = Arrays.binarySearch(sorted, digest.quantile(q));
+            rank = rank < 0 ? -rank - 1 : rank;
+            assertEquals(q, rank / (double) sorted.length, 0.0005, "quantile " + q);
+        }
+        double tailSum = 0;
+        int tail = sorted.length / 20;
+        for (int i = 0; i < tail; i++) {
+            tailSum += sorted[i];
+        }
+        assertEquals(tailSum / tail, digest.lowerTailMean(0.05), 0.005);
+    }
+
+    @Test
+    void testMergedPartsMatchOneDigestOfTheWhole() {
+        double[] values = gaussians(80_000, 2);
+        TDigest whole = new TDigest(100);
+        TDigest merged = new TDigest(100);
+        for (int part = 0; part < 8; part++) {
+            TDigest partial = new TDigest(100);
+            for (int i = part * 10_000; i < (part + 1) * 10_000; i++) {
+                partial.add(values[i]);
+                whole.add(values[i]);
+            }
+            merged.merge(partial);
+        }
+
+        assertEquals(whole.count(), merged.count(), 0.0);
+        assertEquals(whole.min(), merged.min(), 0.0);
+        assertEquals(whole.max(), merged.max(), 0.0);
+        for (double q : new double[]{0.01, 0.05, 0.25, 0.5, 0.75, 0.99}) {
+            assertEquals(whole.quantile(q), merged.quantile(q), 0.02, "quantile " + q);
+        }
+        assertEquals(whole.lowerTailMean(0.05), merged.lowerTailMean(0.05), 0.01);
+    }
+
+    @Test
+    void testSmallStreamsAreExact() {
+        TDigest digest = new TDigest(100);
+        for (int v = 10; v >= 1; v--) {
+            digest.add(v);
+        }
+
+        assertEquals(1, digest.quantile(0), 0.0);
+        assertEquals(1, digest.quantile(0.05), 0.0);
+        assertEquals(3, digest.quantile(0.25), 0.0);
+        assertEquals(10, digest.quantile(1), 0.0);
+        assertEquals(1.5, digest.lowerTailMean(0.2), 1e-12);
+        assertEquals(5.5, digest.lowerTailMean(1), 1e-12);
+    }
+
+    @Test
+    void testRejectsInvalidInput() {
+        TDigest digest = new TDigest(100);
+
+        assertTrue(Double.isNaN(digest.quantile(0.5)));
+        assertThrows(IllegalArgumentException.class, () -> digest.add(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> digest.quantile(1.5));
+        assertThrows(IllegalArgumentException.class, () -> digest.lowerTailMean(0));
+        assertThrows(IllegalArgumentException.class, () -> digest.merge(digest));
+        assertThrows(IllegalArgumentException.class, () -> new TDigest(5));
+    }
+}
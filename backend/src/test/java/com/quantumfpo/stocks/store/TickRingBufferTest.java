@@ -0,0 +1,122 @@
+package com.quantumfpo.stocks.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TickRingBufferTest {
+
+    @Test
+    void testCapacityRoundedUpToPowerOfTwo() {
+        assertEquals(1, new TickRingBuffer(1).capacity());
+        assertEquals(8, new TickRingBuffer(5).capacity());
+        assertEquals(1024, new TickRingBuffer(1024).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new TickRingBuffer(0));
+    }
+
+    @Test
+    void testDrainsInPublishOrder() {
+        TickRingBuffer ring = new TickRingBuffer(8);
+        ring.offer(1, 100L, 10.0, 5);
+        ring.offer(2, 200L, 20.0, 6);
+        List<String> seen = new ArrayList<>();
+
+        int drained = ring.drain((id, ts, price, size) -> seen.add(id + ":" + ts + ":" + price + ":" + size), 10);
+
+        assertEquals(2, drained);
+        assertEquals(List.of("1:100:10.0:5", "2:200:20.0:6"), seen);
+        assertEquals(0, ring.size());
+    }
+
+    @Test
+    void testFullRingRejectsUntilDrained() {
+        TickRingBuffer ring = new TickRingBuffer(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.offer(i, i, 1.0, 0));
+        }
+        assertFalse(ring.offer(9, 9, 1.0, 0));
+
+        assertEquals(2, ring.drain((id, ts, price, size) -> { }, 2));
+        assertTrue(ring.offer(4, 4, 1.0, 0));
+        assertTrue(ring.offer(5, 5, 1.0, 0));
+        assertFalse(ring.offer(6, 6, 1.0, 0));
+
+        List<Integer> ids = new ArrayList<>();
+        ring.drain((id, ts, price, size) -> ids.add(id), 10);
+        assertEquals(List.of(2, 3, 4, 5), ids);
+    }
+
+    @Test
+    void testThrowingHandlerConsumesTicksHandedSoFar() {
+        TickRingBuffer ring = new TickRingBuffer(4);
+        for (int i = 0; i < 4; i++) {
+            ring.offer(i, i, 1.0, 0);
+        }
+        List<Integer> ids = new ArrayList<>();
+
+        assertThrows(IllegalStateException.class, () -> ring.drain((id, ts, price, size) -> {
+            ids.add(id);
+            if (id == 1) {
+                throw new IllegalStateException("write failed");
+            }
+        }, 10));
+
+        assertEquals(2, ring.size());
+        assertEquals(2, ring.drain((id, ts, price, size) -> ids.add(id), 10));
+        assertEquals(List.of(0, 1, 2, 3), ids);
+    }
+
+    @Test
+    void testConcurrentProducersLoseNothing() throws Exception {
+        int producers = 4;
+        int perProducer = 50_000;
+        TickRingBuffer ring = new TickRingBuffer(1024);
+        long[] lastSeen = new long[producers];
+        Arrays.fill(lastSeen, -1);
+        long[] count = new long[1];
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(producers)) {
+            for (int p = 0; p < producers; p++) {
+                int producer = p;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (long i = 0; i < perProducer; i++) {
+                        while (!ring.offer(producer, i, 1.0, 1)) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (count[0] < (long) producers * perProducer && System.nanoTime() < deadline) {
+                ring.drain((id, ts, price, size) -> {
+                    // Each producer's ticks must come out in the order it published them
+                    assertEquals(lastSeen[id] + 1, ts);
+                    lastSeen[id] = ts;
+                    count[0]++;
+                }, 256);
+            }
+            for (Future<?> f : futures) {
+                f.get(30, TimeUnit.SECONDS);
+            }
+        }
+
+        assertEquals((long) producers * perProducer, count[0]);
+        for (long last : lastSeen) {
+            assertEquals(perProducer - 1, last);
+        }
+    }
+}
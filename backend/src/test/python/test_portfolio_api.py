@@ -82,6 +82,46 @@ class TestClassicalOptimizationEndpoint:
             assert data["weights"]["AAPL"] == 0.6
             assert data["weights"]["GOOGL"] == 0.4
 
+    def test_classical_optimization_price_matrix(self):
+        """Test that an aligned price matrix reaches the optimizer as a dates x symbols frame, unpivoted."""
+        request_data = {
+            "price_matrix": {
+                "dates": ["2025-09-01", "2025-09-02", "2025-09-03"],
+                "symbols": ["AAPL", "GOOGL"],
+                "values": [[150.0, 2800.0], [152.0, 2820.0], [151.0, 2810.0]]
+            },
+            "var_percent": 0.05
+        }
+        with patch('portfolio_api.classic_optimize') as mock_optimize:
+            mock_optimize.return_value = {
+                "weights": {"AAPL": 0.6, "GOOGL": 0.4},
+                "expected_annual_return": 0.12,
+                "annual_volatility": 0.15,
+                "sharpe_ratio": 0.8,
+                "value_at_risk": 5.0
+            }
+            
+            response = client.post("/api/optimize/classical", json=request_data)
+            assert response.status_code == 200
+            prices = mock_optimize.call_args[0][0]
+            assert list(prices.columns) == ["AAPL", "GOOGL"]
+            assert list(prices.index) == ["2025-09-01", "2025-09-02", "2025-09-03"]
+            assert prices.loc["2025-09-02", "GOOGL"] == 2820.0
+
+    def test_classical_optimization_ragged_price_matrix(self):
+        """Test that a price matrix row of the wrong width is rejected."""
+        request_data = {
+            "price_matrix": {
+                "dates": ["2025-09-01", "2025-09-02"],
+                "symbols": ["AAPL", "GOOGL"],
+                "values": [[150.0, 2800.0], [152.0]]
+            },
+            "var_percent": 0.05
+        }
+        
+        response = client.post("/api/optimize/classical", json=request_data)
+        assert response.status_code == 422
+
     def test_classical_optimization_empty_stock_data(self):
         """Test classical optimization with empty stock data."""
         request_data = {